@@ -0,0 +1,122 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Runs benchmarks with the GC profiler and compares the normalized allocation rate (bytes per operation)
+ * against a baseline file, exiting with a non-zero status when any benchmark allocates more than the tolerance
+ * allows.
+ * <p>
+ * Usage: <code>BenchmarkAllocationCheck &lt;include-regex&gt; &lt;baseline-file&gt; [record]</code>.
+ * With "record" the baseline file is written from the results instead of checked.
+ * The baseline file is a properties file of benchmark name with parameters to bytes per operation.
+ * </p>
+ */
+public class BenchmarkAllocationCheck {
+    private final static String ALLOC_RATE_NORM = "gc.alloc.rate.norm";
+    private final static double TOLERANCE_FACTOR = 1.1;
+    private final static double TOLERANCE_BYTES = 16;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkAllocationCheck <include-regex> <baseline-file> [record]");
+            System.exit(2);
+        }
+        String include = args[0];
+        File baselineFile = new File(args[1]);
+        boolean record = args.length > 2 && args[2].equals("record");
+
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result("jmh-result.json")
+            .build()).run();
+
+        Map<String, Double> allocations = new TreeMap<>();
+        for (RunResult result : results) {
+            Double bytesPerOp = getAllocationNorm(result);
+            if (bytesPerOp != null) {
+                allocations.put(getKey(result.getParams()), bytesPerOp);
+            }
+        }
+
+        if (record) {
+            Properties properties = new Properties();
+            for (Map.Entry<String, Double> entry : allocations.entrySet()) {
+                properties.setProperty(entry.getKey(), String.format(Locale.ROOT, "%.1f", entry.getValue()));
+            }
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(baselineFile), StandardCharsets.UTF_8)) {
+                properties.store(writer, "Allocation baseline in bytes per operation (" + ALLOC_RATE_NORM + ")");
+            }
+            System.out.println("Recorded " + allocations.size() + " allocation baselines to " + baselineFile);
+            return;
+        }
+
+        Properties baseline = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(baselineFile), StandardCharsets.UTF_8)) {
+            baseline.load(reader);
+        }
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : allocations.entrySet()) {
+            String expected = baseline.getProperty(entry.getKey());
+            if (expected == null) {
+                System.out.println("No allocation baseline for " + entry.getKey());
+                continue;
+            }
+            double limit = Double.parseDouble(expected) * TOLERANCE_FACTOR + TOLERANCE_BYTES;
+            if (entry.getValue() > limit) {
+                regressions.add(entry.getKey() + " allocates " + String.format(Locale.ROOT, "%.1f", entry.getValue()) + " bytes/op, baseline " + expected);
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.println("Allocation regressions:");
+            for (String regression : regressions) {
+                System.err.println("  " + regression);
+            }
+            System.exit(1);
+        }
+        System.out.println("No allocation regressions among " + allocations.size() + " benchmarks");
+    }
+
+    private static Double getAllocationNorm(RunResult result) {
+        for (Map.Entry<String, Result> entry : result.getSecondaryResults().entrySet()) {
+            // older JMH versions prefix profiler result labels with a middle dot
+            String label = entry.getKey().startsWith("·") ? entry.getKey().substring(1) : entry.getKey();
+            if (label.equals(ALLOC_RATE_NORM)) {
+                return entry.getValue().getScore();
+            }
+        }
+        return null;
+    }
+
+    private static String getKey(BenchmarkParams params) {
+        StringBuilder key = new StringBuilder(params.getBenchmark());
+        for (String param : params.getParamsKeys()) {
+            key.append(':').append(param).append('=').append(params.getParam(param));
+        }
+        return key.toString();
+    }
+}
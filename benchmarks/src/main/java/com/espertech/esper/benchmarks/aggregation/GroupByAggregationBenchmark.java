@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks.aggregation;
+
+import com.espertech.esper.benchmarks.support.BenchmarkEvent;
+import com.espertech.esper.benchmarks.support.BenchmarkRuntimeSupport;
+import com.espertech.esper.runtime.client.EPEventService;
+import com.espertech.esper.runtime.client.EPRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grouped aggregation with low to high key cardinality, unbound and with a data window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupByAggregationBenchmark {
+    private final static int NUM_EVENTS = 65536;
+
+    @Param({"10", "10000", "1000000"})
+    public int cardinality;
+
+    @Param({"", "#length(10000)"})
+    public String window;
+
+    private EPRuntime runtime;
+    private EPEventService eventService;
+    private BenchmarkEvent[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        runtime = BenchmarkRuntimeSupport.makeRuntime(GroupByAggregationBenchmark.class.getSimpleName(), BenchmarkRuntimeSupport.makeConfiguration());
+        BenchmarkRuntimeSupport.compileDeploy(runtime, "select key, count(*), sum(price), avg(price), max(price) from BenchmarkEvent" + window + " group by key");
+        eventService = runtime.getEventService();
+
+        String[] keys = new String[Math.min(cardinality, NUM_EVENTS)];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "K" + i;
+        }
+        Random random = new Random(1);
+        events = new BenchmarkEvent[NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            int key = random.nextInt(cardinality);
+            events[i] = new BenchmarkEvent(key, key < keys.length ? keys[key] : "K" + key, random.nextInt(1000));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    @Benchmark
+    public void aggregate() {
+        eventService.sendEventBean(events[index++ & (NUM_EVENTS - 1)], "BenchmarkEvent");
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks.event;
+
+import com.espertech.esper.benchmarks.support.BenchmarkEvent;
+import com.espertech.esper.benchmarks.support.BenchmarkRuntimeSupport;
+import com.espertech.esper.runtime.client.EPEventService;
+import com.espertech.esper.runtime.client.EPRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sending Bean, Map, Object-array and JSON events to a single filtered statement,
+ * measuring event wrapping, property access by the filter and routing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventWrappingBenchmark {
+    private final static int NUM_EVENTS = 1024;
+
+    private EPRuntime runtime;
+    private EPEventService eventService;
+    private BenchmarkEvent[] beans;
+    private Map<String, Object>[] maps;
+    private Object[][] objectArrays;
+    private String[] jsons;
+    private int index;
+
+    @Setup
+    public void setup() {
+        runtime = BenchmarkRuntimeSupport.makeRuntime(EventWrappingBenchmark.class.getSimpleName(), BenchmarkRuntimeSupport.makeConfiguration());
+        BenchmarkRuntimeSupport.compileDeploy(runtime,
+            "@public @buseventtype create map schema MapEvent(id int, key string, price double);\n" +
+            "@public @buseventtype create objectarray schema ObjectArrayEvent(id int, key string, price double);\n" +
+            "@public @buseventtype create json schema JsonEvent(id int, key string, price double);\n" +
+            "select * from BenchmarkEvent(id < 0);\n" +
+            "select * from MapEvent(id < 0);\n" +
+            "select * from ObjectArrayEvent(id < 0);\n" +
+            "select * from JsonEvent(id < 0);\n");
+        eventService = runtime.getEventService();
+
+        beans = new BenchmarkEvent[NUM_EVENTS];
+        maps = new Map[NUM_EVENTS];
+        objectArrays = new Object[NUM_EVENTS][];
+        jsons = new String[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            String key = "K" + i;
+            double price = i * 1.5;
+            beans[i] = new BenchmarkEvent(i, key, price);
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", i);
+            map.put("key", key);
+            map.put("price", price);
+            maps[i] = map;
+            objectArrays[i] = new Object[]{i, key, price};
+            jsons[i] = "{\"id\": " + i + ", \"key\": \"" + key + "\", \"price\": " + price + "}";
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    @Benchmark
+    public void sendBean() {
+        eventService.sendEventBean(beans[index++ & (NUM_EVENTS - 1)], "BenchmarkEvent");
+    }
+
+    @Benchmark
+    public void sendMap() {
+        eventService.sendEventMap(maps[index++ & (NUM_EVENTS - 1)], "MapEvent");
+    }
+
+    @Benchmark
+    public void sendObjectArray() {
+        eventService.sendEventObjectArray(objectArrays[index++ & (NUM_EVENTS - 1)], "ObjectArrayEvent");
+    }
+
+    @Benchmark
+    public void sendJson() {
+        eventService.sendEventJson(jsons[index++ & (NUM_EVENTS - 1)], "JsonEvent");
+    }
+}
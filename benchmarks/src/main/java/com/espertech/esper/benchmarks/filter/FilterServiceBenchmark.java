@@ -0,0 +1,134 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks.filter;
+
+import com.espertech.esper.benchmarks.support.BenchmarkEvent;
+import com.espertech.esper.benchmarks.support.BenchmarkRuntimeSupport;
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventPropertyGetter;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.type.EPTypeClass;
+import com.espertech.esper.common.client.util.FilterServiceProfile;
+import com.espertech.esper.common.internal.epl.expression.core.ExprFilterSpecLookupable;
+import com.espertech.esper.common.internal.filterspec.DoubleRange;
+import com.espertech.esper.common.internal.filterspec.FilterOperator;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParamImpl;
+import com.espertech.esper.common.internal.filtersvc.FilterHandle;
+import com.espertech.esper.runtime.client.EPRuntime;
+import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceLockCoarse;
+import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceLockFine;
+import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceLockFree;
+import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceSPI;
+import com.espertech.esper.runtime.internal.kernel.service.EPRuntimeSPI;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter matching of a single event against 1 to 100k filters, for the equals and range operators
+ * and for each filter service locking profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterServiceBenchmark {
+    private final static int NUM_EVENTS = 1024;
+
+    @Param({"1", "100", "10000", "100000"})
+    public int numFilters;
+
+    @Param({"EQUAL", "RANGE_CLOSED"})
+    public FilterOperator filterOperator;
+
+    @Param({"READMOSTLY", "READWRITE", "LOCKFREE"})
+    public FilterServiceProfile profile;
+
+    private EPRuntime runtime;
+    private FilterServiceSPI filterService;
+    private EventBean[] events;
+    private List<FilterHandle> matches;
+    private int index;
+
+    @Setup
+    public void setup() {
+        runtime = BenchmarkRuntimeSupport.makeRuntime(FilterServiceBenchmark.class.getSimpleName(), BenchmarkRuntimeSupport.makeConfiguration());
+        EventType eventType = runtime.getEventTypeService().getEventTypePreconfigured(BenchmarkEvent.class.getSimpleName());
+
+        if (profile == FilterServiceProfile.READWRITE) {
+            filterService = new FilterServiceLockFine(-1);
+        } else if (profile == FilterServiceProfile.LOCKFREE) {
+            filterService = new FilterServiceLockFree(-1);
+        } else {
+            filterService = new FilterServiceLockCoarse(-1);
+        }
+
+        String property = filterOperator == FilterOperator.EQUAL ? "id" : "price";
+        ExprFilterSpecLookupable lookupable = makeLookupable(eventType, property);
+        for (int i = 0; i < numFilters; i++) {
+            Object value = filterOperator == FilterOperator.EQUAL ? (Object) i : new DoubleRange((double) i, i + 10d);
+            FilterValueSetParam[][] valueSet = new FilterValueSetParam[][]{{new FilterValueSetParamImpl(lookupable, filterOperator, value)}};
+            filterService.add(eventType, valueSet, new BenchmarkFilterHandle(i));
+        }
+
+        Random random = new Random(1);
+        events = new EventBean[NUM_EVENTS];
+        EPRuntimeSPI spi = (EPRuntimeSPI) runtime;
+        for (int i = 0; i < events.length; i++) {
+            // about half of the events match a filter
+            int id = random.nextInt(numFilters * 2);
+            BenchmarkEvent event = new BenchmarkEvent(id, "K" + id, id);
+            events[i] = spi.getServicesContext().getEventBeanTypedEventFactory().adapterForTypedBean(event, eventType);
+        }
+        matches = new ArrayList<>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        EventBean event = events[index++ & (NUM_EVENTS - 1)];
+        filterService.evaluate(event, matches, null);
+        blackhole.consume(matches.size());
+        matches.clear();
+    }
+
+    private static ExprFilterSpecLookupable makeLookupable(EventType eventType, String property) {
+        EventPropertyGetter getter = eventType.getGetter(property);
+        return new ExprFilterSpecLookupable(property, (event, ctx) -> getter.get(event), null, (EPTypeClass) eventType.getPropertyEPType(property), false, null);
+    }
+
+    private static class BenchmarkFilterHandle implements FilterHandle {
+        private final int statementId;
+
+        BenchmarkFilterHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+
+        public int getAgentInstanceId() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks.pattern;
+
+import com.espertech.esper.benchmarks.support.BenchmarkEvent;
+import com.espertech.esper.benchmarks.support.BenchmarkRuntimeSupport;
+import com.espertech.esper.runtime.client.EPEventService;
+import com.espertech.esper.runtime.client.EPRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pattern "every A -> B" throughput, with B correlated to A by id so that each A starts a sub-expression
+ * waiting for its own B, and with a given number of outstanding A events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FollowedByPatternBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    public int outstanding;
+
+    private EPRuntime runtime;
+    private EPEventService eventService;
+    private BenchmarkEvent[] eventsA;
+    private BenchmarkEvent[] eventsB;
+    private int index;
+
+    @Setup
+    public void setup() {
+        runtime = BenchmarkRuntimeSupport.makeRuntime(FollowedByPatternBenchmark.class.getSimpleName(), BenchmarkRuntimeSupport.makeConfiguration());
+        BenchmarkRuntimeSupport.compileDeploy(runtime, "select * from pattern [every a=BenchmarkEvent(key='A') -> b=BenchmarkEvent(key='B', id=a.id)]");
+        eventService = runtime.getEventService();
+
+        eventsA = new BenchmarkEvent[outstanding];
+        eventsB = new BenchmarkEvent[outstanding];
+        for (int i = 0; i < outstanding; i++) {
+            eventsA[i] = new BenchmarkEvent(i, "A", i);
+            eventsB[i] = new BenchmarkEvent(i, "B", i);
+            eventService.sendEventBean(eventsA[i], "BenchmarkEvent");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    /**
+     * Completes the oldest outstanding sub-expression and starts a new one.
+     */
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void matchAndRestart() {
+        int num = index++ % outstanding;
+        eventService.sendEventBean(eventsB[num], "BenchmarkEvent");
+        eventService.sendEventBean(eventsA[num], "BenchmarkEvent");
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks.rowrecog;
+
+import com.espertech.esper.benchmarks.support.BenchmarkEvent;
+import com.espertech.esper.benchmarks.support.BenchmarkRuntimeSupport;
+import com.espertech.esper.runtime.client.EPEventService;
+import com.espertech.esper.runtime.client.EPRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Match-recognize NFA steps for a partitioned "A B+ C" pattern, measuring each event as one step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchRecognizeBenchmark {
+    private final static int NUM_EVENTS = 65536;
+
+    @Param({"1", "1000"})
+    public int partitions;
+
+    @Param({"", "#time(10 sec)"})
+    public String window;
+
+    private EPRuntime runtime;
+    private EPEventService eventService;
+    private BenchmarkEvent[] events;
+    private long time;
+    private int index;
+
+    @Setup
+    public void setup() {
+        runtime = BenchmarkRuntimeSupport.makeRuntime(MatchRecognizeBenchmark.class.getSimpleName(), BenchmarkRuntimeSupport.makeConfiguration());
+        BenchmarkRuntimeSupport.compileDeploy(runtime, "select * from BenchmarkEvent" + window + "\n" +
+            "match_recognize (\n" +
+            "  partition by key\n" +
+            "  measures A.id as a, last(B.id) as b, C.id as c\n" +
+            "  pattern (A B+ C)\n" +
+            "  define\n" +
+            "    A as A.price < 100,\n" +
+            "    B as B.price >= 100 and B.price < 900,\n" +
+            "    C as C.price >= 900)");
+        eventService = runtime.getEventService();
+
+        Random random = new Random(1);
+        events = new BenchmarkEvent[NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            int partition = random.nextInt(partitions);
+            events[i] = new BenchmarkEvent(i, "P" + partition, random.nextInt(1000));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    @Benchmark
+    public void step() {
+        eventService.advanceTime(++time);
+        eventService.sendEventBean(events[index++ & (NUM_EVENTS - 1)], "BenchmarkEvent");
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks.schedule;
+
+import com.espertech.esper.common.client.util.SchedulingServiceProfile;
+import com.espertech.esper.common.internal.schedule.ScheduleHandle;
+import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceImpl;
+import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceSPI;
+import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceTimingWheel;
+import com.espertech.esper.runtime.internal.timer.TimeSourceServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule add and evaluate with a steady population of scheduled handles, for each scheduling service profile.
+ * Each operation reschedules one handle and advances time by one millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingServiceBenchmark {
+    private final static int NUM_DELTAS = 4096;
+
+    @Param({"1000", "100000"})
+    public int numHandles;
+
+    @Param({"SORTED", "TIMINGWHEEL"})
+    public SchedulingServiceProfile profile;
+
+    private SchedulingServiceSPI schedulingService;
+    private ScheduleHandle[] handles;
+    private long[] deltas;
+    private List<ScheduleHandle> triggered;
+    private long time;
+    private int index;
+
+    @Setup
+    public void setup() {
+        if (profile == SchedulingServiceProfile.TIMINGWHEEL) {
+            schedulingService = new SchedulingServiceTimingWheel(-1, new TimeSourceServiceImpl(), ZoneId.systemDefault());
+        } else {
+            schedulingService = new SchedulingServiceImpl(-1, new TimeSourceServiceImpl(), ZoneId.systemDefault());
+        }
+        schedulingService.setTime(0);
+
+        Random random = new Random(1);
+        deltas = new long[NUM_DELTAS];
+        for (int i = 0; i < deltas.length; i++) {
+            // mostly short timeouts with some long ones, as with time windows and pattern timers
+            deltas[i] = random.nextInt(10) == 0 ? 1 + random.nextInt(3600000) : 1 + random.nextInt(10000);
+        }
+
+        handles = new ScheduleHandle[numHandles];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new BenchmarkScheduleHandle(i);
+            schedulingService.add(deltas[i & (NUM_DELTAS - 1)], handles[i], i);
+        }
+        triggered = new ArrayList<>();
+    }
+
+    @Benchmark
+    public void addEvaluate(Blackhole blackhole) {
+        int position = index++;
+        int handleNum = position % numHandles;
+        schedulingService.add(deltas[position & (NUM_DELTAS - 1)], handles[handleNum], handleNum);
+
+        schedulingService.setTime(++time);
+        schedulingService.evaluate(triggered);
+        blackhole.consume(triggered.size());
+        for (ScheduleHandle handle : triggered) {
+            int num = ((BenchmarkScheduleHandle) handle).getStatementId();
+            schedulingService.add(deltas[(position + num) & (NUM_DELTAS - 1)], handle, num);
+        }
+        triggered.clear();
+    }
+
+    private static class BenchmarkScheduleHandle implements ScheduleHandle {
+        private final int statementId;
+
+        BenchmarkScheduleHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+
+        public int getAgentInstanceId() {
+            return -1;
+        }
+    }
+}
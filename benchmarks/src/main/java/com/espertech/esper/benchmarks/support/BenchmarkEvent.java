@@ -0,0 +1,38 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks.support;
+
+/**
+ * Event class used by the benchmarks.
+ */
+public class BenchmarkEvent {
+    private final int id;
+    private final String key;
+    private final double price;
+
+    public BenchmarkEvent(int id, String key, double price) {
+        this.id = id;
+        this.key = key;
+        this.price = price;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks.support;
+
+import com.espertech.esper.common.client.EPCompiled;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.compiler.client.CompilerArguments;
+import com.espertech.esper.compiler.client.EPCompileException;
+import com.espertech.esper.compiler.client.EPCompilerProvider;
+import com.espertech.esper.runtime.client.EPDeployException;
+import com.espertech.esper.runtime.client.EPDeployment;
+import com.espertech.esper.runtime.client.EPRuntime;
+import com.espertech.esper.runtime.client.EPRuntimeProvider;
+
+/**
+ * Helpers for obtaining a runtime and deploying EPL for benchmarks.
+ */
+public class BenchmarkRuntimeSupport {
+
+    /**
+     * Returns a configuration with the benchmark event type and with the internal timer disabled,
+     * so that benchmarks control time.
+     *
+     * @return configuration
+     */
+    public static Configuration makeConfiguration() {
+        Configuration configuration = new Configuration();
+        configuration.getCommon().addEventType(BenchmarkEvent.class);
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        return configuration;
+    }
+
+    /**
+     * Obtains a fresh runtime for the configuration, destroying a prior runtime of the same URI.
+     *
+     * @param uri           runtime URI
+     * @param configuration configuration
+     * @return runtime
+     */
+    public static EPRuntime makeRuntime(String uri, Configuration configuration) {
+        EPRuntime runtime = EPRuntimeProvider.getRuntime(uri, configuration);
+        runtime.initialize();
+        runtime.getEventService().advanceTime(0);
+        return runtime;
+    }
+
+    /**
+     * Compiles and deploys the EPL module.
+     *
+     * @param runtime runtime
+     * @param epl     module text
+     * @return deployment
+     */
+    public static EPDeployment compileDeploy(EPRuntime runtime, String epl) {
+        CompilerArguments args = new CompilerArguments(runtime.getConfigurationDeepCopy());
+        args.getPath().add(runtime.getRuntimePath());
+        try {
+            EPCompiled compiled = EPCompilerProvider.getCompiler().compile(epl, args);
+            return runtime.getDeploymentService().deploy(compiled);
+        } catch (EPCompileException | EPDeployException ex) {
+            throw new RuntimeException("Failed to compile and deploy: " + ex.getMessage(), ex);
+        }
+    }
+}
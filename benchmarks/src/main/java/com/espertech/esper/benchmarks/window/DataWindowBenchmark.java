@@ -0,0 +1,63 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks.window;
+
+import com.espertech.esper.benchmarks.support.BenchmarkEvent;
+import com.espertech.esper.benchmarks.support.BenchmarkRuntimeSupport;
+import com.espertech.esper.runtime.client.EPEventService;
+import com.espertech.esper.runtime.client.EPRuntime;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and length window update through the runtime, with one event per millisecond of time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataWindowBenchmark {
+    private final static int NUM_EVENTS = 1024;
+
+    @Param({"#length(1000)", "#length(100000)", "#time(1 sec)", "#time(100 sec)", "#length_batch(1000)", "#time_batch(1 sec)"})
+    public String window;
+
+    private EPRuntime runtime;
+    private EPEventService eventService;
+    private BenchmarkEvent[] events;
+    private long time;
+    private int index;
+
+    @Setup
+    public void setup() {
+        runtime = BenchmarkRuntimeSupport.makeRuntime(DataWindowBenchmark.class.getSimpleName(), BenchmarkRuntimeSupport.makeConfiguration());
+        BenchmarkRuntimeSupport.compileDeploy(runtime, "select count(*) from BenchmarkEvent" + window);
+        eventService = runtime.getEventService();
+        events = new BenchmarkEvent[NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new BenchmarkEvent(i, "K" + i, i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    @Benchmark
+    public void update() {
+        eventService.advanceTime(++time);
+        eventService.sendEventBean(events[index++ & (NUM_EVENTS - 1)], "BenchmarkEvent");
+    }
+}
@@ -118,6 +118,31 @@ public enum HintEnum {
      */
     DISABLE_OUTPUTLIMIT_OPT("DISABLE_OUTPUTLIMIT_OPT", false, false, false),
 
+    /**
+     * For use with create-window to store named window rows serialized in direct memory.
+     */
+    OFF_HEAP("OFF_HEAP", false, false, false),
+
+    /**
+     * For use with group-by to keep per-group aggregation state in a compact open-addressing map.
+     */
+    COMPACT_GROUP_STATE("COMPACT_GROUP_STATE", false, false, false),
+
+    /**
+     * For use with fire-and-forget queries to snapshot context partitions in parallel.
+     */
+    PARALLEL_SCAN("PARALLEL_SCAN", false, false, false),
+
+    /**
+     * For use with create-window to let fire-and-forget queries create and drop indexes based on observed lookups.
+     */
+    ADAPTIVE_INDEX("ADAPTIVE_INDEX", false, false, false),
+
+    /**
+     * For use with patterns to correlate followed-by filters on a prior-tagged event property through a shared hash index.
+     */
+    PATTERN_CORRELATION_INDEX("PATTERN_CORRELATION_INDEX", false, false, false),
+
     /**
      * For use with named window to silent-delete.
      */
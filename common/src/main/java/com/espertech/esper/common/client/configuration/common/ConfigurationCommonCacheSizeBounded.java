@@ -0,0 +1,68 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.configuration.common;
+
+import java.io.Serializable;
+
+/**
+ * Size-bounded cache settings: the cache is bounded by the estimated size in bytes of the cached rows,
+ * admits entries by access frequency and may refresh entries ahead of expiry.
+ */
+public class ConfigurationCommonCacheSizeBounded implements ConfigurationCommonCache, Serializable {
+    private long maxSizeBytes;
+    private double maxAgeSeconds;
+    private double refreshAheadSeconds;
+    private static final long serialVersionUID = -6064335120934287601L;
+
+    /**
+     * Ctor.
+     *
+     * @param maxSizeBytes        is the maximum estimated size in bytes of all cached entries
+     * @param maxAgeSeconds       is the maximum age in seconds, or zero for entries that do not expire
+     * @param refreshAheadSeconds is the number of seconds before expiry when an access refreshes an entry asynchronously, or zero for no refresh-ahead
+     */
+    public ConfigurationCommonCacheSizeBounded(long maxSizeBytes, double maxAgeSeconds, double refreshAheadSeconds) {
+        this.maxSizeBytes = maxSizeBytes;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.refreshAheadSeconds = refreshAheadSeconds;
+    }
+
+    /**
+     * Returns the maximum estimated size in bytes.
+     *
+     * @return max size in bytes
+     */
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    /**
+     * Returns the maximum age in seconds, or zero for entries that do not expire.
+     *
+     * @return number of seconds
+     */
+    public double getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * Returns the number of seconds before expiry when an access refreshes an entry asynchronously, or zero for no refresh-ahead.
+     *
+     * @return number of seconds
+     */
+    public double getRefreshAheadSeconds() {
+        return refreshAheadSeconds;
+    }
+
+    public String toString() {
+        return "SizeBoundedCacheDesc maxSizeBytes=" + maxSizeBytes + " maxAgeSeconds=" + maxAgeSeconds + " refreshAheadSeconds=" + refreshAheadSeconds;
+    }
+}
@@ -32,6 +32,7 @@ public class ConfigurationCommonDBRef implements Serializable {
     private ConnectionSettings connectionSettings;
     private ConnectionLifecycleEnum connectionLifecycleEnum;
     private ConfigurationCommonCache dataCacheDesc;
+    private ConfigurationCommonLookupBatch lookupBatchDesc;
     private MetadataOriginEnum metadataOrigin;
     private ColumnChangeCaseEnum columnChangeCase;
     private Map<Integer, String> sqlTypesMapping;
@@ -224,6 +225,19 @@ public class ConfigurationCommonDBRef implements Serializable {
         dataCacheDesc = new ConfigurationCommonCacheExpiryTime(maxAgeSeconds, purgeIntervalSeconds, cacheReferenceType);
     }
 
+    /**
+     * Configures a cache bounded by the estimated size in bytes of the cached query results. Entries are admitted
+     * by access frequency, expire after the given maximum age and, when accessed within the refresh-ahead seconds before expiry,
+     * are refreshed asynchronously while the current entry continues to be served.
+     *
+     * @param maxSizeBytes        is the maximum estimated size in bytes of all cached entries
+     * @param maxAgeSeconds       is the maximum age in seconds, or zero for entries that do not expire
+     * @param refreshAheadSeconds is the number of seconds before expiry at which an access refreshes the entry, or zero for no refresh-ahead
+     */
+    public void setSizeBoundedCache(long maxSizeBytes, double maxAgeSeconds, double refreshAheadSeconds) {
+        dataCacheDesc = new ConfigurationCommonCacheSizeBounded(maxSizeBytes, maxAgeSeconds, refreshAheadSeconds);
+    }
+
     /**
      * Return a query result data cache descriptor.
      *
@@ -233,6 +247,25 @@ public class ConfigurationCommonDBRef implements Serializable {
         return dataCacheDesc;
     }
 
+    /**
+     * Configures batching of lookups: the distinct lookup keys of all triggering events of a join evaluation
+     * are polled once each, concurrently when the number of threads is positive.
+     *
+     * @param numThreads number of threads for concurrent polling, or zero for polling in the calling thread
+     */
+    public void setLookupBatch(int numThreads) {
+        lookupBatchDesc = new ConfigurationCommonLookupBatch(numThreads);
+    }
+
+    /**
+     * Returns the lookup batching descriptor, or null if lookups are not batched.
+     *
+     * @return lookup batching descriptor
+     */
+    public ConfigurationCommonLookupBatch getLookupBatchDesc() {
+        return lookupBatchDesc;
+    }
+
     /**
      * Returns an enumeration indicating how the runtime retrieves metadata about the columns
      * that a given SQL query returns.
@@ -0,0 +1,67 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.configuration.common;
+
+import java.io.Serializable;
+
+/**
+ * Configuration for batching lookups of a historical data source (database or method invocation) in the from-clause.
+ * <p>
+ * When batching is configured, the runtime collects the lookup keys of all triggering events of a join evaluation,
+ * resolves them against the cache and polls each distinct missing key once. When the number of threads is positive
+ * the distinct keys are polled concurrently and the results are reassembled in the order of the triggering events.
+ * Concurrent polling requires, for databases, a pooled connection lifecycle. For method invocations concurrent polling is opt-in:
+ * the application must declare the invoked methods as thread-safe, else the distinct keys are polled in the calling thread.
+ */
+public class ConfigurationCommonLookupBatch implements Serializable {
+    private static final long serialVersionUID = -1630467553409836578L;
+    private final int numThreads;
+    private final boolean threadSafe;
+
+    /**
+     * Ctor.
+     *
+     * @param numThreads number of threads for polling distinct keys concurrently, or zero for polling in the calling thread
+     */
+    public ConfigurationCommonLookupBatch(int numThreads) {
+        this(numThreads, false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param numThreads number of threads for polling distinct keys concurrently, or zero for polling in the calling thread
+     * @param threadSafe indicator whether the invoked methods are thread-safe and may be polled concurrently
+     */
+    public ConfigurationCommonLookupBatch(int numThreads, boolean threadSafe) {
+        this.numThreads = numThreads;
+        this.threadSafe = threadSafe;
+    }
+
+    /**
+     * Returns the number of threads for polling distinct keys concurrently, or zero for polling in the calling thread.
+     *
+     * @return number of threads
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Returns indicator whether the invoked methods are thread-safe and may be polled concurrently;
+     * applies to method invocations only.
+     *
+     * @return thread-safe indicator
+     */
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+}
@@ -19,6 +19,7 @@ import java.io.Serializable;
  */
 public class ConfigurationCommonMethodRef implements Serializable {
     private ConfigurationCommonCache dataCacheDesc;
+    private ConfigurationCommonLookupBatch lookupBatchDesc;
     private static final long serialVersionUID = -9178934436665140004L;
 
     /**
@@ -55,6 +56,19 @@ public class ConfigurationCommonMethodRef implements Serializable {
         dataCacheDesc = new ConfigurationCommonCacheExpiryTime(maxAgeSeconds, purgeIntervalSeconds, cacheReferenceType);
     }
 
+    /**
+     * Configures a cache bounded by the estimated size in bytes of the cached method invocation results. Entries are admitted
+     * by access frequency, expire after the given maximum age and, when accessed within the refresh-ahead seconds before expiry,
+     * are refreshed asynchronously while the current entry continues to be served.
+     *
+     * @param maxSizeBytes        is the maximum estimated size in bytes of all cached entries
+     * @param maxAgeSeconds       is the maximum age in seconds, or zero for entries that do not expire
+     * @param refreshAheadSeconds is the number of seconds before expiry at which an access refreshes the entry, or zero for no refresh-ahead
+     */
+    public void setSizeBoundedCache(long maxSizeBytes, double maxAgeSeconds, double refreshAheadSeconds) {
+        dataCacheDesc = new ConfigurationCommonCacheSizeBounded(maxSizeBytes, maxAgeSeconds, refreshAheadSeconds);
+    }
+
     /**
      * Return a method invocation result data cache descriptor.
      *
@@ -63,4 +77,34 @@ public class ConfigurationCommonMethodRef implements Serializable {
     public ConfigurationCommonCache getDataCacheDesc() {
         return dataCacheDesc;
     }
+
+    /**
+     * Configures batching of lookups: the distinct lookup keys of all triggering events of a join evaluation
+     * are polled once each, in the calling thread.
+     *
+     * @param numThreads number of threads for concurrent polling, which requires thread-safe methods, or zero for polling in the calling thread
+     */
+    public void setLookupBatch(int numThreads) {
+        lookupBatchDesc = new ConfigurationCommonLookupBatch(numThreads, false);
+    }
+
+    /**
+     * Configures batching of lookups: the distinct lookup keys of all triggering events of a join evaluation
+     * are polled once each, concurrently when the number of threads is positive and the methods are declared thread-safe.
+     *
+     * @param numThreads number of threads for concurrent polling, or zero for polling in the calling thread
+     * @param threadSafe indicator that the methods of the class are thread-safe, required for concurrent polling
+     */
+    public void setLookupBatch(int numThreads, boolean threadSafe) {
+        lookupBatchDesc = new ConfigurationCommonLookupBatch(numThreads, threadSafe);
+    }
+
+    /**
+     * Returns the lookup batching descriptor, or null if lookups are not batched.
+     *
+     * @return lookup batching descriptor
+     */
+    public ConfigurationCommonLookupBatch getLookupBatchDesc() {
+        return lookupBatchDesc;
+    }
 }
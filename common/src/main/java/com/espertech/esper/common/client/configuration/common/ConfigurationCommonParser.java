@@ -221,6 +221,14 @@ public class ConfigurationCommonParser {
             } else if (subElement.getNodeName().equals("lru-cache")) {
                 String size = getRequiredAttribute(subElement, "size");
                 configDBRef.setLRUCache(Integer.parseInt(size));
+            } else if (subElement.getNodeName().equals("size-bounded-cache")) {
+                String maxSizeBytes = getRequiredAttribute(subElement, "max-size-bytes");
+                String maxAge = getOptionalAttribute(subElement, "max-age-seconds");
+                String refreshAhead = getOptionalAttribute(subElement, "refresh-ahead-seconds");
+                configDBRef.setSizeBoundedCache(Long.parseLong(maxSizeBytes), maxAge == null ? 0 : Double.parseDouble(maxAge), refreshAhead == null ? 0 : Double.parseDouble(refreshAhead));
+            } else if (subElement.getNodeName().equals("lookup-batch")) {
+                String threads = getOptionalAttribute(subElement, "threads");
+                configDBRef.setLookupBatch(threads == null ? 0 : Integer.parseInt(threads));
             }
         }
     }
@@ -517,6 +525,15 @@ public class ConfigurationCommonParser {
             } else if (subElement.getNodeName().equals("lru-cache")) {
                 String size = getRequiredAttribute(subElement, "size");
                 configMethodRef.setLRUCache(Integer.parseInt(size));
+            } else if (subElement.getNodeName().equals("size-bounded-cache")) {
+                String maxSizeBytes = getRequiredAttribute(subElement, "max-size-bytes");
+                String maxAge = getOptionalAttribute(subElement, "max-age-seconds");
+                String refreshAhead = getOptionalAttribute(subElement, "refresh-ahead-seconds");
+                configMethodRef.setSizeBoundedCache(Long.parseLong(maxSizeBytes), maxAge == null ? 0 : Double.parseDouble(maxAge), refreshAhead == null ? 0 : Double.parseDouble(refreshAhead));
+            } else if (subElement.getNodeName().equals("lookup-batch")) {
+                String threads = getOptionalAttribute(subElement, "threads");
+                String threadSafe = getOptionalAttribute(subElement, "thread-safe");
+                configMethodRef.setLookupBatch(threads == null ? 0 : Integer.parseInt(threads), threadSafe != null && Boolean.parseBoolean(threadSafe));
             }
         }
     }
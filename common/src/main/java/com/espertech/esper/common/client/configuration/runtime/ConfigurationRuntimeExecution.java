@@ -11,6 +11,7 @@
 package com.espertech.esper.common.client.configuration.runtime;
 
 import com.espertech.esper.common.client.util.FilterServiceProfile;
+import com.espertech.esper.common.client.util.SchedulingServiceProfile;
 
 import java.io.Serializable;
 
@@ -25,6 +26,7 @@ public class ConfigurationRuntimeExecution implements Serializable {
     private boolean fairlock;
     private boolean disableLocking;
     private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
+    private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
     private int declaredExprValueCacheSize = 1;
 
     /**
@@ -113,6 +115,24 @@ public class ConfigurationRuntimeExecution implements Serializable {
         this.filterServiceProfile = filterServiceProfile;
     }
 
+    /**
+     * Returns the scheduling service profile for tuning schedule operations.
+     *
+     * @return scheduling service profile
+     */
+    public SchedulingServiceProfile getSchedulingServiceProfile() {
+        return schedulingServiceProfile;
+    }
+
+    /**
+     * Set the scheduling service profile for tuning schedule operations.
+     *
+     * @param schedulingServiceProfile scheduling service profile
+     */
+    public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+        this.schedulingServiceProfile = schedulingServiceProfile;
+    }
+
     /**
      * Returns the cache size for declared expression values
      *
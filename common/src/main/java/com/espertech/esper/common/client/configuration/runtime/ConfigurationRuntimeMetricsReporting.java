@@ -28,6 +28,7 @@ import java.util.Map;
 public class ConfigurationRuntimeMetricsReporting implements Serializable {
     private boolean jmxRuntimeMetrics;
     private boolean enableMetricsReporting;
+    private boolean enableLatencyHistograms;
     private boolean isThreading;
     private long runtimeInterval;
     private long statementInterval;
@@ -40,6 +41,7 @@ public class ConfigurationRuntimeMetricsReporting implements Serializable {
     public ConfigurationRuntimeMetricsReporting() {
         jmxRuntimeMetrics = false;
         enableMetricsReporting = false;
+        enableLatencyHistograms = false;
         isThreading = true;
         runtimeInterval = 10 * 1000; // 10 seconds
         statementInterval = 10 * 1000;
@@ -78,6 +80,25 @@ public class ConfigurationRuntimeMetricsReporting implements Serializable {
         this.enableMetricsReporting = enableMetricsReporting;
     }
 
+    /**
+     * Returns true if statement and runtime metrics carry latency histograms, false if not (the default).
+     *
+     * @return indicator whether latency histograms are recorded
+     */
+    public boolean isEnableLatencyHistograms() {
+        return enableLatencyHistograms;
+    }
+
+    /**
+     * Set to true to record latency histograms for statement processing and listener dispatch per statement,
+     * and for filter matching per runtime. Requires metrics reporting to be enabled.
+     *
+     * @param enableLatencyHistograms indicator whether latency histograms are recorded
+     */
+    public void setEnableLatencyHistograms(boolean enableLatencyHistograms) {
+        this.enableLatencyHistograms = enableLatencyHistograms;
+    }
+
     /**
      * Returns true to indicate that metrics reporting takes place in a separate thread (default),
      * or false to indicate that metrics reporting takes place as part of timer processing.
@@ -12,8 +12,10 @@ package com.espertech.esper.common.client.configuration.runtime;
 
 import com.espertech.esper.common.client.configuration.ConfigurationException;
 import com.espertech.esper.common.client.util.FilterServiceProfile;
+import com.espertech.esper.common.client.util.SchedulingServiceProfile;
 import com.espertech.esper.common.client.util.Locking;
 import com.espertech.esper.common.client.util.TimeSourceType;
+import com.espertech.esper.common.client.util.ThreadPoolWaitStrategy;
 import com.espertech.esper.common.client.util.UndeployRethrowPolicy;
 import com.espertech.esper.common.internal.collection.Pair;
 import com.espertech.esper.common.internal.type.StringPatternSet;
@@ -87,6 +89,12 @@ public class ConfigurationRuntimeParser {
             runtime.getExecution().setFilterServiceProfile(profile);
         }
 
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null) {
+            SchedulingServiceProfile profile = SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase(Locale.ENGLISH));
+            runtime.getExecution().setSchedulingServiceProfile(profile);
+        }
+
         String declExprValueCacheSizeStr = getOptionalAttribute(parentElement, "declared-expr-value-cache-size");
         if (declExprValueCacheSizeStr != null) {
             runtime.getExecution().setDeclaredExprValueCacheSize(Integer.parseInt(declExprValueCacheSizeStr));
@@ -172,6 +180,11 @@ public class ConfigurationRuntimeParser {
             runtime.getMetricsReporting().setJmxRuntimeMetrics(Boolean.parseBoolean(jmxRuntimeMetrics));
         }
 
+        String latencyHistograms = getOptionalAttribute(element, "latency-histograms");
+        if (latencyHistograms != null) {
+            runtime.getMetricsReporting().setEnableLatencyHistograms(Boolean.parseBoolean(latencyHistograms));
+        }
+
         DOMElementIterator nodeIterator = new DOMElementIterator(element.getChildNodes());
         while (nodeIterator.hasNext()) {
             Element subElement = nodeIterator.next();
@@ -347,6 +360,31 @@ public class ConfigurationRuntimeParser {
                 runtime.getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 runtime.getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
             }
+            if (subElement.getNodeName().equals("threadpool-inbound-affinity")) {
+                String enabledText = getRequiredAttribute(subElement, "enabled");
+                runtime.getThreading().setThreadPoolInboundAffinity(Boolean.parseBoolean(enabledText));
+                DOMElementIterator keyIterator = new DOMElementIterator(subElement.getChildNodes());
+                while (keyIterator.hasNext()) {
+                    Element keyElement = keyIterator.next();
+                    if (keyElement.getNodeName().equals("affinity-key")) {
+                        String eventTypeName = getRequiredAttribute(keyElement, "event-type-name");
+                        String[] propertyNames = getRequiredAttribute(keyElement, "property-names").split(",");
+                        for (int i = 0; i < propertyNames.length; i++) {
+                            propertyNames[i] = propertyNames[i].trim();
+                        }
+                        runtime.getThreading().addThreadPoolInboundAffinityKey(eventTypeName, propertyNames);
+                    }
+                }
+            }
+            if (subElement.getNodeName().equals("threadpool-ringbuffer")) {
+                String enabledText = getRequiredAttribute(subElement, "enabled");
+                runtime.getThreading().setThreadPoolRingBuffer(Boolean.parseBoolean(enabledText));
+                parseOptionalBoolean(subElement, "inbound-single-producer", b -> runtime.getThreading().setThreadPoolRingBufferInboundSingleProducer(b));
+                String waitStrategy = getOptionalAttribute(subElement, "wait-strategy");
+                if (waitStrategy != null) {
+                    runtime.getThreading().setThreadPoolRingBufferWaitStrategy(ThreadPoolWaitStrategy.valueOf(waitStrategy.toUpperCase(Locale.ENGLISH)));
+                }
+            }
         }
     }
 
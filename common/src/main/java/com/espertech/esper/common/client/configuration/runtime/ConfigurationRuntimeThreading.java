@@ -11,8 +11,11 @@
 package com.espertech.esper.common.client.configuration.runtime;
 
 import com.espertech.esper.common.client.util.Locking;
+import com.espertech.esper.common.client.util.ThreadPoolWaitStrategy;
 
 import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Holds threading settings.
@@ -47,6 +50,11 @@ public class ConfigurationRuntimeThreading implements Serializable {
     private Integer threadPoolInboundCapacity;
     private Integer threadPoolRouteExecCapacity;
     private Integer threadPoolOutboundCapacity;
+    private boolean isThreadPoolRingBuffer;
+    private boolean isThreadPoolRingBufferInboundSingleProducer;
+    private ThreadPoolWaitStrategy threadPoolRingBufferWaitStrategy = ThreadPoolWaitStrategy.PARK;
+    private boolean isThreadPoolInboundAffinity;
+    private Map<String, String[]> threadPoolInboundAffinityKeys = new LinkedHashMap<>();
 
     private boolean runtimeFairlock;
 
@@ -547,4 +555,121 @@ public class ConfigurationRuntimeThreading implements Serializable {
         this.namedWindowConsumerDispatchLocking = namedWindowConsumerDispatchLocking;
     }
 
+    /**
+     * Returns true if the thread pools use a pre-allocated ring buffer instead of a blocking queue (default is false).
+     *
+     * @return ring buffer indicator
+     */
+    public boolean isThreadPoolRingBuffer() {
+        return isThreadPoolRingBuffer;
+    }
+
+    /**
+     * Set to true for thread pools to use a pre-allocated ring buffer instead of a blocking queue (default is false).
+     * <p>
+     * The ring buffer capacity is the pool capacity rounded up to a power of two. A pool without a capacity
+     * keeps the thread pool executor with an unbounded queue, so submitting into it never blocks.
+     * Inbound events occupy a reused ring buffer slot rather than a new work unit.
+     * </p>
+     *
+     * @param threadPoolRingBuffer ring buffer indicator
+     */
+    public void setThreadPoolRingBuffer(boolean threadPoolRingBuffer) {
+        isThreadPoolRingBuffer = threadPoolRingBuffer;
+    }
+
+    /**
+     * Returns true if only a single application thread sends events to the inbound ring buffer (default is false).
+     *
+     * @return single producer indicator
+     */
+    public boolean isThreadPoolRingBufferInboundSingleProducer() {
+        return isThreadPoolRingBufferInboundSingleProducer;
+    }
+
+    /**
+     * Set to true if only a single application thread sends events, allowing the inbound ring buffer to
+     * claim slots without atomic operations (default is false).
+     * <p>
+     * The result of sending events from multiple threads with this setting is undefined.
+     * </p>
+     *
+     * @param threadPoolRingBufferInboundSingleProducer single producer indicator
+     */
+    public void setThreadPoolRingBufferInboundSingleProducer(boolean threadPoolRingBufferInboundSingleProducer) {
+        isThreadPoolRingBufferInboundSingleProducer = threadPoolRingBufferInboundSingleProducer;
+    }
+
+    /**
+     * Returns the wait strategy for ring buffer thread pools (default is park).
+     *
+     * @return wait strategy
+     */
+    public ThreadPoolWaitStrategy getThreadPoolRingBufferWaitStrategy() {
+        return threadPoolRingBufferWaitStrategy;
+    }
+
+    /**
+     * Sets the wait strategy for ring buffer thread pools (default is park).
+     *
+     * @param threadPoolRingBufferWaitStrategy wait strategy
+     */
+    public void setThreadPoolRingBufferWaitStrategy(ThreadPoolWaitStrategy threadPoolRingBufferWaitStrategy) {
+        this.threadPoolRingBufferWaitStrategy = threadPoolRingBufferWaitStrategy;
+    }
+
+    /**
+     * Returns true if the inbound thread pool dispatches events by affinity key (default is false).
+     *
+     * @return affinity indicator
+     */
+    public boolean isThreadPoolInboundAffinity() {
+        return isThreadPoolInboundAffinity;
+    }
+
+    /**
+     * Set to true for the inbound thread pool to dispatch each event to a fixed inbound thread selected by the hash
+     * of the event's affinity key (default is false).
+     * <p>
+     * Events that have the same affinity key are always processed by the same inbound thread and in the order sent.
+     * When the affinity key matches the properties that a keyed or hash-segmented context partitions by, each context partition
+     * is processed by a single thread and its lock is not contended.
+     * Events of event types that have no affinity key but that an outermost hash-segmented context applies to are dispatched
+     * by hash segment, so that each segment is owned by one inbound thread.
+     * Other events are dispatched by the sending thread.
+     * </p>
+     *
+     * @param threadPoolInboundAffinity affinity indicator
+     */
+    public void setThreadPoolInboundAffinity(boolean threadPoolInboundAffinity) {
+        isThreadPoolInboundAffinity = threadPoolInboundAffinity;
+    }
+
+    /**
+     * Returns the affinity key property names per event type name.
+     *
+     * @return map of event type name and property names
+     */
+    public Map<String, String[]> getThreadPoolInboundAffinityKeys() {
+        return threadPoolInboundAffinityKeys;
+    }
+
+    /**
+     * Sets the affinity key property names per event type name.
+     *
+     * @param threadPoolInboundAffinityKeys map of event type name and property names
+     */
+    public void setThreadPoolInboundAffinityKeys(Map<String, String[]> threadPoolInboundAffinityKeys) {
+        this.threadPoolInboundAffinityKeys = threadPoolInboundAffinityKeys;
+    }
+
+    /**
+     * Adds the properties that make up the inbound affinity key for the given event type.
+     *
+     * @param eventTypeName event type name
+     * @param propertyNames one or more property names
+     */
+    public void addThreadPoolInboundAffinityKey(String eventTypeName, String... propertyNames) {
+        threadPoolInboundAffinityKeys.put(eventTypeName, propertyNames);
+    }
 }
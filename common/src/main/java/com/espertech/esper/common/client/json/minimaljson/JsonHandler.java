@@ -258,4 +258,18 @@ public abstract class JsonHandler<A, O> {
      */
     public void endObjectValue(O object, String name) {
     }
+
+    /**
+     * Indicates whether the value of an object member is not of interest. This method will be called
+     * after {@link #startObjectValue(Object, String) startObjectValue()}. When it returns <code>true</code>
+     * the parser validates and skips the member value without reporting any further events for it,
+     * including {@link #endObjectValue(Object, String) endObjectValue()}.
+     *
+     * @param object the object handler returned from {@link #startObject()}, or null if not provided
+     * @param name   the member name
+     * @return true to skip the member value
+     */
+    public boolean skipObjectValue(O object, String name) {
+        return false;
+    }
 }
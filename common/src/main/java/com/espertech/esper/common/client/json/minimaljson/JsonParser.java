@@ -39,6 +39,13 @@ package com.espertech.esper.common.client.json.minimaljson;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 
 
 /**
@@ -107,6 +114,32 @@ public class JsonParser {
         }
     }
 
+    /**
+     * Parses the remaining bytes of the given buffer as UTF-8 encoded JSON. The input must contain a
+     * valid JSON value, optionally padded with whitespace.
+     * <p>
+     * Bytes are decoded in chunks into the input buffer, without materializing the input as a string.
+     * The position of the given buffer is not changed.
+     * </p>
+     *
+     * @param utf8 the buffer holding UTF-8 encoded input, must be valid JSON
+     * @throws ParseException if the input is not valid UTF-8 or not valid JSON
+     */
+    public void parse(ByteBuffer utf8) {
+        if (utf8 == null) {
+            throw new NullPointerException("buffer is null");
+        }
+        int bufferSize = Math.max(MIN_BUFFER_SIZE, Math.min(DEFAULT_BUFFER_SIZE, utf8.remaining()));
+        try {
+            parse(new ByteBufferUTF8Reader(utf8.duplicate()), bufferSize);
+        } catch (CharacterCodingException exception) {
+            throw error("Invalid UTF-8 input");
+        } catch (IOException exception) {
+            // the buffer reader only throws for coding errors
+            throw new RuntimeException(exception);
+        }
+    }
+
     /**
      * Reads the entire input from the given reader and parses it as JSON. The input must contain a
      * valid JSON value, optionally padded with whitespace.
@@ -248,8 +281,12 @@ public class JsonParser {
             }
             skipWhiteSpace();
             handler.startObjectValue(object, name);
-            readValue();
-            handler.endObjectValue(object, name);
+            if (handler.skipObjectValue(object, name)) {
+                skipValue();
+            } else {
+                readValue();
+                handler.endObjectValue(object, name);
+            }
             skipWhiteSpace();
         } while (readChar(','));
         if (!readChar('}')) {
@@ -259,6 +296,140 @@ public class JsonParser {
         handler.endObject(object);
     }
 
+    private void skipValue() throws IOException {
+        switch (current) {
+            case 'n':
+                read();
+                readRequiredChar('u');
+                readRequiredChar('l');
+                readRequiredChar('l');
+                break;
+            case 't':
+                read();
+                readRequiredChar('r');
+                readRequiredChar('u');
+                readRequiredChar('e');
+                break;
+            case 'f':
+                read();
+                readRequiredChar('a');
+                readRequiredChar('l');
+                readRequiredChar('s');
+                readRequiredChar('e');
+                break;
+            case '"':
+                skipString();
+                break;
+            case '[':
+                skipArray();
+                break;
+            case '{':
+                skipObject();
+                break;
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                readChar('-');
+                int firstDigit = current;
+                if (!readDigit()) {
+                    throw expected("digit");
+                }
+                if (firstDigit != '0') {
+                    while (readDigit()) {
+                    }
+                }
+                readFraction();
+                readExponent();
+                break;
+            default:
+                throw expected("value");
+        }
+    }
+
+    private void skipArray() throws IOException {
+        read();
+        if (++nestingLevel > MAX_NESTING_LEVEL) {
+            throw error("Nesting too deep");
+        }
+        skipWhiteSpace();
+        if (readChar(']')) {
+            nestingLevel--;
+            return;
+        }
+        do {
+            skipWhiteSpace();
+            skipValue();
+            skipWhiteSpace();
+        } while (readChar(','));
+        if (!readChar(']')) {
+            throw expected("',' or ']'");
+        }
+        nestingLevel--;
+    }
+
+    private void skipObject() throws IOException {
+        read();
+        if (++nestingLevel > MAX_NESTING_LEVEL) {
+            throw error("Nesting too deep");
+        }
+        skipWhiteSpace();
+        if (readChar('}')) {
+            nestingLevel--;
+            return;
+        }
+        do {
+            skipWhiteSpace();
+            if (current != '"') {
+                throw expected("name");
+            }
+            skipString();
+            skipWhiteSpace();
+            if (!readChar(':')) {
+                throw expected("':'");
+            }
+            skipWhiteSpace();
+            skipValue();
+            skipWhiteSpace();
+        } while (readChar(','));
+        if (!readChar('}')) {
+            throw expected("',' or '}'");
+        }
+        nestingLevel--;
+    }
+
+    private void skipString() throws IOException {
+        read();
+        while (current != '"') {
+            if (current == '\\') {
+                read();
+                if (current == 'u') {
+                    for (int i = 0; i < 4; i++) {
+                        read();
+                        if (!isHexDigit()) {
+                            throw expected("hexadecimal digit");
+                        }
+                    }
+                } else if ("\"/\\bfnrt".indexOf(current) == -1) {
+                    throw expected("valid escape sequence");
+                }
+                read();
+            } else if (current < 0x20) {
+                throw expected("valid string character");
+            } else {
+                read();
+            }
+        }
+        read();
+    }
+
     private String readName() throws IOException {
         if (current != '"') {
             throw expected("name");
@@ -484,6 +655,41 @@ public class JsonParser {
         return new Location(offset, line, column);
     }
 
+    private static class ByteBufferUTF8Reader extends Reader {
+        private final ByteBuffer bytes;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+        private boolean done;
+
+        ByteBufferUTF8Reader(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (done) {
+                return -1;
+            }
+            CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+            CoderResult result = decoder.decode(bytes, out, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isUnderflow()) {
+                result = decoder.flush(out);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                done = result.isUnderflow();
+            }
+            int count = out.position() - off;
+            return count == 0 ? -1 : count;
+        }
+
+        public void close() {
+        }
+    }
+
     private ParseException expected(String expected) {
         if (isEndOfText()) {
             return error("Unexpected end of input");
@@ -0,0 +1,194 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.metric;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency distribution in nanoseconds, for tail latency reporting.
+ * <p>
+ * Values are counted in log-linear buckets: each power-of-two range is split into 16 equal sub-buckets,
+ * so a reported percentile is within about 6% of the recorded value.
+ * <p>
+ * Recording threads write to per-thread stripes, selected by thread id, so that threads do not contend on
+ * the same counters. Stripes are merged when a percentile, count or maximum is read.
+ */
+public class LatencyHistogram implements Serializable {
+    private static final long serialVersionUID = -2611570457284360453L;
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    private static final int NUM_BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+    private static final int MAX_STRIPES = 16;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes;
+    private final int stripeMask;
+
+    /**
+     * Ctor.
+     */
+    public LatencyHistogram() {
+        int numStripes = 1;
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+        while (numStripes < processors) {
+            numStripes <<= 1;
+        }
+        this.stripes = new AtomicReferenceArray<>(numStripes);
+        this.stripeMask = numStripes - 1;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param valueNanos latency in nanoseconds, negative values count as zero
+     */
+    public void recordValue(long valueNanos) {
+        long value = valueNanos < 0 ? 0 : valueNanos;
+        AtomicLongArray stripe = getStripe((int) Thread.currentThread().getId() & stripeMask);
+        stripe.incrementAndGet(bucketIndex(value));
+        long max = stripe.get(NUM_BUCKETS);
+        while (value > max && !stripe.compareAndSet(NUM_BUCKETS, max, value)) {
+            max = stripe.get(NUM_BUCKETS);
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return count
+     */
+    public long getTotalCount() {
+        long count = 0;
+        long[] counts = merge();
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            count += counts[i];
+        }
+        return count;
+    }
+
+    /**
+     * Returns the largest recorded value in nanoseconds, or zero if none were recorded.
+     *
+     * @return maximum
+     */
+    public long getMaxValue() {
+        return merge()[NUM_BUCKETS];
+    }
+
+    /**
+     * Returns the value in nanoseconds at or below which the given percentage of recorded values fall,
+     * or zero if none were recorded.
+     *
+     * @param percentile percentage between 0 and 100
+     * @return value at percentile
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = merge();
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        double bounded = Math.min(Math.max(percentile, 0), 100);
+        long target = Math.max(1, (long) Math.ceil(bounded / 100d * total));
+        long accumulated = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            accumulated += counts[i];
+            if (accumulated >= target) {
+                return Math.min(highestEquivalentValue(i), counts[NUM_BUCKETS]);
+            }
+        }
+        return counts[NUM_BUCKETS];
+    }
+
+    /**
+     * Returns the median latency in nanoseconds.
+     *
+     * @return 50th percentile
+     */
+    public long getPercentile50() {
+        return getValueAtPercentile(50);
+    }
+
+    /**
+     * Returns the 99th percentile latency in nanoseconds.
+     *
+     * @return 99th percentile
+     */
+    public long getPercentile99() {
+        return getValueAtPercentile(99);
+    }
+
+    /**
+     * Returns the 99.9th percentile latency in nanoseconds.
+     *
+     * @return 99.9th percentile
+     */
+    public long getPercentile999() {
+        return getValueAtPercentile(99.9);
+    }
+
+    public String toString() {
+        return "count=" + getTotalCount() +
+            " p50=" + getPercentile50() +
+            " p99=" + getPercentile99() +
+            " p99.9=" + getPercentile999() +
+            " max=" + getMaxValue();
+    }
+
+    private AtomicLongArray getStripe(int index) {
+        AtomicLongArray stripe = stripes.get(index);
+        if (stripe == null) {
+            stripe = new AtomicLongArray(NUM_BUCKETS + 1);
+            if (!stripes.compareAndSet(index, null, stripe)) {
+                stripe = stripes.get(index);
+            }
+        }
+        return stripe;
+    }
+
+    private long[] merge() {
+        long[] counts = new long[NUM_BUCKETS + 1];
+        for (int s = 0; s < stripes.length(); s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe == null) {
+                continue;
+            }
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+            counts[NUM_BUCKETS] = Math.max(counts[NUM_BUCKETS], stripe.get(NUM_BUCKETS));
+        }
+        return counts;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - (long) shift * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -26,6 +26,12 @@ public class RuntimeMetric extends MetricEvent {
     private final long inputCount;
     private final long inputCountDelta;
     private final long scheduleDepth;
+    private final long inboundQueueDepth;
+    private final long outboundQueueDepth;
+    private final long routeQueueDepth;
+    private final long timerQueueDepth;
+    private final long inboundQueueWaitNanos;
+    private final LatencyHistogram filterLatency;
 
     /**
      * Ctor.
@@ -37,11 +43,54 @@ public class RuntimeMetric extends MetricEvent {
      * @param scheduleDepth   schedule depth
      */
     public RuntimeMetric(String runtimeURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth) {
+        this(runtimeURI, timestamp, inputCount, inputCountDelta, scheduleDepth, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI            runtime URI
+     * @param timestamp             runtime timestamp
+     * @param inputCount            number of input events
+     * @param inputCountDelta       number of input events since last
+     * @param scheduleDepth         schedule depth
+     * @param inboundQueueDepth     number of units waiting in the inbound thread pool
+     * @param outboundQueueDepth    number of units waiting in the outbound thread pool
+     * @param routeQueueDepth       number of units waiting in the route execution thread pool
+     * @param timerQueueDepth       number of units waiting in the timer execution thread pool
+     * @param inboundQueueWaitNanos cumulative nanoseconds inbound units waited before execution
+     */
+    public RuntimeMetric(String runtimeURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth, long inboundQueueDepth, long outboundQueueDepth, long routeQueueDepth, long timerQueueDepth, long inboundQueueWaitNanos) {
+        this(runtimeURI, timestamp, inputCount, inputCountDelta, scheduleDepth, inboundQueueDepth, outboundQueueDepth, routeQueueDepth, timerQueueDepth, inboundQueueWaitNanos, null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI            runtime URI
+     * @param timestamp             runtime timestamp
+     * @param inputCount            number of input events
+     * @param inputCountDelta       number of input events since last
+     * @param scheduleDepth         schedule depth
+     * @param inboundQueueDepth     number of units waiting in the inbound thread pool
+     * @param outboundQueueDepth    number of units waiting in the outbound thread pool
+     * @param routeQueueDepth       number of units waiting in the route execution thread pool
+     * @param timerQueueDepth       number of units waiting in the timer execution thread pool
+     * @param inboundQueueWaitNanos cumulative nanoseconds inbound units waited before execution
+     * @param filterLatency         filter matching latency since last, or null if not recorded
+     */
+    public RuntimeMetric(String runtimeURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth, long inboundQueueDepth, long outboundQueueDepth, long routeQueueDepth, long timerQueueDepth, long inboundQueueWaitNanos, LatencyHistogram filterLatency) {
         super(runtimeURI);
         this.timestamp = timestamp;
         this.inputCount = inputCount;
         this.inputCountDelta = inputCountDelta;
         this.scheduleDepth = scheduleDepth;
+        this.inboundQueueDepth = inboundQueueDepth;
+        this.outboundQueueDepth = outboundQueueDepth;
+        this.routeQueueDepth = routeQueueDepth;
+        this.timerQueueDepth = timerQueueDepth;
+        this.inboundQueueWaitNanos = inboundQueueWaitNanos;
+        this.filterLatency = filterLatency;
     }
 
     /**
@@ -79,4 +128,60 @@ public class RuntimeMetric extends MetricEvent {
     public long getInputCountDelta() {
         return inputCountDelta;
     }
+
+    /**
+     * Returns the number of units waiting in the inbound thread pool, or zero if the pool is not enabled.
+     *
+     * @return inbound queue depth
+     */
+    public long getInboundQueueDepth() {
+        return inboundQueueDepth;
+    }
+
+    /**
+     * Returns the number of units waiting in the outbound thread pool, or zero if the pool is not enabled.
+     *
+     * @return outbound queue depth
+     */
+    public long getOutboundQueueDepth() {
+        return outboundQueueDepth;
+    }
+
+    /**
+     * Returns the number of units waiting in the route execution thread pool, or zero if the pool is not enabled.
+     *
+     * @return route queue depth
+     */
+    public long getRouteQueueDepth() {
+        return routeQueueDepth;
+    }
+
+    /**
+     * Returns the number of units waiting in the timer execution thread pool, or zero if the pool is not enabled.
+     *
+     * @return timer queue depth
+     */
+    public long getTimerQueueDepth() {
+        return timerQueueDepth;
+    }
+
+    /**
+     * Returns the cumulative nanoseconds inbound units waited between submission and execution,
+     * as measured by the inbound ring buffer, or zero if the ring buffer is not enabled.
+     *
+     * @return inbound wait nanoseconds
+     */
+    public long getInboundQueueWaitNanos() {
+        return inboundQueueWaitNanos;
+    }
+
+    /**
+     * Returns the distribution of filter matching latency in nanoseconds per input event since the last
+     * reporting period, or null when latency histograms are not enabled.
+     *
+     * @return filter latency
+     */
+    public LatencyHistogram getFilterLatency() {
+        return filterLatency;
+    }
 }
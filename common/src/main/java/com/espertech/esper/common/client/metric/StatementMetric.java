@@ -32,6 +32,8 @@ public class StatementMetric extends MetricEvent {
     private AtomicLong numInput;
     private AtomicLong numOutputRStream;
     private AtomicLong numOutputIStream;
+    private LatencyHistogram processingLatency;
+    private LatencyHistogram dispatchLatency;
 
     /**
      * Ctor.
@@ -41,6 +43,18 @@ public class StatementMetric extends MetricEvent {
      * @param statementName statement name
      */
     public StatementMetric(String runtimeURI, String deploymentId, String statementName) {
+        this(runtimeURI, deploymentId, statementName, false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI        runtime URI
+     * @param deploymentId      deployment id
+     * @param statementName     statement name
+     * @param latencyHistograms true to record processing and dispatch latency histograms
+     */
+    public StatementMetric(String runtimeURI, String deploymentId, String statementName, boolean latencyHistograms) {
         super(runtimeURI);
         this.deploymentId = deploymentId;
         this.statementName = statementName;
@@ -49,6 +63,10 @@ public class StatementMetric extends MetricEvent {
         this.numOutputIStream = new AtomicLong();
         this.numOutputRStream = new AtomicLong();
         this.numInput = new AtomicLong();
+        if (latencyHistograms) {
+            this.processingLatency = new LatencyHistogram();
+            this.dispatchLatency = new LatencyHistogram();
+        }
     }
 
     /**
@@ -176,4 +194,46 @@ public class StatementMetric extends MetricEvent {
     public void addNumInput(long numInputAdd) {
         numInput.addAndGet(numInputAdd);
     }
+
+    /**
+     * Returns the distribution of statement processing latency in nanoseconds, covering view and result set
+     * processing for each input event or timer firing, or null when latency histograms are not enabled.
+     *
+     * @return processing latency
+     */
+    public LatencyHistogram getProcessingLatency() {
+        return processingLatency;
+    }
+
+    /**
+     * Returns the distribution of listener and subscriber dispatch latency in nanoseconds,
+     * or null when latency histograms are not enabled.
+     *
+     * @return dispatch latency
+     */
+    public LatencyHistogram getDispatchLatency() {
+        return dispatchLatency;
+    }
+
+    /**
+     * Records a processing latency, if latency histograms are enabled.
+     *
+     * @param wall wall time nsec
+     */
+    public void recordProcessingLatency(long wall) {
+        if (processingLatency != null) {
+            processingLatency.recordValue(wall);
+        }
+    }
+
+    /**
+     * Records a dispatch latency, if latency histograms are enabled.
+     *
+     * @param wall wall time nsec
+     */
+    public void recordDispatchLatency(long wall) {
+        if (dispatchLatency != null) {
+            dispatchLatency.recordValue(wall);
+        }
+    }
 }
@@ -22,5 +22,11 @@ public enum FilterServiceProfile {
     /**
      * For very dynamic filters that come and go in a highly threaded environment.
      */
-    READWRITE
+    READWRITE,
+
+    /**
+     * If filters are mostly static and many threads send events, filter evaluation does not lock and filter changes
+     * are applied to a second copy of the filter index that is then swapped in.
+     */
+    LOCKFREE
 }
@@ -0,0 +1,32 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.util;
+
+/**
+ * Enumeration of the techniques by which threads wait on a ring-buffer thread pool, applying to pool threads waiting
+ * for work and to threads submitting work to a full ring buffer.
+ */
+public enum ThreadPoolWaitStrategy {
+    /**
+     * Busy-spin, for lowest latency when each pool thread can have a dedicated core.
+     */
+    BUSYSPIN,
+
+    /**
+     * Spin yielding the thread, for low latency while allowing other threads to run.
+     */
+    YIELD,
+
+    /**
+     * Spin, then yield, then park the thread for increasing periods, using the least CPU when idle, the default.
+     */
+    PARK
+}
@@ -0,0 +1,319 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.collection;
+
+import com.espertech.esper.common.client.type.EPTypeClass;
+
+import java.util.*;
+
+/**
+ * Hash map using open addressing with linear probing, keeping keys and values in two parallel arrays
+ * rather than an entry object per mapping. Removal uses backward-shift deletion and does not leave tombstones.
+ * Null keys and null values are allowed. Iteration order is the order of the hash table and the views
+ * returned by {@link #keySet()}, {@link #values()} and {@link #entrySet()} do not support removal,
+ * as backward-shift deletion may move a not-yet-visited entry behind the iterator.
+ * To remove while iterating, collect the keys and remove them after iteration completes.
+ * Iterators are fail-fast and throw {@link ConcurrentModificationException} when the map is structurally
+ * modified after the iterator was created, other than by {@link Entry#setValue}.
+ * Not thread-safe.
+ */
+public class CompactHashMap<K, V> extends AbstractMap<K, V> {
+    public final static EPTypeClass EPTYPE = new EPTypeClass(CompactHashMap.class);
+
+    private final static Object NULL_KEY = new Object();
+    private final static int MIN_CAPACITY = 16;
+
+    private Object[] keys;
+    private Object[] values;
+    private int size;
+    private int threshold;
+    private int modCount;
+
+    /**
+     * Ctor.
+     */
+    public CompactHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param expectedSize number of mappings expected
+     */
+    public CompactHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(Object key) {
+        return indexOf(mask(key)) >= 0;
+    }
+
+    public V get(Object key) {
+        int index = indexOf(mask(key));
+        return index < 0 ? null : (V) values[index];
+    }
+
+    public V put(K key, V value) {
+        Object masked = mask(key);
+        int m = keys.length - 1;
+        int index = hash(masked) & m;
+        while (true) {
+            Object existing = keys[index];
+            if (existing == null) {
+                break;
+            }
+            if (existing == masked || existing.equals(masked)) {
+                V old = (V) values[index];
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) & m;
+        }
+        keys[index] = masked;
+        values[index] = value;
+        modCount++;
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    public V remove(Object key) {
+        int index = indexOf(mask(key));
+        if (index < 0) {
+            return null;
+        }
+        V old = (V) values[index];
+        removeAt(index);
+        return old;
+    }
+
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        if (keys.length > MIN_CAPACITY << 2) {
+            allocate(MIN_CAPACITY);
+        } else {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            public Iterator<Entry<K, V>> iterator() {
+                return new SlotIterator<Entry<K, V>>() {
+                    protected Entry<K, V> make(int slot) {
+                        return new SlotEntry(slot);
+                    }
+                };
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            public Iterator<K> iterator() {
+                return new SlotIterator<K>() {
+                    protected K make(int slot) {
+                        return unmask(keys[slot]);
+                    }
+                };
+            }
+
+            public int size() {
+                return size;
+            }
+
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+        };
+    }
+
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return new SlotIterator<V>() {
+                    protected V make(int slot) {
+                        return (V) values[slot];
+                    }
+                };
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int indexOf(Object masked) {
+        int m = keys.length - 1;
+        int index = hash(masked) & m;
+        while (true) {
+            Object existing = keys[index];
+            if (existing == null) {
+                return -1;
+            }
+            if (existing == masked || existing.equals(masked)) {
+                return index;
+            }
+            index = (index + 1) & m;
+        }
+    }
+
+    private void removeAt(int index) {
+        int m = keys.length - 1;
+        int gap = index;
+        int next = (gap + 1) & m;
+        while (keys[next] != null) {
+            int home = hash(keys[next]) & m;
+            // move the entry into the gap unless its home slot lies cyclically within (gap, next]
+            if (((next - home) & m) >= ((next - gap) & m)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & m;
+        }
+        keys[gap] = null;
+        values[gap] = null;
+        size--;
+        modCount++;
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int m = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key == null) {
+                continue;
+            }
+            int index = hash(key) & m;
+            while (keys[index] != null) {
+                index = (index + 1) & m;
+            }
+            keys[index] = key;
+            values[index] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        threshold = (int) (capacity * 0.75f);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 0.75f < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static Object mask(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private static <K> K unmask(Object key) {
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private final int expectedModCount = modCount;
+        private int slot = advance(0);
+
+        protected abstract T make(int slot);
+
+        public boolean hasNext() {
+            return slot < keys.length;
+        }
+
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (slot >= keys.length) {
+                throw new NoSuchElementException();
+            }
+            T result = make(slot);
+            slot = advance(slot + 1);
+            return result;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("Removal through the iterator is not supported, collect keys and remove after iterating");
+        }
+
+        private int advance(int from) {
+            Object[] table = keys;
+            while (from < table.length && table[from] == null) {
+                from++;
+            }
+            return from;
+        }
+    }
+
+    private class SlotEntry implements Entry<K, V> {
+        private final int slot;
+
+        SlotEntry(int slot) {
+            this.slot = slot;
+        }
+
+        public K getKey() {
+            return unmask(keys[slot]);
+        }
+
+        public V getValue() {
+            return (V) values[slot];
+        }
+
+        public V setValue(V value) {
+            V old = (V) values[slot];
+            values[slot] = value;
+            return old;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> other = (Entry<?, ?>) o;
+            return Objects.equals(getKey(), other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+    }
+}
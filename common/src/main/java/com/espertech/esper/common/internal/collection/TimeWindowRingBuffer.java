@@ -0,0 +1,349 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.collection;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.view.core.DataWindowViewFactory;
+import com.espertech.esper.common.internal.view.core.ViewDataVisitor;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Time window backed by a ring buffer of parallel timestamp and event arrays.
+ * <p>
+ * Like {@link TimeWindow} it assumes that the timestamp passed to the add method is ascending.
+ * Each event occupies one slot, addressed by an ever-increasing sequence number masked by the capacity,
+ * so adding and expiring events does not allocate per-event holders. Removed events leave an empty slot
+ * that expiry skips. When remove stream handling is enabled an identity-based open-addressing index
+ * maps each event to its sequence number.
+ */
+public final class TimeWindowRingBuffer implements Iterable<EventBean> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_INDEX_CAPACITY = 32;
+
+    private long[] timestamps;
+    private EventBean[] events;
+    private int mask;
+    private long head;
+    private long tail;
+    private int size;
+
+    private final boolean supportRemoveStream;
+    private Object[] indexKeys;
+    private long[] indexSequences;
+    private int indexSize;
+
+    /**
+     * Ctor.
+     *
+     * @param isSupportRemoveStream true to indicate the time window should support effective removal of events
+     *                              in the window based on the remove stream events received, or false to not accomodate removal at all
+     */
+    public TimeWindowRingBuffer(boolean isSupportRemoveStream) {
+        this.timestamps = new long[INITIAL_CAPACITY];
+        this.events = new EventBean[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+        this.supportRemoveStream = isSupportRemoveStream;
+        if (isSupportRemoveStream) {
+            indexKeys = new Object[INITIAL_INDEX_CAPACITY];
+            indexSequences = new long[INITIAL_INDEX_CAPACITY];
+        }
+    }
+
+    /**
+     * Adjust expiry dates.
+     *
+     * @param delta delta to adjust for
+     */
+    public void adjust(long delta) {
+        for (long seq = head; seq < tail; seq++) {
+            timestamps[(int) seq & mask] += delta;
+        }
+    }
+
+    /**
+     * Adds event to the time window for the specified timestamp.
+     *
+     * @param timestamp - the time slot for the event
+     * @param bean      - event to add
+     */
+    public void add(long timestamp, EventBean bean) {
+        if (tail - head == events.length) {
+            grow();
+        }
+        int slot = (int) tail & mask;
+        timestamps[slot] = timestamp;
+        events[slot] = bean;
+        if (supportRemoveStream) {
+            indexPut(bean, tail);
+        }
+        tail++;
+        size++;
+    }
+
+    /**
+     * Removes the event from the window, if remove stream handling is enabled.
+     *
+     * @param theEvent to remove
+     */
+    public void remove(EventBean theEvent) {
+        if (!supportRemoveStream) {
+            throw new UnsupportedOperationException("Time window does not accept event removal");
+        }
+        long seq = indexRemove(theEvent, -1);
+        if (seq == -1) {
+            return;
+        }
+        int slot = (int) seq & mask;
+        if (events[slot] != theEvent) {
+            return;
+        }
+        events[slot] = null;
+        size--;
+        skipRemovedHead();
+    }
+
+    /**
+     * Return and remove events with a timestamp earlier (less) then the timestamp passed in.
+     * The returned array is sized to the number of expired events.
+     *
+     * @param expireBefore is the timestamp from which on to keep events in the window
+     * @return events expired and removed from the window, or null if none expired
+     */
+    public EventBean[] expireEvents(long expireBefore) {
+        int count = 0;
+        long end = head;
+        while (end < tail) {
+            int slot = (int) end & mask;
+            if (timestamps[slot] >= expireBefore) {
+                break;
+            }
+            if (events[slot] != null) {
+                count++;
+            }
+            end++;
+        }
+        if (end == head) {
+            return null;
+        }
+
+        EventBean[] expired = count == 0 ? null : new EventBean[count];
+        int index = 0;
+        for (long seq = head; seq < end; seq++) {
+            int slot = (int) seq & mask;
+            EventBean bean = events[slot];
+            if (bean != null) {
+                expired[index++] = bean;
+                events[slot] = null;
+                if (supportRemoveStream) {
+                    indexRemove(bean, seq);
+                }
+            }
+        }
+        head = end;
+        size -= count;
+        skipRemovedHead();
+        return expired;
+    }
+
+    /**
+     * Returns event iterator.
+     *
+     * @return iterator over events currently in window
+     */
+    public Iterator<EventBean> iterator() {
+        return new RingIterator();
+    }
+
+    /**
+     * Returns the oldest timestamp in the collection if there is at least one entry,
+     * else it returns null if the window is empty.
+     *
+     * @return null if empty, oldest timestamp if not empty
+     */
+    public Long getOldestTimestamp() {
+        if (size == 0) {
+            return null;
+        }
+        return timestamps[(int) head & mask];
+    }
+
+    /**
+     * Returns true if the window is currently empty.
+     *
+     * @return true if empty, false if not
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of events in the window.
+     *
+     * @return event count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of events in the reverse index, for testing purposes.
+     *
+     * @return reverse index size, or -1 when remove stream handling is not enabled
+     */
+    public int getReverseIndexSize() {
+        return supportRemoveStream ? indexSize : -1;
+    }
+
+    /**
+     * Returns the number of slots, for testing purposes.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return events.length;
+    }
+
+    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
+        EventBean[] snapshot = new EventBean[size];
+        int index = 0;
+        for (long seq = head; seq < tail; seq++) {
+            EventBean bean = events[(int) seq & mask];
+            if (bean != null) {
+                snapshot[index++] = bean;
+            }
+        }
+        viewDataVisitor.visitPrimary(snapshot, viewFactory.getViewName());
+    }
+
+    private void skipRemovedHead() {
+        if (size == 0) {
+            head = tail;
+            return;
+        }
+        while (events[(int) head & mask] == null) {
+            head++;
+        }
+    }
+
+    private void grow() {
+        int capacity = events.length << 1;
+        int newMask = capacity - 1;
+        long[] newTimestamps = new long[capacity];
+        EventBean[] newEvents = new EventBean[capacity];
+        for (long seq = head; seq < tail; seq++) {
+            int from = (int) seq & mask;
+            int to = (int) seq & newMask;
+            newTimestamps[to] = timestamps[from];
+            newEvents[to] = events[from];
+        }
+        timestamps = newTimestamps;
+        events = newEvents;
+        mask = newMask;
+    }
+
+    private static int indexSlot(Object key, int indexMask) {
+        int h = System.identityHashCode(key);
+        h ^= h >>> 16;
+        return (h * 0x9E3779B9) >>> 1 & indexMask;
+    }
+
+    private void indexPut(Object key, long seq) {
+        if ((indexSize + 1) * 2 > indexKeys.length) {
+            indexRehash(indexKeys.length << 1);
+        }
+        int indexMask = indexKeys.length - 1;
+        int slot = indexSlot(key, indexMask);
+        while (indexKeys[slot] != null) {
+            if (indexKeys[slot] == key) {
+                indexSequences[slot] = seq;
+                return;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        indexKeys[slot] = key;
+        indexSequences[slot] = seq;
+        indexSize++;
+    }
+
+    private long indexRemove(Object key, long expectedSeq) {
+        int indexMask = indexKeys.length - 1;
+        int slot = indexSlot(key, indexMask);
+        while (indexKeys[slot] != null) {
+            if (indexKeys[slot] == key) {
+                long seq = indexSequences[slot];
+                if (expectedSeq != -1 && seq != expectedSeq) {
+                    return -1;
+                }
+                indexDeleteSlot(slot, indexMask);
+                indexSize--;
+                return seq;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        return -1;
+    }
+
+    // backward-shift deletion keeps linear probe chains intact without tombstones
+    private void indexDeleteSlot(int slot, int indexMask) {
+        int gap = slot;
+        int next = (gap + 1) & indexMask;
+        while (indexKeys[next] != null) {
+            int home = indexSlot(indexKeys[next], indexMask);
+            if (((next - home) & indexMask) >= ((next - gap) & indexMask)) {
+                indexKeys[gap] = indexKeys[next];
+                indexSequences[gap] = indexSequences[next];
+                gap = next;
+            }
+            next = (next + 1) & indexMask;
+        }
+        indexKeys[gap] = null;
+    }
+
+    private void indexRehash(int capacity) {
+        Object[] oldKeys = indexKeys;
+        long[] oldSequences = indexSequences;
+        indexKeys = new Object[capacity];
+        indexSequences = new long[capacity];
+        int indexMask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key == null) {
+                continue;
+            }
+            int slot = indexSlot(key, indexMask);
+            while (indexKeys[slot] != null) {
+                slot = (slot + 1) & indexMask;
+            }
+            indexKeys[slot] = key;
+            indexSequences[slot] = oldSequences[i];
+        }
+    }
+
+    private class RingIterator implements Iterator<EventBean> {
+        private long position = head;
+
+        public boolean hasNext() {
+            while (position < tail && events[(int) position & mask] == null) {
+                position++;
+            }
+            return position < tail;
+        }
+
+        public EventBean next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return events[(int) position++ & mask];
+        }
+    }
+}
@@ -11,6 +11,7 @@
 package com.espertech.esper.common.internal.compile.stage2;
 
 import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.annotation.HintEnum;
 import com.espertech.esper.common.client.annotation.HookType;
 import com.espertech.esper.common.client.meta.EventTypeApplicationType;
 import com.espertech.esper.common.client.meta.EventTypeIdPair;
@@ -306,6 +307,9 @@ public class StreamSpecCompiler {
             FilterSpecCompiledDesc compiled = FilterSpecCompiler.makeFilterSpec(resolvedEventType, eventName, exprNodes,
                 filterNode.getRawFilterSpec().getOptionalPropertyEvalSpec(), filterTaggedEventTypes, arrayCompositeEventTypes, allTagNamesOrdered, streamTypeService, null, statementRawInfo, services);
             filterNode.setFilterSpec(compiled.getFilterSpecCompiled());
+            if (HintEnum.PATTERN_CORRELATION_INDEX.getHint(statementRawInfo.getAnnotations()) != null) {
+                filterNode.planCorrelationIndex();
+            }
             additionalForgeables.addAll(compiled.getAdditionalForgeables());
         } else if (evalNode instanceof EvalObserverForgeNode) {
             EvalObserverForgeNode observerNode = (EvalObserverForgeNode) evalNode;
@@ -18,6 +18,7 @@ import com.espertech.esper.common.internal.context.util.EPStatementHandleCallbac
 import com.espertech.esper.common.internal.filterspec.FilterSpecActivatable;
 import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
 import com.espertech.esper.common.internal.filtersvc.FilterHandleCallback;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallbackBatch;
 import com.espertech.esper.common.internal.view.core.*;
 
 import java.util.Collection;
@@ -77,11 +78,15 @@ public class ViewableActivatorFilter implements ViewableActivator {
 
         FilterHandleCallback filterCallback;
         if (filterSpec.getOptionalPropertyEvaluator() == null) {
-            filterCallback = new FilterHandleCallback() {
+            filterCallback = new FilterHandleCallbackBatch() {
                 public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
                     theStream.insert(theEvent);
                 }
 
+                public void matchFoundBatch(EventBean[] theEvents) {
+                    theStream.insert(theEvents);
+                }
+
                 public boolean isSubSelect() {
                     return isSubSelect;
                 }
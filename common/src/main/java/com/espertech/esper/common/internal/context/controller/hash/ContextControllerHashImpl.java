@@ -13,8 +13,10 @@ package com.espertech.esper.common.internal.context.controller.hash;
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.internal.collection.IntSeqKey;
 import com.espertech.esper.common.internal.context.controller.core.ContextControllerFilterEntry;
+import com.espertech.esper.common.internal.context.mgr.ContextHashSegmentFunction;
 import com.espertech.esper.common.internal.context.mgr.ContextManagerRealization;
 import com.espertech.esper.common.internal.context.mgr.ContextPartitionInstantiationResult;
+import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
 import com.espertech.esper.common.internal.context.util.AgentInstanceTransferServices;
 import com.espertech.esper.common.internal.context.util.AgentInstanceUtil;
 
@@ -25,10 +27,24 @@ import java.util.function.BiConsumer;
 public class ContextControllerHashImpl extends ContextControllerHash {
 
     private final ContextControllerHashSvc hashSvc;
+    private final ContextHashSegmentFunction[] segmentFunctions;
 
     public ContextControllerHashImpl(ContextControllerHashFactory factory, ContextManagerRealization realization) {
         super(realization, factory);
         hashSvc = ContextControllerHashUtil.makeService(factory, realization);
+
+        // the outermost hash segment of an event is stable, allowing the runtime to dispatch by segment
+        if (factory.getFactoryEnv().getNestingLevel() == 1) {
+            AgentInstanceContext agentInstanceContext = realization.getAgentInstanceContextCreate();
+            ContextControllerDetailHashItem[] hashItems = factory.getHashSpec().getItems();
+            segmentFunctions = new ContextHashSegmentFunction[hashItems.length];
+            for (int i = 0; i < hashItems.length; i++) {
+                segmentFunctions[i] = new ContextHashSegmentFunction(hashItems[i].getFilterSpecActivatable().getFilterForEventType(), hashItems[i].getLookupable().getEval(), agentInstanceContext.getStatementContext());
+                agentInstanceContext.getContextManagementService().addHashSegmentFunction(segmentFunctions[i]);
+            }
+        } else {
+            segmentFunctions = null;
+        }
     }
 
     public void activate(IntSeqKey path, Object[] parentPartitionKeys, EventBean optionalTriggeringEvent, Map<String, Object> optionalTriggeringPattern) {
@@ -107,6 +123,11 @@ public class ContextControllerHashImpl extends ContextControllerHash {
 
     public void destroy() {
         hashSvc.destroy();
+        if (segmentFunctions != null) {
+            for (ContextHashSegmentFunction function : segmentFunctions) {
+                realization.getAgentInstanceContextCreate().getContextManagementService().removeHashSegmentFunction(function);
+            }
+        }
     }
 
     public void transfer(IntSeqKey path, boolean transferChildContexts, AgentInstanceTransferServices xfer) {
@@ -0,0 +1,57 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.context.mgr;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.context.util.ExprEvaluatorContextStatement;
+import com.espertech.esper.common.internal.context.util.StatementContext;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEventEvaluator;
+
+/**
+ * Hash function of an outermost hash-segmented context for one event type,
+ * for use by the runtime to dispatch events of the same hash segment to the same thread.
+ * <p>
+ * Sending threads evaluate concurrently, therefore each thread evaluates against its own statement-level evaluation context
+ * rather than the context-creating agent instance context.
+ * </p>
+ */
+public class ContextHashSegmentFunction {
+    private final EventType eventType;
+    private final ExprEventEvaluator hashEval;
+    private final ThreadLocal<ExprEvaluatorContext> exprEvaluatorContextPerThread;
+
+    public ContextHashSegmentFunction(EventType eventType, ExprEventEvaluator hashEval, StatementContext statementContext) {
+        this.eventType = eventType;
+        this.hashEval = hashEval;
+        this.exprEvaluatorContextPerThread = new ThreadLocal<ExprEvaluatorContext>() {
+            protected synchronized ExprEvaluatorContext initialValue() {
+                return new ExprEvaluatorContextStatement(statementContext, true);
+            }
+        };
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Returns the hash segment of the event, the same value the context uses to select the context partition.
+     *
+     * @param event event of the event type
+     * @return segment
+     */
+    public int getSegment(EventBean event) {
+        Object value = hashEval.eval(event, exprEvaluatorContextPerThread.get());
+        return value == null ? 0 : (Integer) value;
+    }
+}
@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.common.internal.context.mgr;
 
+import com.espertech.esper.common.client.EventType;
 import com.espertech.esper.common.client.context.ContextStateListener;
 import com.espertech.esper.common.internal.context.controller.core.ContextDefinition;
 import com.espertech.esper.common.internal.context.module.EPStatementInitServices;
@@ -33,4 +34,25 @@ public interface ContextManagementService {
     CopyOnWriteArrayList<ContextStateListener> getListeners();
 
     Map<String, ContextDeployment> getDeployments();
+
+    void addHashSegmentFunction(ContextHashSegmentFunction function);
+
+    void removeHashSegmentFunction(ContextHashSegmentFunction function);
+
+    /**
+     * Returns the hash function of an outermost hash-segmented context for the event type, or null if there is none.
+     * The first context deployed wins if multiple hash-segmented contexts apply to the same event type.
+     *
+     * @param eventType event type
+     * @return function or null
+     */
+    ContextHashSegmentFunction getHashSegmentFunction(EventType eventType);
+
+    /**
+     * Returns indicator whether an outermost hash-segmented context applies to an event type of the name.
+     *
+     * @param eventTypeName event type name
+     * @return indicator
+     */
+    boolean hasHashSegmentFunction(String eventTypeName);
 }
@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.common.internal.context.mgr;
 
+import com.espertech.esper.common.client.EventType;
 import com.espertech.esper.common.client.context.ContextStateEventContextDestroyed;
 import com.espertech.esper.common.client.context.ContextStateListener;
 import com.espertech.esper.common.internal.context.controller.core.ContextDefinition;
@@ -18,7 +19,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ContextManagementServiceImpl implements ContextManagementService {
@@ -26,6 +29,8 @@ public class ContextManagementServiceImpl implements ContextManagementService {
 
     private final CopyOnWriteArrayList<ContextStateListener> listeners = new CopyOnWriteArrayList<>();
     private final Map<String, ContextDeployment> deployments = new HashMap<>();
+    private final Map<EventType, CopyOnWriteArrayList<ContextHashSegmentFunction>> hashSegmentFunctions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> hashSegmentTypeNames = new ConcurrentHashMap<>();
 
     public void addContext(ContextDefinition contextDefinition, EPStatementInitServices services) {
         ContextDeployment deployment = deployments.get(services.getDeploymentId());
@@ -75,6 +80,35 @@ public class ContextManagementServiceImpl implements ContextManagementService {
         ContextStateEventUtil.dispatchContext(listeners, () -> new ContextStateEventContextDestroyed(runtimeURI, deploymentIdCreateContext, contextName), ContextStateListener::onContextDestroyed);
     }
 
+    public void addHashSegmentFunction(ContextHashSegmentFunction function) {
+        hashSegmentFunctions.computeIfAbsent(function.getEventType(), k -> new CopyOnWriteArrayList<>()).add(function);
+        hashSegmentTypeNames.merge(function.getEventType().getName(), 1, Integer::sum);
+    }
+
+    public void removeHashSegmentFunction(ContextHashSegmentFunction function) {
+        boolean[] removed = new boolean[1];
+        hashSegmentFunctions.computeIfPresent(function.getEventType(), (type, functions) -> {
+            removed[0] = functions.remove(function);
+            return functions.isEmpty() ? null : functions;
+        });
+        if (removed[0]) {
+            hashSegmentTypeNames.computeIfPresent(function.getEventType().getName(), (name, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    public ContextHashSegmentFunction getHashSegmentFunction(EventType eventType) {
+        CopyOnWriteArrayList<ContextHashSegmentFunction> functions = hashSegmentFunctions.get(eventType);
+        if (functions == null) {
+            return null;
+        }
+        Iterator<ContextHashSegmentFunction> it = functions.iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    public boolean hasHashSegmentFunction(String eventTypeName) {
+        return eventTypeName != null && hashSegmentTypeNames.containsKey(eventTypeName);
+    }
+
     public CopyOnWriteArrayList<ContextStateListener> getListeners() {
         return listeners;
     }
@@ -123,6 +123,7 @@ public class ContextStatementEventEvaluatorDefault implements ContextStatementEv
         agentInstance.getAgentInstanceContext().getAgentInstanceLock().acquireWriteLock();
         try {
             agentInstance.getAgentInstanceContext().getVariableManagementService().setLocalVersion();
+            agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementFilterVersion().startDispatch();
 
             // sub-selects always go first
             for (FilterHandle handle : callbacks) {
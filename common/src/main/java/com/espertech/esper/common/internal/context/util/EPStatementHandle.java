@@ -36,8 +36,9 @@ public class EPStatementHandle {
     private final StatementMetricHandle metricsHandle;
     private final InsertIntoLatchFactory insertIntoFrontLatchFactory;
     private final InsertIntoLatchFactory insertIntoBackLatchFactory;
+    private final boolean batchable;
 
-    public EPStatementHandle(String statementName, String deploymentId, int statementId, String optionalStatementEPL, int priority, boolean preemptive, boolean canSelfJoin, MultiMatchHandler multiMatchHandler, boolean hasVariables, boolean hasTableAccess, StatementMetricHandle metricsHandle, InsertIntoLatchFactory insertIntoFrontLatchFactory, InsertIntoLatchFactory insertIntoBackLatchFactory) {
+    public EPStatementHandle(String statementName, String deploymentId, int statementId, String optionalStatementEPL, int priority, boolean preemptive, boolean canSelfJoin, MultiMatchHandler multiMatchHandler, boolean hasVariables, boolean hasTableAccess, StatementMetricHandle metricsHandle, InsertIntoLatchFactory insertIntoFrontLatchFactory, InsertIntoLatchFactory insertIntoBackLatchFactory, boolean batchable) {
         this.statementName = statementName;
         this.deploymentId = deploymentId;
         this.statementId = statementId;
@@ -51,6 +52,7 @@ public class EPStatementHandle {
         this.metricsHandle = metricsHandle;
         this.insertIntoFrontLatchFactory = insertIntoFrontLatchFactory;
         this.insertIntoBackLatchFactory = insertIntoBackLatchFactory;
+        this.batchable = batchable;
     }
 
     /**
@@ -147,4 +149,14 @@ public class EPStatementHandle {
     public InsertIntoLatchFactory getInsertIntoBackLatchFactory() {
         return insertIntoBackLatchFactory;
     }
+
+    /**
+     * Returns true if the statement may receive the filter matches of a coalesced event batch as a single array,
+     * i.e. the statement is a stateless filter-and-select that does not depend on the order relative to other statements.
+     *
+     * @return batchable indicator
+     */
+    public boolean isBatchable() {
+        return batchable;
+    }
 }
@@ -16,6 +16,7 @@ package com.espertech.esper.common.internal.context.util;
 public class StatementAgentInstanceFilterVersion {
 
     private volatile long stmtFilterVersion;
+    private long dispatchSequence;
 
     /**
      * Ctor.
@@ -38,7 +39,24 @@ public class StatementAgentInstanceFilterVersion {
     }
 
     /**
-     * Check current filter.
+     * Returns the sequence number of the current or last dispatch of filter matches to the statement.
+     *
+     * @return dispatch sequence
+     */
+    public long getDispatchSequence() {
+        return dispatchSequence;
+    }
+
+    /**
+     * Counts the start of the dispatch of an event's filter matches to the statement.
+     */
+    public void startDispatch() {
+        dispatchSequence++;
+    }
+
+    /**
+     * Check current filter. A current filter starts the dispatch of an event to the statement, which is counted
+     * by the dispatch sequence.
      *
      * @param filterVersion to check
      * @return false if not current
@@ -51,6 +69,7 @@ public class StatementAgentInstanceFilterVersion {
             }
             return false;
         }
+        startDispatch();
         return true;
     }
 }
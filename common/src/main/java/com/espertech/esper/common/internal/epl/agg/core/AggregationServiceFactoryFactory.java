@@ -233,6 +233,7 @@ public class AggregationServiceFactoryFactory {
             }
         } else {
             AggGroupByDesc groupDesc = new AggGroupByDesc(rowStateDesc, isUnidirectional, isFireAndForget, isOnSelect, groupByNodes, groupByMultiKey);
+            groupDesc.setCompactGroupState(HintEnum.COMPACT_GROUP_STATE.getHint(annotations) != null);
             boolean hasNoReclaim = HintEnum.DISABLE_RECLAIM_GROUP.getHint(annotations) != null;
             Hint reclaimGroupAged = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
             Hint reclaimGroupFrequency = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
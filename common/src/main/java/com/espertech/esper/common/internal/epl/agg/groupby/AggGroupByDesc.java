@@ -24,6 +24,7 @@ public class AggGroupByDesc {
 
     private boolean refcounted;
     private boolean reclaimAged;
+    private boolean compactGroupState;
     private AggSvcGroupByReclaimAgedEvalFuncFactoryForge reclaimEvaluationFunctionMaxAge;
     private AggSvcGroupByReclaimAgedEvalFuncFactoryForge reclaimEvaluationFunctionFrequency;
 
@@ -60,6 +61,10 @@ public class AggGroupByDesc {
         return reclaimAged;
     }
 
+    public boolean isCompactGroupState() {
+        return compactGroupState;
+    }
+
     public AggSvcGroupByReclaimAgedEvalFuncFactoryForge getReclaimEvaluationFunctionMaxAge() {
         return reclaimEvaluationFunctionMaxAge;
     }
@@ -80,6 +85,10 @@ public class AggGroupByDesc {
         this.reclaimAged = reclaimAged;
     }
 
+    public void setCompactGroupState(boolean compactGroupState) {
+        this.compactGroupState = compactGroupState;
+    }
+
     public void setReclaimEvaluationFunctionMaxAge(AggSvcGroupByReclaimAgedEvalFuncFactoryForge reclaimEvaluationFunctionMaxAge) {
         this.reclaimEvaluationFunctionMaxAge = reclaimEvaluationFunctionMaxAge;
     }
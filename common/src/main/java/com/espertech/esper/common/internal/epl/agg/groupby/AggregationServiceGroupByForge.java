@@ -24,6 +24,7 @@ import com.espertech.esper.common.internal.bytecodemodel.model.expression.Codege
 import com.espertech.esper.common.internal.bytecodemodel.model.expression.CodegenExpressionBuilder;
 import com.espertech.esper.common.internal.bytecodemodel.model.expression.CodegenExpressionField;
 import com.espertech.esper.common.internal.bytecodemodel.model.expression.CodegenExpressionMember;
+import com.espertech.esper.common.internal.collection.CompactHashMap;
 import com.espertech.esper.common.internal.context.module.EPStatementInitServices;
 import com.espertech.esper.common.internal.epl.agg.core.*;
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
@@ -127,7 +128,7 @@ public class AggregationServiceGroupByForge implements AggregationServiceFactory
         explicitMembers.add(new CodegenTypedParam(EPTYPE_MAP_OBJECT_AGGROW, MEMBER_AGGREGATORSPERGROUP.getRef()));
         explicitMembers.add(new CodegenTypedParam(EPTypePremade.OBJECT.getEPType(), MEMBER_CURRENTGROUPKEY.getRef()).setFinal(false));
         explicitMembers.add(new CodegenTypedParam(classNames.getRowTop(), MEMBER_CURRENTROW.getRef()).setFinal(false));
-        ctor.getBlock().assignRef(MEMBER_AGGREGATORSPERGROUP, newInstance(EPTypePremade.HASHMAP.getEPType()));
+        ctor.getBlock().assignRef(MEMBER_AGGREGATORSPERGROUP, newInstance(aggGroupByDesc.isCompactGroupState() ? CompactHashMap.EPTYPE : EPTypePremade.HASHMAP.getEPType()));
         if (aggGroupByDesc.isReclaimAged()) {
             AggSvcGroupByReclaimAgedImpl.ctorCodegenReclaim(ctor, explicitMembers, classScope, reclaimAge, reclaimFreq);
         }
@@ -0,0 +1,175 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.fafquery.processor;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventPropertyGetter;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.type.EPType;
+import com.espertech.esper.common.client.type.EPTypeClass;
+import com.espertech.esper.common.internal.collection.MultiKeyFromObjectArray;
+import com.espertech.esper.common.internal.collection.Pair;
+import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.epl.index.base.EventTable;
+import com.espertech.esper.common.internal.epl.index.base.EventTableAndNamePair;
+import com.espertech.esper.common.internal.epl.join.lookup.IndexMultiKey;
+import com.espertech.esper.common.internal.epl.join.queryplan.QueryPlanIndexItem;
+import com.espertech.esper.common.internal.epl.lookupplansubord.EventTableIndexRepository;
+import com.espertech.esper.common.internal.epl.lookupplansubord.EventTableIndexUtil;
+import com.espertech.esper.common.internal.util.JavaClassHelper;
+
+import java.util.*;
+
+/**
+ * Tracks the lookups that fire-and-forget queries perform against a named window partition and
+ * suggests single-property hash indexes for properties that are repeatedly looked up by full scan.
+ * Indexes created this way are dropped again when no query uses them for a number of queries.
+ * Only indexes this component itself allocated are dropped, and only while no statement or explicit index
+ * has a reference to them in the index metadata.
+ * <p>
+ * Recording happens under the partition read lock and is synchronized. Creating and dropping indexes
+ * happens through {@link #adapt} which the caller invokes holding the partition write lock.
+ */
+public class FireAndForgetAdaptiveIndex {
+    public final static int SCAN_THRESHOLD = 8;
+    public final static int QUERY_WINDOW = 1000;
+
+    private final static MultiKeyFromObjectArray SINGLE_KEY = values -> values[0];
+
+    private final EventType eventType;
+    private final Map<String, Integer> scanCounts = new HashMap<>();
+    private final Map<IndexMultiKey, Long> adaptiveIndexLastUse = new HashMap<>();
+    private final Map<IndexMultiKey, EventTable> adaptiveIndexTables = new HashMap<>();
+    private final Set<String> unsupported = new HashSet<>();
+    private long queryNumber;
+    private String pendingCreate;
+    private boolean pendingDrop;
+
+    public FireAndForgetAdaptiveIndex(EventType eventType) {
+        this.eventType = eventType;
+    }
+
+    /**
+     * Record a lookup that used the given index.
+     *
+     * @param index index used
+     */
+    public synchronized void lookupIndex(IndexMultiKey index) {
+        queryNumber++;
+        if (adaptiveIndexLastUse.containsKey(index)) {
+            adaptiveIndexLastUse.put(index, queryNumber);
+        }
+        checkDrop();
+    }
+
+    /**
+     * Record a lookup that fell back to a full scan even though hash-key properties were available.
+     *
+     * @param keyPropertyNames hash-key properties provided by the query
+     */
+    public synchronized void lookupScan(String[] keyPropertyNames) {
+        queryNumber++;
+        if (queryNumber % QUERY_WINDOW == 0) {
+            scanCounts.clear();
+        }
+        for (String keyPropertyName : keyPropertyNames) {
+            if (unsupported.contains(keyPropertyName)) {
+                continue;
+            }
+            int count = scanCounts.merge(keyPropertyName, 1, Integer::sum);
+            if (count >= SCAN_THRESHOLD && pendingCreate == null) {
+                pendingCreate = keyPropertyName;
+            }
+            break;
+        }
+        checkDrop();
+    }
+
+    public synchronized boolean isAdaptPending() {
+        return pendingCreate != null || pendingDrop;
+    }
+
+    /**
+     * Create the pending index, if any, and drop indexes that have not been used within the query window.
+     * The caller must hold the partition write lock.
+     *
+     * @param indexRepository      index repository of the partition
+     * @param dataWindowContents   current rows
+     * @param agentInstanceContext partition context
+     */
+    public synchronized void adapt(EventTableIndexRepository indexRepository, Iterable<EventBean> dataWindowContents, AgentInstanceContext agentInstanceContext) {
+        if (pendingDrop) {
+            pendingDrop = false;
+            Iterator<Map.Entry<IndexMultiKey, Long>> it = adaptiveIndexLastUse.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<IndexMultiKey, Long> entry = it.next();
+                if (queryNumber - entry.getValue() >= QUERY_WINDOW) {
+                    EventTable table = adaptiveIndexTables.remove(entry.getKey());
+                    // a statement or create-index may since have planned against the index, in which case its refcount owns it
+                    if (!isReferenced(indexRepository, entry.getKey()) && indexRepository.getIndexByDesc(entry.getKey()) == table) {
+                        indexRepository.removeIndex(entry.getKey());
+                    }
+                    it.remove();
+                }
+            }
+        }
+
+        if (pendingCreate != null) {
+            String propertyName = pendingCreate;
+            pendingCreate = null;
+            scanCounts.remove(propertyName);
+            QueryPlanIndexItem item = makeIndexItem(propertyName);
+            if (item == null) {
+                unsupported.add(propertyName);
+                return;
+            }
+            IndexMultiKey indexMultiKey = item.toIndexMultiKey();
+            if (isReferenced(indexRepository, indexMultiKey) ||
+                EventTableIndexUtil.findExactMatchNameAndType(indexRepository.getTableIndexesRefCount().keySet(), indexMultiKey) != null) {
+                return;
+            }
+            Pair<IndexMultiKey, EventTableAndNamePair> added = indexRepository.addExplicitIndexOrReuse(item, dataWindowContents, eventType, null, null, agentInstanceContext, null);
+            adaptiveIndexLastUse.put(added.getFirst(), queryNumber);
+            adaptiveIndexTables.put(added.getFirst(), added.getSecond().getEventTable());
+        }
+    }
+
+    public synchronized Set<IndexMultiKey> getAdaptiveIndexes() {
+        return new HashSet<>(adaptiveIndexLastUse.keySet());
+    }
+
+    private static boolean isReferenced(EventTableIndexRepository indexRepository, IndexMultiKey indexMultiKey) {
+        return EventTableIndexUtil.findExactMatchNameAndType(indexRepository.getEventTableIndexMetadata().getIndexes().keySet(), indexMultiKey) != null;
+    }
+
+    private void checkDrop() {
+        if (adaptiveIndexLastUse.isEmpty() || queryNumber % QUERY_WINDOW != 0) {
+            return;
+        }
+        for (Long lastUse : adaptiveIndexLastUse.values()) {
+            if (queryNumber - lastUse >= QUERY_WINDOW) {
+                pendingDrop = true;
+                return;
+            }
+        }
+    }
+
+    private QueryPlanIndexItem makeIndexItem(String propertyName) {
+        EventPropertyGetter getter = eventType.getGetter(propertyName);
+        EPType type = eventType.getPropertyEPType(propertyName);
+        if (getter == null || !(type instanceof EPTypeClass)) {
+            return null;
+        }
+        EPTypeClass boxed = JavaClassHelper.getBoxedType((EPTypeClass) type);
+        return new QueryPlanIndexItem(new String[]{propertyName}, new EPTypeClass[]{boxed}, getter, SINGLE_KEY, null,
+            null, null, null, null, false, null, null);
+    }
+}
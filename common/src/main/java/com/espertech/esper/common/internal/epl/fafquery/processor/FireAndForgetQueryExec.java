@@ -65,6 +65,16 @@ public class FireAndForgetQueryExec {
                                                  EventTableIndexRepository indexRepository,
                                                  String objectName,
                                                  AgentInstanceContext agentInstanceContext) {
+        return snapshot(filterQueryGraph, annotations, virtualDataWindow, indexRepository, objectName, agentInstanceContext, null);
+    }
+
+    public static Collection<EventBean> snapshot(QueryGraph filterQueryGraph,
+                                                 Annotation[] annotations,
+                                                 VirtualDWView virtualDataWindow,
+                                                 EventTableIndexRepository indexRepository,
+                                                 String objectName,
+                                                 AgentInstanceContext agentInstanceContext,
+                                                 FireAndForgetAdaptiveIndex adaptiveIndex) {
 
         QueryGraphValue queryGraphValue = filterQueryGraph == null ? null : filterQueryGraph.getGraphValue(QueryGraphForge.SELF_STREAM, 0);
         if (queryGraphValue == null || queryGraphValue.getItems().isEmpty()) {
@@ -93,6 +103,9 @@ public class FireAndForgetQueryExec {
 
         // regular index lookup
         if (tablePair != null) {
+            if (adaptiveIndex != null) {
+                adaptiveIndex.lookupIndex(tablePair.getFirst());
+            }
             return snapshotIndex(keysAvailable, rangesAvailable, tablePair, virtualDataWindow, annotations, agentInstanceContext, objectName);
         }
 
@@ -102,6 +115,9 @@ public class FireAndForgetQueryExec {
             return inkwResult.getObject();
         }
 
+        if (adaptiveIndex != null && keysAvailable.getIndexed().length > 0) {
+            adaptiveIndex.lookupScan(keysAvailable.getIndexed());
+        }
         queryPlanReportTableScan(annotations, agentInstanceContext, objectName);
         return null;
     }
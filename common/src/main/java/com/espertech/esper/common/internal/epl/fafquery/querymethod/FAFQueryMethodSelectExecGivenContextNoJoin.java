@@ -12,6 +12,7 @@ package com.espertech.esper.common.internal.epl.fafquery.querymethod;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.context.ContextPartitionSelector;
+import com.espertech.esper.common.internal.collection.Pair;
 import com.espertech.esper.common.internal.collection.UniformPair;
 import com.espertech.esper.common.internal.context.mgr.ContextManagementService;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
@@ -23,6 +24,7 @@ import com.espertech.esper.common.internal.event.core.EventBeanUtility;
 import java.util.*;
 
 import static com.espertech.esper.common.internal.epl.fafquery.querymethod.FAFQueryMethodSelectExecUtil.processorWithAssign;
+import static com.espertech.esper.common.internal.epl.fafquery.querymethod.FAFQueryMethodSelectExecUtil.snapshotPartitions;
 import static com.espertech.esper.common.internal.epl.fafquery.querymethod.FAFQueryMethodUtil.agentInstanceIds;
 
 public class FAFQueryMethodSelectExecGivenContextNoJoin implements FAFQueryMethodSelectExec {
@@ -38,12 +40,8 @@ public class FAFQueryMethodSelectExecGivenContextNoJoin implements FAFQueryMetho
         Collection<Integer> agentInstanceIds = agentInstanceIds(processor, singleSelector, contextManagementService);
 
         List<ContextPartitionResult> contextPartitionResults = new ArrayList<ContextPartitionResult>();
-        for (int agentInstanceId : agentInstanceIds) {
-            FireAndForgetInstance processorInstance = processor.getProcessorInstanceContextById(agentInstanceId);
-            if (processorInstance != null) {
-                Collection<EventBean> coll = processorInstance.snapshotBestEffort(select.getQueryGraph(), select.getAnnotations());
-                contextPartitionResults.add(new ContextPartitionResult(coll, processorInstance.getAgentInstanceContext()));
-            }
+        for (Pair<FireAndForgetInstance, Collection<EventBean>> partition : snapshotPartitions(processor, agentInstanceIds, select.getQueryGraph(), select.getAnnotations())) {
+            contextPartitionResults.add(new ContextPartitionResult(partition.getSecond(), partition.getFirst().getAgentInstanceContext()));
         }
 
         // process context partitions
@@ -12,6 +12,7 @@ package com.espertech.esper.common.internal.epl.fafquery.querymethod;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.context.ContextPartitionSelector;
+import com.espertech.esper.common.internal.collection.Pair;
 import com.espertech.esper.common.internal.context.mgr.ContextManagementService;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
 import com.espertech.esper.common.internal.epl.fafquery.processor.FireAndForgetInstance;
@@ -38,13 +39,9 @@ public class FAFQueryMethodSelectExecSomeContextNoJoin implements FAFQueryMethod
 
         Collection<EventBean> events = new ArrayDeque<>();
         AgentInstanceContext agentInstanceContext = null;
-        for (int agentInstanceId : agentInstanceIds) {
-            FireAndForgetInstance processorInstance = processor.getProcessorInstanceContextById(agentInstanceId);
-            if (processorInstance != null) {
-                agentInstanceContext = processorInstance.getAgentInstanceContext();
-                Collection<EventBean> coll = processorInstance.snapshotBestEffort(select.getQueryGraph(), select.getAnnotations());
-                events.addAll(coll);
-            }
+        for (Pair<FireAndForgetInstance, Collection<EventBean>> partition : snapshotPartitions(processor, agentInstanceIds, select.getQueryGraph(), select.getAnnotations())) {
+            agentInstanceContext = partition.getFirst().getAgentInstanceContext();
+            events.addAll(partition.getSecond());
         }
 
         // get RSP
@@ -10,8 +10,10 @@
  */
 package com.espertech.esper.common.internal.epl.fafquery.querymethod;
 
+import com.espertech.esper.common.client.EPException;
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventPropertyValueGetter;
+import com.espertech.esper.common.client.annotation.HintEnum;
 import com.espertech.esper.common.internal.collection.Pair;
 import com.espertech.esper.common.internal.collection.UniformPair;
 import com.espertech.esper.common.internal.context.aifactory.core.StatementAgentInstanceFactoryUtil;
@@ -24,6 +26,7 @@ import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorCont
 import com.espertech.esper.common.internal.epl.expression.core.ExprNodeUtilityEvaluate;
 import com.espertech.esper.common.internal.epl.fafquery.processor.FireAndForgetInstance;
 import com.espertech.esper.common.internal.epl.fafquery.processor.FireAndForgetProcessor;
+import com.espertech.esper.common.internal.epl.fafquery.processor.FireAndForgetProcessorNamedWindow;
 import com.espertech.esper.common.internal.epl.join.querygraph.QueryGraph;
 import com.espertech.esper.common.internal.epl.resultset.core.ResultSetProcessor;
 import com.espertech.esper.common.internal.epl.resultset.core.ResultSetProcessorFactoryProvider;
@@ -37,8 +40,11 @@ import com.espertech.esper.common.internal.event.core.EventBeanUtility;
 
 import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FAFQueryMethodSelectExecUtil {
+    private static ExecutorService parallelScanExecutor;
 
     static Collection<EventBean> snapshot(ExprEvaluator filter, FireAndForgetInstance processorInstance, QueryGraph queryGraph, Annotation[] annotations) {
         Collection<EventBean> coll = processorInstance.snapshotBestEffort(queryGraph, annotations);
@@ -48,6 +54,81 @@ public class FAFQueryMethodSelectExecUtil {
         return coll;
     }
 
+    /**
+     * Snapshot each context partition, returning the instance and its rows in partition order.
+     * Named window partitions are snapshot on a dedicated pool of daemon threads when the query carries the parallel-scan hint,
+     * so that partition scans, which may block on partition locks, do not occupy the common fork-join pool.
+     */
+    static List<Pair<FireAndForgetInstance, Collection<EventBean>>> snapshotPartitions(FireAndForgetProcessor processor, Collection<Integer> agentInstanceIds, QueryGraph queryGraph, Annotation[] annotations) {
+        List<FireAndForgetInstance> instances = new ArrayList<>(agentInstanceIds.size());
+        for (int agentInstanceId : agentInstanceIds) {
+            FireAndForgetInstance processorInstance = processor.getProcessorInstanceContextById(agentInstanceId);
+            if (processorInstance != null) {
+                instances.add(processorInstance);
+            }
+        }
+
+        List<Pair<FireAndForgetInstance, Collection<EventBean>>> result = new ArrayList<>(instances.size());
+        if (instances.size() > 1 && processor instanceof FireAndForgetProcessorNamedWindow && HintEnum.PARALLEL_SCAN.getHint(annotations) != null) {
+            ExecutorService pool = getParallelScanExecutor();
+            List<Future<Collection<EventBean>>> futures = new ArrayList<>(instances.size() - 1);
+            try {
+                for (int i = 1; i < instances.size(); i++) {
+                    FireAndForgetInstance processorInstance = instances.get(i);
+                    futures.add(pool.submit(() -> processorInstance.snapshotBestEffort(queryGraph, annotations)));
+                }
+
+                // the calling thread snapshots the first partition while the pool works on the others
+                result.add(new Pair<>(instances.get(0), instances.get(0).snapshotBestEffort(queryGraph, annotations)));
+                for (int i = 1; i < instances.size(); i++) {
+                    result.add(new Pair<>(instances.get(i), futures.get(i - 1).get()));
+                }
+                return result;
+            } catch (ExecutionException ex) {
+                cancel(futures);
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new EPException("Failed to snapshot partition: " + ex.getCause().getMessage(), ex.getCause());
+            } catch (InterruptedException ex) {
+                cancel(futures);
+                Thread.currentThread().interrupt();
+                throw new EPException("Interrupted snapshotting partitions", ex);
+            } catch (RuntimeException ex) {
+                cancel(futures);
+                throw ex;
+            }
+        }
+
+        for (FireAndForgetInstance processorInstance : instances) {
+            result.add(new Pair<>(processorInstance, processorInstance.snapshotBestEffort(queryGraph, annotations)));
+        }
+        return result;
+    }
+
+    private static synchronized ExecutorService getParallelScanExecutor() {
+        if (parallelScanExecutor == null) {
+            int numThreads = Runtime.getRuntime().availableProcessors();
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory threadFactory = r -> {
+                Thread t = new Thread(r);
+                t.setName("com.espertech.esper.FAFParallelScan-" + count.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            };
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+            parallelScanExecutor = executor;
+        }
+        return parallelScanExecutor;
+    }
+
+    private static void cancel(List<Future<Collection<EventBean>>> futures) {
+        for (Future<Collection<EventBean>> future : futures) {
+            future.cancel(true);
+        }
+    }
+
     static ResultSetProcessor processorWithAssign(ResultSetProcessorFactoryProvider processorProvider, AgentInstanceContext agentInstanceContext, FAFQueryMethodAssignerSetter assignerSetter, Map<Integer, ExprTableEvalStrategyFactory> tableAccesses, Map<Integer, SubSelectFactory> subselects) {
         return processorWithAssign(processorProvider, agentInstanceContext, agentInstanceContext, assignerSetter, tableAccesses, subselects);
     }
@@ -0,0 +1,162 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.common;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.hook.expr.EventBeanService;
+import com.espertech.esper.common.internal.context.util.StatementAgentInstanceLock;
+import com.espertech.esper.common.internal.epl.enummethod.cache.ExpressionResultCacheService;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.common.internal.epl.expression.time.abacus.TimeAbacus;
+import com.espertech.esper.common.internal.epl.script.core.AgentInstanceScriptContext;
+import com.espertech.esper.common.internal.epl.table.core.TableExprEvaluatorContext;
+import com.espertech.esper.common.internal.epl.variable.core.VariableManagementService;
+import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactory;
+import com.espertech.esper.common.internal.metrics.audit.AuditProvider;
+import com.espertech.esper.common.internal.metrics.instrumentation.InstrumentationCommon;
+import com.espertech.esper.common.internal.schedule.TimeProvider;
+import com.espertech.esper.common.internal.settings.ExceptionHandlingService;
+
+import java.lang.annotation.Annotation;
+import java.util.TimeZone;
+
+/**
+ * Evaluation context for polling a lookup key in a pool thread.
+ * <p>
+ * Each poll task has its own table lock tracking, that is released when the task completes, and its own filter state,
+ * so that pool threads do not share the mutable state of the context of the statement.
+ * The agent instance lock is held by the thread that dispatched the lookup batch and is not available to pool threads.
+ * </p>
+ */
+public class ExprEvaluatorContextPollTask implements ExprEvaluatorContext {
+    private final ExprEvaluatorContext context;
+    private final TableExprEvaluatorContext tableExprEvaluatorContext = new TableExprEvaluatorContext();
+    private Object filterReboolConstant;
+
+    public ExprEvaluatorContextPollTask(ExprEvaluatorContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Release any table locks acquired by the poll task.
+     */
+    public void releaseTableLocks() {
+        tableExprEvaluatorContext.releaseAcquiredLocks();
+    }
+
+    public String getStatementName() {
+        return context.getStatementName();
+    }
+
+    public String getRuntimeURI() {
+        return context.getRuntimeURI();
+    }
+
+    public int getStatementId() {
+        return context.getStatementId();
+    }
+
+    public String getDeploymentId() {
+        return context.getDeploymentId();
+    }
+
+    public TimeProvider getTimeProvider() {
+        return context.getTimeProvider();
+    }
+
+    public ExpressionResultCacheService getExpressionResultCacheService() {
+        return context.getExpressionResultCacheService();
+    }
+
+    public int getAgentInstanceId() {
+        return context.getAgentInstanceId();
+    }
+
+    public EventBean getContextProperties() {
+        return context.getContextProperties();
+    }
+
+    public AgentInstanceScriptContext getAllocateAgentInstanceScriptContext() {
+        return context.getAllocateAgentInstanceScriptContext();
+    }
+
+    public StatementAgentInstanceLock getAgentInstanceLock() {
+        throw new UnsupportedOperationException("Agent-instance lock not available to concurrent polling");
+    }
+
+    public TableExprEvaluatorContext getTableExprEvaluatorContext() {
+        return tableExprEvaluatorContext;
+    }
+
+    public Object getFilterReboolConstant() {
+        return filterReboolConstant;
+    }
+
+    public void setFilterReboolConstant(Object value) {
+        this.filterReboolConstant = value;
+    }
+
+    public Object getUserObjectCompileTime() {
+        return context.getUserObjectCompileTime();
+    }
+
+    public EventBeanService getEventBeanService() {
+        return context.getEventBeanService();
+    }
+
+    public AuditProvider getAuditProvider() {
+        return context.getAuditProvider();
+    }
+
+    public InstrumentationCommon getInstrumentationProvider() {
+        return context.getInstrumentationProvider();
+    }
+
+    public ExceptionHandlingService getExceptionHandlingService() {
+        return context.getExceptionHandlingService();
+    }
+
+    public String getContextName() {
+        return context.getContextName();
+    }
+
+    public String getEPLWhenAvailable() {
+        return context.getEPLWhenAvailable();
+    }
+
+    public TimeZone getTimeZone() {
+        return context.getTimeZone();
+    }
+
+    public TimeAbacus getTimeAbacus() {
+        return context.getTimeAbacus();
+    }
+
+    public VariableManagementService getVariableManagementService() {
+        return context.getVariableManagementService();
+    }
+
+    public EventBeanTypedEventFactory getEventBeanTypedEventFactory() {
+        return context.getEventBeanTypedEventFactory();
+    }
+
+    public String getModuleName() {
+        return context.getModuleName();
+    }
+
+    public boolean isWritesToTables() {
+        return context.isWritesToTables();
+    }
+
+    public Annotation[] getAnnotations() {
+        return context.getAnnotations();
+    }
+}
\ No newline at end of file
@@ -17,25 +17,31 @@ import com.espertech.esper.common.internal.collection.IterablesArrayIterator;
 import com.espertech.esper.common.internal.context.util.AgentInstanceStopServices;
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.common.internal.epl.historical.datacache.HistoricalDataCache;
+import com.espertech.esper.common.internal.epl.historical.datacache.HistoricalDataCacheLoading;
 import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
+import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategyConcurrent;
 import com.espertech.esper.common.internal.epl.historical.indexingstrategy.PollResultIndexingStrategy;
 import com.espertech.esper.common.internal.epl.historical.indexingstrategy.UnindexedEventTableList;
 import com.espertech.esper.common.internal.epl.index.base.EventTable;
 import com.espertech.esper.common.internal.view.core.View;
 import com.espertech.esper.common.internal.view.core.Viewable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 
 /**
  * Implements a poller viewable that uses a polling strategy, a cache and
  * some input parameters extracted from event streams to perform the polling.
  */
 public abstract class HistoricalEventViewableBase implements Viewable, HistoricalEventViewable {
+    private static final Logger log = LoggerFactory.getLogger(HistoricalEventViewableBase.class);
+
     protected final HistoricalEventViewableFactoryBase factory;
     protected final PollExecStrategy pollExecStrategy;
     protected final ExprEvaluatorContext exprEvaluatorContext;
     protected HistoricalDataCache dataCache;
+    protected HistoricalLookupBatch lookupBatch;
     protected View child;
 
     protected static final EventBean[][] NULL_ROWS;
@@ -54,6 +60,9 @@ public abstract class HistoricalEventViewableBase implements Viewable, Historica
     public void stop(AgentInstanceStopServices services) {
         pollExecStrategy.destroy();
         dataCache.destroy();
+        if (lookupBatch != null) {
+            lookupBatch.destroy();
+        }
     }
 
     public void setChild(View view) {
@@ -71,6 +80,9 @@ public abstract class HistoricalEventViewableBase implements Viewable, Historica
     };
 
     public EventTable[][] poll(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext) {
+        if (lookupBatch != null) {
+            return pollBatch(lookupEventsPerStream, indexingStrategy, exprEvaluatorContext);
+        }
         HistoricalDataCache localDataCache = factory.getDataCacheThreadLocal().get();
         boolean strategyStarted = false;
 
@@ -104,6 +116,7 @@ public abstract class HistoricalEventViewableBase implements Viewable, Historica
                     if (localDataCache != null) {
                         localDataCache.put(cacheMultiKey, multi);
                     }
+                    refreshIfDue(cacheMultiKey, lookupValue, indexingStrategy);
                 }
             }
 
@@ -120,7 +133,11 @@ public abstract class HistoricalEventViewableBase implements Viewable, Historica
                     }
 
                     // Poll using the polling execution strategy and lookup values
+                    long startTime = System.nanoTime();
                     List<EventBean> pollResult = pollExecStrategy.poll(lookupValue, this.exprEvaluatorContext);
+                    if (dataCache instanceof HistoricalDataCacheLoading) {
+                        ((HistoricalDataCacheLoading) dataCache).recordLoadTime(System.nanoTime() - startTime);
+                    }
 
                     // index the result, if required, using an indexing strategy
                     EventTable[] indexTable = indexingStrategy.index(pollResult, dataCache.isActive(), this.exprEvaluatorContext);
@@ -150,6 +167,105 @@ public abstract class HistoricalEventViewableBase implements Viewable, Historica
         return resultPerInputRow;
     }
 
+    private EventTable[][] pollBatch(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext) {
+        HistoricalDataCache localDataCache = factory.getDataCacheThreadLocal().get();
+        EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
+
+        // resolve rows from cache, collecting the distinct keys not found in cache in order of first occurrence
+        Map<Object, Integer> missIndexPerKey = null;
+        List<Object> missLookupValues = null;
+        int[] missIndexPerRow = null;
+        for (int row = 0; row < lookupEventsPerStream.length; row++) {
+            Object lookupValue = factory.evaluator.evaluate(lookupEventsPerStream[row], true, exprEvaluatorContext);
+            Object cacheMultiKey = factory.lookupValueToMultiKey.transform(lookupValue);
+
+            EventTable[] result = null;
+            if (localDataCache != null) {
+                result = localDataCache.getCached(cacheMultiKey);
+            }
+            if (result == null) {
+                result = dataCache.getCached(cacheMultiKey);
+                if (result != null) {
+                    if (localDataCache != null) {
+                        localDataCache.put(cacheMultiKey, result);
+                    }
+                    refreshIfDue(cacheMultiKey, lookupValue, indexingStrategy);
+                }
+            }
+            if (result != null) {
+                resultPerInputRow[row] = result;
+                continue;
+            }
+
+            if (missIndexPerKey == null) {
+                missIndexPerKey = new LinkedHashMap<>();
+                missLookupValues = new ArrayList<>();
+                missIndexPerRow = new int[lookupEventsPerStream.length];
+            }
+            Integer missIndex = missIndexPerKey.get(cacheMultiKey);
+            if (missIndex == null) {
+                missIndex = missLookupValues.size();
+                missIndexPerKey.put(cacheMultiKey, missIndex);
+                missLookupValues.add(lookupValue);
+            }
+            missIndexPerRow[row] = missIndex + 1;
+        }
+        if (missIndexPerKey == null) {
+            return resultPerInputRow;
+        }
+
+        // poll each distinct key once, then index and cache
+        long startTime = System.nanoTime();
+        List<List<EventBean>> pollResults = lookupBatch.poll(pollExecStrategy, missLookupValues, this.exprEvaluatorContext);
+        if (dataCache instanceof HistoricalDataCacheLoading) {
+            long loadTime = (System.nanoTime() - startTime) / missLookupValues.size();
+            for (int i = 0; i < missLookupValues.size(); i++) {
+                ((HistoricalDataCacheLoading) dataCache).recordLoadTime(loadTime);
+            }
+        }
+        EventTable[][] indexTables = new EventTable[missLookupValues.size()][];
+        int index = 0;
+        for (Object cacheMultiKey : missIndexPerKey.keySet()) {
+            EventTable[] indexTable = indexingStrategy.index(pollResults.get(index), dataCache.isActive(), this.exprEvaluatorContext);
+            indexTables[index++] = indexTable;
+            dataCache.put(cacheMultiKey, indexTable);
+            if (localDataCache != null) {
+                localDataCache.put(cacheMultiKey, indexTable);
+            }
+        }
+
+        // assign to rows in order
+        for (int row = 0; row < lookupEventsPerStream.length; row++) {
+            if (missIndexPerRow[row] != 0) {
+                resultPerInputRow[row] = indexTables[missIndexPerRow[row] - 1];
+            }
+        }
+        return resultPerInputRow;
+    }
+
+    private void refreshIfDue(Object cacheMultiKey, Object lookupValue, PollResultIndexingStrategy indexingStrategy) {
+        // refresh-ahead polls outside of the start-done lifecycle and requires a strategy that can do so concurrently
+        if (!(dataCache instanceof HistoricalDataCacheLoading) || !(pollExecStrategy instanceof PollExecStrategyConcurrent)) {
+            return;
+        }
+        PollExecStrategyConcurrent strategy = (PollExecStrategyConcurrent) pollExecStrategy;
+        HistoricalDataCacheLoading cache = (HistoricalDataCacheLoading) dataCache;
+        if (!strategy.isConcurrentPoll() || !cache.isRefreshDue(cacheMultiKey)) {
+            return;
+        }
+        cache.refresh(() -> {
+            try {
+                long startTime = System.nanoTime();
+                List<EventBean> pollResult = strategy.pollConcurrent(lookupValue, exprEvaluatorContext);
+                cache.recordLoadTime(System.nanoTime() - startTime);
+                cache.put(cacheMultiKey, indexingStrategy.index(pollResult, true, exprEvaluatorContext));
+            } catch (RuntimeException ex) {
+                log.warn("Failed to refresh historical data cache entry: " + ex.getMessage(), ex);
+                cache.refreshFailed(cacheMultiKey);
+            }
+        });
+    }
+
     public EventType getEventType() {
         return factory.getEventType();
     }
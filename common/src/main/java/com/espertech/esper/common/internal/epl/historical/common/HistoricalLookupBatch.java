@@ -0,0 +1,160 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.common;
+
+import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.configuration.common.ConfigurationCommonLookupBatch;
+import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
+import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategyConcurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls a batch of distinct lookup keys, either in the calling thread or concurrently using a pool of threads,
+ * returning the poll results in the order of the keys.
+ */
+public class HistoricalLookupBatch {
+    private final int numThreads;
+    private final String threadNamePrefix;
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Ctor.
+     *
+     * @param numThreads       number of threads for concurrent polling, or zero for polling in the calling thread
+     * @param threadNamePrefix thread name prefix
+     */
+    public HistoricalLookupBatch(int numThreads, String threadNamePrefix) {
+        this.numThreads = numThreads;
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    /**
+     * Returns the lookup batch for the configuration provided, or null if lookups are not batched.
+     *
+     * @param config               configuration or null if not configured
+     * @param agentInstanceContext agent instance context
+     * @return lookup batch or null
+     */
+    public static HistoricalLookupBatch make(ConfigurationCommonLookupBatch config, AgentInstanceContext agentInstanceContext) {
+        if (config == null) {
+            return null;
+        }
+        String uri = agentInstanceContext.getRuntimeURI() == null ? "default" : agentInstanceContext.getRuntimeURI();
+        return new HistoricalLookupBatch(config.getNumThreads(), "com.espertech.esper.HistoricalLookup-" + uri + "-" + agentInstanceContext.getStatementName() + "-");
+    }
+
+    /**
+     * Poll each of the lookup values.
+     *
+     * @param strategy             poll strategy
+     * @param lookupValues         distinct lookup values
+     * @param exprEvaluatorContext context
+     * @return poll result per lookup value, in the same order
+     */
+    public List<List<EventBean>> poll(PollExecStrategy strategy, List<Object> lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+        if (numThreads > 0 && lookupValues.size() > 1 && strategy instanceof PollExecStrategyConcurrent) {
+            PollExecStrategyConcurrent concurrent = (PollExecStrategyConcurrent) strategy;
+            if (concurrent.isConcurrentPoll()) {
+                return pollConcurrent(concurrent, lookupValues, exprEvaluatorContext);
+            }
+        }
+
+        List<List<EventBean>> results = new ArrayList<>(lookupValues.size());
+        strategy.start();
+        try {
+            for (Object lookupValue : lookupValues) {
+                results.add(strategy.poll(lookupValue, exprEvaluatorContext));
+            }
+        } catch (EPException ex) {
+            strategy.done();
+            throw ex;
+        }
+        strategy.done();
+        return results;
+    }
+
+    /**
+     * Stop any threads.
+     */
+    public synchronized void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private List<List<EventBean>> pollConcurrent(PollExecStrategyConcurrent strategy, List<Object> lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+        ExecutorService pool = getExecutor();
+        List<Future<List<EventBean>>> futures = new ArrayList<>(lookupValues.size() - 1);
+        try {
+            for (int i = 1; i < lookupValues.size(); i++) {
+                Object lookupValue = lookupValues.get(i);
+                futures.add(pool.submit(() -> {
+                    ExprEvaluatorContextPollTask taskContext = new ExprEvaluatorContextPollTask(exprEvaluatorContext);
+                    try {
+                        return strategy.pollConcurrent(lookupValue, taskContext);
+                    } finally {
+                        taskContext.releaseTableLocks();
+                    }
+                }));
+            }
+
+            // the calling thread polls the first key while the pool works on the others
+            List<List<EventBean>> results = new ArrayList<>(lookupValues.size());
+            results.add(strategy.pollConcurrent(lookupValues.get(0), exprEvaluatorContext));
+            for (Future<List<EventBean>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException ex) {
+            cancel(futures);
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new EPException("Failed to poll lookup batch: " + ex.getCause().getMessage(), ex.getCause());
+        } catch (InterruptedException ex) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new EPException("Interrupted polling lookup batch", ex);
+        } catch (RuntimeException ex) {
+            cancel(futures);
+            throw ex;
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory threadFactory = r -> {
+                Thread t = new Thread(r);
+                t.setName(threadNamePrefix + count.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            };
+            executor = new ThreadPoolExecutor(numThreads, numThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    private static void cancel(List<Future<List<EventBean>>> futures) {
+        for (Future<List<EventBean>> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
@@ -11,8 +11,10 @@
 package com.espertech.esper.common.internal.epl.historical.database.core;
 
 import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.client.configuration.common.ConfigurationCommonDBRef;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
 import com.espertech.esper.common.internal.epl.historical.common.HistoricalEventViewableBase;
+import com.espertech.esper.common.internal.epl.historical.common.HistoricalLookupBatch;
 import com.espertech.esper.common.internal.epl.historical.database.connection.DatabaseConfigException;
 import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
 
@@ -26,5 +28,7 @@ public class HistoricalEventViewableDatabase extends HistoricalEventViewableBase
         } catch (DatabaseConfigException e) {
             throw new EPException("Failed to obtain cache: " + e.getMessage(), e);
         }
+        ConfigurationCommonDBRef config = agentInstanceContext.getConfigSnapshot().getCommon().getDatabaseReferences().get(factory.databaseName);
+        this.lookupBatch = HistoricalLookupBatch.make(config == null ? null : config.getLookupBatchDesc(), agentInstanceContext);
     }
 }
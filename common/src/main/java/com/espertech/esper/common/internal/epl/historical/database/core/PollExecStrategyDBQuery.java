@@ -17,7 +17,7 @@ import com.espertech.esper.common.client.hook.type.SQLInputParameterContext;
 import com.espertech.esper.common.client.hook.type.SQLOutputRowValueContext;
 import com.espertech.esper.common.internal.collection.Pair;
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
-import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
+import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategyConcurrent;
 import com.espertech.esper.common.internal.event.bean.core.BeanEventType;
 import com.espertech.esper.common.internal.metrics.audit.AuditPath;
 import com.espertech.esper.common.internal.util.DatabaseTypeBinding;
@@ -31,7 +31,7 @@ import java.util.*;
 /**
  * Viewable providing historical data from a database.
  */
-public class PollExecStrategyDBQuery implements PollExecStrategy {
+public class PollExecStrategyDBQuery implements PollExecStrategyConcurrent {
     private static final Logger JDBC_PERF_LOG = LoggerFactory.getLogger(AuditPath.JDBC_LOG);
 
     private final HistoricalEventViewableDatabaseFactory factory;
@@ -69,8 +69,27 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
         return result;
     }
 
+    public boolean isConcurrentPoll() {
+        // a retained connection and its prepared statement are shared and cannot be used concurrently
+        return connectionCache instanceof ConnectionCacheNoCacheImpl;
+    }
+
+    public List<EventBean> pollConcurrent(Object lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+        Pair<Connection, PreparedStatement> pair = connectionCache.getConnection();
+        try {
+            return executeUnsynchronized(pair.getSecond(), lookupValues);
+        } finally {
+            connectionCache.doneWith(pair);
+        }
+    }
+
     private synchronized List<EventBean> execute(PreparedStatement preparedStatement,
                                                  Object lookupValuePerStream) {
+        return executeUnsynchronized(preparedStatement, lookupValuePerStream);
+    }
+
+    private List<EventBean> executeUnsynchronized(PreparedStatement preparedStatement,
+                                                  Object lookupValuePerStream) {
         boolean hasJDBCLogging = factory.enableJDBCLogging && JDBC_PERF_LOG.isInfoEnabled();
 
         // set parameters
@@ -13,7 +13,9 @@ package com.espertech.esper.common.internal.epl.historical.datacache;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonCache;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonCacheExpiryTime;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonCacheLRU;
+import com.espertech.esper.common.client.configuration.common.ConfigurationCommonCacheSizeBounded;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.epl.expression.time.abacus.TimeAbacus;
 
 /**
  * Factory for data caches for use caching database query results and method invocation results.
@@ -47,9 +49,23 @@ public class HistoricalDataCacheFactory {
             return makeTimeCache(expCache, agentInstanceContext, streamNum, scheduleCallbackId);
         }
 
+        if (cacheDesc instanceof ConfigurationCommonCacheSizeBounded) {
+            ConfigurationCommonCacheSizeBounded sizeBoundedCache = (ConfigurationCommonCacheSizeBounded) cacheDesc;
+            return makeSizeBoundedCache(sizeBoundedCache, agentInstanceContext, streamNum);
+        }
+
         throw new IllegalStateException("Cache implementation class not configured");
     }
 
+    protected HistoricalDataCache makeSizeBoundedCache(ConfigurationCommonCacheSizeBounded sizeBoundedCache, AgentInstanceContext agentInstanceContext, int streamNum) {
+        TimeAbacus timeAbacus = agentInstanceContext.getClasspathImportServiceRuntime().getTimeAbacus();
+        long maxAge = sizeBoundedCache.getMaxAgeSeconds() > 0 ? timeAbacus.deltaForSecondsDouble(sizeBoundedCache.getMaxAgeSeconds()) : 0;
+        long refreshAhead = sizeBoundedCache.getRefreshAheadSeconds() > 0 ? timeAbacus.deltaForSecondsDouble(sizeBoundedCache.getRefreshAheadSeconds()) : 0;
+        String uri = agentInstanceContext.getRuntimeURI() == null ? "default" : agentInstanceContext.getRuntimeURI();
+        String threadNamePrefix = "com.espertech.esper.HistoricalDataCache-" + uri + "-" + agentInstanceContext.getStatementName() + "-" + streamNum + "-";
+        return new HistoricalDataCacheSizeBoundedImpl(sizeBoundedCache.getMaxSizeBytes(), maxAge, refreshAhead, agentInstanceContext.getSchedulingService(), threadNamePrefix);
+    }
+
     protected HistoricalDataCache makeTimeCache(ConfigurationCommonCacheExpiryTime expCache, AgentInstanceContext agentInstanceContext, int streamNum, int scheduleCallbackId) {
         return new HistoricalDataCacheExpiringImpl(expCache.getMaxAgeSeconds(), expCache.getPurgeIntervalSeconds(), expCache.getCacheReferenceType(),
                 agentInstanceContext, agentInstanceContext.getScheduleBucket().allocateSlot());
@@ -0,0 +1,47 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.datacache;
+
+/**
+ * Data cache that is informed of the time taken for loading entries and that may request to refresh
+ * an entry ahead of its expiry.
+ */
+public interface HistoricalDataCacheLoading extends HistoricalDataCache {
+    /**
+     * Records the time taken for polling the rows of an entry.
+     *
+     * @param nanos load time in nanoseconds
+     */
+    void recordLoadTime(long nanos);
+
+    /**
+     * Returns true if the cached entry for the key is due for refresh and is not currently being refreshed,
+     * marking the entry as being refreshed.
+     *
+     * @param methodParams is the keys to look up in the cache
+     * @return indicator whether the caller should refresh the entry
+     */
+    boolean isRefreshDue(Object methodParams);
+
+    /**
+     * Executes the refresh asynchronously; the refresh puts the entry or calls {@link #refreshFailed(Object)}.
+     *
+     * @param refresh refresh to execute
+     */
+    void refresh(Runnable refresh);
+
+    /**
+     * Indicates that the refresh of an entry failed, leaving the current entry to expire.
+     *
+     * @param methodParams is the keys to the cache entry
+     */
+    void refreshFailed(Object methodParams);
+}
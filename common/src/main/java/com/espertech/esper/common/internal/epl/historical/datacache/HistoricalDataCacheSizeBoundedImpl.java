@@ -0,0 +1,439 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.datacache;
+
+import com.espertech.esper.common.internal.epl.index.base.EventTable;
+import com.espertech.esper.common.internal.schedule.TimeProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query result data cache implementation that is bounded by the estimated size of the cached rows.
+ * <p>
+ * New entries enter a small LRU admission window. Entries leaving the window compete with the least-recently-used
+ * entry of the main segmented LRU (probation and protected segments) and are only admitted if they were accessed
+ * more frequently, as estimated by a count-min sketch with periodic aging (W-TinyLFU).
+ * This keeps frequently-used keys cached when scans of one-time keys pass through.
+ * <p>
+ * Entries expire after the maximum age. An access within the refresh-ahead time before expiry marks the entry
+ * for refresh, which the caller performs asynchronously while the current entry continues to be served.
+ */
+public class HistoricalDataCacheSizeBoundedImpl implements HistoricalDataCacheLoading {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final long maxSizeBytes;
+    private final long windowMaxBytes;
+    private final long mainMaxBytes;
+    private final long protectedMaxBytes;
+    private final long maxAge;
+    private final long refreshAfter;
+    private final TimeProvider timeProvider;
+    private final String threadNamePrefix;
+
+    private final Map<Object, Node> data = new HashMap<>();
+    private final NodeList window = new NodeList();
+    private final NodeList probation = new NodeList();
+    private final NodeList protectedSegment = new NodeList();
+    private final FrequencySketch sketch = new FrequencySketch();
+    private ThreadPoolExecutor refreshExecutor;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long loadCount;
+    private long loadTimeNanos;
+    private long refreshCount;
+
+    /**
+     * Ctor.
+     *
+     * @param maxSizeBytes     maximum estimated size in bytes
+     * @param maxAge           maximum age in runtime time units, or zero for no expiry
+     * @param refreshAhead     time before expiry in runtime time units when an access refreshes, or zero for no refresh-ahead
+     * @param timeProvider     runtime time
+     * @param threadNamePrefix name prefix for the refresh thread
+     */
+    public HistoricalDataCacheSizeBoundedImpl(long maxSizeBytes, long maxAge, long refreshAhead, TimeProvider timeProvider, String threadNamePrefix) {
+        this.maxSizeBytes = maxSizeBytes;
+        this.windowMaxBytes = Math.max(1, maxSizeBytes / 100);
+        this.mainMaxBytes = maxSizeBytes - windowMaxBytes;
+        this.protectedMaxBytes = mainMaxBytes * 8 / 10;
+        this.maxAge = maxAge;
+        this.refreshAfter = maxAge > 0 && refreshAhead > 0 && refreshAhead < maxAge ? maxAge - refreshAhead : 0;
+        this.timeProvider = timeProvider;
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    public synchronized EventTable[] getCached(Object methodParams) {
+        sketch.increment(methodParams);
+        Node node = data.get(methodParams);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        if (maxAge > 0 && timeProvider.getTime() - node.loadTime > maxAge) {
+            remove(node);
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        onAccess(node);
+        return node.rows;
+    }
+
+    public synchronized void put(Object methodParams, EventTable[] rows) {
+        long weight = HistoricalDataCacheWeigher.weigh(rows);
+        Node node = data.get(methodParams);
+        if (node != null) {
+            segment(node).weight += weight - node.weight;
+            node.rows = rows;
+            node.weight = weight;
+            node.loadTime = timeProvider.getTime();
+            node.refreshing = false;
+        } else {
+            if (weight > maxSizeBytes) {
+                return;
+            }
+            node = new Node(methodParams, rows, weight, timeProvider.getTime());
+            data.put(methodParams, node);
+            node.queue = WINDOW;
+            window.addLast(node);
+            sketch.ensureCapacity(data.size());
+        }
+        evict();
+    }
+
+    public boolean isActive() {
+        return true;
+    }
+
+    public synchronized void recordLoadTime(long nanos) {
+        loadCount++;
+        loadTimeNanos += nanos;
+    }
+
+    public synchronized boolean isRefreshDue(Object methodParams) {
+        if (refreshAfter == 0) {
+            return false;
+        }
+        Node node = data.get(methodParams);
+        if (node == null || node.refreshing || timeProvider.getTime() - node.loadTime <= refreshAfter) {
+            return false;
+        }
+        node.refreshing = true;
+        refreshCount++;
+        return true;
+    }
+
+    public synchronized void refresh(Runnable refresh) {
+        if (refreshExecutor == null) {
+            refreshExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r);
+                t.setName(threadNamePrefix + "refresh");
+                t.setDaemon(true);
+                return t;
+            });
+            refreshExecutor.allowCoreThreadTimeOut(true);
+        }
+        refreshExecutor.execute(refresh);
+    }
+
+    public synchronized void refreshFailed(Object methodParams) {
+        Node node = data.get(methodParams);
+        if (node != null) {
+            node.refreshing = false;
+        }
+    }
+
+    public synchronized void destroy() {
+        if (refreshExecutor != null) {
+            ExecutorService executor = refreshExecutor;
+            refreshExecutor = null;
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return size
+     */
+    public synchronized int getSize() {
+        return data.size();
+    }
+
+    /**
+     * Returns the estimated size in bytes of all entries.
+     *
+     * @return size in bytes
+     */
+    public synchronized long getWeightedSize() {
+        return window.weight + probation.weight + protectedSegment.weight;
+    }
+
+    /**
+     * Returns the maximum estimated size in bytes.
+     *
+     * @return max size
+     */
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    /**
+     * Returns the number of lookups that found an entry.
+     *
+     * @return hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that did not find an entry or found an expired entry.
+     *
+     * @return misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries removed or rejected for size.
+     *
+     * @return evictions
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of loads recorded.
+     *
+     * @return loads
+     */
+    public synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Returns the total load time recorded in nanoseconds.
+     *
+     * @return load time
+     */
+    public synchronized long getLoadTimeNanos() {
+        return loadTimeNanos;
+    }
+
+    /**
+     * Returns the number of refreshes requested.
+     *
+     * @return refreshes
+     */
+    public synchronized long getRefreshCount() {
+        return refreshCount;
+    }
+
+    public synchronized String toString() {
+        return "HistoricalDataCacheSizeBoundedImpl size=" + data.size() + " weightedSize=" + getWeightedSize() +
+            " hits=" + hitCount + " misses=" + missCount + " evictions=" + evictionCount +
+            " loads=" + loadCount + " loadTimeNanos=" + loadTimeNanos + " refreshes=" + refreshCount;
+    }
+
+    private void onAccess(Node node) {
+        if (node.queue == WINDOW) {
+            window.moveToLast(node);
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedSegment.addLast(node);
+            while (protectedSegment.weight > protectedMaxBytes && protectedSegment.head != node) {
+                Node demoted = protectedSegment.head;
+                protectedSegment.remove(demoted);
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protectedSegment.moveToLast(node);
+        }
+    }
+
+    private void evict() {
+        // window overflow competes for admission with the main segment's least-recently-used entries
+        while (window.weight > windowMaxBytes) {
+            Node candidate = window.head;
+            window.remove(candidate);
+            boolean admit = true;
+            while (probation.weight + protectedSegment.weight + candidate.weight > mainMaxBytes) {
+                Node victim = probation.head != null ? probation.head : protectedSegment.head;
+                if (victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                    admit = false;
+                    break;
+                }
+                remove(victim);
+                evictionCount++;
+            }
+            if (admit) {
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+            } else {
+                data.remove(candidate.key);
+                evictionCount++;
+            }
+        }
+
+        // an updated entry may have grown beyond the main segment
+        while (probation.weight + protectedSegment.weight > mainMaxBytes) {
+            remove(probation.head != null ? probation.head : protectedSegment.head);
+            evictionCount++;
+        }
+    }
+
+    private void remove(Node node) {
+        segment(node).remove(node);
+        data.remove(node.key);
+    }
+
+    private NodeList segment(Node node) {
+        return node.queue == WINDOW ? window : node.queue == PROBATION ? probation : protectedSegment;
+    }
+
+    private static class Node {
+        private final Object key;
+        private EventTable[] rows;
+        private long weight;
+        private long loadTime;
+        private int queue;
+        private boolean refreshing;
+        private Node prev;
+        private Node next;
+
+        Node(Object key, EventTable[] rows, long weight, long loadTime) {
+            this.key = key;
+            this.rows = rows;
+            this.weight = weight;
+            this.loadTime = loadTime;
+        }
+    }
+
+    private static class NodeList {
+        private Node head;
+        private Node tail;
+        private long weight;
+
+        void addLast(Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            weight += node.weight;
+        }
+
+        void remove(Node node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        void moveToLast(Node node) {
+            if (tail != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, four counters per key, halving all counters after a sample period.
+     */
+    static class FrequencySketch {
+        private static final long[] SEEDS = {0x97cb3127L, 0xbf58476d1ce4e5b9L, 0x94d049bb133111ebL, 0x9e3779b97f4a7c15L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private long[] table = new long[16];
+        private int additions;
+
+        void ensureCapacity(int size) {
+            if (size > table.length) {
+                // a key's counter moves to the same index in either half, so copying into both halves retains estimates
+                long[] grown = new long[table.length * 2];
+                System.arraycopy(table, 0, grown, 0, table.length);
+                System.arraycopy(table, 0, grown, table.length, table.length);
+                table = grown;
+            }
+        }
+
+        void increment(Object key) {
+            int hash = spread(key);
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int shift = offsetOf(hash, i);
+                if (((table[index] >>> shift) & 0xfL) != 0xfL) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= table.length * 10) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key);
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int count = (int) ((table[indexOf(hash, i)] >>> offsetOf(hash, i)) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return ((int) h) & (table.length - 1);
+        }
+
+        private static int offsetOf(int hash, int i) {
+            return (((hash >>> (i << 3)) & 3) + (i << 2)) << 2;
+        }
+
+        private static int spread(Object key) {
+            int h = key == null ? 0 : key.hashCode();
+            h = ((h >>> 16) ^ h) * 0x45d9f3b;
+            return (h >>> 16) ^ h;
+        }
+    }
+}
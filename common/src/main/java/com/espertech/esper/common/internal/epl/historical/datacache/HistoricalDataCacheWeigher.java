@@ -0,0 +1,89 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.datacache;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.epl.index.base.EventTable;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimates the heap size of cached rows from the underlying event objects. Map values and object-array and collection
+ * elements are walked to a limited depth, map keys are considered shared and other objects count as a fixed size.
+ */
+public class HistoricalDataCacheWeigher {
+    private static final int MAX_DEPTH = 3;
+    private static final long OBJECT_SIZE = 64;
+    private static final long REFERENCE_SIZE = 8;
+
+    /**
+     * Returns the estimated size in bytes of the tables; events are counted once, additional tables count as index overhead.
+     *
+     * @param rows tables
+     * @return estimated size in bytes
+     */
+    public static long weigh(EventTable[] rows) {
+        long size = 16 + REFERENCE_SIZE * rows.length;
+        if (rows.length == 0) {
+            return size;
+        }
+        for (EventBean event : rows[0]) {
+            size += 24 + weigh(event.getUnderlying(), 0);
+        }
+        if (rows.length > 1) {
+            Integer numEvents = rows[0].getNumberOfEvents();
+            long events = numEvents == null ? 0 : numEvents;
+            size += (rows.length - 1) * (48 + 4 * REFERENCE_SIZE * events);
+        }
+        return size;
+    }
+
+    static long weigh(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 16;
+        }
+        if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        }
+        if (depth >= MAX_DEPTH) {
+            return OBJECT_SIZE;
+        }
+        if (value instanceof Map) {
+            long size = 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += 32 + weigh(entry.getValue(), depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Object[]) {
+            long size = 16;
+            for (Object item : (Object[]) value) {
+                size += REFERENCE_SIZE + weigh(item, depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            long size = 40;
+            for (Object item : (Collection<?>) value) {
+                size += 16 + weigh(item, depth + 1);
+            }
+            return size;
+        }
+        return OBJECT_SIZE;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.execstrategy;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.List;
+
+/**
+ * Polling strategy that can in addition poll from multiple threads at the same time, outside of the start-done lifecycle.
+ */
+public interface PollExecStrategyConcurrent extends PollExecStrategy {
+    /**
+     * Returns indicator whether concurrent polling is possible with the resources this strategy uses.
+     *
+     * @return true for concurrent polling
+     */
+    public boolean isConcurrentPoll();
+
+    /**
+     * Poll events using the keys provided, acquiring and releasing any resources required; may be called by multiple threads.
+     *
+     * @param lookupValues         is keys for exeuting a query or such
+     * @param exprEvaluatorContext context
+     * @return a list of events for the keys
+     */
+    public List<EventBean> pollConcurrent(Object lookupValues, ExprEvaluatorContext exprEvaluatorContext);
+}
@@ -15,6 +15,7 @@ import com.espertech.esper.common.client.configuration.common.ConfigurationCommo
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonMethodRef;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
 import com.espertech.esper.common.internal.epl.historical.common.HistoricalEventViewableBase;
+import com.espertech.esper.common.internal.epl.historical.common.HistoricalLookupBatch;
 import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
 
 public class HistoricalEventViewableMethod extends HistoricalEventViewableBase {
@@ -29,5 +30,7 @@ public class HistoricalEventViewableMethod extends HistoricalEventViewableBase {
         } catch (Throwable t) {
             throw new EPException("Failed to obtain cache: " + t.getMessage(), t);
         }
+        ConfigurationCommonMethodRef config = agentInstanceContext.getClasspathImportServiceRuntime().getConfigurationMethodRef(factory.getConfigurationName());
+        this.lookupBatch = HistoricalLookupBatch.make(config == null ? null : config.getLookupBatchDesc(), agentInstanceContext);
     }
 }
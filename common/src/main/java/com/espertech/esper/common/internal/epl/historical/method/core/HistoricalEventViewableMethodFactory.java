@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.common.internal.epl.historical.method.core;
 
+import com.espertech.esper.common.client.configuration.common.ConfigurationCommonMethodRef;
 import com.espertech.esper.common.client.type.EPTypeClass;
 import com.espertech.esper.common.internal.context.aifactory.core.ModuleIncidentals;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
@@ -30,7 +31,9 @@ public class HistoricalEventViewableMethodFactory extends HistoricalEventViewabl
     }
 
     public HistoricalEventViewable activate(AgentInstanceContext agentInstanceContext) {
-        PollExecStrategyMethod strategy = new PollExecStrategyMethod(targetStrategy.make(agentInstanceContext), conversionStrategy);
+        ConfigurationCommonMethodRef config = agentInstanceContext.getClasspathImportServiceRuntime().getConfigurationMethodRef(configurationName);
+        boolean concurrentPoll = config != null && config.getLookupBatchDesc() != null && config.getLookupBatchDesc().isThreadSafe();
+        PollExecStrategyMethod strategy = new PollExecStrategyMethod(targetStrategy.make(agentInstanceContext), conversionStrategy, concurrentPoll);
         return new HistoricalEventViewableMethod(this, strategy, agentInstanceContext);
     }
 
@@ -12,19 +12,21 @@ package com.espertech.esper.common.internal.epl.historical.method.core;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
-import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
+import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategyConcurrent;
 import com.espertech.esper.common.internal.epl.historical.method.poll.MethodConversionStrategy;
 import com.espertech.esper.common.internal.epl.historical.method.poll.MethodTargetStrategy;
 
 import java.util.List;
 
-public class PollExecStrategyMethod implements PollExecStrategy {
+public class PollExecStrategyMethod implements PollExecStrategyConcurrent {
     private final MethodTargetStrategy methodTargetStrategy;
     private final MethodConversionStrategy methodConversionStrategy;
+    private final boolean concurrentPoll;
 
-    public PollExecStrategyMethod(MethodTargetStrategy methodTargetStrategy, MethodConversionStrategy methodConversionStrategy) {
+    public PollExecStrategyMethod(MethodTargetStrategy methodTargetStrategy, MethodConversionStrategy methodConversionStrategy, boolean concurrentPoll) {
         this.methodTargetStrategy = methodTargetStrategy;
         this.methodConversionStrategy = methodConversionStrategy;
+        this.concurrentPoll = concurrentPoll;
     }
 
     public void start() {
@@ -39,6 +41,14 @@ public class PollExecStrategyMethod implements PollExecStrategy {
         return null;
     }
 
+    public boolean isConcurrentPoll() {
+        return concurrentPoll;
+    }
+
+    public List<EventBean> pollConcurrent(Object lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+        return poll(lookupValues, exprEvaluatorContext);
+    }
+
     public void done() {
         // no action
     }
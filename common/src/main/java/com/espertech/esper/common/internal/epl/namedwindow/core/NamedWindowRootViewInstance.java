@@ -12,8 +12,11 @@ package com.espertech.esper.common.internal.epl.namedwindow.core;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.annotation.HintEnum;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.context.util.StatementAgentInstanceLock;
 import com.espertech.esper.common.internal.epl.expression.core.ExprValidationException;
+import com.espertech.esper.common.internal.epl.fafquery.processor.FireAndForgetAdaptiveIndex;
 import com.espertech.esper.common.internal.epl.fafquery.processor.FireAndForgetQueryExec;
 import com.espertech.esper.common.internal.epl.index.base.EventTable;
 import com.espertech.esper.common.internal.epl.index.base.EventTableUtil;
@@ -26,9 +29,12 @@ import com.espertech.esper.common.internal.epl.lookupplansubord.EventTableIndexM
 import com.espertech.esper.common.internal.epl.lookupplansubord.EventTableIndexRepository;
 import com.espertech.esper.common.internal.epl.lookupplansubord.EventTableIndexRepositoryEntry;
 import com.espertech.esper.common.internal.epl.virtualdw.VirtualDWView;
+import com.espertech.esper.common.internal.event.offheap.OffHeapEventStore;
 import com.espertech.esper.common.internal.util.CollectionUtil;
 import com.espertech.esper.common.internal.view.core.ViewSupport;
 import com.espertech.esper.common.internal.view.core.Viewable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
 import java.util.Collection;
@@ -41,10 +47,15 @@ import java.util.Map;
  * or on-delete statement expires events. The view keeps track of on-delete statements their indexes used.
  */
 public class NamedWindowRootViewInstance extends ViewSupport {
+    private static final Logger log = LoggerFactory.getLogger(NamedWindowRootViewInstance.class);
+    private static final long ADAPT_LOCK_TIMEOUT_MSEC = 0;
+
     private final NamedWindowRootView rootView;
     private final AgentInstanceContext agentInstanceContext;
 
     private final EventTableIndexRepository indexRepository;
+    private final OffHeapEventStore offHeapStore;
+    private final FireAndForgetAdaptiveIndex adaptiveIndex;
 
     private Iterable<EventBean> dataWindowContents;
 
@@ -59,6 +70,18 @@ public class NamedWindowRootViewInstance extends ViewSupport {
                 indexRepository.addIndex(entry.getKey(), new EventTableIndexRepositoryEntry(entry.getValue().getOptionalIndexName(), entry.getValue().getOptionalIndexModuleName(), index));
             }
         }
+
+        OffHeapEventStore store = null;
+        if (!rootView.isVirtualDataWindow() && HintEnum.OFF_HEAP.getHint(agentInstanceContext.getAnnotations()) != null) {
+            store = OffHeapEventStore.make(rootView.getEventType());
+            if (store == null) {
+                log.warn("Named window event type '" + rootView.getEventType().getName() + "' does not support off-heap storage, retaining rows on-heap");
+            }
+        }
+        this.offHeapStore = store;
+
+        boolean adaptive = !rootView.isVirtualDataWindow() && HintEnum.ADAPTIVE_INDEX.getHint(agentInstanceContext.getAnnotations()) != null;
+        this.adaptiveIndex = adaptive ? new FireAndForgetAdaptiveIndex(rootView.getEventType()) : null;
     }
 
     public AgentInstanceContext getAgentInstanceContext() {
@@ -69,6 +92,15 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         return indexRepository.getIndexDescriptors();
     }
 
+    /**
+     * Returns the off-heap row store, or null when rows are held on-heap.
+     *
+     * @return store
+     */
+    public OffHeapEventStore getOffHeapStore() {
+        return offHeapStore;
+    }
+
     public Iterable<EventBean> getDataWindowContents() {
         return dataWindowContents;
     }
@@ -106,6 +138,12 @@ public class NamedWindowRootViewInstance extends ViewSupport {
 
     // Called by deletion strategy and also the insert-into for new events only
     public void update(EventBean[] newData, EventBean[] oldData) {
+        // Move new rows off-heap, the data window and indexes retain the compact events
+        if (offHeapStore != null && newData != null) {
+            newData = newData.clone();
+            offHeapStore.store(newData);
+        }
+
         // Update indexes for fast deletion, if there are any
         if (rootView.isChildBatching()) {
             for (EventTable table : indexRepository.getTables()) {
@@ -152,7 +190,35 @@ public class NamedWindowRootViewInstance extends ViewSupport {
             virtualDataWindow = getVirtualDataWindow();
         }
         return FireAndForgetQueryExec.snapshot(queryGraph, annotations, virtualDataWindow,
-                indexRepository, rootView.getEventType().getName(), agentInstanceContext);
+                indexRepository, rootView.getEventType().getName(), agentInstanceContext, adaptiveIndex);
+    }
+
+    /**
+     * Create or drop adaptive indexes as suggested by previous snapshots, if any.
+     * The caller must not hold the agent instance lock. Adapting is skipped, and retried by a later snapshot, when the write lock is not immediately available.
+     */
+    public void adaptIndexes() {
+        if (adaptiveIndex == null || !adaptiveIndex.isAdaptPending()) {
+            return;
+        }
+        StatementAgentInstanceLock lock = agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementAgentInstanceLock();
+        if (!lock.acquireWriteLock(ADAPT_LOCK_TIMEOUT_MSEC)) {
+            return;
+        }
+        try {
+            adaptiveIndex.adapt(indexRepository, dataWindowContents, agentInstanceContext);
+        } finally {
+            lock.releaseWriteLock();
+        }
+    }
+
+    /**
+     * Returns the adaptive index tracker, or null when adaptive indexing is not enabled.
+     *
+     * @return tracker
+     */
+    public FireAndForgetAdaptiveIndex getAdaptiveIndex() {
+        return adaptiveIndex;
     }
 
     /**
@@ -60,6 +60,9 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
         if (oldData != null) {
             rootViewInstance.removeOldData(oldData);
             numberOfEvents -= oldData.length;
+            if (rootViewInstance.getOffHeapStore() != null) {
+                rootViewInstance.getOffHeapStore().release(oldData);
+            }
         }
 
         if ((newData != null) && (!tailView.isParentBatchWindow())) {
@@ -195,6 +198,7 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
         } finally {
             releaseTableLocks(agentInstanceContext);
             agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementAgentInstanceLock().releaseReadLock();
+            rootViewInstance.adaptIndexes();
         }
     }
 
@@ -0,0 +1,209 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.pattern.filter;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.type.EPTypeClass;
+import com.espertech.esper.common.internal.compile.stage2.FilterSpecPlanPathTriplet;
+import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.context.util.AgentInstanceTransferServices;
+import com.espertech.esper.common.internal.context.util.EPStatementHandleCallbackFilter;
+import com.espertech.esper.common.internal.context.util.StatementAgentInstanceFilterVersion;
+import com.espertech.esper.common.internal.epl.expression.core.ExprFilterSpecLookupable;
+import com.espertech.esper.common.internal.filterspec.*;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallback;
+import com.espertech.esper.common.internal.filtersvc.FilterService;
+import com.espertech.esper.common.internal.util.JavaClassHelper;
+import com.espertech.esper.common.internal.util.SimpleNumberCoercer;
+import com.espertech.esper.common.internal.util.SimpleNumberCoercerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Shared index of waiting filter states keyed by the correlation value taken from a prior-tagged event.
+ * <p>
+ * All states are served by a single filter registration that carries the non-correlated parameters only.
+ * Upon a match the correlation property of the event is looked up in the index and the waiting states
+ * for that value receive the event in the order they started.
+ * Numeric correlation values are keyed by the type of the filter property, for both waiting states and events.
+ * </p>
+ * <p>
+ * A state that starts while an event is dispatched to the statement does not receive that same event, since
+ * a filter added at that time would not have been evaluated for the event either.
+ * </p>
+ */
+public class EvalFilterCorrelationIndex implements FilterHandleCallback {
+    private final EvalFilterNode evalFilterNode;
+    private final FilterSpecPlanPathTriplet[] triplets;
+    private final int correlationTripletIndex;
+    private final SimpleNumberCoercer keyCoercer;
+    private final Map<Object, LinkedHashSet<EvalFilterStateNode>> waiting = new HashMap<>();
+
+    private EPStatementHandleCallbackFilter handle;
+    private FilterValueSetParam[][] sharedValues;
+    private FilterService registeredWith;
+    private int count;
+
+    public EvalFilterCorrelationIndex(EvalFilterNode evalFilterNode) {
+        this.evalFilterNode = evalFilterNode;
+        this.triplets = evalFilterNode.getFactoryNode().getFilterSpec().getPlan().getPaths()[0].getTriplets();
+        this.correlationTripletIndex = evalFilterNode.getFactoryNode().getCorrelationTripletIndex();
+        ExprFilterSpecLookupable lookupable = triplets[correlationTripletIndex].getParam().getLkupable();
+        EPTypeClass keyType = lookupable.getReturnType() == null ? null : JavaClassHelper.getBoxedType(lookupable.getReturnType());
+        this.keyCoercer = keyType != null && JavaClassHelper.isNumeric(keyType) ? SimpleNumberCoercerFactory.getCoercer(null, keyType) : null;
+    }
+
+    /**
+     * Returns the correlation value for the prior events of a state.
+     *
+     * @param beginState prior events
+     * @return correlation value or null if none
+     */
+    public Object getKey(MatchedEventMap beginState) {
+        AgentInstanceContext agentInstanceContext = evalFilterNode.getContext().getAgentInstanceContext();
+        FilterValueSetParam value = triplets[correlationTripletIndex].getParam().getFilterValue(beginState, agentInstanceContext, agentInstanceContext.getStatementContextFilterEvalEnv());
+        return value == null ? null : coerceKey(value.getFilterForValue());
+    }
+
+    /**
+     * Adds a waiting state, registering the shared filter for the first state.
+     *
+     * @param key        correlation value
+     * @param node       state
+     * @param beginState prior events
+     * @return shared filter handle
+     */
+    public EPStatementHandleCallbackFilter add(Object key, EvalFilterStateNode node, MatchedEventMap beginState) {
+        LinkedHashSet<EvalFilterStateNode> nodes = waiting.get(key);
+        if (nodes == null) {
+            nodes = new LinkedHashSet<>(4);
+            waiting.put(key, nodes);
+        }
+        if (nodes.add(node)) {
+            count++;
+        }
+        node.correlationDispatchSequence = getStatementFilterVersion().getDispatchSequence();
+
+        if (registeredWith == null) {
+            AgentInstanceContext agentInstanceContext = evalFilterNode.getContext().getAgentInstanceContext();
+            if (sharedValues == null) {
+                sharedValues = computeSharedValues(beginState, agentInstanceContext);
+            }
+            if (handle == null) {
+                handle = new EPStatementHandleCallbackFilter(agentInstanceContext.getEpStatementAgentInstanceHandle(), this);
+            }
+            registeredWith = evalFilterNode.getContext().getFilterService();
+            registeredWith.add(evalFilterNode.getFactoryNode().getFilterSpec().getFilterForEventType(), sharedValues, handle);
+            updateFilterVersion(registeredWith);
+        }
+        return handle;
+    }
+
+    /**
+     * Removes a waiting state, unregistering the shared filter when no state remains.
+     *
+     * @param key  correlation value
+     * @param node state
+     */
+    public void remove(Object key, EvalFilterStateNode node) {
+        LinkedHashSet<EvalFilterStateNode> nodes = waiting.get(key);
+        if (nodes == null || !nodes.remove(node)) {
+            return;
+        }
+        if (nodes.isEmpty()) {
+            waiting.remove(key);
+        }
+        count--;
+
+        if (count == 0 && registeredWith != null) {
+            registeredWith.remove(handle, evalFilterNode.getFactoryNode().getFilterSpec().getFilterForEventType(), sharedValues);
+            updateFilterVersion(registeredWith);
+            registeredWith = null;
+        }
+    }
+
+    public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+        AgentInstanceContext agentInstanceContext = evalFilterNode.getContext().getAgentInstanceContext();
+        Object key = coerceKey(triplets[correlationTripletIndex].getParam().getLkupable().getEval().eval(theEvent, agentInstanceContext));
+        if (key == null) {
+            return; // null cannot match, same as the equals-index
+        }
+        LinkedHashSet<EvalFilterStateNode> nodes = waiting.get(key);
+        if (nodes == null) {
+            return;
+        }
+
+        // states may stop or new states may start while dispatching
+        EvalFilterStateNode[] snapshot = nodes.toArray(new EvalFilterStateNode[nodes.size()]);
+        long dispatchSequence = getStatementFilterVersion().getDispatchSequence();
+        for (EvalFilterStateNode node : snapshot) {
+            if (node.correlationDispatchSequence != dispatchSequence) {
+                node.matchFound(theEvent, allStmtMatches);
+            }
+        }
+    }
+
+    public boolean isSubSelect() {
+        return false;
+    }
+
+    /**
+     * Moves the shared filter to the target filter service, once for all waiting states.
+     *
+     * @param services transfer services
+     */
+    public void transfer(AgentInstanceTransferServices services) {
+        if (registeredWith == null || registeredWith == services.getTargetFilterService()) {
+            return;
+        }
+        FilterSpecActivatable filterSpec = evalFilterNode.getFactoryNode().getFilterSpec();
+        registeredWith.remove(handle, filterSpec.getFilterForEventType(), sharedValues);
+        registeredWith = services.getTargetFilterService();
+        registeredWith.add(filterSpec.getFilterForEventType(), sharedValues, handle);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    private FilterValueSetParam[][] computeSharedValues(MatchedEventMap beginState, AgentInstanceContext agentInstanceContext) {
+        FilterValueSetParam[] values = new FilterValueSetParam[triplets.length - 1];
+        int count = 0;
+        for (int i = 0; i < triplets.length; i++) {
+            if (i != correlationTripletIndex) {
+                values[count++] = triplets[i].getParam().getFilterValue(beginState, agentInstanceContext, agentInstanceContext.getStatementContextFilterEvalEnv());
+            }
+        }
+        FilterValueSetParam[][] valueList = new FilterValueSetParam[][]{values};
+        if (evalFilterNode.getAddendumFilters() != null) {
+            valueList = FilterAddendumUtil.multiplyAddendum(evalFilterNode.getAddendumFilters(), valueList);
+        }
+        return valueList;
+    }
+
+    private Object coerceKey(Object key) {
+        if (keyCoercer != null && key instanceof Number) {
+            return keyCoercer.coerceBoxed((Number) key);
+        }
+        return key;
+    }
+
+    private StatementAgentInstanceFilterVersion getStatementFilterVersion() {
+        return evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion();
+    }
+
+    private void updateFilterVersion(FilterService filterService) {
+        getStatementFilterVersion().setStmtFilterVersion(filterService.getFiltersVersion());
+    }
+}
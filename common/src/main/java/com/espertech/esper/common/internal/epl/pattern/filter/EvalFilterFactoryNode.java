@@ -27,6 +27,7 @@ public class EvalFilterFactoryNode extends EvalFactoryNodeBase {
     private String eventAsName;
     private Integer consumptionLevel;
     private int eventAsTagNumber;
+    private int correlationTripletIndex = -1;
 
     public void setFilterSpec(FilterSpecActivatable filterSpec) {
         this.filterSpec = filterSpec;
@@ -44,6 +45,10 @@ public class EvalFilterFactoryNode extends EvalFactoryNodeBase {
         this.eventAsTagNumber = eventAsTagNumber;
     }
 
+    public void setCorrelationTripletIndex(int correlationTripletIndex) {
+        this.correlationTripletIndex = correlationTripletIndex;
+    }
+
     public EvalNode makeEvalNode(PatternAgentInstanceContext agentInstanceContext, EvalNode parentNode) {
         return new EvalFilterNode(agentInstanceContext, this);
     }
@@ -64,6 +69,10 @@ public class EvalFilterFactoryNode extends EvalFactoryNodeBase {
         return eventAsTagNumber;
     }
 
+    public int getCorrelationTripletIndex() {
+        return correlationTripletIndex;
+    }
+
     public boolean isStateful() {
         return false;
     }
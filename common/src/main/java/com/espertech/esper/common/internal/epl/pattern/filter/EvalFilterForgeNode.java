@@ -17,11 +17,14 @@ import com.espertech.esper.common.internal.bytecodemodel.base.CodegenMethod;
 import com.espertech.esper.common.internal.compile.stage1.spec.FilterSpecRaw;
 import com.espertech.esper.common.internal.compile.util.CallbackAttribution;
 import com.espertech.esper.common.internal.compile.stage2.FilterSpecCompiled;
+import com.espertech.esper.common.internal.compile.stage2.FilterSpecPlanForge;
+import com.espertech.esper.common.internal.compile.stage2.FilterSpecPlanPathTripletForge;
 import com.espertech.esper.common.internal.compile.stage2.FilterSpecTracked;
 import com.espertech.esper.common.internal.context.aifactory.core.SAIFFInitializeSymbol;
 import com.espertech.esper.common.internal.epl.expression.core.ExprNodeUtilityPrint;
 import com.espertech.esper.common.internal.epl.pattern.core.EvalForgeNodeBase;
 import com.espertech.esper.common.internal.epl.pattern.core.PatternExpressionPrecedenceEnum;
+import com.espertech.esper.common.internal.filterspec.*;
 import com.espertech.esper.common.internal.schedule.ScheduleHandleTracked;
 
 import java.io.StringWriter;
@@ -40,6 +43,7 @@ public class EvalFilterForgeNode extends EvalForgeNodeBase {
     private final Integer consumptionLevel;
 
     private int eventAsTagNumber = -1;
+    private int correlationTripletIndex = -1;
 
     /**
      * Constructor.
@@ -125,6 +129,46 @@ public class EvalFilterForgeNode extends EvalForgeNodeBase {
         return false;
     }
 
+    public int getCorrelationTripletIndex() {
+        return correlationTripletIndex;
+    }
+
+    /**
+     * Plans a shared correlation index when the filter has a single unconditional path that compares
+     * exactly one property for equality against a prior-tagged event property and all other
+     * parameters do not depend on prior events.
+     */
+    public void planCorrelationIndex() {
+        correlationTripletIndex = -1;
+        if (filterSpec == null || consumptionLevel != null) {
+            return;
+        }
+        FilterSpecPlanForge plan = filterSpec.getParameters();
+        if (plan.getPaths().length != 1 || plan.getFilterConfirm() != null || plan.getFilterNegate() != null || plan.getPaths()[0].getPathNegate() != null) {
+            return;
+        }
+        FilterSpecPlanPathTripletForge[] triplets = plan.getPaths()[0].getTriplets();
+        int found = -1;
+        for (int i = 0; i < triplets.length; i++) {
+            FilterSpecPlanPathTripletForge triplet = triplets[i];
+            if (triplet.getTripletConfirm() != null) {
+                return;
+            }
+            FilterSpecParamForge param = triplet.getParam();
+            if (param instanceof FilterSpecParamEventPropForge && param.getFilterOperator() == FilterOperator.EQUAL) {
+                if (found != -1) {
+                    return;
+                }
+                found = i;
+            } else if (!(param instanceof FilterSpecParamConstantForge) &&
+                !(param instanceof FilterSpecParamContextPropForge) &&
+                !(param instanceof FilterSpecParamDeployTimeConstParamForge)) {
+                return;
+            }
+        }
+        correlationTripletIndex = found;
+    }
+
     public void toPrecedenceFreeEPL(StringWriter writer) {
         if (getEventAsName() != null) {
             writer.append(getEventAsName());
@@ -164,6 +208,9 @@ public class EvalFilterForgeNode extends EvalForgeNodeBase {
                 .exprDotMethod(ref("node"), "setEventAsName", constant(eventAsName))
                 .exprDotMethod(ref("node"), "setConsumptionLevel", constant(consumptionLevel))
                 .exprDotMethod(ref("node"), "setEventAsTagNumber", constant(eventAsTagNumber));
+        if (correlationTripletIndex != -1) {
+            method.getBlock().exprDotMethod(ref("node"), "setCorrelationTripletIndex", constant(correlationTripletIndex));
+        }
     }
 
     public void collectSelfFilterAndSchedule(Function<Short, CallbackAttribution> callbackAttribution, List<FilterSpecTracked> filters, List<ScheduleHandleTracked> schedules) {
@@ -33,6 +33,8 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
     protected boolean isStarted;
     protected EPStatementHandleCallbackFilter handle;
     protected MatchedEventMap beginState;
+    protected Object correlationKey;
+    protected long correlationDispatchSequence;
 
     /**
      * Constructor.
@@ -65,6 +67,16 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         // Start the filter
         isStarted = true;
 
+        EvalFilterCorrelationIndex correlationIndex = evalFilterNode.getCorrelationIndex();
+        if (correlationIndex != null) {
+            correlationKey = correlationIndex.getKey(beginState);
+            if (correlationKey != null) {
+                handle = correlationIndex.add(correlationKey, this, beginState);
+                agentInstanceContext.getInstrumentationProvider().aPatternFilterStart();
+                return;
+            }
+        }
+
         FilterService filterService = evalFilterNode.getContext().getFilterService();
         handle = new EPStatementHandleCallbackFilter(evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
         FilterSpecActivatable filterSpec = evalFilterNode.getFactoryNode().getFilterSpec();
@@ -187,6 +199,15 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
     }
 
     private void stopFiltering() {
+        if (correlationKey != null) {
+            if (handle != null) {
+                evalFilterNode.getCorrelationIndex().remove(correlationKey, this);
+            }
+            correlationKey = null;
+            handle = null;
+            isStarted = false;
+            return;
+        }
         AgentInstanceContext agentInstanceContext = evalFilterNode.getContext().getAgentInstanceContext();
         FilterSpecActivatable filterSpec = evalFilterNode.getFactoryNode().getFilterSpec();
         FilterValueSetParam[][] filterValues = filterSpec.getValueSet(beginState, evalFilterNode.getAddendumFilters(), agentInstanceContext, agentInstanceContext.getStatementContextFilterEvalEnv());
@@ -205,6 +226,10 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         if (handle == null) {
             return;
         }
+        if (correlationKey != null) {
+            evalFilterNode.getCorrelationIndex().transfer(services);
+            return;
+        }
         FilterSpecActivatable filterSpec = evalFilterNode.getFactoryNode().getFilterSpec();
         FilterValueSetParam[][] filterValues = filterSpec.getValueSet(beginState, evalFilterNode.getAddendumFilters(), services.getAgentInstanceContext(), services.getAgentInstanceContext().getStatementContextFilterEvalEnv());
         if (filterValues != null) {
@@ -45,6 +45,7 @@ public class RowRecogDesc {
     private boolean orTerminated;
     private boolean collectMultimatches;
     private boolean defineAsksMultimatches;
+    private boolean defineIndependent;
     private int numEventsEventsPerStreamDefine;
     private String[] multimatchVariablesArray;
     private RowRecogNFAStateBase[] statesOrdered;
@@ -181,6 +182,14 @@ public class RowRecogDesc {
         this.defineAsksMultimatches = defineAsksMultimatches;
     }
 
+    public boolean isDefineIndependent() {
+        return defineIndependent;
+    }
+
+    public void setDefineIndependent(boolean defineIndependent) {
+        this.defineIndependent = defineIndependent;
+    }
+
     public int getNumEventsEventsPerStreamDefine() {
         return numEventsEventsPerStreamDefine;
     }
@@ -70,6 +70,7 @@ public class RowRecogDescForge {
     private final int[] previousRandomAccessIndexes;
     private final AggregationServiceForgeDesc[] aggregationServices;
     private final boolean isTargetHA;
+    private boolean defineIndependent;
     private StateMgmtSetting partitionMgmtStateMgmtSettings;
     private StateMgmtSetting scheduleMgmtStateMgmtSettings;
 
@@ -107,6 +108,10 @@ public class RowRecogDescForge {
         return rowEventType;
     }
 
+    public void setDefineIndependent(boolean defineIndependent) {
+        this.defineIndependent = defineIndependent;
+    }
+
     public void setPartitionMgmtStateMgmtSettings(StateMgmtSetting partitionMgmtStateMgmtSettings) {
         this.partitionMgmtStateMgmtSettings = partitionMgmtStateMgmtSettings;
     }
@@ -159,6 +164,7 @@ public class RowRecogDescForge {
             .exprDotMethod(desc, "setOrTerminated", constant(orTerminated))
             .exprDotMethod(desc, "setCollectMultimatches", constant(collectMultimatches))
             .exprDotMethod(desc, "setDefineAsksMultimatches", constant(defineAsksMultimatches))
+            .exprDotMethod(desc, "setDefineIndependent", constant(defineIndependent))
             .exprDotMethod(desc, "setNumEventsEventsPerStreamDefine", constant(numEventsEventsPerStreamDefine))
             .exprDotMethod(desc, "setMultimatchVariablesArray", constant(multimatchVariablesArray))
             .exprDotMethod(desc, "setStatesOrdered", makeStates(method, symbols, classScope))
@@ -282,6 +288,10 @@ public class RowRecogDescForge {
         return isTargetHA;
     }
 
+    public boolean isDefineIndependent() {
+        return defineIndependent;
+    }
+
     public StateMgmtSetting getPartitionMgmtStateMgmtSettings() {
         return partitionMgmtStateMgmtSettings;
     }
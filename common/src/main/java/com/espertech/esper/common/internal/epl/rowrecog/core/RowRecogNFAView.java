@@ -52,6 +52,13 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceMgmtCal
 
     private final ObjectArrayBackedEventBean defineMultimatchEventBean;
 
+    // transition buffers reused across events, the next-states buffer is swapped with the partition's prior states
+    private List<RowRecogNFAStateEntry> nextStatesBuffer = new ArrayList<>(2);
+    private final List<RowRecogNFAStateEntry> endStatesBuffer = new ArrayList<>();
+
+    // per-variable condition result for the current event when conditions are independent: 0 not evaluated, 1 true, 2 false
+    private final byte[] defineResultPerStream;
+
     public RowRecogNFAView(RowRecogNFAViewFactory factory,
                            AgentInstanceContext agentInstanceContext,
                            RowRecogNFAViewScheduler scheduler) {
@@ -67,6 +74,7 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceMgmtCal
         defineMultimatchEventBean = multimatchEventType == null ? null : agentInstanceContext.getEventBeanTypedEventFactory().adapterForTypedObjectArray(new Object[multimatchEventType.getPropertyNames().length], multimatchEventType);
 
         this.windowMatchedEventset = new LinkedHashSet<>();
+        this.defineResultPerStream = desc.isDefineIndependent() ? new byte[desc.getNumEventsEventsPerStreamDefine()] : null;
 
         // handle "previous" function nodes (performance-optimized for direct index access)
         if (desc.getPreviousRandomAccessIndexes() != null) {
@@ -177,11 +185,12 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceMgmtCal
             return;
         }
 
-        List<RowRecogNFAStateEntry> endStates = new ArrayList<>();
+        List<RowRecogNFAStateEntry> endStates = endStatesBuffer;
+        endStates.clear();
         List<RowRecogNFAStateEntry> terminationStatesAll = null;
 
         for (EventBean newEvent : newData) {
-            List<RowRecogNFAStateEntry> nextStates = new ArrayList<>(2);
+            List<RowRecogNFAStateEntry> nextStates = nextStatesBuffer;
             int eventSequenceNumber = regexPartitionStateRepo.incrementAndGetEventSequenceNum();
 
             // get state holder for this event
@@ -204,7 +213,7 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceMgmtCal
                 }
             }
 
-            partitionState.setCurrentStates(nextStates);
+            nextStatesBuffer = partitionState.swapCurrentStates(nextStates);
             agentInstanceContext.getInstrumentationProvider().aRegEx(partitionState, endStates, terminationStates);
         }
 
@@ -636,6 +645,9 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceMgmtCal
                                              Object partitionKey) {
         RowRecogDesc rowRecogDesc = factory.getDesc();
         List<RowRecogNFAStateEntry> terminationStates = null;  // always null or a list of entries (no singleton list)
+        if (defineResultPerStream != null) {
+            Arrays.fill(defineResultPerStream, (byte) 0);
+        }
 
         // handle current state matching
         for (; currentStatesIterator.hasNext(); ) {
@@ -655,7 +667,7 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceMgmtCal
                 eventsPerStream[rowRecogDesc.getNumEventsEventsPerStreamDefine() - 1] = getMultimatchState(currentState);
             }
 
-            if (currentState.getState().matches(eventsPerStream, agentInstanceContext)) {
+            if (matches(currentState.getState(), eventsPerStream)) {
                 if (isRetainEventSet) {
                     this.windowMatchedEventset.add(theEvent);
                 }
@@ -690,7 +702,14 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceMgmtCal
                         greedyCounts[currentState.getState().getNodeNumFlat()]++;
                     }
 
-                    RowRecogNFAStateEntry entry = new RowRecogNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), currentState.getState(), eventsForState, greedyCounts, multimatches, partitionKey);
+                    // a single successor advances the entry in place since the prior list no longer holds it
+                    RowRecogNFAStateEntry entry;
+                    if (copy) {
+                        entry = new RowRecogNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), currentState.getState(), eventsForState, greedyCounts, multimatches, partitionKey);
+                    } else {
+                        entry = currentState;
+                        entry.setOptionalMultiMatches(multimatches);
+                    }
                     if (next instanceof RowRecogNFAStateEndEval) {
                         entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
                         endStates.add(entry);
@@ -745,7 +764,7 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceMgmtCal
             int currentStateStreamNum = startState.getStreamNum();
             eventsPerStream[currentStateStreamNum] = theEvent;
 
-            if (startState.matches(eventsPerStream, agentInstanceContext)) {
+            if (matches(startState, eventsPerStream)) {
                 if (isRetainEventSet) {
                     this.windowMatchedEventset.add(theEvent);
                 }
@@ -807,6 +826,20 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceMgmtCal
         return terminationStates;   // only for immediate use, not for scheduled use as no copy of state
     }
 
+    private boolean matches(RowRecogNFAState state, EventBean[] eventsPerStream) {
+        if (defineResultPerStream == null) {
+            return state.matches(eventsPerStream, agentInstanceContext);
+        }
+        int streamNum = state.getStreamNum();
+        byte result = defineResultPerStream[streamNum];
+        if (result == 0) {
+            boolean matches = state.matches(eventsPerStream, agentInstanceContext);
+            defineResultPerStream[streamNum] = matches ? (byte) 1 : (byte) 2;
+            return matches;
+        }
+        return result == 1;
+    }
+
     private ObjectArrayBackedEventBean getMultimatchState(RowRecogNFAStateEntry currentState) {
         if (currentState.getOptionalMultiMatches() == null || !currentState.getState().isExprRequiresMultimatchState()) {
             return null;
@@ -132,6 +132,7 @@ public class RowRecogNFAViewPlanUtil {
         List<ExprAggregateNode> aggregateNodes = new ArrayList<>();
         boolean[] isExprRequiresMultimatchState = new boolean[variableStreams.size()];
         TreeMap<Integer, List<ExprPreviousMatchRecognizeNode>> previousNodes = new TreeMap<>();
+        boolean defineIndependent = true;
 
         for (int defineIndex = 0; defineIndex < matchRecognizeSpec.getDefines().size(); defineIndex++) {
             MatchRecognizeDefineItem defineItem = matchRecognizeSpec.getDefines().get(defineIndex);
@@ -168,6 +169,12 @@ public class RowRecogNFAViewPlanUtil {
             ExprNodeStreamRequiredVisitor visitor = new ExprNodeStreamRequiredVisitor();
             validated.accept(visitor);
             Set<Integer> streamsRequired = visitor.getStreamsRequired();
+            int streamNumDefine = variableStreams.get(defineItem.getIdentifier()).getFirst();
+            for (int streamRequired : streamsRequired) {
+                if (streamRequired != streamNumDefine) {
+                    defineIndependent = false;
+                }
+            }
             for (int streamRequired : streamsRequired) {
                 if (streamRequired >= variableStreams.size()) {
                     int streamNumIdent = variableStreams.get(defineItem.getIdentifier()).getFirst();
@@ -371,6 +378,9 @@ public class RowRecogNFAViewPlanUtil {
             services.getSerdeResolver().isTargetHA()
             );
 
+        // when no condition refers to another variable, a condition's result depends on the current event only
+        forge.setDefineIndependent(defineIndependent);
+
         StateMgmtSetting partitionMgmtStateMgmtDesc = services.getStateMgmtSettingsProvider().rowRecogPartitionState(fabricCharge, statementRawInfo, forge, matchRecognizeSpec);
         forge.setPartitionMgmtStateMgmtSettings(partitionMgmtStateMgmtDesc);
 
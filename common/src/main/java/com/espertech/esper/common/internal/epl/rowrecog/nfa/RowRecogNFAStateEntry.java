@@ -22,7 +22,7 @@ public class RowRecogNFAStateEntry {
     private RowRecogNFAState state;
     private final EventBean[] eventsPerStream;
     private final int[] greedycountPerState;
-    private final RowRecogMultimatchState[] optionalMultiMatches;
+    private RowRecogMultimatchState[] optionalMultiMatches;
     private final Object partitionKey;
     private int matchEndEventSeqNo;
 
@@ -98,6 +98,15 @@ public class RowRecogNFAStateEntry {
         return optionalMultiMatches;
     }
 
+    /**
+     * Sets the multirow-variable matches, for use when an entry advances in place.
+     *
+     * @param optionalMultiMatches matches
+     */
+    public void setOptionalMultiMatches(RowRecogMultimatchState[] optionalMultiMatches) {
+        this.optionalMultiMatches = optionalMultiMatches;
+    }
+
     /**
      * Returns the count of greedy matches per state.
      *
@@ -22,6 +22,14 @@ public interface RowRecogPartitionState {
 
     public void setCurrentStates(List<RowRecogNFAStateEntry> currentStates);
 
+    /**
+     * Sets partial matches and hands back the prior list, cleared, for reuse as the next transition buffer.
+     *
+     * @param currentStates state to set
+     * @return prior list, empty
+     */
+    public List<RowRecogNFAStateEntry> swapCurrentStates(List<RowRecogNFAStateEntry> currentStates);
+
     public Object getOptionalKeys();
 
     public int getNumStates();
@@ -93,6 +93,16 @@ public class RowRecogPartitionStateImpl implements RowRecogPartitionState {
         this.currentStates = currentStates;
     }
 
+    public List<RowRecogNFAStateEntry> swapCurrentStates(List<RowRecogNFAStateEntry> currentStates) {
+        List<RowRecogNFAStateEntry> prior = this.currentStates;
+        this.currentStates = currentStates;
+        if (!(prior instanceof ArrayList)) {
+            return new ArrayList<>(2);
+        }
+        prior.clear();
+        return prior;
+    }
+
     /**
      * Returns partition keys, if any.
      *
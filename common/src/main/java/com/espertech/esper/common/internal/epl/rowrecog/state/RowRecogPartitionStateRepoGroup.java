@@ -11,6 +11,7 @@
 package com.espertech.esper.common.internal.epl.rowrecog.state;
 
 import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.collection.CompactHashMap;
 import com.espertech.esper.common.internal.epl.rowrecog.core.RowRecogNFAViewServiceVisitor;
 import com.espertech.esper.common.internal.epl.rowrecog.core.RowRecogPartitionTerminationStateComparator;
 import com.espertech.esper.common.internal.epl.rowrecog.core.RowRecogPreviousStrategyImpl;
@@ -41,7 +42,7 @@ public class RowRecogPartitionStateRepoGroup implements RowRecogPartitionStateRe
                                            RowRecogPartitionTerminationStateComparator terminationStateCompare) {
         this.getter = getter;
         this.meta = meta;
-        this.states = new HashMap<Object, RowRecogPartitionStateImpl>();
+        this.states = new CompactHashMap<>();
         this.optionalIntervalSchedules = keepScheduleState ? new RowRecogPartitionStateRepoScheduleStateImpl(terminationStateCompare) : null;
     }
 
@@ -25,6 +25,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 public class EventTypeResolvingBeanFactoryImpl implements EventTypeResolvingBeanFactory {
@@ -75,6 +76,22 @@ public class EventTypeResolvingBeanFactoryImpl implements EventTypeResolvingBean
         return new JsonEventBean(underlying, type);
     }
 
+    public EventBean adapterForJson(ByteBuffer utf8, String eventTypeName) {
+        EventType type = eventTypeRepository.getTypeByName(eventTypeName);
+        EventTypeUtility.validateTypeJson(eventTypeName, type);
+        JsonEventType jsonEventType = (JsonEventType) type;
+        Object underlying = jsonEventType.parse(utf8);
+        return new JsonEventBean(underlying, type);
+    }
+
+    public EventBean adapterForJson(Map<String, Object> map, String eventTypeName) {
+        EventType type = eventTypeRepository.getTypeByName(eventTypeName);
+        EventTypeUtility.validateTypeJson(eventTypeName, type);
+        JsonEventType jsonEventType = (JsonEventType) type;
+        Object underlying = jsonEventType.fromMap(map);
+        return new JsonEventBean(underlying, type);
+    }
+
     public static Node getXMLNodeFromDocument(org.w3c.dom.Node node) {
         org.w3c.dom.Node resultNode = node;
         if (node instanceof Document) {
@@ -18,10 +18,14 @@ import com.espertech.esper.common.internal.event.json.core.JsonEventType;
 import com.espertech.esper.common.internal.event.util.EPRuntimeEventProcessWrapped;
 import com.espertech.esper.common.internal.statement.thread.ThreadingCommon;
 
+import java.nio.ByteBuffer;
+import java.util.Map;
+
 /**
  * Event sender for json-backed events.
  * <p>
- * Allows sending only event objects of type string, does not check contents. Any other event object generates an error.
+ * Allows sending event objects of type string or UTF-8 byte buffer, which are parsed, and of type map, which are
+ * converted into the underlying. Any other event object other than the underlying generates an error.
  */
 public class EventSenderJsonImpl implements EventSenderJson {
     private final EPRuntimeEventProcessWrapped runtimeEventSender;
@@ -65,11 +69,16 @@ public class EventSenderJsonImpl implements EventSenderJson {
     }
 
     private Object getUnderlying(Object theEvent) {
-        if (theEvent instanceof String) {
+        if (theEvent != null && theEvent.getClass() == eventType.getUnderlyingType()) {
+            return theEvent;
+        } else if (theEvent instanceof String) {
             return eventType.parse((String) theEvent);
-        } else if (theEvent == null || !(theEvent.getClass() == eventType.getUnderlyingType())) {
+        } else if (theEvent instanceof ByteBuffer) {
+            return eventType.parse((ByteBuffer) theEvent);
+        } else if (theEvent instanceof Map) {
+            return eventType.fromMap((Map<String, Object>) theEvent);
+        } else {
             throw new EPException("Unexpected event object of type '" + (theEvent == null ? "(null)" : theEvent.getClass().getName()) + "', expected a Json-formatted string-type value");
         }
-        return theEvent;
     }
 }
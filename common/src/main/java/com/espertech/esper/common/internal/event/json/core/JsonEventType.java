@@ -32,7 +32,10 @@ import com.espertech.esper.common.internal.event.property.Property;
 import com.espertech.esper.common.internal.event.property.PropertyParser;
 import com.espertech.esper.common.internal.util.ClassHelperGenericType;
 import com.espertech.esper.common.internal.util.JavaClassHelper;
+import com.espertech.esper.common.internal.util.SimpleNumberCoercerFactory;
 
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -183,7 +186,7 @@ public class JsonEventType extends BaseNestableEventType {
 
     public Object parse(String json) {
         try {
-            JsonHandlerDelegator handler = new JsonHandlerDelegator();
+            JsonHandlerDelegator handler = new JsonHandlerDelegator(getParseTopLevelNames());
             JsonDelegateBase delegate = delegateFactory.make(handler, null);
             handler.setDelegate(delegate);
             JsonParser parser = new JsonParser(handler);
@@ -196,6 +199,119 @@ public class JsonEventType extends BaseNestableEventType {
         }
     }
 
+    /**
+     * Parse UTF-8 encoded Json from the remaining bytes of the buffer, without decoding the input into a string first.
+     * The buffer position is not changed.
+     *
+     * @param utf8 buffer
+     * @return underlying
+     */
+    public Object parse(ByteBuffer utf8) {
+        try {
+            JsonHandlerDelegator handler = new JsonHandlerDelegator(getParseTopLevelNames());
+            JsonDelegateBase delegate = delegateFactory.make(handler, null);
+            handler.setDelegate(delegate);
+            JsonParser parser = new JsonParser(handler);
+            parser.parse(utf8);
+            return delegate.getResult();
+        } catch (EPException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new EPException("Failed to parse Json: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Converts a map of property values into the underlying, once, so that property access reads fields instead of map entries.
+     * Nested Json-typed property values may themselves be maps. Numeric values are coerced to the property type
+     * and a value that the property type cannot represent exactly, such as a fractional double for an int property,
+     * causes an exception.
+     * Keys that are not properties are kept for dynamic types and ignored otherwise.
+     *
+     * @param map property values
+     * @return underlying
+     */
+    public Object fromMap(Map<String, Object> map) {
+        try {
+            Object und = delegateFactory.newUnderlying();
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                JsonUnderlyingField field = detail.getFieldDescriptors().get(entry.getKey());
+                if (field == null) {
+                    if (detail.isDynamic()) {
+                        ((JsonEventObjectBase) und).addJsonValue(entry.getKey(), entry.getValue());
+                    }
+                    continue;
+                }
+                Object value = fromMapValue(nestableTypes.get(entry.getKey()), field.getPropertyType(), entry.getValue());
+                setNativeValue(field.getPropertyNumber(), value, und);
+            }
+            return und;
+        } catch (EPException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new EPException("Failed to convert map to Json event type '" + getName() + "': " + ex.getMessage(), ex);
+        }
+    }
+
+    private void setNativeValue(int num, Object value, Object und) {
+        if (num < detail.getNumFieldsSupertype()) {
+            ((JsonEventType) getSuperTypes()[0]).setNativeValue(num, value, und);
+            return;
+        }
+        delegateFactory.setValue(num, value, und);
+    }
+
+    private static Object fromMapValue(Object nestableType, EPTypeClass propertyType, Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (nestableType instanceof TypeBeanOrUnderlying) {
+            EventType eventType = ((TypeBeanOrUnderlying) nestableType).getEventType();
+            if (eventType instanceof JsonEventType && value instanceof Map && value.getClass() != eventType.getUnderlyingType()) {
+                return ((JsonEventType) eventType).fromMap((Map<String, Object>) value);
+            }
+            return value;
+        }
+        if (nestableType instanceof TypeBeanOrUnderlying[]) {
+            EventType eventType = ((TypeBeanOrUnderlying[]) nestableType)[0].getEventType();
+            if (eventType instanceof JsonEventType && value instanceof Map[]) {
+                Map[] maps = (Map[]) value;
+                Object[] array = (Object[]) Array.newInstance(eventType.getUnderlyingType(), maps.length);
+                for (int i = 0; i < maps.length; i++) {
+                    array[i] = maps[i] == null ? null : ((JsonEventType) eventType).fromMap(maps[i]);
+                }
+                return array;
+            }
+            return value;
+        }
+        if (value instanceof Number && propertyType != null && JavaClassHelper.isNumeric(propertyType)) {
+            EPTypeClass boxed = JavaClassHelper.getBoxedType(propertyType);
+            if (value.getClass() != boxed.getType()) {
+                return coerceNumberExact((Number) value, boxed);
+            }
+        }
+        return value;
+    }
+
+    private static Number coerceNumberExact(Number value, EPTypeClass boxed) {
+        EPTypeClass valueType = ClassHelperGenericType.getClassEPType(value.getClass());
+        Number coerced = SimpleNumberCoercerFactory.getCoercer(valueType, boxed).coerceBoxed(value);
+        if (!JavaClassHelper.isNumeric(valueType)) {
+            return coerced;
+        }
+        // the conversion is exact when converting back yields the same value
+        Number back = SimpleNumberCoercerFactory.getCoercer(boxed, valueType).coerceBoxed(coerced);
+        if (back == null || ((Comparable) back).compareTo(value) != 0) {
+            throw new EPException("Value " + value + " of type " + value.getClass().getSimpleName() + " cannot be converted to property type " + boxed.getType().getSimpleName() + " without loss");
+        }
+        return coerced;
+    }
+
+    // Members that are not properties of a non-dynamic type are never assigned, so the parser may skip their values
+    private Set<String> getParseTopLevelNames() {
+        return detail.isDynamic() ? null : detail.getFieldDescriptors().keySet();
+    }
+
     public JsonEventTypeDetail getDetail() {
         return detail;
     }
@@ -105,6 +105,10 @@ public class JsonEventTypeDetail {
         this.numFieldsSupertype = numFieldsSupertype;
     }
 
+    public int getNumFieldsSupertype() {
+        return numFieldsSupertype;
+    }
+
     public Class getOptionalUnderlyingProvided() {
         return optionalUnderlyingProvided;
     }
@@ -13,13 +13,31 @@ package com.espertech.esper.common.internal.event.json.parser.core;
 import com.espertech.esper.common.client.json.minimaljson.JsonHandler;
 import com.espertech.esper.common.client.type.EPTypeClass;
 
+import java.util.Set;
+
 public class JsonHandlerDelegator extends JsonHandler<Object, Object> {
     public final static EPTypeClass EPTYPE = new EPTypeClass(JsonHandlerDelegator.class);
 
+    private final Set<String> topLevelNames;
+    private JsonDelegateBase topDelegate;
     private JsonDelegateBase currentDelegate;
     private String currentName;
 
+    public JsonHandlerDelegator() {
+        this(null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param topLevelNames names of the top-level members to process, other top-level members are skipped by the parser, or null to process all members
+     */
+    public JsonHandlerDelegator(Set<String> topLevelNames) {
+        this.topLevelNames = topLevelNames;
+    }
+
     public void setDelegate(JsonDelegateBase top) {
+        this.topDelegate = top;
         this.currentDelegate = top;
     }
 
@@ -27,6 +45,10 @@ public class JsonHandlerDelegator extends JsonHandler<Object, Object> {
         this.currentName = name;
     }
 
+    public boolean skipObjectValue(Object object, String name) {
+        return topLevelNames != null && currentDelegate == topDelegate && !topLevelNames.contains(name);
+    }
+
     public Object startObject() {
         if (currentName != null) {
             currentDelegate.valueType = JsonValueType.OBJECT;
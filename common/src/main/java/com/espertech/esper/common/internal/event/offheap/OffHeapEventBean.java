@@ -0,0 +1,226 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.offheap;
+
+import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventPropertyGetter;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.PropertyAccessException;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+
+/**
+ * Event whose property values are serialized into an {@link OffHeapSlab} and deserialized upon access.
+ * When the row is released from the store its values are materialized on-heap so that references
+ * held elsewhere remain valid and the slab can be freed.
+ * <p>
+ * Getters obtain property values from the underlying, therefore the values are materialized once per scope:
+ * each thread retains the values of the events it most recently decoded, so that evaluating several properties
+ * of the same event decodes the row once. The cache references events weakly so that it does not retain
+ * released events, and releasing an event removes it from the releasing thread's cache.
+ * </p>
+ * <p>
+ * Compaction may relocate the row to another slab while other threads read it. The location is guarded by
+ * a sequence that is odd while relocating, and readers retry when the sequence changed during the read.
+ * </p>
+ */
+public abstract class OffHeapEventBean implements EventBean {
+    private final static ThreadLocal<DecodeCache> DECODE_CACHE = new ThreadLocal<DecodeCache>() {
+        protected synchronized DecodeCache initialValue() {
+            return new DecodeCache();
+        }
+    };
+
+    protected final OffHeapRowSerde serde;
+    private final int length;
+    private volatile OffHeapSlab slab;
+    private volatile int offset;
+    private volatile int sequence;
+    private int slot;
+    private volatile Object detached;
+
+    /**
+     * Ctor.
+     *
+     * @param serde  serde
+     * @param slab   slab
+     * @param offset offset of the row within the slab
+     * @param length length of the row
+     */
+    protected OffHeapEventBean(OffHeapRowSerde serde, OffHeapSlab slab, int offset, int length) {
+        this.serde = serde;
+        this.slab = slab;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public EventType getEventType() {
+        return serde.getEventType();
+    }
+
+    public Object getUnderlying() {
+        Object values = detached;
+        if (values != null) {
+            return values;
+        }
+        DecodeCache cache = DECODE_CACHE.get();
+        values = cache.get(this);
+        if (values != null) {
+            return values;
+        }
+        values = decode();
+        if (values == null) {
+            return detached;
+        }
+        cache.put(this, values);
+        return values;
+    }
+
+    public Object get(String property) throws PropertyAccessException {
+        EventPropertyGetter getter = serde.getEventType().getGetter(property);
+        if (getter == null) {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException {
+        EventPropertyGetter getter = serde.getEventType().getGetter(propertyExpression);
+        if (getter == null) {
+            throw PropertyAccessException.notAValidProperty(propertyExpression);
+        }
+        return getter.getFragment(this);
+    }
+
+    /**
+     * Returns true when the values are held on-heap.
+     *
+     * @return indicator
+     */
+    public boolean isDetached() {
+        return detached != null;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    OffHeapSlab getSlab() {
+        return slab;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    void detach(Object values) {
+        detached = values;
+    }
+
+    /**
+     * Move the row to another slab, the caller holding the store lock.
+     *
+     * @param newSlab   slab
+     * @param newOffset offset within the slab
+     */
+    void relocate(OffHeapSlab newSlab, int newOffset) {
+        sequence++;
+        slab = newSlab;
+        offset = newOffset;
+        sequence++;
+    }
+
+    OffHeapSlab release() {
+        OffHeapSlab current = slab;
+        if (current == null) {
+            return null;
+        }
+        if (detached == null) {
+            detached = getUnderlying();
+        }
+        slab = null;
+        DECODE_CACHE.get().remove(this);
+        return current;
+    }
+
+    static boolean isCachedCurrentThread(OffHeapEventBean event) {
+        return DECODE_CACHE.get().get(event) != null;
+    }
+
+    private Object decode() {
+        while (true) {
+            int version = sequence;
+            if ((version & 1) == 0) {
+                OffHeapSlab current = slab;
+                if (current == null) {
+                    return null;
+                }
+                Object values;
+                try {
+                    values = serde.read(current.input(offset, length));
+                } catch (IOException | RuntimeException ex) {
+                    if (sequence != version) {
+                        continue;
+                    }
+                    throw new EPException("Failed to read off-heap event: " + ex.getMessage(), ex);
+                }
+                if (sequence == version) {
+                    return values;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Direct-mapped cache of the most recently decoded events of a thread.
+     */
+    private static class DecodeCache {
+        private final static int SIZE = 16;
+        private final Entry[] entries = new Entry[SIZE];
+
+        Object get(OffHeapEventBean event) {
+            Entry entry = entries[System.identityHashCode(event) & (SIZE - 1)];
+            return entry != null && entry.get() == event ? entry.values : null;
+        }
+
+        void put(OffHeapEventBean event, Object values) {
+            entries[System.identityHashCode(event) & (SIZE - 1)] = new Entry(event, values);
+        }
+
+        void remove(OffHeapEventBean event) {
+            int index = System.identityHashCode(event) & (SIZE - 1);
+            Entry entry = entries[index];
+            if (entry != null && entry.get() == event) {
+                entries[index] = null;
+            }
+        }
+    }
+
+    private static class Entry extends WeakReference<OffHeapEventBean> {
+        private final Object values;
+
+        Entry(OffHeapEventBean event, Object values) {
+            super(event);
+            this.values = values;
+        }
+    }
+}
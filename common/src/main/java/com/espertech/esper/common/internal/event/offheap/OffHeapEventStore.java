@@ -0,0 +1,194 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.offheap;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Stores rows of a single event type in direct-memory slabs. Rows are appended to the current slab and a
+ * slab is dropped once all of its rows have been released. A slab other than the current slab that has less than
+ * half of its written bytes live is compacted by relocating its live rows to the current slab and dropping it,
+ * so that windows that release rows out of insertion order do not retain mostly-dead slabs.
+ */
+public class OffHeapEventStore {
+    private static final Logger log = LoggerFactory.getLogger(OffHeapEventStore.class);
+
+    public final static int DEFAULT_SLAB_SIZE = 1024 * 1024;
+
+    private final OffHeapRowSerde serde;
+    private final int slabSize;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream output = new DataOutputStream(bytes);
+    private OffHeapSlab current;
+    private long numRows;
+    private long numSlabsAllocated;
+    private long numSlabsReleased;
+    private long numBytesLive;
+    private long numFailed;
+    private long numCompactions;
+
+    /**
+     * Ctor.
+     *
+     * @param serde    row serde
+     * @param slabSize slab size in bytes
+     */
+    public OffHeapEventStore(OffHeapRowSerde serde, int slabSize) {
+        this.serde = serde;
+        this.slabSize = slabSize;
+    }
+
+    /**
+     * Returns a store for the event type or null if the type does not support off-heap storage.
+     *
+     * @param eventType event type
+     * @return store or null
+     */
+    public static OffHeapEventStore make(EventType eventType) {
+        OffHeapRowSerde serde = OffHeapRowSerde.make(eventType);
+        return serde == null ? null : new OffHeapEventStore(serde, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Store the event returning the off-heap event, or the event itself if the event could not be serialized.
+     *
+     * @param event event
+     * @return event to retain
+     */
+    public synchronized EventBean store(EventBean event) {
+        if (event instanceof OffHeapEventBean || event.getEventType() != serde.getEventType()) {
+            return event;
+        }
+        bytes.reset();
+        try {
+            serde.write(event.getUnderlying(), output);
+            output.flush();
+        } catch (IOException | RuntimeException ex) {
+            numFailed++;
+            log.debug("Failed to serialize event for off-heap storage, retaining on-heap: " + ex.getMessage(), ex);
+            return event;
+        }
+        byte[] row = bytes.toByteArray();
+        int offset = appendCurrent(row);
+        OffHeapEventBean stored = serde.makeEvent(current, offset, row.length);
+        stored.setSlot(current.register(stored));
+        numRows++;
+        return stored;
+    }
+
+    /**
+     * Store events, replacing array elements in-place.
+     *
+     * @param events events or null
+     */
+    public void store(EventBean[] events) {
+        if (events == null) {
+            return;
+        }
+        for (int i = 0; i < events.length; i++) {
+            events[i] = store(events[i]);
+        }
+    }
+
+    /**
+     * Release the row of an event that was removed, materializing its values on-heap.
+     *
+     * @param event event
+     */
+    public synchronized void release(EventBean event) {
+        if (!(event instanceof OffHeapEventBean)) {
+            return;
+        }
+        OffHeapSlab slab = ((OffHeapEventBean) event).release();
+        if (slab == null) {
+            return;
+        }
+        OffHeapEventBean offHeap = (OffHeapEventBean) event;
+        numRows--;
+        if (slab.unregister(offHeap.getSlot(), offHeap.getLength()) == 0) {
+            dropSlab(slab);
+        } else if (slab != current && slab.getLiveBytes() * 2 < slab.getWritePosition()) {
+            compact(slab);
+        }
+    }
+
+    /**
+     * Release events.
+     *
+     * @param events events or null
+     */
+    public void release(EventBean[] events) {
+        if (events == null) {
+            return;
+        }
+        for (EventBean event : events) {
+            release(event);
+        }
+    }
+
+    public synchronized long getNumRows() {
+        return numRows;
+    }
+
+    public synchronized long getNumCompactions() {
+        return numCompactions;
+    }
+
+    private int appendCurrent(byte[] row) {
+        int offset = current == null ? -1 : current.append(row, row.length);
+        if (offset == -1) {
+            current = new OffHeapSlab(Math.max(slabSize, row.length));
+            numSlabsAllocated++;
+            numBytesLive += current.getCapacity();
+            offset = current.append(row, row.length);
+        }
+        return offset;
+    }
+
+    private void compact(OffHeapSlab slab) {
+        for (OffHeapEventBean event : slab.getLiveRows()) {
+            byte[] row = slab.read(event.getOffset(), event.getLength());
+            int offset = appendCurrent(row);
+            slab.unregister(event.getSlot(), event.getLength());
+            event.relocate(current, offset);
+            event.setSlot(current.register(event));
+        }
+        numCompactions++;
+        dropSlab(slab);
+    }
+
+    private void dropSlab(OffHeapSlab slab) {
+        numSlabsReleased++;
+        numBytesLive -= slab.getCapacity();
+        if (slab == current) {
+            current = null;
+        }
+    }
+
+    public synchronized long getNumSlabsLive() {
+        return numSlabsAllocated - numSlabsReleased;
+    }
+
+    public synchronized long getNumBytesLive() {
+        return numBytesLive;
+    }
+
+    public synchronized long getNumFailed() {
+        return numFailed;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.offheap;
+
+import com.espertech.esper.common.internal.event.core.MappedEventBean;
+
+import java.util.Map;
+
+/**
+ * Map event stored off-heap.
+ */
+public class OffHeapMapEventBean extends OffHeapEventBean implements MappedEventBean {
+    /**
+     * Ctor.
+     *
+     * @param serde  serde
+     * @param slab   slab
+     * @param offset offset of the row within the slab
+     * @param length length of the row
+     */
+    public OffHeapMapEventBean(OffHeapRowSerde serde, OffHeapSlab slab, int offset, int length) {
+        super(serde, slab, offset, length);
+    }
+
+    public Map<String, Object> getProperties() {
+        return (Map<String, Object>) getUnderlying();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.offheap;
+
+import com.espertech.esper.common.internal.event.core.ObjectArrayBackedEventBean;
+
+/**
+ * Object-array event stored off-heap.
+ */
+public class OffHeapObjectArrayEventBean extends OffHeapEventBean implements ObjectArrayBackedEventBean {
+    /**
+     * Ctor.
+     *
+     * @param serde  serde
+     * @param slab   slab
+     * @param offset offset of the row within the slab
+     * @param length length of the row
+     */
+    public OffHeapObjectArrayEventBean(OffHeapRowSerde serde, OffHeapSlab slab, int offset, int length) {
+        super(serde, slab, offset, length);
+    }
+
+    public Object[] getProperties() {
+        return (Object[]) getUnderlying();
+    }
+
+    public void setPropertyValues(Object[] objects) {
+        detach(objects);
+    }
+}
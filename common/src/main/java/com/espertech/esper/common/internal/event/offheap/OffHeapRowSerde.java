@@ -0,0 +1,217 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.offheap;
+
+import com.espertech.esper.common.client.EventPropertyDescriptor;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.serde.DataInputOutputSerde;
+import com.espertech.esper.common.client.type.EPType;
+import com.espertech.esper.common.client.type.EPTypeClass;
+import com.espertech.esper.common.internal.event.arr.ObjectArrayEventType;
+import com.espertech.esper.common.internal.event.map.MapEventType;
+import com.espertech.esper.common.internal.serde.compiletime.resolve.VMBasicBuiltinSerdeFactory;
+import com.espertech.esper.common.internal.serde.compiletime.resolve.VMExtendedBuiltinSerdeFactory;
+import com.espertech.esper.common.internal.serde.serdeset.builtin.DIOSerializableObjectSerde;
+import com.espertech.esper.common.internal.util.JavaClassHelper;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serializes the property values of object-array and map events using the builtin serdes per property type,
+ * falling back to Java serialization for other serializable types.
+ */
+public abstract class OffHeapRowSerde {
+    protected final EventType eventType;
+    protected final DataInputOutputSerde[] serdes;
+
+    /**
+     * Ctor.
+     *
+     * @param eventType event type
+     * @param serdes    serde per property
+     */
+    protected OffHeapRowSerde(EventType eventType, DataInputOutputSerde[] serdes) {
+        this.eventType = eventType;
+        this.serdes = serdes;
+    }
+
+    /**
+     * Write the underlying event object.
+     *
+     * @param underlying underlying
+     * @param output     output
+     * @throws IOException when a value cannot be serialized
+     */
+    public abstract void write(Object underlying, DataOutput output) throws IOException;
+
+    /**
+     * Read an underlying event object.
+     *
+     * @param input input
+     * @return underlying
+     * @throws IOException when a value cannot be deserialized
+     */
+    public abstract Object read(DataInput input) throws IOException;
+
+    /**
+     * Returns a new event for the row.
+     *
+     * @param slab   slab
+     * @param offset offset within the slab
+     * @param length row length
+     * @return event
+     */
+    public abstract OffHeapEventBean makeEvent(OffHeapSlab slab, int offset, int length);
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Returns a serde for the type, or null when the type has properties that cannot be stored off-heap
+     * such as fragment properties or properties of a non-serializable type.
+     *
+     * @param eventType event type
+     * @return serde or null
+     */
+    public static OffHeapRowSerde make(EventType eventType) {
+        if (!(eventType instanceof ObjectArrayEventType) && !(eventType instanceof MapEventType)) {
+            return null;
+        }
+        String[] names = eventType.getPropertyNames();
+        DataInputOutputSerde[] serdes = new DataInputOutputSerde[names.length];
+        for (int i = 0; i < names.length; i++) {
+            EventPropertyDescriptor desc = eventType.getPropertyDescriptor(names[i]);
+            if (desc == null || desc.isFragment()) {
+                return null;
+            }
+            serdes[i] = resolveSerde(desc.getPropertyEPType());
+            if (serdes[i] == null) {
+                return null;
+            }
+        }
+        if (eventType instanceof ObjectArrayEventType) {
+            Map<String, Integer> indexes = ((ObjectArrayEventType) eventType).getPropertiesIndexes();
+            DataInputOutputSerde[] serdesByIndex = new DataInputOutputSerde[indexes.size()];
+            for (int i = 0; i < names.length; i++) {
+                serdesByIndex[indexes.get(names[i])] = serdes[i];
+            }
+            return new OffHeapRowSerdeObjectArray(eventType, serdesByIndex);
+        }
+        return new OffHeapRowSerdeMap(eventType, names, serdes);
+    }
+
+    private static DataInputOutputSerde resolveSerde(EPType type) {
+        if (!(type instanceof EPTypeClass)) {
+            return DIOSerializableObjectSerde.INSTANCE;
+        }
+        EPTypeClass boxed = JavaClassHelper.getBoxedType((EPTypeClass) type);
+        DataInputOutputSerde serde = VMBasicBuiltinSerdeFactory.getSerde(JavaClassHelper.getClassNameNormalized(boxed));
+        if (serde == null) {
+            serde = VMExtendedBuiltinSerdeFactory.getSerde(boxed);
+        }
+        if (serde == null && (boxed.getType() == Object.class || Serializable.class.isAssignableFrom(boxed.getType()))) {
+            serde = DIOSerializableObjectSerde.INSTANCE;
+        }
+        return serde;
+    }
+
+    protected static void writeValue(DataInputOutputSerde serde, Object value, DataOutput output) throws IOException {
+        if (value == null) {
+            output.writeBoolean(false);
+            return;
+        }
+        output.writeBoolean(true);
+        serde.write(value, output, null, null);
+    }
+
+    protected static Object readValue(DataInputOutputSerde serde, DataInput input) throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        return serde.read(input, null);
+    }
+
+    private static class OffHeapRowSerdeObjectArray extends OffHeapRowSerde {
+        OffHeapRowSerdeObjectArray(EventType eventType, DataInputOutputSerde[] serdes) {
+            super(eventType, serdes);
+        }
+
+        public void write(Object underlying, DataOutput output) throws IOException {
+            Object[] values = (Object[]) underlying;
+            output.writeInt(values.length);
+            for (int i = 0; i < values.length; i++) {
+                writeValue(i < serdes.length ? serdes[i] : DIOSerializableObjectSerde.INSTANCE, values[i], output);
+            }
+        }
+
+        public Object read(DataInput input) throws IOException {
+            Object[] values = new Object[input.readInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readValue(i < serdes.length ? serdes[i] : DIOSerializableObjectSerde.INSTANCE, input);
+            }
+            return values;
+        }
+
+        public OffHeapEventBean makeEvent(OffHeapSlab slab, int offset, int length) {
+            return new OffHeapObjectArrayEventBean(this, slab, offset, length);
+        }
+    }
+
+    private static class OffHeapRowSerdeMap extends OffHeapRowSerde {
+        private final String[] names;
+
+        OffHeapRowSerdeMap(EventType eventType, String[] names, DataInputOutputSerde[] serdes) {
+            super(eventType, serdes);
+            this.names = names;
+        }
+
+        public void write(Object underlying, DataOutput output) throws IOException {
+            Map<String, Object> values = (Map<String, Object>) underlying;
+            if (values.size() > names.length) {
+                throw new IOException("Map event has keys that are not properties of the type");
+            }
+            int count = 0;
+            for (int i = 0; i < names.length; i++) {
+                Object value = values.get(names[i]);
+                if (value == null && !values.containsKey(names[i])) {
+                    output.writeByte(0);
+                    continue;
+                }
+                output.writeByte(1);
+                writeValue(serdes[i], value, output);
+                count++;
+            }
+            if (count != values.size()) {
+                throw new IOException("Map event has keys that are not properties of the type");
+            }
+        }
+
+        public Object read(DataInput input) throws IOException {
+            Map<String, Object> values = new HashMap<>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                if (input.readByte() != 0) {
+                    values.put(names[i], readValue(serdes[i], input));
+                }
+            }
+            return values;
+        }
+
+        public OffHeapEventBean makeEvent(OffHeapSlab slab, int offset, int length) {
+            return new OffHeapMapEventBean(this, slab, offset, length);
+        }
+    }
+}
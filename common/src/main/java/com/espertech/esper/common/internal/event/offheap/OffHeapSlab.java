@@ -0,0 +1,173 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.offheap;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Append-only region of direct memory holding serialized rows. A slab is released, by dropping all references
+ * to it, once none of its rows are live or once its live rows have been relocated by compaction.
+ * <p>
+ * Row bytes are never overwritten, so that a reader holding a stale slab and offset still reads the row's values.
+ * </p>
+ */
+public class OffHeapSlab {
+    private final ByteBuffer buffer;
+    private int writePosition;
+    private OffHeapEventBean[] rows = new OffHeapEventBean[16];
+    private int numRows;
+    private int liveCount;
+    private int liveBytes;
+
+    /**
+     * Ctor.
+     *
+     * @param capacity capacity in bytes
+     */
+    public OffHeapSlab(int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * Append a row, returning the offset or -1 when the slab does not have sufficient remaining capacity.
+     * The row becomes live when its event is registered.
+     *
+     * @param row    row bytes
+     * @param length row length
+     * @return offset or -1
+     */
+    int append(byte[] row, int length) {
+        if (buffer.capacity() - writePosition < length) {
+            return -1;
+        }
+        int offset = writePosition;
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset);
+        target.put(row, 0, length);
+        writePosition += length;
+        return offset;
+    }
+
+    /**
+     * Register the event of an appended row, returning the slot of the event within the slab.
+     *
+     * @param event event
+     * @return slot
+     */
+    int register(OffHeapEventBean event) {
+        if (numRows == rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        rows[numRows] = event;
+        liveCount++;
+        liveBytes += event.getLength();
+        return numRows++;
+    }
+
+    /**
+     * Unregister the event of a released or relocated row, returning the number of rows still live.
+     *
+     * @param slot   slot
+     * @param length row length
+     * @return live count
+     */
+    int unregister(int slot, int length) {
+        rows[slot] = null;
+        liveBytes -= length;
+        return --liveCount;
+    }
+
+    /**
+     * Returns the events of the live rows in slot order, for compaction.
+     *
+     * @return events
+     */
+    OffHeapEventBean[] getLiveRows() {
+        OffHeapEventBean[] live = new OffHeapEventBean[liveCount];
+        int count = 0;
+        for (int i = 0; i < numRows; i++) {
+            if (rows[i] != null) {
+                live[count++] = rows[i];
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Read a row.
+     *
+     * @param offset offset
+     * @param length length
+     * @return row bytes
+     */
+    public byte[] read(int offset, int length) {
+        byte[] row = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        source.get(row, 0, length);
+        return row;
+    }
+
+    /**
+     * Returns input reading a row directly from the slab without copying the row.
+     *
+     * @param offset offset
+     * @param length length
+     * @return input
+     */
+    DataInput input(int offset, int length) {
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        source.limit(offset + length);
+        return new DataInputStream(new SlabInputStream(source));
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    public int getWritePosition() {
+        return writePosition;
+    }
+
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    public int getLiveBytes() {
+        return liveBytes;
+    }
+
+    private static class SlabInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        SlabInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        public int read(byte[] bytes, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, count);
+            return count;
+        }
+    }
+}
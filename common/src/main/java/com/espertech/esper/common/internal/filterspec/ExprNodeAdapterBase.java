@@ -73,6 +73,10 @@ public abstract class ExprNodeAdapterBase {
         return factory.getExprText();
     }
 
+    public String getSharedExprKey() {
+        return factory.getSharedExprKey();
+    }
+
     /**
      * NOTE: Overridden by subclasses as additional information is required for multistream-equals
      */
@@ -24,6 +24,7 @@ public abstract class FilterSpecParamExprNode extends FilterSpecParam {
 
     private ExprEvaluator exprNode;
     private String exprText;
+    private String sharedExprKey;
     private EventBeanTypedEventFactory eventBeanTypedEventFactory;
     protected FilterBooleanExpressionFactory filterBooleanExpressionFactory; // subclasses by generated code
     private boolean hasVariable;
@@ -46,6 +47,20 @@ public abstract class FilterSpecParamExprNode extends FilterSpecParam {
         this.exprText = exprText;
     }
 
+    public void setSharedExprKey(String sharedExprKey) {
+        this.sharedExprKey = sharedExprKey;
+    }
+
+    /**
+     * Returns the key of the expression when statements with the structurally-identical expression may share the result
+     * of evaluating the expression against the same event, or null if the expression cannot be shared.
+     *
+     * @return key or null
+     */
+    public String getSharedExprKey() {
+        return sharedExprKey;
+    }
+
     public void setEventBeanTypedEventFactory(EventBeanTypedEventFactory eventBeanTypedEventFactory) {
         this.eventBeanTypedEventFactory = eventBeanTypedEventFactory;
     }
@@ -21,15 +21,24 @@ import com.espertech.esper.common.internal.bytecodemodel.model.expression.Codege
 import com.espertech.esper.common.internal.bytecodemodel.model.expression.CodegenExpressionField;
 import com.espertech.esper.common.internal.bytecodemodel.model.expression.CodegenExpressionNewAnonymousClass;
 import com.espertech.esper.common.internal.collection.Pair;
+import com.espertech.esper.common.internal.compile.stage2.FilterSpecExprNodeVisitorLookupableLimitedExpr;
 import com.espertech.esper.common.internal.compile.stage3.StatementCompileTimeServices;
 import com.espertech.esper.common.internal.context.aifactory.core.SAIFFInitializeSymbolWEventType;
 import com.espertech.esper.common.internal.context.module.EPStatementInitServices;
 import com.espertech.esper.common.internal.epl.expression.core.*;
+import com.espertech.esper.common.internal.epl.expression.dot.core.ExprDotNode;
+import com.espertech.esper.common.internal.epl.expression.dot.core.ExprDotNodeForgeStaticMethod;
+import com.espertech.esper.common.internal.epl.expression.funcs.ExprPlugInSingleRowNode;
+import com.espertech.esper.common.internal.epl.expression.funcs.ExprPlugInSingleRowNodeForge;
+import com.espertech.esper.common.internal.epl.expression.variable.ExprVariableNode;
+import com.espertech.esper.common.internal.epl.expression.visitor.ExprNodeDeclaredVisitor;
+import com.espertech.esper.common.internal.epl.expression.visitor.ExprNodeVisitor;
 import com.espertech.esper.common.internal.epl.streamtype.StreamTypeService;
 import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactoryCodegenField;
 import com.espertech.esper.common.internal.event.core.EventTypeUtility;
 import com.espertech.esper.common.internal.util.StringValue;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -201,6 +210,7 @@ public final class FilterSpecParamExprNodeForge extends FilterSpecParamForge {
                 .exprDotMethod(ref("node"), "setHasFilterStreamSubquery", constant(hasFilterStreamSubquery))
                 .exprDotMethod(ref("node"), "setFilterBoolExprId", constant(filterBoolExprId))
                 .exprDotMethod(ref("node"), "setHasTableAccess", constant(hasTableAccess))
+                .exprDotMethod(ref("node"), "setSharedExprKey", constant(getSharedExprKey()))
                 .exprDotMethod(ref("node"), "setFilterBooleanExpressionFactory", exprDotMethodChain(symbols.getAddInitSvc(method)).add(EPStatementInitServices.GETFILTERBOOLEANEXPRESSIONFACTORY))
                 .exprDotMethod(ref("node"), "setUseLargeThreadingProfile", constant(compileTimeServices.getConfiguration().getCommon().getExecution().getThreadingProfile() == ThreadingProfile.LARGE));
 
@@ -220,6 +230,72 @@ public final class FilterSpecParamExprNodeForge extends FilterSpecParamForge {
         return localMethod(method);
     }
 
+    /**
+     * Returns the key that identifies structurally-identical boolean expressions across statements, or null when the
+     * expression cannot be shared. Shareable expressions only depend on the current event and on classes and functions that
+     * are the same for all statements, i.e. no variables, tables, subqueries, context properties, scripts, declared expressions,
+     * inlined classes or prior pattern events.
+     *
+     * @return key or null
+     */
+    public String getSharedExprKey() {
+        if ((taggedEventTypes != null && !taggedEventTypes.isEmpty()) || (arrayEventTypes != null && !arrayEventTypes.isEmpty()) ||
+            hasVariable || hasFilterStreamSubquery || hasTableAccess) {
+            return null;
+        }
+        FilterSpecExprNodeVisitorLookupableLimitedExpr limitedVisitor = new FilterSpecExprNodeVisitorLookupableLimitedExpr();
+        exprNode.accept(limitedVisitor);
+        ExprNodeDeclaredVisitor declaredVisitor = new ExprNodeDeclaredVisitor();
+        exprNode.accept(declaredVisitor);
+        if (!limitedVisitor.isLimited() || !declaredVisitor.getDeclaredExpressions().isEmpty()) {
+            return null;
+        }
+        SharedExprKeyVisitor keyVisitor = new SharedExprKeyVisitor();
+        exprNode.accept(keyVisitor);
+        if (!keyVisitor.shareable) {
+            return null;
+        }
+        return streamTypeService.getEventTypes()[0].getName() + ":" + ExprNodeUtilityPrint.toExpressionStringMinPrecedenceSafe(exprNode) + keyVisitor.resolved;
+    }
+
+    /**
+     * The expression text does not carry values provided at deployment time nor the classes that functions resolve to.
+     * Expressions with substitution parameters, deploy-time constants or variables are not shareable,
+     * and the resolved methods and enum classes become part of the key.
+     */
+    private static class SharedExprKeyVisitor implements ExprNodeVisitor {
+        private final StringBuilder resolved = new StringBuilder();
+        private boolean shareable = true;
+
+        public boolean isVisit(ExprNode exprNode) {
+            return shareable;
+        }
+
+        public void visit(ExprNode exprNode) {
+            if (exprNode instanceof ExprNodeDeployTimeConst || exprNode instanceof ExprVariableNode) {
+                shareable = false;
+                return;
+            }
+            if (exprNode instanceof ExprDotNode || exprNode instanceof ExprPlugInSingleRowNode) {
+                ExprForge forge = exprNode.getForge();
+                Method method = null;
+                if (forge instanceof ExprDotNodeForgeStaticMethod) {
+                    method = ((ExprDotNodeForgeStaticMethod) forge).getStaticMethod();
+                } else if (forge instanceof ExprPlugInSingleRowNodeForge) {
+                    method = ((ExprPlugInSingleRowNodeForge) forge).getMethod();
+                }
+                if (method != null) {
+                    resolved.append('|').append(method.toGenericString());
+                }
+            } else if (exprNode instanceof ExprConstantNode) {
+                Object value = ((ExprConstantNode) exprNode).getConstantValue();
+                if (value instanceof Enum) {
+                    resolved.append('|').append(((Enum) value).getDeclaringClass().getName());
+                }
+            }
+        }
+    }
+
     public EventType[] providedTypesStartingStreamOne() {
         if ((taggedEventTypes != null && !taggedEventTypes.isEmpty()) || (arrayEventTypes != null && !arrayEventTypes.isEmpty())) {
             int size = (taggedEventTypes != null) ? taggedEventTypes.size() : 0;
@@ -0,0 +1,26 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.filtersvc;
+
+import com.espertech.esper.common.client.EventBean;
+
+/**
+ * Filter callback that can receive the matches of multiple events in a single invocation,
+ * allowing the statement to evaluate its where-clause and select-clause over all events at once.
+ */
+public interface FilterHandleCallbackBatch extends FilterHandleCallback {
+    /**
+     * Indicate that the events, in the order received, matched the filter specification associated with this callback.
+     *
+     * @param theEvents - matching events
+     */
+    public void matchFoundBatch(EventBean[] theEvents);
+}
@@ -10,7 +10,9 @@
  */
 package com.espertech.esper.common.internal.metrics.stmtmetrics;
 
+import com.espertech.esper.common.client.metric.LatencyHistogram;
 import com.espertech.esper.common.client.metric.RuntimeMetric;
+import com.espertech.esper.common.internal.statement.thread.ThreadingCommon;
 
 /**
  * Metrics execution producing runtime metric events.
@@ -20,7 +22,9 @@ public class MetricExecEngine implements MetricExec {
     private final String runtimeURI;
     private final MetricScheduleService metricScheduleService;
     private final long interval;
+    private final boolean latencyHistograms;
     private RuntimeMetric lastMetric;
+    private volatile LatencyHistogram filterLatency;
 
     /**
      * Ctor.
@@ -31,22 +35,65 @@ public class MetricExecEngine implements MetricExec {
      * @param interval              for rescheduling the execution
      */
     public MetricExecEngine(MetricEventRouter metricEventRouter, String runtimeURI, MetricScheduleService metricScheduleService, long interval) {
+        this(metricEventRouter, runtimeURI, metricScheduleService, interval, false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param metricEventRouter     for routing metric events
+     * @param runtimeURI            runtime URI
+     * @param metricScheduleService for scheduling a new execution
+     * @param interval              for rescheduling the execution
+     * @param latencyHistograms     true to record filter matching latency
+     */
+    public MetricExecEngine(MetricEventRouter metricEventRouter, String runtimeURI, MetricScheduleService metricScheduleService, long interval, boolean latencyHistograms) {
         this.metricEventRouter = metricEventRouter;
         this.runtimeURI = runtimeURI;
         this.metricScheduleService = metricScheduleService;
         this.interval = interval;
+        this.latencyHistograms = latencyHistograms;
+        if (latencyHistograms) {
+            filterLatency = new LatencyHistogram();
+        }
     }
 
     public void execute(MetricExecutionContext context) {
         long inputCount = context.getFilterService().getNumEventsEvaluated();
         long schedDepth = context.getSchedulingService().getScheduleHandleCount();
         long deltaInputCount = lastMetric == null ? inputCount : inputCount - lastMetric.getInputCount();
-        RuntimeMetric metric = new RuntimeMetric(runtimeURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth);
+        ThreadingCommon threading = context.getThreadingService();
+
+        // swap the filter latency histogram so the reported one covers this interval
+        LatencyHistogram filterLatencyInterval = filterLatency;
+        if (latencyHistograms) {
+            filterLatency = new LatencyHistogram();
+        }
+
+        RuntimeMetric metric;
+        if (threading == null) {
+            metric = new RuntimeMetric(runtimeURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth, 0, 0, 0, 0, 0, filterLatencyInterval);
+        } else {
+            metric = new RuntimeMetric(runtimeURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth,
+                threading.getInboundQueueDepth(), threading.getOutboundQueueDepth(), threading.getRouteQueueDepth(), threading.getTimerQueueDepth(), threading.getInboundQueueWaitNanos(), filterLatencyInterval);
+        }
         lastMetric = metric;
         metricEventRouter.route(metric);
         metricScheduleService.add(interval, this);
     }
 
+    /**
+     * Records the latency of matching one input event against filters.
+     *
+     * @param wall wall time nsec
+     */
+    public void recordFilterLatency(long wall) {
+        LatencyHistogram histogram = filterLatency;
+        if (histogram != null) {
+            histogram.recordValue(wall);
+        }
+    }
+
     /**
      * Returns reporting interval.
      *
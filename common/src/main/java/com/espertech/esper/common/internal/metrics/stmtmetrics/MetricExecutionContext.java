@@ -13,6 +13,7 @@ package com.espertech.esper.common.internal.metrics.stmtmetrics;
 import com.espertech.esper.common.internal.event.core.EventServiceSendEventCommon;
 import com.espertech.esper.common.internal.filtersvc.FilterService;
 import com.espertech.esper.common.internal.schedule.SchedulingService;
+import com.espertech.esper.common.internal.statement.thread.ThreadingCommon;
 
 /**
  * Execution context for metrics reporting executions.
@@ -22,12 +23,14 @@ public class MetricExecutionContext {
     private final SchedulingService schedulingService;
     private final EventServiceSendEventCommon epRuntimeSendEvent;
     private final StatementMetricRepository statementMetricRepository;
+    private final ThreadingCommon threadingService;
 
-    public MetricExecutionContext(FilterService filterService, SchedulingService schedulingService, EventServiceSendEventCommon epRuntimeSendEvent, StatementMetricRepository statementMetricRepository) {
+    public MetricExecutionContext(FilterService filterService, SchedulingService schedulingService, EventServiceSendEventCommon epRuntimeSendEvent, StatementMetricRepository statementMetricRepository, ThreadingCommon threadingService) {
         this.filterService = filterService;
         this.schedulingService = schedulingService;
         this.epRuntimeSendEvent = epRuntimeSendEvent;
         this.statementMetricRepository = statementMetricRepository;
+        this.threadingService = threadingService;
     }
 
     public FilterService getFilterService() {
@@ -50,4 +53,13 @@ public class MetricExecutionContext {
     public StatementMetricRepository getStatementMetricRepository() {
         return statementMetricRepository;
     }
+
+    /**
+     * Returns the threading service for queue depth and wait time, or null if not available
+     *
+     * @return threading service
+     */
+    public ThreadingCommon getThreadingService() {
+        return threadingService;
+    }
 }
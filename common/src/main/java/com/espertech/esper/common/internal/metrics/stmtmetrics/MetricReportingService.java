@@ -14,6 +14,7 @@ import com.espertech.esper.common.client.metric.EPMetricsStatementGroup;
 import com.espertech.esper.common.internal.event.core.EventServiceSendEventCommon;
 import com.espertech.esper.common.internal.filtersvc.FilterService;
 import com.espertech.esper.common.internal.schedule.SchedulingService;
+import com.espertech.esper.common.internal.statement.thread.ThreadingCommon;
 
 import java.util.function.Consumer;
 
@@ -21,7 +22,7 @@ import java.util.function.Consumer;
  * Metrics reporting service for instrumentation data publishing, if enabled.
  */
 public interface MetricReportingService {
-    public void setContext(FilterService filterService, SchedulingService schedulingService, EventServiceSendEventCommon eventServiceSendEventInternal);
+    public void setContext(FilterService filterService, SchedulingService schedulingService, EventServiceSendEventCommon eventServiceSendEventInternal, ThreadingCommon threadingService);
 
     /**
      * Indicates current runtime time.
@@ -45,6 +46,28 @@ public interface MetricReportingService {
      */
     public void accountTime(StatementMetricHandle metricsHandle, long deltaCPU, long deltaWall, int numInput);
 
+    /**
+     * Account for statement listener and subscriber dispatch time.
+     *
+     * @param metricsHandle statement handle
+     * @param deltaWall     wall time nsec
+     */
+    public void accountDispatch(StatementMetricHandle metricsHandle, long deltaWall);
+
+    /**
+     * Account for the time matching one input event against filters.
+     *
+     * @param deltaWall wall time nsec
+     */
+    public void accountFilterTime(long deltaWall);
+
+    /**
+     * Returns true if latency histograms are recorded.
+     *
+     * @return indicator
+     */
+    public boolean isLatencyHistograms();
+
     /**
      * Account for statement output row counting.
      *
@@ -46,6 +46,7 @@ public class StatementMetricArray {
     private final ManagedReadWriteLock rwLock;
     private final String name;
     private final boolean isReportInactive;
+    private final boolean latencyHistograms;
 
     // Active statements
     private DeploymentIdNamePair[] statementNames;
@@ -68,8 +69,22 @@ public class StatementMetricArray {
      * @param isReportInactive true to indicate to report on inactive statements
      */
     public StatementMetricArray(String runtimeURI, String name, int initialSize, boolean isReportInactive) {
+        this(runtimeURI, name, initialSize, isReportInactive, false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI        runtime URI
+     * @param name              name of statement group
+     * @param initialSize       initial size of array
+     * @param isReportInactive  true to indicate to report on inactive statements
+     * @param latencyHistograms true to have statement metrics record latency histograms
+     */
+    public StatementMetricArray(String runtimeURI, String name, int initialSize, boolean isReportInactive, boolean latencyHistograms) {
         this.runtimeURI = runtimeURI;
         this.isReportInactive = isReportInactive;
+        this.latencyHistograms = latencyHistograms;
         this.name = name;
 
         metrics = new StatementMetric[initialSize];
@@ -200,7 +215,7 @@ public class StatementMetricArray {
     public StatementMetric getAddMetric(int index) {
         StatementMetric metric = metrics[index];
         if (metric == null) {
-            metric = new StatementMetric(runtimeURI, statementNames[index].getDeploymentId(), statementNames[index].getName());
+            metric = new StatementMetric(runtimeURI, statementNames[index].getDeploymentId(), statementNames[index].getName(), latencyHistograms);
             metrics[index] = metric;
         }
         return metric;
@@ -239,7 +254,7 @@ public class StatementMetricArray {
         if (isReportInactive) {
             for (int i = 0; i <= currentLastElement; i++) {
                 if (statementNames[i] != null) {
-                    metrics[i] = new StatementMetric(runtimeURI, statementNames[i].getDeploymentId(), statementNames[i].getName());
+                    metrics[i] = new StatementMetric(runtimeURI, statementNames[i].getDeploymentId(), statementNames[i].getName(), latencyHistograms);
                 }
             }
         }
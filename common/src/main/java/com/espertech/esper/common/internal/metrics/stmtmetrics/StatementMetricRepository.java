@@ -45,7 +45,7 @@ public class StatementMetricRepository {
         this.groupMetrics = new StatementMetricArray[numGroups];
 
         // default group
-        groupMetrics[0] = new StatementMetricArray(runtimeURI, "group-default", 100, false);
+        groupMetrics[0] = new StatementMetricArray(runtimeURI, "group-default", 100, false, specification.isEnableLatencyHistograms());
 
         // initialize all other groups
         int countGroups = 1;
@@ -56,7 +56,7 @@ public class StatementMetricRepository {
             if (initialNumStmts < 10) {
                 initialNumStmts = 10;
             }
-            groupMetrics[countGroups] = new StatementMetricArray(runtimeURI, "group-" + countGroups, initialNumStmts, config.isReportInactive());
+            groupMetrics[countGroups] = new StatementMetricArray(runtimeURI, "group-" + countGroups, initialNumStmts, config.isReportInactive(), specification.isEnableLatencyHistograms());
             countGroups++;
         }
 
@@ -124,6 +124,26 @@ public class StatementMetricRepository {
             metric.addCPUTime(cpu);
             metric.addWallTime(wall);
             metric.addNumInput(numInput);
+            if (wall != 0) { // zero is input counting only, such as for on-merge
+                metric.recordProcessingLatency(wall);
+            }
+        } finally {
+            array.getRwLock().releaseReadLock();
+        }
+    }
+
+    /**
+     * Account listener and subscriber dispatch time.
+     *
+     * @param handle statement handle
+     * @param wall   time
+     */
+    public void accountDispatch(StatementMetricHandle handle, long wall) {
+        StatementMetricArray array = groupMetrics[handle.getGroupNum()];
+        array.getRwLock().acquireReadLock();
+        try {
+            StatementMetric metric = array.getAddMetric(handle.getIndex());
+            metric.recordDispatchLatency(wall);
         } finally {
             array.getRwLock().releaseReadLock();
         }
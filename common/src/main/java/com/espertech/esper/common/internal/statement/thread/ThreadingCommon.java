@@ -17,4 +17,22 @@ public interface ThreadingCommon {
     boolean isInboundThreading();
 
     void submitInbound(EventBean event, EPRuntimeEventProcessWrapped runtimeEventSender);
+
+    long getInboundQueueDepth();
+
+    /**
+     * Returns the total capacity of the inbound queues or ring buffers, or zero when inbound threading is
+     * disabled or inbound queues are unbounded.
+     *
+     * @return capacity
+     */
+    long getInboundQueueCapacity();
+
+    long getOutboundQueueDepth();
+
+    long getRouteQueueDepth();
+
+    long getTimerQueueDepth();
+
+    long getInboundQueueWaitNanos();
 }
@@ -12,7 +12,7 @@ package com.espertech.esper.common.internal.view.timewin;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventType;
-import com.espertech.esper.common.internal.collection.TimeWindow;
+import com.espertech.esper.common.internal.collection.TimeWindowRingBuffer;
 import com.espertech.esper.common.internal.collection.ViewUpdatedCollection;
 import com.espertech.esper.common.internal.context.util.*;
 import com.espertech.esper.common.internal.epl.expression.time.eval.TimePeriodProvide;
@@ -20,7 +20,6 @@ import com.espertech.esper.common.internal.schedule.ScheduleHandleCallback;
 import com.espertech.esper.common.internal.schedule.ScheduleObjectType;
 import com.espertech.esper.common.internal.view.core.*;
 
-import java.util.ArrayDeque;
 import java.util.Iterator;
 
 /**
@@ -36,7 +35,7 @@ import java.util.Iterator;
  */
 public class TimeWindowView extends ViewSupport implements DataWindowView, AgentInstanceMgmtCallback {
     private final TimeWindowViewFactory timeWindowViewFactory;
-    private final TimeWindow timeWindow;
+    private final TimeWindowRingBuffer timeWindow;
     private final ViewUpdatedCollection viewUpdatedCollection;
     private final AgentInstanceContext agentInstanceContext;
     private final EPStatementHandleCallbackSchedule handle;
@@ -47,7 +46,7 @@ public class TimeWindowView extends ViewSupport implements DataWindowView, Agent
         this.agentInstanceContext = agentInstanceContext.getAgentInstanceContext();
         this.timeWindowViewFactory = timeWindowViewFactory;
         this.viewUpdatedCollection = viewUpdatedCollection;
-        this.timeWindow = new TimeWindow(agentInstanceContext.isRemoveStream());
+        this.timeWindow = new TimeWindowRingBuffer(agentInstanceContext.isRemoveStream());
         this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
         this.timePeriodProvide = timePeriodProvide;
 
@@ -123,12 +122,11 @@ public class TimeWindowView extends ViewSupport implements DataWindowView, Agent
 
         // Remove from the timeWindow any events that have an older or timestamp then the given timestamp
         // The window extends from X to (X - millisecondsBeforeExpiry + 1)
-        ArrayDeque<EventBean> expired = timeWindow.expireEvents(expireBeforeTimestamp);
+        EventBean[] oldEvents = timeWindow.expireEvents(expireBeforeTimestamp);
 
         // If there are child views, fireStatementStopped update method
         if (getChild() != null) {
-            if ((expired != null) && (!expired.isEmpty())) {
-                EventBean[] oldEvents = expired.toArray(new EventBean[expired.size()]);
+            if (oldEvents != null) {
                 if (viewUpdatedCollection != null) {
                     viewUpdatedCollection.update(null, oldEvents);
                 }
@@ -125,7 +125,13 @@ public class TestConfigurationParser extends TestCase {
         assertNull(runtime.getThreading().getThreadPoolRouteExecCapacity());
         assertNull(runtime.getThreading().getThreadPoolTimerExecCapacity());
         assertFalse(runtime.getThreading().isRuntimeFairlock());
+        assertFalse(runtime.getThreading().isThreadPoolRingBuffer());
+        assertFalse(runtime.getThreading().isThreadPoolRingBufferInboundSingleProducer());
+        assertEquals(ThreadPoolWaitStrategy.PARK, runtime.getThreading().getThreadPoolRingBufferWaitStrategy());
+        assertFalse(runtime.getThreading().isThreadPoolInboundAffinity());
+        assertTrue(runtime.getThreading().getThreadPoolInboundAffinityKeys().isEmpty());
         assertFalse(runtime.getMetricsReporting().isJmxRuntimeMetrics());
+        assertFalse(runtime.getMetricsReporting().isEnableLatencyHistograms());
         assertTrue(runtime.getThreading().isNamedWindowConsumerDispatchPreserveOrder());
         assertEquals(Long.MAX_VALUE, runtime.getThreading().getNamedWindowConsumerDispatchTimeout());
         assertEquals(Locking.SPIN, runtime.getThreading().getNamedWindowConsumerDispatchLocking());
@@ -143,6 +149,7 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(runtime.getExecution().isPrecedenceEnabled());
         assertFalse(runtime.getExecution().isDisableLocking());
         assertEquals(FilterServiceProfile.READMOSTLY, runtime.getExecution().getFilterServiceProfile());
+        assertEquals(SchedulingServiceProfile.SORTED, runtime.getExecution().getSchedulingServiceProfile());
         assertEquals(1, runtime.getExecution().getDeclaredExprValueCacheSize());
         assertTrue(runtime.getExpression().isSelfSubselectPreeval());
         assertEquals(TimeZone.getDefault(), runtime.getExpression().getTimeZone());
@@ -295,6 +302,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(2, configDBRef.getSqlTypesMapping().size());
         assertEquals("int", configDBRef.getSqlTypesMapping().get(2));
         assertEquals("float", configDBRef.getSqlTypesMapping().get(6));
+        assertNull(configDBRef.getLookupBatchDesc());
 
         // assert database reference - driver manager config
         configDBRef = common.getDatabaseReferences().get("mydb2");
@@ -317,6 +325,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(ConfigurationCommonDBRef.MetadataOriginEnum.METADATA, configDBRef.getMetadataRetrievalEnum());
         assertEquals(1, configDBRef.getSqlTypesMapping().size());
         assertEquals("java.lang.String", configDBRef.getSqlTypesMapping().get(99));
+        assertEquals(0, configDBRef.getLookupBatchDesc().getNumThreads());
 
         // assert database reference - data source factory and DBCP config
         configDBRef = common.getDatabaseReferences().get("mydb3");
@@ -327,6 +336,10 @@ public class TestConfigurationParser extends TestCase {
         assertEquals("mypassword", dsFactory.getProperties().getProperty("password"));
         assertEquals("com.mysql.jdbc.Driver", dsFactory.getProperties().getProperty("driverClassName"));
         assertEquals("2", dsFactory.getProperties().getProperty("initialSize"));
+        ConfigurationCommonCacheSizeBounded sizeBoundedCache = (ConfigurationCommonCacheSizeBounded) configDBRef.getDataCacheDesc();
+        assertEquals(1048576L, sizeBoundedCache.getMaxSizeBytes());
+        assertEquals(30.0, sizeBoundedCache.getMaxAgeSeconds());
+        assertEquals(5.5, sizeBoundedCache.getRefreshAheadSeconds());
 
         assertEquals(PropertyResolutionStyle.DISTINCT_CASE_INSENSITIVE, common.getEventMeta().getClassPropertyResolutionStyle());
         assertEquals(AccessorStyle.PUBLIC, common.getEventMeta().getDefaultAccessorStyle());
@@ -363,10 +376,13 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(91.0, expCache.getMaxAgeSeconds());
         assertEquals(92.2, expCache.getPurgeIntervalSeconds());
         assertEquals(CacheReferenceType.WEAK, expCache.getCacheReferenceType());
+        assertNull(methodRef.getLookupBatchDesc());
 
         methodRef = common.getMethodInvocationReferences().get("def");
         lruCache = (ConfigurationCommonCacheLRU) methodRef.getDataCacheDesc();
         assertEquals(20, lruCache.getSize());
+        assertEquals(4, methodRef.getLookupBatchDesc().getNumThreads());
+        assertTrue(methodRef.getLookupBatchDesc().isThreadSafe());
 
         // variance types
         assertEquals(1, common.getVariantStreams().size());
@@ -566,6 +582,13 @@ public class TestConfigurationParser extends TestCase {
         assertNull(runtime.getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) runtime.getThreading().getThreadPoolRouteExecCapacity());
         assertTrue(runtime.getThreading().isRuntimeFairlock());
+        assertTrue(runtime.getThreading().isThreadPoolRingBuffer());
+        assertTrue(runtime.getThreading().isThreadPoolRingBufferInboundSingleProducer());
+        assertEquals(ThreadPoolWaitStrategy.YIELD, runtime.getThreading().getThreadPoolRingBufferWaitStrategy());
+        assertTrue(runtime.getThreading().isThreadPoolInboundAffinity());
+        assertEquals(2, runtime.getThreading().getThreadPoolInboundAffinityKeys().size());
+        EPAssertionUtil.assertEqualsExactOrder(new String[]{"myString"}, runtime.getThreading().getThreadPoolInboundAffinityKeys().get("MyMapEvent"));
+        EPAssertionUtil.assertEqualsExactOrder(new String[]{"symbol", "feed"}, runtime.getThreading().getThreadPoolInboundAffinityKeys().get("MySampleEventOne"));
 
         assertFalse(runtime.getThreading().isInternalTimerEnabled());
         assertEquals(1234567, runtime.getThreading().getInternalTimerMsecResolution());
@@ -601,6 +624,7 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(runtime.getExecution().isFairlock());
         assertTrue(runtime.getExecution().isDisableLocking());
         assertEquals(FilterServiceProfile.READWRITE, runtime.getExecution().getFilterServiceProfile());
+        assertEquals(SchedulingServiceProfile.TIMINGWHEEL, runtime.getExecution().getSchedulingServiceProfile());
         assertEquals(101, runtime.getExecution().getDeclaredExprValueCacheSize());
 
         ConfigurationRuntimeMetricsReporting metrics = runtime.getMetricsReporting();
@@ -610,6 +634,7 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(metrics.isThreading());
         assertEquals(2, metrics.getStatementGroups().size());
         assertTrue(metrics.isJmxRuntimeMetrics());
+        assertTrue(metrics.isEnableLatencyHistograms());
         ConfigurationRuntimeMetricsReporting.StmtGroupMetrics def = metrics.getStatementGroups().get("MyStmtGroup");
         assertEquals(5000, def.getInterval());
         assertTrue(def.isDefaultInclude());
@@ -57,6 +57,8 @@ import org.junit.Test;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import static com.espertech.esper.common.client.json.minimaljson.Json.parse;
 import static com.espertech.esper.common.client.json.minimaljson.MinimalJsonSupportUtil.assertException;
@@ -764,6 +766,78 @@ public class JsonParser_Test {
         assertParseException(5, "Unexpected character", "falsex");
     }
 
+    @Test(expected = NullPointerException.class)
+    public void parse_byteBuffer_rejectsNull() {
+        parser.parse((ByteBuffer) null);
+    }
+
+    @Test
+    public void parse_byteBuffer_sameAsString() {
+        StringBuilder builder = new StringBuilder("{\"text\":\"");
+        for (int i = 0; i < 600; i++) {
+            builder.append("a\u00fc\u20ac");
+        }
+        builder.append("\", \"list\": [1, -2.5e3, true, null, \"\\u0041\"]}");
+        String json = builder.toString();
+
+        parser.parse(json);
+        String expected = handler.getLog();
+
+        TestHandler bufferHandler = new TestHandler();
+        ByteBuffer buffer = ByteBuffer.wrap(("  " + json).getBytes(StandardCharsets.UTF_8));
+        buffer.position(2);
+        new JsonParser(bufferHandler).parse(buffer.slice());
+
+        assertEquals(expected, bufferHandler.getLog());
+        assertEquals(2, buffer.position());
+    }
+
+    @Test
+    public void parse_byteBuffer_rejectsMalformedUTF8() {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[]{'"', (byte) 0xC3, '"'});
+        ParseException exception = assertException(ParseException.class, new Runnable() {
+            public void run() {
+                parser.parse(buffer);
+            }
+        });
+        assertThat(exception.getMessage(), startsWith("Invalid UTF-8 input at"));
+    }
+
+    @Test
+    public void parse_skipObjectValue() {
+        final StringBuilder log = new StringBuilder();
+        JsonHandler<Object, Object> skipping = new JsonHandler<Object, Object>() {
+            public void endString(String string) {
+                log.append(string).append(' ');
+            }
+
+            public void endNumber(String string) {
+                log.append(string).append(' ');
+            }
+
+            public void endObjectValue(Object object, String name) {
+                log.append(name).append(' ');
+            }
+
+            public boolean skipObjectValue(Object object, String name) {
+                return name.startsWith("skip");
+            }
+        };
+        new JsonParser(skipping).parse("{\"a\":1, \"skip1\":{\"x\":[1,\"y\\u0041\\\"\",true,null,{}]}, \"skip2\":-1.5E+2, \"b\":\"v\", \"skip3\":false}");
+        assertEquals("1 a v b ", log.toString());
+
+        assertException(ParseException.class, new Runnable() {
+            public void run() {
+                new JsonParser(skipping).parse("{\"skip\":[1,]}");
+            }
+        });
+        assertException(ParseException.class, new Runnable() {
+            public void run() {
+                new JsonParser(skipping).parse("{\"skip\":\"\\x\"}");
+            }
+        });
+    }
+
     private void assertParseException(int offset, String message, final String json) {
         ParseException exception = assertException(ParseException.class, new Runnable() {
             public void run() {
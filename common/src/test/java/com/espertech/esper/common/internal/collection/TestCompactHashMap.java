@@ -0,0 +1,145 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.collection;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestCompactHashMap extends TestCase {
+
+    public void testPutGetRemove() {
+        CompactHashMap<Object, String> map = new CompactHashMap<>();
+        assertNull(map.put("a", "A"));
+        assertEquals("A", map.put("a", "A2"));
+        assertNull(map.put(null, "N"));
+        assertEquals(2, map.size());
+        assertEquals("A2", map.get("a"));
+        assertEquals("N", map.get(null));
+        assertTrue(map.containsKey(null));
+        assertFalse(map.containsKey("b"));
+
+        assertEquals(new HashSet<>(Arrays.asList("a", null)), new HashSet<>(map.keySet()));
+        assertEquals(new HashSet<>(Arrays.asList("A2", "N")), new HashSet<>(map.values()));
+
+        assertEquals("N", map.remove(null));
+        assertNull(map.remove(null));
+        assertEquals(1, map.size());
+
+        for (Map.Entry<Object, String> entry : map.entrySet()) {
+            entry.setValue("A3");
+        }
+        assertEquals("A3", map.get("a"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("a"));
+    }
+
+    public void testCollidingKeys() {
+        // keys with identical hash codes form a single probe sequence
+        CompactHashMap<Object, Integer> map = new CompactHashMap<>();
+        List<SupportCollidingKey> keys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            keys.add(new SupportCollidingKey(i));
+            map.put(keys.get(i), i);
+        }
+        map.remove(keys.get(3));
+        map.remove(keys.get(0));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i == 0 || i == 3 ? null : (Integer) i, map.get(keys.get(i)));
+        }
+        assertEquals(8, map.size());
+    }
+
+    public void testIteratorFailFast() {
+        CompactHashMap<String, Integer> map = new CompactHashMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+
+        Iterator<String> it = map.keySet().iterator();
+        it.next();
+        map.put("c", 3);
+        try {
+            it.next();
+            fail();
+        } catch (ConcurrentModificationException ex) {
+            // expected
+        }
+
+        Iterator<Map.Entry<String, Integer>> entries = map.entrySet().iterator();
+        try {
+            entries.next();
+            entries.remove();
+            fail();
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+
+        // replacing a value or updating through the entry is not a structural modification
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            entry.setValue(entry.getValue() * 10);
+            map.put(entry.getKey(), entry.getValue() + 1);
+        }
+        assertEquals(11, (int) map.get("a"));
+
+        Iterator<Integer> values = map.values().iterator();
+        values.next();
+        map.remove("a");
+        try {
+            values.next();
+            fail();
+        } catch (ConcurrentModificationException ex) {
+            // expected
+        }
+    }
+
+    public void testCompareHashMap() {
+        Random random = new Random(1234);
+        CompactHashMap<Object, Integer> map = new CompactHashMap<>();
+        Map<Object, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            int op = random.nextInt(10);
+            Integer key = random.nextInt(5000);
+            if (op < 6) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else if (op < 9) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+            if (i % 50000 == 0) {
+                assertEquals(expected, map);
+                map.clear();
+                expected.clear();
+            }
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.entrySet(), map.entrySet());
+    }
+
+    private static class SupportCollidingKey {
+        private final int id;
+
+        SupportCollidingKey(int id) {
+            this.id = id;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof SupportCollidingKey && ((SupportCollidingKey) o).id == id;
+        }
+
+        public int hashCode() {
+            return 7;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.collection;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestTimeWindowRingBuffer extends TestCase {
+    private final TimeWindowRingBuffer window = new TimeWindowRingBuffer(false);
+    private final TimeWindowRingBuffer windowRemovable = new TimeWindowRingBuffer(true);
+    private final EventBean[] beans = new EventBean[6];
+
+    public void setUp() {
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = createBean();
+        }
+    }
+
+    public void testAdd() {
+        assertNull(window.getOldestTimestamp());
+        assertTrue(window.isEmpty());
+
+        window.add(19, beans[0]);
+        window.add(19, beans[1]);
+        window.add(20, beans[2]);
+        window.add(20, beans[3]);
+        window.add(21, beans[4]);
+        window.add(22, beans[5]);
+        assertEquals(19L, (long) window.getOldestTimestamp());
+        assertEquals(6, window.size());
+
+        assertNull(window.expireEvents(19));
+        assertSame(new EventBean[]{beans[0], beans[1]}, window.expireEvents(20));
+        assertSame(new EventBean[]{beans[2], beans[3]}, window.expireEvents(21));
+        assertEquals(21L, (long) window.getOldestTimestamp());
+        assertSame(new EventBean[]{beans[4], beans[5]}, window.expireEvents(23));
+        assertTrue(window.isEmpty());
+        assertNull(window.getOldestTimestamp());
+        assertNull(window.expireEvents(23));
+        assertFalse(window.iterator().hasNext());
+
+        try {
+            window.remove(beans[0]);
+            fail();
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+    }
+
+    public void testAddRemove() {
+        windowRemovable.add(19, beans[0]);
+        windowRemovable.add(19, beans[1]);
+        windowRemovable.add(20, beans[2]);
+        windowRemovable.add(20, beans[3]);
+        windowRemovable.add(21, beans[4]);
+        windowRemovable.add(22, beans[5]);
+
+        windowRemovable.remove(beans[4]);
+        windowRemovable.remove(beans[0]);
+        windowRemovable.remove(beans[3]);
+        windowRemovable.remove(beans[3]);
+        assertEquals(3, windowRemovable.size());
+        assertEquals(19L, (long) windowRemovable.getOldestTimestamp());
+        assertSame(new EventBean[]{beans[1], beans[2], beans[5]}, toArray(windowRemovable.iterator()));
+
+        assertNull(windowRemovable.expireEvents(19));
+        assertSame(new EventBean[]{beans[1]}, windowRemovable.expireEvents(20));
+        assertSame(new EventBean[]{beans[2]}, windowRemovable.expireEvents(21));
+        assertEquals(22L, (long) windowRemovable.getOldestTimestamp());
+
+        windowRemovable.remove(beans[5]);
+        assertTrue(windowRemovable.isEmpty());
+        assertNull(windowRemovable.expireEvents(23));
+        assertEquals(0, windowRemovable.getReverseIndexSize());
+    }
+
+    public void testCompareTimeWindow() {
+        Random random = new Random(1234);
+        TimeWindow expected = new TimeWindow(true);
+        TimeWindowRingBuffer actual = new TimeWindowRingBuffer(true);
+        List<EventBean> inWindow = new ArrayList<>();
+        Map<EventBean, Long> times = new IdentityHashMap<>();
+        long time = 0;
+
+        for (int i = 0; i < 20000; i++) {
+            int op = random.nextInt(10);
+            if (op < 5) {
+                EventBean bean = createBean();
+                expected.add(time, bean);
+                actual.add(time, bean);
+                inWindow.add(bean);
+                times.put(bean, time);
+            } else if (op < 7 && !inWindow.isEmpty()) {
+                EventBean bean = inWindow.remove(random.nextInt(inWindow.size()));
+                expected.remove(bean);
+                actual.remove(bean);
+            } else {
+                time += random.nextInt(3);
+                long expireBefore = time - random.nextInt(20);
+                ArrayDeque<EventBean> expiredExpected = expected.expireEvents(expireBefore);
+                EventBean[] expiredActual = actual.expireEvents(expireBefore);
+                if (expiredExpected == null || expiredExpected.isEmpty()) {
+                    assertNull(expiredActual);
+                } else {
+                    assertSame(expiredExpected.toArray(new EventBean[0]), expiredActual);
+                    inWindow.removeAll(expiredExpected);
+                }
+            }
+            assertEquals(inWindow.isEmpty() ? null : times.get(inWindow.get(0)), actual.getOldestTimestamp());
+            assertEquals(inWindow.size(), actual.size());
+            assertEquals(inWindow.size(), actual.getReverseIndexSize());
+        }
+        assertSame(toArray(expected.iterator()), toArray(actual.iterator()));
+    }
+
+    public void testGrowAndWrap() {
+        TimeWindowRingBuffer ring = new TimeWindowRingBuffer(true);
+        for (int i = 0; i < 10; i++) {
+            ring.add(i, createBean());
+        }
+        ring.expireEvents(8);
+        EventBean[] added = new EventBean[40];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = createBean();
+            ring.add(100 + i, added[i]);
+        }
+        assertEquals(42, ring.size());
+        assertEquals(64, ring.getCapacity());
+
+        ring.adjust(-100);
+        assertEquals(-92L, (long) ring.getOldestTimestamp());
+        EventBean[] expired = ring.expireEvents(20);
+        assertEquals(2 + 20, expired.length);
+        assertSame(added[0], expired[2]);
+        ring.remove(added[39]);
+        assertSame(Arrays.copyOfRange(added, 20, 39), toArray(ring.iterator()));
+    }
+
+    private static void assertSame(EventBean[] expected, EventBean[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], actual[i]);
+        }
+    }
+
+    private static EventBean[] toArray(Iterator<EventBean> it) {
+        List<EventBean> list = new ArrayList<>();
+        while (it.hasNext()) {
+            list.add(it.next());
+        }
+        return list.toArray(new EventBean[0]);
+    }
+
+    private EventBean createBean() {
+        return SupportEventBeanFactory.createObject(new SupportBean());
+    }
+}
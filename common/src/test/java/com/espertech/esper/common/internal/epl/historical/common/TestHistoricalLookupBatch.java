@@ -0,0 +1,162 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.common;
+
+import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategyConcurrent;
+import com.espertech.esper.common.internal.event.bean.core.BeanEventBean;
+import junit.framework.TestCase;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestHistoricalLookupBatch extends TestCase {
+
+    public void testPollInCallingThread() {
+        HistoricalLookupBatch batch = new HistoricalLookupBatch(0, "test-");
+        SupportPollStrategy strategy = new SupportPollStrategy(true);
+        List<List<EventBean>> results = batch.poll(strategy, Arrays.asList("a", "b", "c"), null);
+        assertResults(results, "a", "b", "c");
+        assertEquals(1, strategy.numStart.get());
+        assertEquals(1, strategy.numDone.get());
+        assertEquals(0, strategy.numConcurrent.get());
+    }
+
+    public void testPollConcurrent() {
+        HistoricalLookupBatch batch = new HistoricalLookupBatch(2, "test-");
+        try {
+            SupportPollStrategy strategy = new SupportPollStrategy(true);
+            List<Object> keys = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                keys.add("k" + i);
+            }
+            List<List<EventBean>> results = batch.poll(strategy, keys, null);
+            assertResults(results, keys.toArray(new String[0]));
+            assertEquals(0, strategy.numStart.get());
+            assertEquals(20, strategy.numConcurrent.get());
+
+            // not concurrent-capable polls in the calling thread
+            strategy = new SupportPollStrategy(false);
+            assertResults(batch.poll(strategy, Arrays.asList("x", "y"), null), "x", "y");
+            assertEquals(1, strategy.numStart.get());
+            assertEquals(0, strategy.numConcurrent.get());
+        } finally {
+            batch.destroy();
+        }
+    }
+
+    public void testPollConcurrentTaskContext() {
+        HistoricalLookupBatch batch = new HistoricalLookupBatch(2, "test-");
+        try {
+            ExprEvaluatorContext shared = new ExprEvaluatorContextPollTask(null);
+            Map<ExprEvaluatorContext, Thread> contexts = Collections.synchronizedMap(new IdentityHashMap<>());
+            SupportPollStrategy strategy = new SupportPollStrategy(true) {
+                public List<EventBean> pollConcurrent(Object lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+                    contexts.put(exprEvaluatorContext, Thread.currentThread());
+                    return super.pollConcurrent(lookupValues, exprEvaluatorContext);
+                }
+            };
+            List<Object> keys = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                keys.add("k" + i);
+            }
+            assertResults(batch.poll(strategy, keys, shared), keys.toArray(new String[0]));
+
+            // the calling thread polls with the statement context, each pool task has its own context
+            assertEquals(10, contexts.size());
+            assertSame(Thread.currentThread(), contexts.get(shared));
+            for (Map.Entry<ExprEvaluatorContext, Thread> entry : contexts.entrySet()) {
+                if (entry.getKey() == shared) {
+                    continue;
+                }
+                assertNotSame(Thread.currentThread(), entry.getValue());
+                assertTrue(entry.getKey() instanceof ExprEvaluatorContextPollTask);
+                try {
+                    entry.getKey().getAgentInstanceLock();
+                    fail();
+                } catch (UnsupportedOperationException ex) {
+                    // expected
+                }
+            }
+        } finally {
+            batch.destroy();
+        }
+    }
+
+    public void testPollException() {
+        HistoricalLookupBatch batch = new HistoricalLookupBatch(0, "test-");
+        SupportPollStrategy strategy = new SupportPollStrategy(true);
+        try {
+            batch.poll(strategy, Arrays.asList("a", "fail"), null);
+            fail();
+        } catch (EPException ex) {
+            assertEquals("failed", ex.getMessage());
+        }
+        assertEquals(1, strategy.numDone.get());
+
+        batch = new HistoricalLookupBatch(2, "test-");
+        try {
+            batch.poll(strategy, Arrays.asList("a", "b", "fail"), null);
+            fail();
+        } catch (EPException ex) {
+            assertEquals("failed", ex.getMessage());
+        } finally {
+            batch.destroy();
+        }
+    }
+
+    private static void assertResults(List<List<EventBean>> results, String... keys) {
+        assertEquals(keys.length, results.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(keys[i], results.get(i).get(0).getUnderlying());
+        }
+    }
+
+    private static class SupportPollStrategy implements PollExecStrategyConcurrent {
+        private final boolean concurrent;
+        private final AtomicInteger numStart = new AtomicInteger();
+        private final AtomicInteger numDone = new AtomicInteger();
+        private final AtomicInteger numConcurrent = new AtomicInteger();
+
+        SupportPollStrategy(boolean concurrent) {
+            this.concurrent = concurrent;
+        }
+
+        public boolean isConcurrentPoll() {
+            return concurrent;
+        }
+
+        public List<EventBean> pollConcurrent(Object lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+            numConcurrent.incrementAndGet();
+            return poll(lookupValues, exprEvaluatorContext);
+        }
+
+        public void start() {
+            numStart.incrementAndGet();
+        }
+
+        public List<EventBean> poll(Object lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+            if ("fail".equals(lookupValues)) {
+                throw new EPException("failed");
+            }
+            return Collections.singletonList(new BeanEventBean(lookupValues, null));
+        }
+
+        public void done() {
+            numDone.incrementAndGet();
+        }
+
+        public void destroy() {
+        }
+    }
+}
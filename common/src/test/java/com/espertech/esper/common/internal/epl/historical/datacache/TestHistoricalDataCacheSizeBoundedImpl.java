@@ -0,0 +1,147 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.datacache;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.epl.historical.indexingstrategy.UnindexedEventTableList;
+import com.espertech.esper.common.internal.epl.index.base.EventTable;
+import com.espertech.esper.common.internal.event.bean.core.BeanEventBean;
+import com.espertech.esper.common.internal.schedule.TimeProvider;
+import junit.framework.TestCase;
+
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestHistoricalDataCacheSizeBoundedImpl extends TestCase {
+    private SupportTimeProvider time;
+
+    public void setUp() {
+        time = new SupportTimeProvider();
+    }
+
+    public void testBoundedBySize() {
+        long entryWeight = HistoricalDataCacheWeigher.weigh(makeRows("v0"));
+        HistoricalDataCacheSizeBoundedImpl cache = new HistoricalDataCacheSizeBoundedImpl(entryWeight * 50, 0, 0, time, "test-");
+        for (int i = 0; i < 500; i++) {
+            cache.put("k" + i, makeRows("v" + (i % 10)));
+            assertTrue(cache.getWeightedSize() <= cache.getMaxSizeBytes());
+        }
+        assertTrue(cache.getSize() <= 50);
+        assertTrue(cache.getEvictionCount() >= 450);
+
+        // an entry larger than the cache is not cached
+        cache.put("large", makeRows(new String(new char[(int) entryWeight * 50])));
+        assertNull(cache.getCached("large"));
+    }
+
+    public void testFrequentKeysSurviveScan() {
+        long entryWeight = HistoricalDataCacheWeigher.weigh(makeRows("v0"));
+        HistoricalDataCacheSizeBoundedImpl cache = new HistoricalDataCacheSizeBoundedImpl(entryWeight * 100, 0, 0, time, "test-");
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 20; i++) {
+                String key = "hot" + i;
+                if (cache.getCached(key) == null) {
+                    cache.put(key, makeRows("v0"));
+                }
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            String key = "scan" + i;
+            if (cache.getCached(key) == null) {
+                cache.put(key, makeRows("v0"));
+            }
+        }
+        int hotCached = 0;
+        for (int i = 0; i < 20; i++) {
+            if (cache.getCached("hot" + i) != null) {
+                hotCached++;
+            }
+        }
+        // frequency estimates are approximate, an LRU cache would retain none
+        assertTrue(hotCached >= 18);
+    }
+
+    public void testExpiryAndRefreshAhead() {
+        HistoricalDataCacheSizeBoundedImpl cache = new HistoricalDataCacheSizeBoundedImpl(100000, 100, 30, time, "test-");
+        EventTable[] rows = makeRows("v");
+        cache.put("k", rows);
+        assertSame(rows, cache.getCached("k"));
+        assertFalse(cache.isRefreshDue("k"));
+        assertFalse(cache.isRefreshDue("other"));
+
+        time.time = 71;
+        assertSame(rows, cache.getCached("k"));
+        assertTrue(cache.isRefreshDue("k"));
+        assertFalse(cache.isRefreshDue("k"));
+        cache.refreshFailed("k");
+        assertTrue(cache.isRefreshDue("k"));
+
+        // refreshed entry is current again
+        EventTable[] refreshed = makeRows("w");
+        cache.put("k", refreshed);
+        assertSame(refreshed, cache.getCached("k"));
+        assertFalse(cache.isRefreshDue("k"));
+
+        time.time = 172;
+        assertNull(cache.getCached("k"));
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getWeightedSize());
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getRefreshCount());
+    }
+
+    public void testRefreshExecutes() throws InterruptedException {
+        HistoricalDataCacheSizeBoundedImpl cache = new HistoricalDataCacheSizeBoundedImpl(100000, 100, 30, time, "test-");
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            cache.refresh(() -> {
+                cache.recordLoadTime(10);
+                cache.put("k", makeRows("v"));
+                latch.countDown();
+            });
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertNotNull(cache.getCached("k"));
+            assertEquals(1, cache.getLoadCount());
+            assertEquals(10, cache.getLoadTimeNanos());
+        } finally {
+            cache.destroy();
+        }
+    }
+
+    public void testWeigher() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("a", "abc");
+        row.put("b", 1);
+        assertEquals(48 + 32 + 46 + 32 + 16, HistoricalDataCacheWeigher.weigh(row, 0));
+        assertEquals(16 + 8 + 46 + 8, HistoricalDataCacheWeigher.weigh(new Object[]{"abc", null}, 0));
+        assertTrue(HistoricalDataCacheWeigher.weigh(makeRows("abc")) > HistoricalDataCacheWeigher.weigh(new EventTable[0]));
+    }
+
+    private static EventTable[] makeRows(String value) {
+        List<EventBean> events = Collections.singletonList(new BeanEventBean(Collections.singletonMap("value", value), null));
+        return new EventTable[]{new UnindexedEventTableList(events, -1)};
+    }
+
+    private static class SupportTimeProvider implements TimeProvider {
+        private long time;
+
+        public long getTime() {
+            return time;
+        }
+
+        public DateTimeFormatter getDefaultFormatter() {
+            return null;
+        }
+    }
+}
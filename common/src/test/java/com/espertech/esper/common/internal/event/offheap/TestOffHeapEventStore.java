@@ -0,0 +1,207 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.offheap;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.meta.EventTypeApplicationType;
+import com.espertech.esper.common.client.meta.EventTypeIdPair;
+import com.espertech.esper.common.client.meta.EventTypeMetadata;
+import com.espertech.esper.common.client.meta.EventTypeTypeClass;
+import com.espertech.esper.common.client.type.EPTypePremade;
+import com.espertech.esper.common.client.util.EventTypeBusModifier;
+import com.espertech.esper.common.client.util.NameAccessModifier;
+import com.espertech.esper.common.internal.event.arr.ObjectArrayEventBean;
+import com.espertech.esper.common.internal.event.arr.ObjectArrayEventType;
+import com.espertech.esper.common.internal.event.map.MapEventBean;
+import com.espertech.esper.common.internal.event.map.MapEventType;
+import com.espertech.esper.common.internal.support.SupportBeanComplexProps;
+import com.espertech.esper.common.internal.supportunit.event.SupportEventTypeFactory;
+import com.espertech.esper.common.internal.util.ClassHelperGenericType;
+import junit.framework.TestCase;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestOffHeapEventStore extends TestCase {
+    private EventType oaType;
+    private EventType mapType;
+
+    public void setUp() {
+        Map<String, Object> typeRep = new LinkedHashMap<>();
+        typeRep.put("aString", EPTypePremade.STRING.getEPType());
+        typeRep.put("anInt", EPTypePremade.INTEGERPRIMITIVE.getEPType());
+        typeRep.put("aDouble", EPTypePremade.DOUBLEBOXED.getEPType());
+        typeRep.put("aLongArray", EPTypePremade.LONGPRIMITIVEARRAY.getEPType());
+
+        EventTypeMetadata oaMetadata = new EventTypeMetadata("MyOAType", null, EventTypeTypeClass.STREAM, EventTypeApplicationType.OBJECTARR, NameAccessModifier.PROTECTED, EventTypeBusModifier.NONBUS, false, EventTypeIdPair.unassigned());
+        oaType = new ObjectArrayEventType(oaMetadata, typeRep, null, null, null, null, SupportEventTypeFactory.BEAN_EVENT_TYPE_FACTORY);
+        EventTypeMetadata mapMetadata = new EventTypeMetadata("MyMapType", null, EventTypeTypeClass.STREAM, EventTypeApplicationType.MAP, NameAccessModifier.PROTECTED, EventTypeBusModifier.NONBUS, false, EventTypeIdPair.unassigned());
+        mapType = new MapEventType(mapMetadata, typeRep, null, null, null, null, SupportEventTypeFactory.BEAN_EVENT_TYPE_FACTORY);
+    }
+
+    public void testObjectArray() {
+        OffHeapEventStore store = OffHeapEventStore.make(oaType);
+        EventBean stored = store.store(new ObjectArrayEventBean(new Object[]{"E1", 10, null, new long[]{1, 2}}, oaType));
+        assertTrue(stored instanceof OffHeapObjectArrayEventBean);
+        assertFalse(((OffHeapEventBean) stored).isDetached());
+        assertSame(oaType, stored.getEventType());
+        assertEquals("E1", stored.get("aString"));
+        assertEquals(10, stored.get("anInt"));
+        assertNull(stored.get("aDouble"));
+        assertTrue(Arrays.equals(new long[]{1, 2}, (long[]) stored.get("aLongArray")));
+        assertEquals(1, store.getNumRows());
+        assertEquals(1, store.getNumSlabsLive());
+
+        // already stored events are retained as-is
+        assertSame(stored, store.store(stored));
+
+        store.release(stored);
+        assertTrue(((OffHeapEventBean) stored).isDetached());
+        assertEquals("E1", stored.get("aString"));
+        assertEquals(0, store.getNumRows());
+        assertEquals(0, store.getNumSlabsLive());
+        assertEquals(0, store.getNumBytesLive());
+
+        // releasing twice has no effect
+        store.release(stored);
+        assertEquals(0, store.getNumRows());
+    }
+
+    public void testMap() {
+        OffHeapEventStore store = OffHeapEventStore.make(mapType);
+        Map<String, Object> values = new HashMap<>();
+        values.put("aString", "E1");
+        values.put("aDouble", null);
+        EventBean stored = store.store(new MapEventBean(values, mapType));
+        assertTrue(stored instanceof OffHeapMapEventBean);
+        assertEquals(values, stored.getUnderlying());
+        assertEquals("E1", stored.get("aString"));
+        assertNull(stored.get("anInt"));
+
+        // keys that are not properties of the type remain on-heap
+        values.put("other", 1);
+        EventBean onHeap = new MapEventBean(values, mapType);
+        assertSame(onHeap, store.store(onHeap));
+        assertEquals(1, store.getNumFailed());
+    }
+
+    public void testSlabs() {
+        OffHeapEventStore store = new OffHeapEventStore(OffHeapRowSerde.make(oaType), 256);
+        EventBean[] events = new EventBean[20];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new ObjectArrayEventBean(new Object[]{"E" + i, i, i * 1.5, new long[0]}, oaType);
+        }
+        store.store(events);
+        long slabs = store.getNumSlabsLive();
+        assertTrue(slabs > 1);
+
+        // a slab is freed only once all its rows are released
+        store.release(new EventBean[]{events[0]});
+        assertEquals(slabs, store.getNumSlabsLive());
+        store.release(events);
+        assertEquals(0, store.getNumSlabsLive());
+        for (int i = 0; i < events.length; i++) {
+            assertEquals(i, events[i].get("anInt"));
+            assertEquals(i * 1.5, events[i].get("aDouble"));
+        }
+
+        // oversized rows receive a dedicated slab
+        EventBean large = store.store(new ObjectArrayEventBean(new Object[]{"E", 0, 0d, new long[100]}, oaType));
+        assertEquals(100, ((long[]) large.get("aLongArray")).length);
+        assertEquals(1, store.getNumSlabsLive());
+    }
+
+    public void testCompaction() {
+        OffHeapEventStore store = new OffHeapEventStore(OffHeapRowSerde.make(oaType), 256);
+        EventBean[] events = new EventBean[60];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new ObjectArrayEventBean(new Object[]{"E" + i, i, i * 1.5, new long[0]}, oaType);
+        }
+        store.store(events);
+        long slabs = store.getNumSlabsLive();
+        long bytes = store.getNumBytesLive();
+
+        // releasing two of every three rows leaves slabs mostly dead, which are compacted
+        for (int i = 0; i < events.length; i++) {
+            if (i % 3 != 0) {
+                store.release(events[i]);
+            }
+        }
+        assertTrue(store.getNumCompactions() > 0);
+        assertTrue(store.getNumSlabsLive() < slabs);
+        assertTrue(store.getNumBytesLive() < bytes);
+        assertEquals(20, store.getNumRows());
+        for (int i = 0; i < events.length; i += 3) {
+            assertFalse(((OffHeapEventBean) events[i]).isDetached());
+            assertEquals("E" + i, events[i].get("aString"));
+            assertEquals(i, events[i].get("anInt"));
+        }
+
+        store.release(events);
+        assertEquals(0, store.getNumRows());
+        assertEquals(0, store.getNumSlabsLive());
+        for (int i = 0; i < events.length; i++) {
+            assertEquals(i * 1.5, events[i].get("aDouble"));
+        }
+    }
+
+    public void testDecodeCacheRelease() throws Exception {
+        OffHeapEventStore store = OffHeapEventStore.make(oaType);
+        EventBean stored = store.store(new ObjectArrayEventBean(new Object[]{"E1", 10, null, new long[0]}, oaType));
+        assertEquals("E1", stored.get("aString"));
+        assertTrue(OffHeapEventBean.isCachedCurrentThread((OffHeapEventBean) stored));
+
+        // another thread decodes the event and remains alive without touching its cache again
+        CountDownLatch decoded = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        final EventBean[] shared = new EventBean[]{stored};
+        Thread reader = new Thread(() -> {
+            shared[0].get("anInt");
+            shared[0] = null;
+            decoded.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        reader.start();
+        assertTrue(decoded.await(10, TimeUnit.SECONDS));
+
+        store.release(stored);
+        assertFalse(OffHeapEventBean.isCachedCurrentThread((OffHeapEventBean) stored));
+        assertEquals("E1", stored.get("aString"));
+
+        WeakReference<EventBean> ref = new WeakReference<>(stored);
+        stored = null;
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+        finish.countDown();
+        reader.join();
+    }
+
+    public void testUnsupportedType() {
+        Map<String, Object> typeRep = new LinkedHashMap<>();
+        typeRep.put("myComplexBean", ClassHelperGenericType.getClassEPType(SupportBeanComplexProps.class));
+        EventTypeMetadata metadata = new EventTypeMetadata("MyFragmentType", null, EventTypeTypeClass.STREAM, EventTypeApplicationType.MAP, NameAccessModifier.PROTECTED, EventTypeBusModifier.NONBUS, false, EventTypeIdPair.unassigned());
+        assertNull(OffHeapEventStore.make(new MapEventType(metadata, typeRep, null, null, null, null, SupportEventTypeFactory.BEAN_EVENT_TYPE_FACTORY)));
+        assertNull(OffHeapEventStore.make(SupportEventTypeFactory.createBeanType(SupportBeanComplexProps.class)));
+    }
+}
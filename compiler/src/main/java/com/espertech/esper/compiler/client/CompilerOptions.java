@@ -35,6 +35,7 @@ public class CompilerOptions {
     private InlinedClassInspectionOption inlinedClassInspection;
     private StateMgmtSettingOption stateMgmtSetting;
     private CompilerPathCache pathCache;
+    private CompilerCompiledCache compiledCache;
     private CompilerHookOption compilerHook;
 
     public CompilerOptions() {
@@ -352,6 +353,22 @@ public class CompilerOptions {
         this.pathCache = pathCache;
     }
 
+    /**
+     * Returns a cache, or null if not using a cache, that retains compiled modules on disk for reuse when the same module is compiled again.
+     * @return cache or null if not using a cache
+     */
+    public CompilerCompiledCache getCompiledCache() {
+        return compiledCache;
+    }
+
+    /**
+     * Sets the cache, or null if not using a cache, that retains compiled modules on disk for reuse when the same module is compiled again.
+     * @param compiledCache or null if not using a cache
+     */
+    public void setCompiledCache(CompilerCompiledCache compiledCache) {
+        this.compiledCache = compiledCache;
+    }
+
     /**
      * Experimental API: Returns the provider of the compiler to use
      * <p>
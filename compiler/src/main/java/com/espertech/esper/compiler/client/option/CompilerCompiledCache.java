@@ -0,0 +1,47 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.compiler.client.option;
+
+import com.espertech.esper.common.client.EPCompiled;
+import com.espertech.esper.compiler.internal.util.CompilerCompiledCacheImpl;
+
+import java.io.File;
+
+/**
+ * For optional use with the compiler, for skipping compilation of modules that did not change since a prior compilation,
+ * this cache retains the {@link EPCompiled} output of module compilation as jar files in a directory.
+ * <p>
+ *     Entries are content-addressed: the key is a digest of the compiler version, the module (the EPL of each statement, the module name, uses, imports and module properties),
+ *     the configuration in its serialized form and the byte code of each {@link EPCompiled} in the compiler path.
+ *     The key also covers the classpath of the class loader that the compiler uses, taking the size and modification time of each jar file,
+ *     and the byte code of each class that the configuration names, such as event type classes, imported classes and plug-in classes.
+ *     When the key is found the compiler returns the cached {@link EPCompiled} without parsing, validating or compiling any statement.
+ * </p>
+ * <p>
+ *     Compiler option callbacks, such as the statement name or access modifier options, are not part of the key.
+ *     Applications that compile the same modules using different option callbacks should use a separate directory for each.
+ *     Classes that are only reachable through package imports, or that are referenced only from EPL, are covered by the classpath entries
+ *     but not by their byte code, so a change to such a class within a classpath directory (rather than a jar file) requires clearing the cache directory.
+ * </p>
+ * <p>
+ *     The compiler does not use the cache for fire-and-forget queries, when the compiler path has runtime-provided EPL objects or when the configuration is not serializable.
+ * </p>
+ */
+public class CompilerCompiledCache {
+    /**
+     * Returns a cache that keeps compiled modules in the directory provided, creating the directory when needed
+     * @param directory directory to hold cache entries
+     * @return cache
+     */
+    public static CompilerCompiledCache getInstance(File directory) {
+        return new CompilerCompiledCacheImpl(directory);
+    }
+}
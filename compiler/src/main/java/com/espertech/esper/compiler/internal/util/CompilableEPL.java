@@ -11,10 +11,14 @@
 package com.espertech.esper.compiler.internal.util;
 
 import com.espertech.esper.common.internal.compile.stage1.Compilable;
+import com.espertech.esper.compiler.internal.parse.ParseResult;
+
+import java.util.concurrent.Future;
 
 public class CompilableEPL implements Compilable {
     private final String epl;
     private final int lineNumber;
+    private Future<ParseResult> parsePrefetch;
 
     public CompilableEPL(String epl, int lineNumber) {
         this.epl = epl;
@@ -33,6 +37,14 @@ public class CompilableEPL implements Compilable {
         return lineNumber;
     }
 
+    Future<ParseResult> getParsePrefetch() {
+        return parsePrefetch;
+    }
+
+    void setParsePrefetch(Future<ParseResult> parsePrefetch) {
+        this.parsePrefetch = parsePrefetch;
+    }
+
     public String toString() {
         return "CompilableEPL{" +
                 "epl='" + epl + '\'' +
@@ -0,0 +1,274 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.compiler.internal.util;
+
+import com.espertech.esper.common.client.EPCompiled;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.client.configuration.compiler.*;
+import com.espertech.esper.common.client.module.ModuleProperty;
+import com.espertech.esper.common.internal.compile.stage1.Compilable;
+import com.espertech.esper.common.internal.util.TransientConfigurationResolver;
+import com.espertech.esper.compiler.client.CompilerArguments;
+import com.espertech.esper.compiler.client.option.CompilerCompiledCache;
+import com.espertech.esper.compiler.client.util.EPCompiledIOUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+import static com.espertech.esper.compiler.internal.util.CompilerVersion.COMPILER_VERSION;
+
+public class CompilerCompiledCacheImpl extends CompilerCompiledCache {
+    private final static Logger log = LoggerFactory.getLogger(CompilerCompiledCacheImpl.class);
+    private final static String SUFFIX = ".jar";
+
+    private final File directory;
+
+    public CompilerCompiledCacheImpl(File directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Invalid null directory");
+        }
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the cache key for a module, or null when the module cannot be cached.
+     * <p>
+     * Since the configuration refers to application classes by name, the key also covers the classpath of the class loader
+     * that the compiler resolves classes with (the path, size and modification time of each file entry)
+     * and the byte code of each class named by the configuration.
+     * </p>
+     *
+     * @param compilables      statements
+     * @param moduleName       module name or null
+     * @param moduleUses       module uses or null
+     * @param imports          module imports or null
+     * @param moduleProperties module properties
+     * @param arguments        compiler arguments
+     * @return key or null
+     */
+    public String key(List<Compilable> compilables, String moduleName, Set<String> moduleUses, Set<String> imports, Map<ModuleProperty, Object> moduleProperties, CompilerArguments arguments) {
+        if (!arguments.getPath().getCompilerPathables().isEmpty()) {
+            return null;
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            return null;
+        }
+
+        update(digest, COMPILER_VERSION);
+        update(digest, moduleName);
+        update(digest, moduleUses == null ? null : new TreeSet<>(moduleUses).toString());
+        update(digest, imports == null ? null : new TreeSet<>(imports).toString());
+        for (Map.Entry<ModuleProperty, Object> entry : new TreeMap<>(moduleProperties).entrySet()) {
+            update(digest, entry.getKey().name());
+            Object value = entry.getValue();
+            update(digest, value instanceof Object[] ? Arrays.deepToString((Object[]) value) : String.valueOf(value));
+        }
+        for (Compilable compilable : compilables) {
+            update(digest, compilable.toEPL());
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(arguments.getConfiguration());
+            out.close();
+            digest.update(bytes.toByteArray());
+        } catch (IOException ex) {
+            log.debug("Configuration is not serializable, not using the compiled cache: " + ex.getMessage());
+            return null;
+        }
+
+        ClassLoader classLoader = TransientConfigurationResolver.resolveClassLoader(arguments.getConfiguration().getCommon().getTransientConfiguration()).classloader();
+        updateClasspath(digest, classLoader);
+        for (String className : configuredClassNames(arguments.getConfiguration())) {
+            update(digest, className);
+            updateClassBytes(digest, classLoader, className);
+        }
+
+        for (EPCompiled compiled : arguments.getPath().getCompileds()) {
+            for (Map.Entry<String, byte[]> entry : new TreeMap<>(compiled.getClasses()).entrySet()) {
+                update(digest, entry.getKey());
+                digest.update(entry.getValue());
+            }
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Returns the cached compiled, or null if there is no entry or the entry cannot be read.
+     *
+     * @param key key
+     * @return compiled or null
+     */
+    public EPCompiled get(String key) {
+        File file = new File(directory, key + SUFFIX);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return EPCompiledIOUtil.read(file);
+        } catch (IOException ex) {
+            log.warn("Failed to read compiled cache entry '" + file + "': " + ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Adds a compiled to the cache, replacing an existing entry.
+     * The entry is written to a temporary file first so that concurrent readers never see a partial entry.
+     *
+     * @param key      key
+     * @param compiled compiled
+     */
+    public void put(String key, EPCompiled compiled) {
+        File temp = null;
+        try {
+            if (!directory.exists() && !directory.mkdirs() && !directory.exists()) {
+                throw new IOException("Failed to create directory");
+            }
+            temp = File.createTempFile(key, ".tmp", directory);
+            EPCompiledIOUtil.write(compiled, temp);
+            Files.move(temp.toPath(), new File(directory, key + SUFFIX).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Failed to write compiled cache entry to directory '" + directory + "': " + ex.getMessage(), ex);
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    private static void updateClasspath(MessageDigest digest, ClassLoader classLoader) {
+        for (ClassLoader current = classLoader; current != null; current = current.getParent()) {
+            update(digest, current.getClass().getName());
+            if (current instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) current).getURLs()) {
+                    updateClasspathEntry(digest, url.getProtocol().equals("file") ? new File(url.getPath()) : null, url.toString());
+                }
+            }
+        }
+        String classpath = System.getProperty("java.class.path");
+        if (classpath != null) {
+            for (String entry : classpath.split(File.pathSeparator)) {
+                updateClasspathEntry(digest, new File(entry), entry);
+            }
+        }
+    }
+
+    private static void updateClasspathEntry(MessageDigest digest, File file, String name) {
+        update(digest, name);
+        if (file != null && file.isFile()) {
+            update(digest, file.length() + ":" + file.lastModified());
+        }
+    }
+
+    private static void updateClassBytes(MessageDigest digest, ClassLoader classLoader, String className) {
+        InputStream in = classLoader == null ? null : classLoader.getResourceAsStream(className.replace('.', '/') + ".class");
+        if (in == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        digest.update((byte) 1);
+        try (InputStream stream = in) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException ex) {
+            log.debug("Failed to read class '" + className + "' for the compiled cache key: " + ex.getMessage());
+        }
+    }
+
+    private static Set<String> configuredClassNames(Configuration configuration) {
+        Set<String> names = new TreeSet<>();
+        for (String className : configuration.getCommon().getEventTypeNames().values()) {
+            addClassName(names, className);
+        }
+        for (String imported : configuration.getCommon().getImports()) {
+            if (!imported.endsWith(".*")) {
+                addClassName(names, imported);
+            }
+        }
+        for (String imported : configuration.getCommon().getAnnotationImports()) {
+            if (!imported.endsWith(".*")) {
+                addClassName(names, imported);
+            }
+        }
+        ConfigurationCompiler compiler = configuration.getCompiler();
+        for (ConfigurationCompilerPlugInSingleRowFunction function : compiler.getPlugInSingleRowFunctions()) {
+            addClassName(names, function.getFunctionClassName());
+        }
+        for (ConfigurationCompilerPlugInAggregationFunction function : compiler.getPlugInAggregationFunctions()) {
+            addClassName(names, function.getForgeClassName());
+        }
+        for (ConfigurationCompilerPlugInAggregationMultiFunction function : compiler.getPlugInAggregationMultiFunctions()) {
+            addClassName(names, function.getMultiFunctionForgeClassName());
+        }
+        for (ConfigurationCompilerPlugInView view : compiler.getPlugInViews()) {
+            addClassName(names, view.getForgeClassName());
+        }
+        for (ConfigurationCompilerPlugInVirtualDataWindow window : compiler.getPlugInVirtualDataWindows()) {
+            addClassName(names, window.getForgeClassName());
+        }
+        for (ConfigurationCompilerPlugInPatternObject patternObject : compiler.getPlugInPatternObjects()) {
+            addClassName(names, patternObject.getForgeClassName());
+        }
+        for (ConfigurationCompilerPlugInDateTimeMethod method : compiler.getPlugInDateTimeMethods()) {
+            addClassName(names, method.getForgeClassName());
+        }
+        for (ConfigurationCompilerPlugInEnumMethod method : compiler.getPlugInEnumMethods()) {
+            addClassName(names, method.getForgeClassName());
+        }
+        return names;
+    }
+
+    private static void addClassName(Set<String> names, String className) {
+        if (className != null) {
+            names.add(className);
+        }
+    }
+
+    private static void update(MessageDigest digest, String text) {
+        if (text == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+}
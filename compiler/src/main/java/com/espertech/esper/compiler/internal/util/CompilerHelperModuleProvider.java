@@ -125,6 +125,7 @@ public class CompilerHelperModuleProvider {
                 EPCompileExceptionItem exception = null;
 
                 try {
+                    compilerPool.prefetchParse(compilables, statementNumber);
                     CompilableItem compilableItem = compileItem(compilable, optionalModuleName, moduleIdentPostfix, statementNumber, statementNames, compileTimeServices, compilerOptions);
                     className = compilableItem.getProviderClassName();
 
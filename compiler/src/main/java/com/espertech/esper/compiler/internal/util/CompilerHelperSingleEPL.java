@@ -34,6 +34,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 
 import static com.espertech.esper.common.internal.epl.classprovided.compiletime.ClassProvidedPrecompileUtil.compileClassProvided;
@@ -58,8 +59,8 @@ public class CompilerHelperSingleEPL {
             if (compilable instanceof CompilableEPL) {
                 CompilableEPL compilableEPL = (CompilableEPL) compilable;
 
-                // parse
-                ParseResult parseResult = parse(compilableEPL.getEpl());
+                // parse, unless the compiler pool already parsed the statement
+                ParseResult parseResult = compilableEPL.getParsePrefetch() == null ? parse(compilableEPL.getEpl()) : awaitParse(compilableEPL);
 
                 // compile application-provided classes (both create-class as well as just class-keyword)
                 ClassProvidedPrecompileResult classesInlined = compileAddExtensions(parseResult.getClasses(), compilable, inlinedClassConsumer, compileTimeServices);
@@ -150,11 +151,25 @@ public class CompilerHelperSingleEPL {
         return walker.getStatementSpec();
     }
 
-    private static ParseResult parse(String epl)
+    static ParseResult parse(String epl)
         throws StatementSpecCompileException {
         return ParseHelper.parse(epl, epl, true, EPL_PARSE_RULE, true);
     }
 
+    private static ParseResult awaitParse(CompilableEPL compilable) throws StatementSpecCompileException {
+        try {
+            return compilable.getParsePrefetch().get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof StatementSpecCompileException) {
+                throw (StatementSpecCompileException) ex.getCause();
+            }
+            throw new StatementSpecCompileException("Exception parsing statement: " + ex.getCause().getMessage(), ex.getCause(), compilable.getEpl());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StatementSpecCompileException("Interrupted parsing statement", ex, compilable.getEpl());
+        }
+    }
+
     private static String getNullableErrortext(String msg, String cause) {
         if (cause == null) {
             return msg;
@@ -15,6 +15,7 @@ import com.espertech.esper.common.client.configuration.compiler.ConfigurationCom
 import com.espertech.esper.common.internal.compile.compiler.CompilerAbstraction;
 import com.espertech.esper.common.internal.compile.compiler.CompilerAbstractionClassCollection;
 import com.espertech.esper.common.internal.compile.compiler.CompilerAbstractionCompilationContext;
+import com.espertech.esper.common.internal.compile.stage1.Compilable;
 import com.espertech.esper.common.internal.compile.stage3.ModuleCompileTimeServices;
 import com.espertech.esper.compiler.client.EPCompileException;
 
@@ -22,6 +23,8 @@ import java.util.List;
 import java.util.concurrent.*;
 
 class CompilerPool {
+    private final static int PARSE_PREFETCH_PER_THREAD = 4;
+
     private final ModuleCompileTimeServices compileTimeServices;
     private final List<EPCompiled> path;
     private final CompilerAbstraction compilerAbstraction;
@@ -30,6 +33,8 @@ class CompilerPool {
     private ExecutorService compilerThreadPool;
     private Future<CompilableItemResult>[] futures;
     private Semaphore semaphore;
+    private int parsePrefetchWindow;
+    private int parsePrefetchedUntil;
 
     CompilerPool(int size, ModuleCompileTimeServices compileTimeServices, List<EPCompiled> path, CompilerAbstraction compilerAbstraction, CompilerAbstractionClassCollection compilationState) {
         this.compileTimeServices = compileTimeServices;
@@ -45,7 +50,28 @@ class CompilerPool {
 
             Integer capacity = config.getThreadPoolCompilerCapacity();
             semaphore = new Semaphore(capacity == null ? Integer.MAX_VALUE : Math.max(1, capacity));
+            parsePrefetchWindow = numThreads * PARSE_PREFETCH_PER_THREAD;
+        }
+    }
+
+    /**
+     * Parse the EPL text of the statements following the current statement ahead of time using the compiler threads.
+     * Parsing does not depend on prior statements of the module, unlike validation and code generation which remain sequential.
+     * The number of statements parsed ahead is limited to retain few parse trees at any time.
+     */
+    void prefetchParse(List<Compilable> compilables, int statementNumber) {
+        if (compilerThreadPool == null) {
+            return;
+        }
+        int until = Math.min(compilables.size(), statementNumber + parsePrefetchWindow);
+        for (int i = Math.max(parsePrefetchedUntil, statementNumber); i < until; i++) {
+            Compilable compilable = compilables.get(i);
+            if (compilable instanceof CompilableEPL) {
+                CompilableEPL compilableEPL = (CompilableEPL) compilable;
+                compilableEPL.setParsePrefetch(compilerThreadPool.submit(() -> CompilerHelperSingleEPL.parse(compilableEPL.getEpl())));
+            }
         }
+        parsePrefetchedUntil = Math.max(parsePrefetchedUntil, until);
     }
 
     void submit(int statementNumber, CompilableItem item) throws InterruptedException {
@@ -95,7 +95,7 @@ public class EPCompilerImpl implements EPCompilerSPI {
             }
 
             // compile
-            return CompilerHelperModuleProvider.compile(compilables, moduleName, moduleProperties, compileTimeServices, arguments.getOptions(), arguments.getPath());
+            return compileCached(compilables, moduleName, moduleUses, module.getImports(), moduleProperties, compileTimeServices, arguments);
         } catch (EPCompileException ex) {
             throw ex;
         } catch (ParseException t) {
@@ -170,7 +170,7 @@ public class EPCompilerImpl implements EPCompilerSPI {
         addModuleProperty(moduleProperties, ModuleProperty.IMPORTS, toNullOrArray(module.getImports()));
 
         // compile
-        return CompilerHelperModuleProvider.compile(compilables, moduleName, moduleProperties, compileTimeServices, arguments.getOptions(), arguments.getPath());
+        return compileCached(compilables, moduleName, moduleUses, module.getImports(), moduleProperties, compileTimeServices, arguments);
     }
 
     public Module readModule(InputStream stream, String uri) throws IOException, ParseException {
@@ -255,6 +255,23 @@ public class EPCompilerImpl implements EPCompilerSPI {
         }
     }
 
+    private EPCompiled compileCached(List<Compilable> compilables, String moduleName, Set<String> moduleUses, Set<String> imports, Map<ModuleProperty, Object> moduleProperties, ModuleCompileTimeServices compileTimeServices, CompilerArguments arguments) throws EPCompileException {
+        CompilerCompiledCacheImpl cache = (CompilerCompiledCacheImpl) arguments.getOptions().getCompiledCache();
+        String key = cache == null ? null : cache.key(compilables, moduleName, moduleUses, imports, moduleProperties, arguments);
+        if (key != null) {
+            EPCompiled cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        EPCompiled compiled = CompilerHelperModuleProvider.compile(compilables, moduleName, moduleProperties, compileTimeServices, arguments.getOptions(), arguments.getPath());
+        if (key != null) {
+            cache.put(key, compiled);
+        }
+        return compiled;
+    }
+
     private void addModuleProperty(Map<ModuleProperty, Object> moduleProperties, ModuleProperty key, Object value) {
         if (value == null) {
             return;
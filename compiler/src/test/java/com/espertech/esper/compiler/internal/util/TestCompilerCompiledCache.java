@@ -0,0 +1,97 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.compiler.internal.util;
+
+import com.espertech.esper.common.client.EPCompiled;
+import com.espertech.esper.common.client.EPCompiledManifest;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.client.module.ModuleProperty;
+import com.espertech.esper.common.internal.compile.stage1.Compilable;
+import com.espertech.esper.common.internal.util.FileUtil;
+import com.espertech.esper.common.internal.util.UuidGenerator;
+import com.espertech.esper.compiler.client.CompilerArguments;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.*;
+
+public class TestCompilerCompiledCache extends TestCase {
+    private final static String IODIR = "regression/data";
+
+    private File directory;
+    private CompilerCompiledCacheImpl cache;
+
+    public void setUp() {
+        String path = FileUtil.findClasspathFile(IODIR);
+        if (path == null) {
+            fail("Failed to find file " + IODIR + " in classpath");
+        }
+        directory = new File(path, "compiledcache-" + UuidGenerator.generate());
+        cache = new CompilerCompiledCacheImpl(directory);
+    }
+
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    public void testKey() {
+        Map<ModuleProperty, Object> props = Collections.emptyMap();
+        String key = cache.key(compilables("select * from A", "select * from B"), null, null, null, props, new CompilerArguments(new Configuration()));
+        assertEquals(64, key.length());
+        assertEquals(key, cache.key(compilables("select * from A", "select * from B"), null, null, null, props, new CompilerArguments(new Configuration())));
+
+        assertFalse(key.equals(cache.key(compilables("select * from A", "select * from C"), null, null, null, props, new CompilerArguments(new Configuration()))));
+        assertFalse(key.equals(cache.key(compilables("select * from A", "select * from B"), "mymodule", null, null, props, new CompilerArguments(new Configuration()))));
+        assertFalse(key.equals(cache.key(compilables("select * from A", "select * from B"), null, null, Collections.singleton("java.util.*"), props, new CompilerArguments(new Configuration()))));
+
+        Configuration configuration = new Configuration();
+        configuration.getCompiler().getByteCode().setAllowSubscriber(true);
+        assertFalse(key.equals(cache.key(compilables("select * from A", "select * from B"), null, null, null, props, new CompilerArguments(configuration))));
+
+        CompilerArguments withPath = new CompilerArguments(new Configuration());
+        withPath.getPath().add(makeCompiled(new byte[]{1, 2}));
+        assertFalse(key.equals(cache.key(compilables("select * from A", "select * from B"), null, null, null, props, withPath)));
+    }
+
+    public void testPutGet() {
+        assertNull(cache.get("abc"));
+
+        EPCompiled compiled = makeCompiled(new byte[]{1, 2, 3});
+        cache.put("abc", compiled);
+        EPCompiled read = cache.get("abc");
+        assertTrue(Arrays.equals(new byte[]{1, 2, 3}, read.getClasses().get("a.b.MyClass")));
+        assertEquals("a.b.MyProvider", read.getManifest().getModuleProviderClassName());
+
+        cache.put("abc", makeCompiled(new byte[]{4}));
+        assertTrue(Arrays.equals(new byte[]{4}, cache.get("abc").getClasses().get("a.b.MyClass")));
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    private static List<Compilable> compilables(String... epl) {
+        List<Compilable> compilables = new ArrayList<>();
+        for (int i = 0; i < epl.length; i++) {
+            compilables.add(new CompilableEPL(epl[i], i + 1));
+        }
+        return compilables;
+    }
+
+    private static EPCompiled makeCompiled(byte[] bytes) {
+        Map<String, byte[]> classes = new HashMap<>();
+        classes.put("a.b.MyClass", bytes);
+        return new EPCompiled(classes, new EPCompiledManifest("8.8.0", "a.b.MyProvider", null, false));
+    }
+}
@@ -15,6 +15,9 @@ public class EsperIOKafkaConfig {
     public final static String INPUT_PROCESSOR_CONFIG = "esperio.kafka.input.processor";
     public final static String INPUT_TIMESTAMPEXTRACTOR_CONFIG = "esperio.kafka.input.timestampextractor";
     public final static String INPUT_EVENTTYPENAME = "esperio.kafka.input.eventtypename";
+    public final static String INPUT_CONSUMERTHREADS_CONFIG = "esperio.kafka.input.consumerthreads";
+    public final static String INPUT_BATCHDELIVERY_CONFIG = "esperio.kafka.input.batchdelivery";
+    public final static String INPUT_PAUSEQUEUEDEPTH_CONFIG = "esperio.kafka.input.pausequeuedepth";
     public final static String OUTPUT_FLOWCONTROLLER_CONFIG = "esperio.kafka.output.flowcontroller";
     public final static String TOPICS_CONFIG = "esperio.kafka.topics";
 }
@@ -14,17 +14,24 @@ import com.espertech.esper.common.client.configuration.ConfigurationException;
 import com.espertech.esper.common.internal.util.JavaClassHelper;
 import com.espertech.esper.runtime.client.EPRuntimeProvider;
 import com.espertech.esper.runtime.internal.kernel.service.EPRuntimeSPI;
+import com.espertech.esper.runtime.internal.kernel.thread.ThreadingService;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
+import static com.espertech.esperio.kafka.EsperIOKafkaConfig.INPUT_CONSUMERTHREADS_CONFIG;
+import static com.espertech.esperio.kafka.EsperIOKafkaConfig.INPUT_PAUSEQUEUEDEPTH_CONFIG;
 import static com.espertech.esperio.kafka.EsperIOKafkaConfig.INPUT_PROCESSOR_CONFIG;
 import static com.espertech.esperio.kafka.EsperIOKafkaConfig.INPUT_SUBSCRIBER_CONFIG;
+import static com.espertech.esperio.kafka.EsperIOKafkaConfig.INPUT_TIMESTAMPEXTRACTOR_CONFIG;
 
 public class EsperIOKafkaInputAdapter {
     private static final Logger log = LoggerFactory.getLogger(EsperIOKafkaInputAdapter.class);
@@ -32,10 +39,10 @@ public class EsperIOKafkaInputAdapter {
     private final Properties properties;
     private final String runtimeURI;
 
-    private KafkaConsumer consumer;
+    private List<KafkaConsumer> consumers;
     private ExecutorService executorService;
-    private EsperIOKafkaInputRunnable runnable;
-    private EsperIOKafkaInputProcessor processor;
+    private List<EsperIOKafkaInputRunnable> runnables;
+    private List<EsperIOKafkaInputProcessor> processors;
 
     public EsperIOKafkaInputAdapter(Properties properties, String runtimeURI) {
         this.properties = properties;
@@ -56,43 +63,72 @@ public class EsperIOKafkaInputAdapter {
             }
         }
 
-        // Obtain Kafka consumer
-        try {
-            consumer = new KafkaConsumer<>(consumerProperties);
-        } catch (Throwable t) {
-            log.error("Error obtaining Kafka consumer for URI '{}': {}", runtimeURI, t.getMessage(), t);
-        }
-
         // Obtain runtime
         EPRuntimeSPI runtime = (EPRuntimeSPI) EPRuntimeProvider.getRuntime(runtimeURI);
 
-        // Obtain and invoke subscriber
-        String subscriberClassName = getRequiredProperty(properties, INPUT_SUBSCRIBER_CONFIG);
-        EsperIOKafkaInputSubscriber subscriber;
-        try {
-            subscriber = (EsperIOKafkaInputSubscriber) JavaClassHelper.instantiate(EsperIOKafkaInputSubscriber.class, subscriberClassName, runtime.getServicesContext().getClasspathImportServiceRuntime().getClassForNameProvider());
-            EsperIOKafkaInputSubscriberContext subscriberContext = new EsperIOKafkaInputSubscriberContext(consumer, runtime, properties);
-            subscriber.subscribe(subscriberContext);
-        } catch (Throwable t) {
-            throw new ConfigurationException("Unexpected exception invoking subscriber subscribe method on class " + subscriberClassName + " for runtime URI '" + runtimeURI + "': " + t.getMessage(), t);
+        // Each consumer thread has its own consumer, the consumers share the group and thereby split the assigned partitions
+        int numThreads = getIntProperty(properties, INPUT_CONSUMERTHREADS_CONFIG, 1);
+        if (numThreads < 1) {
+            throw new ConfigurationException("Property '" + INPUT_CONSUMERTHREADS_CONFIG + "' requires a positive value but received " + numThreads);
         }
 
-        // Obtain and initialize processor
-        String processorClassName = getRequiredProperty(properties, INPUT_PROCESSOR_CONFIG);
-        try {
-            processor = (EsperIOKafkaInputProcessor) JavaClassHelper.instantiate(EsperIOKafkaInputProcessor.class, processorClassName, runtime.getServicesContext().getClasspathImportServiceRuntime().getClassForNameProvider());
-            EsperIOKafkaInputProcessorContext processorContext = new EsperIOKafkaInputProcessorContext(consumer, runtime, properties, this);
-            processor.init(processorContext);
-        } catch (Throwable t) {
-            throw new ConfigurationException("Unexpected exception invoking processor init method on class " + processorClassName + " for runtime URI '" + runtimeURI + "': " + t.getMessage(), t);
+        // Runtime time follows record timestamps and must only be advanced by one thread, in record order
+        if (numThreads > 1 && properties.getProperty(INPUT_TIMESTAMPEXTRACTOR_CONFIG) != null) {
+            throw new ConfigurationException("Property '" + INPUT_TIMESTAMPEXTRACTOR_CONFIG + "' requires a single consumer thread but property '" + INPUT_CONSUMERTHREADS_CONFIG + "' is " + numThreads);
+        }
+
+        // Determine the inbound queue depth at which to pause partitions, if any
+        ThreadingService threadingService = runtime.getServicesContext().getThreadingService();
+        LongSupplier inboundQueueDepth = null;
+        long pauseQueueDepth = getPauseQueueDepth(threadingService);
+        if (pauseQueueDepth > 0) {
+            inboundQueueDepth = threadingService::getInboundQueueDepth;
         }
 
-        // Start executor
-        executorService = Executors.newFixedThreadPool(1, new EsperIOKafkaInputThreadFactory(runtimeURI));
+        String subscriberClassName = getRequiredProperty(properties, INPUT_SUBSCRIBER_CONFIG);
+        String processorClassName = getRequiredProperty(properties, INPUT_PROCESSOR_CONFIG);
+        consumers = new ArrayList<>(numThreads);
+        processors = new ArrayList<>(numThreads);
+        runnables = new ArrayList<>(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+
+            // Obtain Kafka consumer
+            KafkaConsumer consumer = null;
+            try {
+                consumer = new KafkaConsumer<>(consumerProperties);
+                consumers.add(consumer);
+            } catch (Throwable t) {
+                log.error("Error obtaining Kafka consumer for URI '{}': {}", runtimeURI, t.getMessage(), t);
+            }
+
+            // Obtain and invoke subscriber
+            try {
+                EsperIOKafkaInputSubscriber subscriber = (EsperIOKafkaInputSubscriber) JavaClassHelper.instantiate(EsperIOKafkaInputSubscriber.class, subscriberClassName, runtime.getServicesContext().getClasspathImportServiceRuntime().getClassForNameProvider());
+                EsperIOKafkaInputSubscriberContext subscriberContext = new EsperIOKafkaInputSubscriberContext(consumer, runtime, properties);
+                subscriber.subscribe(subscriberContext);
+            } catch (Throwable t) {
+                throw new ConfigurationException("Unexpected exception invoking subscriber subscribe method on class " + subscriberClassName + " for runtime URI '" + runtimeURI + "': " + t.getMessage(), t);
+            }
+
+            // Obtain and initialize processor
+            EsperIOKafkaInputProcessor processor;
+            try {
+                processor = (EsperIOKafkaInputProcessor) JavaClassHelper.instantiate(EsperIOKafkaInputProcessor.class, processorClassName, runtime.getServicesContext().getClasspathImportServiceRuntime().getClassForNameProvider());
+                EsperIOKafkaInputProcessorContext processorContext = new EsperIOKafkaInputProcessorContext(consumer, runtime, properties, this);
+                processor.init(processorContext);
+                processors.add(processor);
+            } catch (Throwable t) {
+                throw new ConfigurationException("Unexpected exception invoking processor init method on class " + processorClassName + " for runtime URI '" + runtimeURI + "': " + t.getMessage(), t);
+            }
+
+            runnables.add(new EsperIOKafkaInputRunnable(consumer, processor, inboundQueueDepth, pauseQueueDepth));
+        }
 
-        // Submit runnable
-        runnable = new EsperIOKafkaInputRunnable(consumer, processor);
-        executorService.submit(runnable);
+        // Start executor and submit runnables
+        executorService = Executors.newFixedThreadPool(numThreads, new EsperIOKafkaInputThreadFactory(runtimeURI));
+        for (EsperIOKafkaInputRunnable runnable : runnables) {
+            executorService.submit(runnable);
+        }
 
         if (log.isInfoEnabled()) {
             log.info("Completed starting EsperIO Kafka Input Adapter for runtime URI '{}'", runtimeURI);
@@ -104,7 +140,9 @@ public class EsperIOKafkaInputAdapter {
             log.debug("Destroying Esper Kafka Input Adapter for runtime URI '{}'", runtimeURI);
         }
 
-        runnable.setShutdown(true);
+        for (EsperIOKafkaInputRunnable runnable : runnables) {
+            runnable.setShutdown(true);
+        }
 
         executorService.shutdown();
         try {
@@ -113,9 +151,42 @@ public class EsperIOKafkaInputAdapter {
             Thread.currentThread().interrupt();
         }
 
-        processor.close();
+        for (EsperIOKafkaInputProcessor processor : processors) {
+            processor.close();
+        }
 
-        consumer.close();
+        for (KafkaConsumer consumer : consumers) {
+            consumer.close();
+        }
+    }
+
+    private long getPauseQueueDepth(ThreadingService threadingService) {
+        if (!threadingService.isInboundThreading()) {
+            return 0;
+        }
+        String value = properties.getProperty(INPUT_PAUSEQUEUEDEPTH_CONFIG);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException ex) {
+                throw new ConfigurationException("Property '" + INPUT_PAUSEQUEUEDEPTH_CONFIG + "' requires a long-typed value but received '" + value + "'");
+            }
+        }
+        // default to the capacity of the bounded inbound queues or ring buffers, summed across affinity threads,
+        // an unbounded inbound queue never blocks the consumer and is not paused for
+        return threadingService.getInboundQueueCapacity();
+    }
+
+    protected static int getIntProperty(Properties properties, String config, int defaultValue) {
+        String value = properties.getProperty(config);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new ConfigurationException("Property '" + config + "' requires an integer-typed value but received '" + value + "'");
+        }
     }
 
     protected static String getRequiredProperty(Properties properties, String config) {
@@ -10,22 +10,28 @@
  */
 package com.espertech.esperio.kafka;
 
+import com.espertech.esper.common.client.configuration.ConfigurationException;
 import com.espertech.esper.common.internal.util.JavaClassHelper;
+import com.espertech.esper.runtime.client.EPEventServiceBatchDelivery;
 import com.espertech.esper.runtime.client.EPRuntime;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.*;
+
 public class EsperIOKafkaInputProcessorDefault implements EsperIOKafkaInputProcessor {
 
     private final static Logger log = LoggerFactory.getLogger(EsperIOKafkaInputProcessorDefault.class);
 
     private EPRuntime runtime;
     private EsperIOKafkaInputTimestampExtractor timestampExtractor;
+    private EPEventServiceBatchDelivery batchDelivery;
 
     public void init(EsperIOKafkaInputProcessorContext context) {
         this.runtime = context.getRuntime();
+        this.batchDelivery = getBatchDelivery(context.getProperties());
 
         String timestampExtractorClassName = context.getProperties().getProperty(EsperIOKafkaConfig.INPUT_TIMESTAMPEXTRACTOR_CONFIG);
         if (timestampExtractorClassName != null) {
@@ -34,24 +40,61 @@ public class EsperIOKafkaInputProcessorDefault implements EsperIOKafkaInputProce
     }
 
     public void process(ConsumerRecords<Object, Object> records) {
-        for (ConsumerRecord record : records) {
+        if (records.isEmpty()) {
+            return;
+        }
 
+        // send consecutive records of the same event class and timestamp as one batch, time advancing to each record's timestamp before it is sent
+        List<Object> batch = new ArrayList<>(records.count());
+        Class batchClass = null;
+        long batchTimestamp = Long.MIN_VALUE;
+        for (ConsumerRecord record : records) {
             if (timestampExtractor != null) {
                 long timestamp = timestampExtractor.extract(record);
+                if (timestamp != batchTimestamp) {
+                    sendBatch(batch, batchClass);
+                    batchTimestamp = timestamp;
 
-                if (log.isDebugEnabled()) {
-                    log.debug("Sending time span {}", timestamp);
+                    if (log.isDebugEnabled()) {
+                        log.debug("Sending time span {}", timestamp);
+                    }
+                    runtime.getEventService().advanceTimeSpan(timestamp);
                 }
-                runtime.getEventService().advanceTimeSpan(timestamp);
             }
 
-            if (record.value() != null) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Sending event {}", record.value().toString());
-                }
-                Object event = record.value();
-                runtime.getEventService().sendEventBean(event, event.getClass().getSimpleName());
+            Object event = record.value();
+            if (event == null) {
+                continue;
+            }
+            if (event.getClass() != batchClass) {
+                sendBatch(batch, batchClass);
+                batchClass = event.getClass();
             }
+            batch.add(event);
+        }
+        sendBatch(batch, batchClass);
+    }
+
+    private void sendBatch(List<Object> batch, Class batchClass) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Sending batch of {} events of type {}", batch.size(), batchClass.getSimpleName());
+        }
+        runtime.getEventService().sendEventBeanBatch(batch, batchClass.getSimpleName(), batchDelivery);
+        batch.clear();
+    }
+
+    protected static EPEventServiceBatchDelivery getBatchDelivery(Properties properties) {
+        String value = properties.getProperty(EsperIOKafkaConfig.INPUT_BATCHDELIVERY_CONFIG);
+        if (value == null) {
+            return EPEventServiceBatchDelivery.PER_EVENT;
+        }
+        try {
+            return EPEventServiceBatchDelivery.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException ex) {
+            throw new ConfigurationException("Property '" + EsperIOKafkaConfig.INPUT_BATCHDELIVERY_CONFIG + "' requires one of " + Arrays.toString(EPEventServiceBatchDelivery.values()) + " but received '" + value + "'");
         }
     }
 
@@ -41,10 +41,13 @@ public class EsperIOKafkaInputProcessorJson implements EsperIOKafkaInputProcesso
     }
 
     public void process(ConsumerRecords<Object, Object> records) {
-        for (ConsumerRecord record : records) {
+        if (records.isEmpty()) {
+            return;
+        }
 
-            blockingCheckEventType();
+        blockingCheckEventType();
 
+        for (ConsumerRecord record : records) {
             if (timestampExtractor != null) {
                 long timestamp = timestampExtractor.extract(record);
 
@@ -10,24 +10,73 @@
  */
 package com.espertech.esperio.kafka;
 
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongSupplier;
 
 public class EsperIOKafkaInputRunnable implements Runnable {
-    private final KafkaConsumer consumer;
+    private static final Logger log = LoggerFactory.getLogger(EsperIOKafkaInputRunnable.class);
+
+    private final Consumer<Object, Object> consumer;
     private final EsperIOKafkaInputProcessor processor;
+    private final LongSupplier inboundQueueDepth;
+    private final long pauseQueueDepth;
 
-    private boolean shutdown;
+    private volatile boolean shutdown;
+    private boolean paused;
 
-    public EsperIOKafkaInputRunnable(KafkaConsumer consumer, EsperIOKafkaInputProcessor processor) {
+    public EsperIOKafkaInputRunnable(Consumer<Object, Object> consumer, EsperIOKafkaInputProcessor processor) {
+        this(consumer, processor, null, 0);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param consumer          consumer, owned by this runnable's thread
+     * @param processor         processor
+     * @param inboundQueueDepth supplies the runtime inbound queue depth, or null for no backpressure
+     * @param pauseQueueDepth   the inbound queue depth at which assigned partitions are paused, resuming at half the depth
+     */
+    public EsperIOKafkaInputRunnable(Consumer<Object, Object> consumer, EsperIOKafkaInputProcessor processor, LongSupplier inboundQueueDepth, long pauseQueueDepth) {
         this.consumer = consumer;
         this.processor = processor;
+        this.inboundQueueDepth = inboundQueueDepth;
+        this.pauseQueueDepth = pauseQueueDepth;
     }
 
     public void run() {
         while (!shutdown) {
-            ConsumerRecords<Object, Object> records = consumer.poll(1000);
-            processor.process(records);
+            pollAndProcess();
+        }
+    }
+
+    void pollAndProcess() {
+        if (inboundQueueDepth != null) {
+            applyBackpressure();
+        }
+        ConsumerRecords<Object, Object> records = consumer.poll(1000);
+        processor.process(records);
+    }
+
+    // Paused partitions keep the consumer polling, and therefore in the group, while fetching nothing
+    private void applyBackpressure() {
+        long depth = inboundQueueDepth.getAsLong();
+        if (depth >= pauseQueueDepth || (paused && depth > pauseQueueDepth / 2)) {
+            if (!paused && log.isDebugEnabled()) {
+                log.debug("Pausing partitions {} at inbound queue depth {}", consumer.assignment(), depth);
+            }
+            // partitions assigned by a rebalance while paused are not yet paused
+            consumer.pause(consumer.assignment());
+            paused = true;
+        } else if (paused) {
+            if (log.isDebugEnabled()) {
+                log.debug("Resuming partitions {} at inbound queue depth {}", consumer.paused(), depth);
+            }
+            consumer.resume(consumer.paused());
+            paused = false;
         }
     }
 
@@ -0,0 +1,19 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+public class SupportInputTimestampExtractorIntProp implements EsperIOKafkaInputTimestampExtractor {
+    public long extract(ConsumerRecord<Object, Object> record) {
+        return ((SupportBean) record.value()).getIntProp();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esperio.kafka;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.runtime.client.EPRuntime;
+import com.espertech.esper.runtime.client.EPRuntimeProvider;
+import com.espertech.esper.runtime.client.EPStatement;
+import com.espertech.esper.runtime.internal.kernel.service.EPRuntimeSPI;
+import junit.framework.TestCase;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.espertech.esperio.kafka.SupportCompileUtil.compileDeploy;
+
+/**
+ * Runs the input runnable against the in-process mock consumer, not requiring a broker.
+ */
+public class TestKafkaInputRunnable extends TestCase {
+
+    private static final String TOPIC = "mytopic";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private EPRuntime runtime;
+    private SupportListener listener;
+    private MockConsumer<Object, Object> consumer;
+    private EsperIOKafkaInputProcessor processor;
+
+    public void setUp() {
+        Configuration configuration = new Configuration();
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        configuration.getCommon().addEventType(SupportBean.class);
+        runtime = EPRuntimeProvider.getRuntime(this.getClass().getSimpleName(), configuration);
+        runtime.getEventService().advanceTime(0);
+
+        EPStatement stmt = compileDeploy(runtime, "select * from SupportBean").getStatements()[0];
+        listener = new SupportListener();
+        stmt.addListener(listener);
+
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(Collections.singletonList(PARTITION));
+        consumer.updateBeginningOffsets(Collections.singletonMap(PARTITION, 0L));
+
+        Properties properties = new Properties();
+        properties.put(EsperIOKafkaConfig.INPUT_TIMESTAMPEXTRACTOR_CONFIG, SupportInputTimestampExtractorIntProp.class.getName());
+        processor = new EsperIOKafkaInputProcessorDefault();
+        processor.init(new EsperIOKafkaInputProcessorContext(null, (EPRuntimeSPI) runtime, properties, null));
+    }
+
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    public void testBatchAdvancesTimeOnce() {
+        EsperIOKafkaInputRunnable runnable = new EsperIOKafkaInputRunnable(consumer, processor);
+        addRecord(0, "E1", 100);
+        addRecord(1, "E2", 300);
+        addRecord(2, "E3", 200);
+
+        runnable.pollAndProcess();
+
+        List<EventBean[]> events = listener.getEvents();
+        assertEquals(3, events.size());
+        assertEquals("E1", events.get(0)[0].get("stringProp"));
+        assertEquals("E3", events.get(2)[0].get("stringProp"));
+        assertEquals(300, runtime.getEventService().getCurrentTime());
+    }
+
+    public void testPauseResumeOnQueueDepth() {
+        AtomicLong depth = new AtomicLong(10);
+        EsperIOKafkaInputRunnable runnable = new EsperIOKafkaInputRunnable(consumer, processor, depth::get, 10);
+        addRecord(0, "E1", 100);
+
+        runnable.pollAndProcess();
+        assertEquals(Collections.singleton(PARTITION), consumer.paused());
+        assertTrue(listener.getEvents().isEmpty());
+
+        depth.set(6);
+        runnable.pollAndProcess();
+        assertEquals(Collections.singleton(PARTITION), consumer.paused());
+        assertTrue(listener.getEvents().isEmpty());
+
+        depth.set(5);
+        runnable.pollAndProcess();
+        assertTrue(consumer.paused().isEmpty());
+        assertEquals(1, listener.getEvents().size());
+    }
+
+    private void addRecord(long offset, String stringProp, int intProp) {
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, offset, "key", new SupportBean(stringProp, intProp)));
+    }
+}
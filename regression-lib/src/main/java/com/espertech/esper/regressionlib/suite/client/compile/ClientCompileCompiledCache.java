@@ -0,0 +1,83 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.compile;
+
+import com.espertech.esper.common.client.EPCompiled;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.compiler.client.CompilerArguments;
+import com.espertech.esper.compiler.client.EPCompileException;
+import com.espertech.esper.compiler.client.EPCompilerProvider;
+import com.espertech.esper.compiler.client.option.CompilerCompiledCache;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ClientCompileCompiledCache {
+
+    public static List<RegressionExecution> executions() {
+        List<RegressionExecution> execs = new ArrayList<>();
+        execs.add(new ClientCompileCompiledCacheReuse());
+        return execs;
+    }
+
+    private static class ClientCompileCompiledCacheReuse implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            File directory;
+            try {
+                directory = Files.createTempDirectory("compiledcache").toFile();
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+            CompilerCompiledCache cache = CompilerCompiledCache.getInstance(directory);
+            String epl = "module mymodule;\n@name('s0') select theString, intPrimitive from SupportBean(intPrimitive > 10);\n";
+
+            try {
+                EPCompiled first = compile(env, cache, epl);
+                assertEquals(1, directory.listFiles().length);
+
+                EPCompiled second = compile(env, cache, epl);
+                assertEquals(first.getManifest().getModuleProviderClassName(), second.getManifest().getModuleProviderClassName());
+                assertEquals(first.getClasses().keySet(), second.getClasses().keySet());
+
+                EPCompiled changed = compile(env, cache, epl.replace("> 10", "> 20"));
+                assertNotNull(changed);
+                assertEquals(2, directory.listFiles().length);
+
+                env.deploy(second).addListener("s0");
+                env.sendEventBean(new SupportBean("E1", 11));
+                env.assertPropsNew("s0", "theString,intPrimitive".split(","), new Object[]{"E1", 11});
+                env.undeployAll();
+            } finally {
+                for (File file : directory.listFiles()) {
+                    file.delete();
+                }
+                directory.delete();
+            }
+        }
+
+        private static EPCompiled compile(RegressionEnvironment env, CompilerCompiledCache cache, String epl) {
+            CompilerArguments args = new CompilerArguments(env.getConfiguration());
+            args.getOptions().setCompiledCache(cache);
+            try {
+                return EPCompilerProvider.getCompiler().compile(epl, args);
+            } catch (EPCompileException ex) {
+                throw new RuntimeException(ex.getMessage(), ex);
+            }
+        }
+    }
+}
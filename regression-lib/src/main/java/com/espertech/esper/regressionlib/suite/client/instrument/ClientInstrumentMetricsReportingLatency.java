@@ -0,0 +1,77 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.instrument;
+
+import com.espertech.esper.common.client.metric.LatencyHistogram;
+import com.espertech.esper.common.client.metric.RuntimeMetric;
+import com.espertech.esper.common.client.metric.StatementMetric;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+import com.espertech.esper.regressionlib.framework.RegressionFlag;
+import com.espertech.esper.runtime.client.scopetest.SupportListener;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ClientInstrumentMetricsReportingLatency implements RegressionExecution {
+    private final static long WALL_GOAL_MSEC = 20;
+
+    public void run(RegressionEnvironment env) {
+        env.advanceTime(1000);
+
+        env.compileDeploy("@name('runtime_metrics') select * from " + RuntimeMetric.class.getName()).addListener("runtime_metrics");
+        env.compileDeploy("@name('wallStmt') select * from SupportBean(intPrimitive=1) where MyMetricFunctions.takeWallTime(longPrimitive)").addListener("wallStmt");
+        env.compileDeploy("@name('fastStmt') select * from SupportBean(intPrimitive=2)").addListener("fastStmt");
+
+        for (int i = 0; i < 3; i++) {
+            sendEvent(env, 1, WALL_GOAL_MSEC);
+        }
+        for (int i = 0; i < 10; i++) {
+            sendEvent(env, 2, 0);
+        }
+
+        Map<String, StatementMetric> metrics = new HashMap<>();
+        env.runtime().getMetricsService().iterateStatementGroups(group -> group.iterateStatements(metric -> metrics.put(metric.getMetric().getStatementName(), metric.getMetric())));
+
+        LatencyHistogram wallProcessing = metrics.get("wallStmt").getProcessingLatency();
+        assertEquals(3, wallProcessing.getTotalCount());
+        assertTrue(wallProcessing.getPercentile50() >= (WALL_GOAL_MSEC - 5) * 1000 * 1000);
+        assertTrue(wallProcessing.getMaxValue() >= wallProcessing.getPercentile99());
+        assertEquals(3, metrics.get("wallStmt").getDispatchLatency().getTotalCount());
+
+        LatencyHistogram fastProcessing = metrics.get("fastStmt").getProcessingLatency();
+        assertEquals(10, fastProcessing.getTotalCount());
+        assertTrue(fastProcessing.getPercentile50() < wallProcessing.getPercentile50());
+        assertEquals(10, metrics.get("fastStmt").getDispatchLatency().getTotalCount());
+
+        env.advanceTime(11000);
+        SupportListener listener = env.listener("runtime_metrics");
+        RuntimeMetric runtimeMetric = (RuntimeMetric) listener.assertOneGetNewAndReset().getUnderlying();
+        assertEquals(13, runtimeMetric.getFilterLatency().getTotalCount());
+        assertTrue(runtimeMetric.getFilterLatency().getMaxValue() > 0);
+
+        env.undeployAll();
+    }
+
+    public EnumSet<RegressionFlag> flags() {
+        return EnumSet.of(RegressionFlag.OBSERVEROPS);
+    }
+
+    private void sendEvent(RegressionEnvironment env, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean("E", intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        env.sendEventBean(bean);
+    }
+}
@@ -25,7 +25,7 @@ import static org.junit.Assert.fail;
 public class ClientInstrumentMetricsReportingRuntimeMetrics implements RegressionExecution {
 
     public void run(RegressionEnvironment env) {
-        String[] fields = "runtimeURI,timestamp,inputCount,inputCountDelta,scheduleDepth".split(",");
+        String[] fields = "runtimeURI,timestamp,inputCount,inputCountDelta,scheduleDepth,inboundQueueDepth,outboundQueueDepth,routeQueueDepth,timerQueueDepth,inboundQueueWaitNanos".split(",");
         sendTimer(env, 1000);
 
         String text = "@name('s0') select * from " + RuntimeMetric.class.getName();
@@ -39,14 +39,14 @@ public class ClientInstrumentMetricsReportingRuntimeMetrics implements Regressio
         env.compileDeploy("select * from pattern[timer:interval(5 sec)]");
 
         sendTimer(env, 11000);
-        env.assertPropsNew("s0", fields, new Object[]{"default", 11000L, 1L, 1L, 1L});
+        env.assertPropsNew("s0", fields, new Object[]{"default", 11000L, 1L, 1L, 1L, 0L, 0L, 0L, 0L, 0L});
 
         env.sendEventBean(new SupportBean());
         env.sendEventBean(new SupportBean());
 
         sendTimer(env, 20000);
         sendTimer(env, 21000);
-        env.assertPropsNew("s0", fields, new Object[]{"default", 21000L, 4L, 3L, 0L});
+        env.assertPropsNew("s0", fields, new Object[]{"default", 21000L, 4L, 3L, 0L, 0L, 0L, 0L, 0L, 0L});
 
         // Try MBean
         ThreadMXBean mbean = ManagementFactory.getThreadMXBean();
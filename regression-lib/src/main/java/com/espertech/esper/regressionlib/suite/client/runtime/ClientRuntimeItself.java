@@ -31,6 +31,9 @@ import com.espertech.esper.runtime.internal.kernel.service.EPRuntimeBeanAnonymou
 import com.espertech.esper.runtime.internal.kernel.service.EPRuntimeCompileReflectiveSPI;
 import com.espertech.esper.runtime.internal.kernel.service.EPRuntimeSPI;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -50,9 +53,101 @@ public class ClientRuntimeItself {
         execs.add(new ClientRuntimeSPIStatementSelection());
         execs.add(new ClientRuntimeSPIBeanAnonymousType());
         execs.add(new ClientRuntimeWrongCompileMethod());
+        execs.add(new ClientRuntimeSnapshotRestore());
         return execs;
     }
 
+    private static class ClientRuntimeSnapshotRestore implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl = "@public create objectarray schema MyRow(id string, amount double);\n" +
+                "@name('nw') @public create window MyWindow#keepall as MyRow;\n" +
+                "@public create table MyTable(id string primary key, amount double);\n" +
+                "@public create table MyAggTable(total sum(double));\n" +
+                "insert into MyWindow select theString as id, doublePrimitive as amount from SupportBean;\n" +
+                "insert into MyTable select theString as id, doublePrimitive as amount from SupportBean;\n";
+            RegressionPath path = new RegressionPath();
+            EPCompiled compiled = env.compile(epl, path);
+            deploy(env, compiled);
+
+            env.sendEventBean(makeBean("E1", 10));
+            env.sendEventBean(makeBean("E2", 20));
+
+            File directory;
+            try {
+                directory = Files.createTempDirectory("snapshot").toFile();
+                EPSnapshotResult written = env.runtime().getSnapshotService().write(directory);
+                assertEquals(1, written.getNumNamedWindows());
+                assertEquals(1, written.getNumTables());
+                assertEquals(4, written.getNumRows());
+                assertEquals(1, written.getSkipped().size());
+                assertTrue(written.getSkipped().get(0).contains("MyAggTable"));
+
+                // writing again replaces the snapshot rather than adding to it
+                env.sendEventBean(makeBean("E3", 30));
+                written = env.runtime().getSnapshotService().write(directory);
+                assertEquals(6, written.getNumRows());
+            } catch (IOException | EPSnapshotException ex) {
+                throw new RuntimeException(ex);
+            }
+
+            env.undeployAll();
+            deploy(env, compiled);
+
+            try {
+                EPSnapshotResult restored = env.runtime().getSnapshotService().restore(directory);
+                assertEquals(1, restored.getNumNamedWindows());
+                assertEquals(1, restored.getNumTables());
+                assertEquals(6, restored.getNumRows());
+            } catch (EPSnapshotException ex) {
+                throw new RuntimeException(ex);
+            }
+
+            // restoring again does not duplicate rows
+            try {
+                env.runtime().getSnapshotService().restore(directory);
+                fail();
+            } catch (EPSnapshotException ex) {
+                assertTrue(ex.getMessage().contains("not empty"));
+            }
+
+            String[] fields = "id,amount".split(",");
+            Object[][] expected = new Object[][]{{"E1", 10d}, {"E2", 20d}, {"E3", 30d}};
+            env.assertPropsPerRowIteratorAnyOrder("nw", fields, expected);
+            EPAssertionUtil.assertPropsPerRowAnyOrder(env.compileExecuteFAF("select * from MyTable", path).getArray(), fields, expected);
+
+            env.undeployAll();
+            deleteRecursive(directory);
+        }
+
+        private static void deploy(RegressionEnvironment env, EPCompiled compiled) {
+            try {
+                env.deployment().deploy(compiled, new DeploymentOptions().setDeploymentId("snapshot"));
+            } catch (EPDeployException ex) {
+                fail(ex.getMessage());
+            }
+        }
+
+        private static void deleteRecursive(File file) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    deleteRecursive(child);
+                }
+            }
+            file.delete();
+        }
+
+        private static SupportBean makeBean(String theString, double doublePrimitive) {
+            SupportBean bean = new SupportBean(theString, 0);
+            bean.setDoublePrimitive(doublePrimitive);
+            return bean;
+        }
+
+        public EnumSet<RegressionFlag> flags() {
+            return EnumSet.of(RegressionFlag.RUNTIMEOPS);
+        }
+    }
+
     private static class ClientRuntimeSPIBeanAnonymousType implements RegressionExecution {
         public void run(RegressionEnvironment env) {
             BeanEventType beanEventType = new EPRuntimeBeanAnonymousTypeService().makeBeanEventTypeAnonymous(ClassHelperGenericType.getClassEPType(MyBeanAnonymousType.class));
@@ -0,0 +1,203 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.runtime;
+
+
+import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+import com.espertech.esper.regressionlib.framework.RegressionFlag;
+import com.espertech.esper.regressionlib.framework.RegressionPath;
+import com.espertech.esper.runtime.client.EPEventServiceBatchDelivery;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ClientRuntimeSendEventBatch {
+
+    public static List<RegressionExecution> executions() {
+        List<RegressionExecution> execs = new ArrayList<>();
+        execs.add(new ClientRuntimeSendEventBatchObjectArray());
+        execs.add(new ClientRuntimeSendEventBatchBeanInsertInto());
+        execs.add(new ClientRuntimeSendEventBatchMap());
+        execs.add(new ClientRuntimeSendEventBatchStatelessWhere());
+        execs.add(new ClientRuntimeSendEventBatchInvalid());
+        return execs;
+    }
+
+    private static class ClientRuntimeSendEventBatchObjectArray implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl = "@public @buseventtype create objectarray schema MyBatchEvent (id string, value int);\n" +
+                "@name('s0') select id, value from MyBatchEvent;\n";
+            env.compileDeploy(epl, new RegressionPath()).addListener("s0");
+            Object[][] batch = new Object[][]{{"E1", 1}, {"E2", 2}, {"E3", 3}};
+
+            env.runtime().getEventService().sendEventObjectArrayBatch(batch, "MyBatchEvent", EPEventServiceBatchDelivery.PER_EVENT);
+            env.assertListener("s0", listener -> {
+                List<EventBean[]> received = listener.getNewDataList();
+                assertEquals(3, received.size());
+                for (int i = 0; i < received.size(); i++) {
+                    assertEquals(1, received.get(i).length);
+                    assertEquals("E" + (i + 1), received.get(i)[0].get("id"));
+                }
+                listener.reset();
+            });
+
+            env.runtime().getEventService().sendEventObjectArrayBatch(batch, "MyBatchEvent", EPEventServiceBatchDelivery.COALESCED);
+            env.assertListener("s0", listener -> {
+                List<EventBean[]> received = listener.getNewDataList();
+                assertEquals(1, received.size());
+                assertEquals(3, received.get(0).length);
+                for (int i = 0; i < 3; i++) {
+                    assertEquals("E" + (i + 1), received.get(0)[i].get("id"));
+                    assertEquals(i + 1, received.get(0)[i].get("value"));
+                }
+                listener.reset();
+            });
+
+            env.runtime().getEventService().sendEventObjectArrayBatch(new Object[0][], "MyBatchEvent", EPEventServiceBatchDelivery.COALESCED);
+            env.assertListenerNotInvoked("s0");
+
+            env.undeployAll();
+        }
+
+        public EnumSet<RegressionFlag> flags() {
+            return EnumSet.of(RegressionFlag.RUNTIMEOPS);
+        }
+    }
+
+    private static class ClientRuntimeSendEventBatchBeanInsertInto implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl = "@name('s0') insert into MyBatchStream select theString, intPrimitive from SupportBean;\n" +
+                "@name('s1') select theString from MyBatchStream;\n";
+            env.compileDeploy(epl).addListener("s0").addListener("s1");
+            List<SupportBean> batch = Arrays.asList(new SupportBean("E1", 1), new SupportBean("E2", 2));
+
+            env.runtime().getEventService().sendEventBeanBatch(batch, "SupportBean", EPEventServiceBatchDelivery.COALESCED);
+            env.assertListener("s0", listener -> {
+                assertEquals(1, listener.getNewDataList().size());
+                assertEquals(2, listener.getNewDataListFlattened().length);
+                listener.reset();
+            });
+            env.assertListener("s1", listener -> {
+                EventBean[] received = listener.getNewDataListFlattened();
+                assertEquals(2, received.length);
+                assertEquals("E1", received[0].get("theString"));
+                assertEquals("E2", received[1].get("theString"));
+                listener.reset();
+            });
+
+            env.runtime().getEventService().sendEventBeanBatch(batch, "SupportBean", EPEventServiceBatchDelivery.PER_EVENT);
+            env.assertListener("s0", listener -> {
+                assertEquals(2, listener.getNewDataList().size());
+                listener.reset();
+            });
+            env.assertListener("s1", listener -> {
+                assertEquals(2, listener.getNewDataList().size());
+                listener.reset();
+            });
+
+            env.undeployAll();
+        }
+
+        public EnumSet<RegressionFlag> flags() {
+            return EnumSet.of(RegressionFlag.RUNTIMEOPS);
+        }
+    }
+
+    private static class ClientRuntimeSendEventBatchMap implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl = "@public @buseventtype create map schema MyBatchMapEvent (id string);\n" +
+                "@name('s0') select count(*) as cnt from MyBatchMapEvent;\n";
+            env.compileDeploy(epl, new RegressionPath()).addListener("s0");
+            List<Map<String, Object>> batch = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                batch.add(Collections.singletonMap("id", "E" + i));
+            }
+
+            env.runtime().getEventService().sendEventMapBatch(batch, "MyBatchMapEvent", EPEventServiceBatchDelivery.COALESCED);
+            env.assertListener("s0", listener -> {
+                EventBean[] received = listener.getNewDataListFlattened();
+                assertEquals(5, received.length);
+                assertEquals(5L, received[4].get("cnt"));
+                listener.reset();
+            });
+
+            env.undeployAll();
+        }
+
+        public EnumSet<RegressionFlag> flags() {
+            return EnumSet.of(RegressionFlag.RUNTIMEOPS);
+        }
+    }
+
+    private static class ClientRuntimeSendEventBatchStatelessWhere implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl = "@name('s0') select theString, intPrimitive * 2 as dbl from SupportBean(theString like 'E%') where intPrimitive > 1;\n" +
+                "@name('s1') select sum(intPrimitive) as total from SupportBean;\n";
+            env.compileDeploy(epl).addListener("s0").addListener("s1");
+            List<SupportBean> batch = Arrays.asList(new SupportBean("E1", 1), new SupportBean("E2", 2), new SupportBean("X3", 3), new SupportBean("E4", 4));
+
+            env.runtime().getEventService().sendEventBeanBatch(batch, "SupportBean", EPEventServiceBatchDelivery.COALESCED);
+            env.assertListener("s0", listener -> {
+                assertEquals(1, listener.getNewDataList().size());
+                EventBean[] received = listener.getNewDataList().get(0);
+                assertEquals(2, received.length);
+                assertEquals("E2", received[0].get("theString"));
+                assertEquals(4, received[0].get("dbl"));
+                assertEquals("E4", received[1].get("theString"));
+                assertEquals(8, received[1].get("dbl"));
+                listener.reset();
+            });
+            env.assertListener("s1", listener -> {
+                EventBean[] received = listener.getNewDataListFlattened();
+                assertEquals(4, received.length);
+                assertEquals(1, received[0].get("total"));
+                assertEquals(10, received[3].get("total"));
+                listener.reset();
+            });
+
+            env.runtime().getEventService().sendEventBeanBatch(Collections.singletonList(new SupportBean("E5", 0)), "SupportBean", EPEventServiceBatchDelivery.COALESCED);
+            env.assertListenerNotInvoked("s0");
+
+            env.undeployAll();
+        }
+
+        public EnumSet<RegressionFlag> flags() {
+            return EnumSet.of(RegressionFlag.RUNTIMEOPS);
+        }
+    }
+
+    private static class ClientRuntimeSendEventBatchInvalid implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            try {
+                env.runtime().getEventService().sendEventObjectArrayBatch(new Object[][]{{"E1"}}, "SupportBean", EPEventServiceBatchDelivery.COALESCED);
+                fail();
+            } catch (EPException ex) {
+                // expected
+            }
+
+            try {
+                env.runtime().getEventService().sendEventBeanBatch(Collections.singletonList(null), "SupportBean", EPEventServiceBatchDelivery.PER_EVENT);
+                fail();
+            } catch (IllegalArgumentException ex) {
+                assertEquals("Invalid null event object", ex.getMessage());
+            }
+        }
+
+        public EnumSet<RegressionFlag> flags() {
+            return EnumSet.of(RegressionFlag.RUNTIMEOPS);
+        }
+    }
+}
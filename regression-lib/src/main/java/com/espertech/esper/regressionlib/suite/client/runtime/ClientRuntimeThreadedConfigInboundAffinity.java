@@ -0,0 +1,115 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.runtime;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.support.SupportBean_S0;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecutionWithConfigure;
+import com.espertech.esper.regressionlib.framework.RegressionFlag;
+import com.espertech.esper.runtime.client.EPRuntime;
+import com.espertech.esper.runtime.client.EPStatement;
+import com.espertech.esper.runtime.client.UpdateListener;
+import com.espertech.esper.runtime.internal.kernel.service.EPRuntimeSPI;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.TestCase.fail;
+import static org.junit.Assert.*;
+
+public class ClientRuntimeThreadedConfigInboundAffinity implements RegressionExecutionWithConfigure {
+    public void configure(Configuration configuration) {
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        configuration.getRuntime().getThreading().setThreadPoolInbound(true);
+        configuration.getRuntime().getThreading().setThreadPoolInboundNumThreads(4);
+        configuration.getRuntime().getThreading().setThreadPoolInboundAffinity(true);
+        configuration.getRuntime().getThreading().addThreadPoolInboundAffinityKey("SupportBean", "theString");
+        configuration.getCommon().addEventType("SupportBean", SupportBean.class);
+        configuration.getCommon().addEventType("SupportBean_S0", SupportBean_S0.class);
+    }
+
+    public EnumSet<RegressionFlag> flags() {
+        return EnumSet.of(RegressionFlag.RUNTIMEOPS);
+    }
+
+    public void run(RegressionEnvironment env) {
+        String epl = "create context PartitionByString partition by theString from SupportBean;\n" +
+            "@name('s0') context PartitionByString select theString, count(*) as cnt from SupportBean;\n" +
+            "@name('s1') select * from SupportBean_S0;\n";
+        env.compileDeploy(epl);
+        ThreadRecordingListener listener = new ThreadRecordingListener();
+        env.statement("s0").addListener(listener);
+        AtomicInteger countS0 = new AtomicInteger();
+        env.statement("s1").addListener((newEvents, oldEvents, statement, runtime) -> countS0.addAndGet(newEvents.length));
+
+        int numKeys = 20;
+        int numPerKey = 50;
+        for (int i = 0; i < numPerKey; i++) {
+            for (int k = 0; k < numKeys; k++) {
+                env.sendEventBean(new SupportBean("K" + k, i));
+            }
+            env.eventService().getEventSender("SupportBean").sendEvent(new SupportBean("K0", i));
+            env.sendEventBean(new SupportBean_S0(i));
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.count.get() < numKeys * numPerKey + numPerKey || countS0.get() < numPerKey) {
+            if (System.currentTimeMillis() > deadline) {
+                fail();
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        assertEquals(numKeys, listener.threads.size());
+        for (Map.Entry<String, Set<Thread>> entry : listener.threads.entrySet()) {
+            assertEquals(entry.getKey(), 1, entry.getValue().size());
+        }
+        assertFalse(listener.outOfOrder);
+        assertEquals(numPerKey * 2L, (long) listener.lastCount.get("K0"));
+        assertEquals(numPerKey, (long) listener.lastCount.get("K1"));
+
+        EPRuntimeSPI spi = (EPRuntimeSPI) env.runtime();
+        assertNull(spi.getServicesContext().getThreadingService().getInboundQueue());
+        assertEquals(0, spi.getServicesContext().getThreadingService().getInboundQueueDepth());
+
+        env.undeployAll();
+    }
+
+    private static class ThreadRecordingListener implements UpdateListener {
+        private final Map<String, Set<Thread>> threads = new ConcurrentHashMap<>();
+        private final Map<String, Long> lastCount = new ConcurrentHashMap<>();
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile boolean outOfOrder;
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents, EPStatement statement, EPRuntime runtime) {
+            for (EventBean event : newEvents) {
+                String key = (String) event.get("theString");
+                long cnt = (Long) event.get("cnt");
+                threads.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread());
+                Long last = lastCount.put(key, cnt);
+                if (last != null && last + 1 != cnt) {
+                    outOfOrder = true;
+                }
+                count.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.runtime;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecutionWithConfigure;
+import com.espertech.esper.regressionlib.framework.RegressionFlag;
+import com.espertech.esper.runtime.client.EPEventServiceBatchDelivery;
+import com.espertech.esper.runtime.client.EPRuntime;
+import com.espertech.esper.runtime.client.EPStatement;
+import com.espertech.esper.runtime.client.UpdateListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.TestCase.fail;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ClientRuntimeThreadedConfigInboundAffinityBatch implements RegressionExecutionWithConfigure {
+    public void configure(Configuration configuration) {
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        configuration.getRuntime().getThreading().setThreadPoolInbound(true);
+        configuration.getRuntime().getThreading().setThreadPoolInboundNumThreads(4);
+        configuration.getRuntime().getThreading().setThreadPoolInboundAffinity(true);
+        configuration.getRuntime().getThreading().addThreadPoolInboundAffinityKey("SupportBean", "theString");
+        configuration.getCommon().addEventType("SupportBean", SupportBean.class);
+    }
+
+    public EnumSet<RegressionFlag> flags() {
+        return EnumSet.of(RegressionFlag.RUNTIMEOPS);
+    }
+
+    public void run(RegressionEnvironment env) {
+        String epl = "create context PartitionByString partition by theString from SupportBean;\n" +
+            "@name('s0') context PartitionByString select theString, count(*) as cnt from SupportBean;\n";
+        env.compileDeploy(epl);
+        ThreadRecordingListener listener = new ThreadRecordingListener();
+        env.statement("s0").addListener(listener);
+
+        // each batch holds events of all keys, sent from the same thread
+        int numKeys = 20;
+        int numBatches = 50;
+        for (int i = 0; i < numBatches; i++) {
+            List<SupportBean> batch = new ArrayList<>();
+            for (int k = 0; k < numKeys; k++) {
+                batch.add(new SupportBean("K" + k, i));
+            }
+            env.eventService().sendEventBeanBatch(batch, "SupportBean", EPEventServiceBatchDelivery.PER_EVENT);
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.count.get() < numKeys * numBatches) {
+            if (System.currentTimeMillis() > deadline) {
+                fail();
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        assertEquals(numKeys, listener.threads.size());
+        Set<Thread> allThreads = new HashSet<>();
+        for (Map.Entry<String, Set<Thread>> entry : listener.threads.entrySet()) {
+            assertEquals(entry.getKey(), 1, entry.getValue().size());
+            allThreads.addAll(entry.getValue());
+        }
+        assertEquals(4, allThreads.size());
+        assertFalse(listener.outOfOrder);
+        assertEquals(numBatches, (long) listener.lastCount.get("K0"));
+
+        env.undeployAll();
+    }
+
+    private static class ThreadRecordingListener implements UpdateListener {
+        private final Map<String, Set<Thread>> threads = new ConcurrentHashMap<>();
+        private final Map<String, Long> lastCount = new ConcurrentHashMap<>();
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile boolean outOfOrder;
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents, EPStatement statement, EPRuntime runtime) {
+            for (EventBean event : newEvents) {
+                String key = (String) event.get("theString");
+                long cnt = (Long) event.get("cnt");
+                threads.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread());
+                Long last = lastCount.put(key, cnt);
+                if (last != null && last + 1 != cnt) {
+                    outOfOrder = true;
+                }
+                count.incrementAndGet();
+            }
+        }
+    }
+}
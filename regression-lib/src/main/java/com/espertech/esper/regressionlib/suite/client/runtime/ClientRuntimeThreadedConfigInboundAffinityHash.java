@@ -0,0 +1,95 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.runtime;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecutionWithConfigure;
+import com.espertech.esper.regressionlib.framework.RegressionFlag;
+import com.espertech.esper.runtime.client.EPRuntime;
+import com.espertech.esper.runtime.client.EPStatement;
+import com.espertech.esper.runtime.client.UpdateListener;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.TestCase.fail;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ClientRuntimeThreadedConfigInboundAffinityHash implements RegressionExecutionWithConfigure {
+    public void configure(Configuration configuration) {
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        configuration.getRuntime().getThreading().setThreadPoolInbound(true);
+        configuration.getRuntime().getThreading().setThreadPoolInboundNumThreads(4);
+        configuration.getRuntime().getThreading().setThreadPoolInboundAffinity(true);
+        configuration.getCommon().addEventType("SupportBean", SupportBean.class);
+    }
+
+    public EnumSet<RegressionFlag> flags() {
+        return EnumSet.of(RegressionFlag.RUNTIMEOPS);
+    }
+
+    public void run(RegressionEnvironment env) {
+        String epl = "create context SegmentedByString coalesce by consistent_hash_crc32(theString) from SupportBean granularity 16 preallocate;\n" +
+            "@name('s0') context SegmentedByString select context.id as cpid, theString, count(*) as cnt from SupportBean;\n";
+        env.compileDeploy(epl);
+        SegmentRecordingListener listener = new SegmentRecordingListener();
+        env.statement("s0").addListener(listener);
+
+        int numKeys = 40;
+        int numPerKey = 25;
+        for (int i = 0; i < numPerKey; i++) {
+            for (int k = 0; k < numKeys; k++) {
+                env.sendEventBean(new SupportBean("K" + k, i));
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.count.get() < numKeys * numPerKey) {
+            if (System.currentTimeMillis() > deadline) {
+                fail();
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        Set<Thread> all = new HashSet<>();
+        for (Map.Entry<Integer, Set<Thread>> entry : listener.threads.entrySet()) {
+            assertEquals("context partition " + entry.getKey(), 1, entry.getValue().size());
+            all.addAll(entry.getValue());
+        }
+        assertTrue(all.size() > 1);
+
+        env.undeployAll();
+    }
+
+    private static class SegmentRecordingListener implements UpdateListener {
+        private final Map<Integer, Set<Thread>> threads = new ConcurrentHashMap<>();
+        private final AtomicInteger count = new AtomicInteger();
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents, EPStatement statement, EPRuntime runtime) {
+            for (EventBean event : newEvents) {
+                threads.computeIfAbsent((Integer) event.get("cpid"), k -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread());
+                count.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.runtime;
+
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.client.metric.RuntimeMetric;
+import com.espertech.esper.common.client.util.ThreadPoolWaitStrategy;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecutionWithConfigure;
+import com.espertech.esper.regressionlib.framework.RegressionFlag;
+import com.espertech.esper.regressionlib.support.util.SupportListenerTimerHRes;
+import com.espertech.esper.runtime.internal.kernel.service.EPRuntimeSPI;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+
+import static junit.framework.TestCase.fail;
+import static org.junit.Assert.*;
+
+public class ClientRuntimeThreadedConfigInboundRingBuffer implements RegressionExecutionWithConfigure {
+    public void configure(Configuration configuration) {
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        configuration.getRuntime().getThreading().setThreadPoolInbound(true);
+        configuration.getRuntime().getThreading().setThreadPoolInboundNumThreads(2);
+        configuration.getRuntime().getThreading().setThreadPoolInboundCapacity(100);
+        configuration.getRuntime().getThreading().setThreadPoolRingBuffer(true);
+        configuration.getRuntime().getThreading().setThreadPoolRingBufferWaitStrategy(ThreadPoolWaitStrategy.YIELD);
+        configuration.getCommon().addEventType("MyMap", new HashMap<>());
+        configuration.getCommon().addEventType("SupportBean", SupportBean.class);
+        configuration.getCommon().addEventType("MyOA", new String[0], new Object[0]);
+    }
+
+    public EnumSet<RegressionFlag> flags() {
+        return EnumSet.of(RegressionFlag.RUNTIMEOPS);
+    }
+
+    public void run(RegressionEnvironment env) {
+        SupportListenerTimerHRes listenerMap = new SupportListenerTimerHRes();
+        SupportListenerTimerHRes listenerBean = new SupportListenerTimerHRes();
+        SupportListenerTimerHRes listenerOA = new SupportListenerTimerHRes();
+        env.compileDeploy("@name('s0') select * from MyMap").statement("s0").addListener(listenerMap);
+        env.compileDeploy("@name('s1') select * from SupportBean").statement("s1").addListener(listenerBean);
+        env.compileDeploy("@name('s2') select * from MyOA").statement("s2").addListener(listenerOA);
+
+        for (int i = 0; i < 500; i++) {
+            env.sendEventMap(new HashMap<String, Object>(), "MyMap");
+            env.eventService().getEventSender("MyMap").sendEvent(new HashMap<String, Object>());
+            env.sendEventBean(new SupportBean());
+            env.sendEventObjectArray(new Object[0], "MyOA");
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listenerMap.getNewEvents().size() < 1000 || listenerBean.getNewEvents().size() < 500 || listenerOA.getNewEvents().size() < 500) {
+            if (System.currentTimeMillis() > deadline) {
+                fail();
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        assertEquals(1000, listenerMap.getNewEvents().size());
+        for (SupportListenerTimerHRes listener : Arrays.asList(listenerBean, listenerOA)) {
+            assertEquals(500, listener.getNewEvents().size());
+        }
+
+        EPRuntimeSPI spi = (EPRuntimeSPI) env.runtime();
+        assertNull(spi.getServicesContext().getThreadingService().getInboundQueue());
+        assertNull(spi.getServicesContext().getThreadingService().getInboundThreadPool());
+        assertEquals(0, spi.getServicesContext().getThreadingService().getInboundQueueDepth());
+
+        RuntimeMetric metric = env.runtime().getMetricsService().getRuntimeMetric();
+        assertEquals(0, metric.getInboundQueueDepth());
+        assertTrue(metric.getInboundQueueWaitNanos() > 0);
+
+        env.undeployAll();
+    }
+}
@@ -39,6 +39,7 @@ public class ContextSelectionAndFireAndForget {
         execs.add(new ContextSelectionIterateStatement());
         execs.add(new ContextSelectionAndFireAndForgetNamedWindowQuery());
         execs.add(new ContextSelectionFAFNestedNamedWindowQuery());
+        execs.add(new ContextSelectionFAFParallelScan());
         return execs;
     }
 
@@ -130,6 +131,38 @@ public class ContextSelectionAndFireAndForget {
         }
     }
 
+    private static class ContextSelectionFAFParallelScan implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            RegressionPath path = new RegressionPath();
+            env.compileDeploy("@public create context PartitionedByString partition by theString from SupportBean", path);
+            env.compileDeploy("@public context PartitionedByString create window MyWindow#keepall as SupportBean", path);
+            env.compileDeploy("insert into MyWindow select * from SupportBean", path);
+
+            List<Object[]> expected = new ArrayList<>();
+            int sum = 0;
+            for (int i = 0; i < 40; i++) {
+                String key = "E" + (i % 10);
+                env.sendEventBean(new SupportBean(key, i));
+                if (i > 15) {
+                    expected.add(new Object[]{key, i});
+                    sum += i;
+                }
+            }
+
+            env.milestone(0);
+
+            runQueryAll(env, path, "@Hint('parallel_scan') select sum(intPrimitive) as c1 from MyWindow where intPrimitive > 15", "c1", new Object[][]{{sum}}, 1);
+            runQueryAll(env, path, "@Hint('parallel_scan') context PartitionedByString select context.key1 as c0, intPrimitive as c1 from MyWindow where intPrimitive > 15",
+                "c0,c1", expected.toArray(new Object[0][]), 1);
+
+            env.undeployAll();
+        }
+
+        public EnumSet<RegressionFlag> flags() {
+            return EnumSet.of(RegressionFlag.FIREANDFORGET);
+        }
+    }
+
     private static class ContextSelectionFAFNestedNamedWindowQuery implements RegressionExecution {
         public void run(RegressionEnvironment env) {
 
@@ -0,0 +1,48 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.epl.fromclausemethod;
+
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+import com.espertech.esper.regressionlib.support.epl.SupportStaticMethodInvocations;
+
+import static org.junit.Assert.assertEquals;
+
+public class EPLFromClauseMethodLookupBatch implements RegressionExecution {
+
+    public void run(RegressionEnvironment env) {
+        String joinStatement = "@name('s0') select id, p00, theString from " +
+            "SupportBean#length_batch(5) as s1, " +
+            " method:SupportStaticMethodInvocations.fetchObjectLog(theString, intPrimitive)";
+        env.compileDeploy(joinStatement).addListener("s0");
+        SupportStaticMethodInvocations.getInvocationSizeReset();
+
+        // each distinct key of the batch is polled once
+        String[] fields = new String[]{"id", "p00", "theString"};
+        sendBeanEvent(env, "E1", 1);
+        sendBeanEvent(env, "E2", 2);
+        sendBeanEvent(env, "E1", 1);
+        sendBeanEvent(env, "E3", 3);
+        sendBeanEvent(env, "E1", 4);
+        env.assertPropsPerRowLastNewAnyOrder("s0", fields, new Object[][]{{1, "|E1|", "E1"}, {2, "|E2|", "E2"}, {1, "|E1|", "E1"}, {3, "|E3|", "E3"}, {4, "|E1|", "E1"}});
+        env.assertThat(() -> assertEquals(4, SupportStaticMethodInvocations.getInvocationSizeReset()));
+
+        env.undeployAll();
+    }
+
+    private static void sendBeanEvent(RegressionEnvironment env, String theString, int intPrimitive) {
+        SupportBean bean = new SupportBean();
+        bean.setTheString(theString);
+        bean.setIntPrimitive(intPrimitive);
+        env.sendEventBean(bean);
+    }
+}
@@ -10,24 +10,99 @@
  */
 package com.espertech.esper.regressionlib.suite.event.json;
 
+import com.espertech.esper.common.client.EPException;
 import com.espertech.esper.common.client.json.util.EventSenderJson;
 import com.espertech.esper.common.client.json.util.JsonEventObject;
 import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
 import com.espertech.esper.regressionlib.framework.RegressionExecution;
 import com.espertech.esper.regressionlib.framework.RegressionFlag;
 
-import java.util.ArrayList;
-import java.util.EnumSet;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
 
 public class EventJsonEventSender {
 
     public static List<RegressionExecution> executions() {
         List<RegressionExecution> execs = new ArrayList<>();
         execs.add(new EventJsonEventSenderParseAndSend());
+        execs.add(new EventJsonEventSenderByteBuffer());
+        execs.add(new EventJsonEventSenderMap());
         return execs;
     }
 
+    private static class EventJsonEventSenderByteBuffer implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl =
+                "@public @buseventtype create json schema MyEvent(p1 string, p2 int);\n" +
+                    "@name('s0') select * from MyEvent;\n";
+            env.compileDeploy(epl).addListener("s0");
+
+            String json = "{\"p1\": \"\u00e4bc\", \"other\": {\"x\": [1, \"y\"]}, \"p2\": 10}";
+            ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+            env.runtime().getEventService().sendEventJson(buffer, "MyEvent");
+            env.assertPropsNew("s0", "p1,p2".split(","), new Object[]{"\u00e4bc", 10});
+            assertEquals(0, buffer.position());
+
+            EventSenderJson sender = (EventSenderJson) env.runtime().getEventService().getEventSender("MyEvent");
+            sender.sendEvent(buffer);
+            env.assertPropsNew("s0", "p1,p2".split(","), new Object[]{"\u00e4bc", 10});
+
+            try {
+                env.runtime().getEventService().sendEventJson(ByteBuffer.wrap(new byte[]{'{', (byte) 0xC3, '}'}), "MyEvent");
+                fail();
+            } catch (EPException ex) {
+                assertTrue(ex.getMessage().startsWith("Failed to parse Json: Invalid UTF-8 input"));
+            }
+
+            env.undeployAll();
+        }
+    }
+
+    private static class EventJsonEventSenderMap implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl =
+                "@public create json schema Inner(x long);\n" +
+                    "@public @buseventtype create json schema MyEvent(p1 string, p2 int, inner Inner, inners Inner[]);\n" +
+                    "@name('s0') select p1, p2, inner.x as x, inners[1].x as y from MyEvent;\n";
+            env.compileDeploy(epl).addListener("s0");
+
+            Map<String, Object> event = new HashMap<>();
+            event.put("p1", "abc");
+            event.put("p2", 10L);
+            event.put("inner", Collections.singletonMap("x", 5));
+            event.put("inners", new Map[]{Collections.singletonMap("x", 1), Collections.singletonMap("x", 2)});
+            event.put("other", "ignored");
+            env.runtime().getEventService().sendEventJson(event, "MyEvent");
+            env.assertPropsNew("s0", "p1,p2,x,y".split(","), new Object[]{"abc", 10, 5L, 2L});
+
+            EventSenderJson sender = (EventSenderJson) env.runtime().getEventService().getEventSender("MyEvent");
+            sender.sendEvent(Collections.singletonMap("p1", "def"));
+            env.assertPropsNew("s0", "p1,p2,x,y".split(","), new Object[]{"def", null, null, null});
+
+            try {
+                env.runtime().getEventService().sendEventJson(Collections.singletonMap("p2", "abc"), "MyEvent");
+                fail();
+            } catch (EPException ex) {
+                assertTrue(ex.getMessage().startsWith("Failed to convert map to Json event type 'MyEvent'"));
+            }
+
+            // numeric values that the property type cannot represent are not truncated
+            try {
+                env.runtime().getEventService().sendEventJson(Collections.singletonMap("p2", 1.5d), "MyEvent");
+                fail();
+            } catch (EPException ex) {
+                assertEquals("Value 1.5 of type Double cannot be converted to property type Integer without loss", ex.getMessage());
+            }
+            env.runtime().getEventService().sendEventJson(Collections.singletonMap("p2", 2d), "MyEvent");
+            env.assertPropsNew("s0", "p1,p2".split(","), new Object[]{null, 2});
+
+            env.undeployAll();
+        }
+    }
+
     private static class EventJsonEventSenderParseAndSend implements RegressionExecution {
         public void run(RegressionEnvironment env) {
             String epl =
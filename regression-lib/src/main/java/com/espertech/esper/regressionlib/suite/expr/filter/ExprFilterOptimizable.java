@@ -56,6 +56,7 @@ public class ExprFilterOptimizable {
         executions.add(new ExprFilterOrContext());
         executions.add(new ExprFilterPatternUDFFilterOptimizable());
         executions.add(new ExprFilterDeployTimeConstant());  // substitution and variables are here
+        executions.add(new ExprFilterBoolExprSubstitutionNotShared());
         return executions;
     }
 
@@ -194,6 +195,31 @@ public class ExprFilterOptimizable {
         }
     }
 
+    private static class ExprFilterBoolExprSubstitutionNotShared implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String expression = "select * from SupportBean(intPrimitive + intBoxed > ?:p:int)";
+            EPCompiled first = env.compile("@name('first') " + expression);
+            EPCompiled second = env.compile("@name('second') " + expression);
+            env.deploy(first, new DeploymentOptions().setStatementSubstitutionParameter(new SupportPortableDeploySubstitutionParams("p", 10)));
+            env.deploy(second, new DeploymentOptions().setStatementSubstitutionParameter(new SupportPortableDeploySubstitutionParams("p", 20)));
+            env.addListener("first").addListener("second");
+
+            SupportBean bean = new SupportBean("E1", 10);
+            bean.setIntBoxed(5);
+            env.sendEventBean(bean);
+            env.assertListenerInvoked("first");
+            env.assertListenerNotInvoked("second");
+
+            bean = new SupportBean("E2", 10);
+            bean.setIntBoxed(15);
+            env.sendEventBean(bean);
+            env.assertListenerInvoked("first");
+            env.assertListenerInvoked("second");
+
+            env.undeployAll();
+        }
+    }
+
     private static class ExprFilterDeployTimeConstant implements RegressionExecution {
         public void run(RegressionEnvironment env) {
             runAssertionEqualsWSubs(env, "select * from SupportBean(theString=?:p0:string)");
@@ -19,6 +19,7 @@ import com.espertech.esper.common.internal.event.bean.core.BeanEventType;
 import com.espertech.esper.common.internal.support.EventRepresentationChoice;
 import com.espertech.esper.common.internal.support.SupportBean;
 import com.espertech.esper.common.internal.support.SupportBean_S0;
+import com.espertech.esper.common.internal.support.SupportBean_S1;
 import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
 import com.espertech.esper.regressionlib.framework.RegressionExecution;
 import com.espertech.esper.regressionlib.framework.RegressionFlag;
@@ -103,9 +104,44 @@ public class InfraNamedWindowViews {
         execs.add(new InfraSelectGroupedViewLateStartVariableIterate());
         execs.add(new InfraOnInsertPremptiveTwoWindow());
         execs.add(new InfraNamedWindowTimeToLiveDelete());
+        execs.add(new InfraNamedWindowOffHeap());
         return execs;
     }
 
+    private static class InfraNamedWindowOffHeap implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            for (EventRepresentationChoice rep : new EventRepresentationChoice[]{EventRepresentationChoice.OBJECTARRAY, EventRepresentationChoice.MAP}) {
+                tryAssertionOffHeap(env, rep);
+            }
+        }
+
+        private void tryAssertionOffHeap(RegressionEnvironment env, EventRepresentationChoice rep) {
+            String[] fields = "theString,intPrimitive".split(",");
+            String epl = rep.getAnnotationText() + " @Hint('OFF_HEAP') @name('win') create window MyWindow#length(3) as (theString string, intPrimitive int);\n" +
+                "insert into MyWindow select theString, intPrimitive from SupportBean;\n" +
+                "on SupportBean_S0 delete from MyWindow where theString = p00;\n" +
+                "on SupportBean_S1 update MyWindow set intPrimitive = id where theString = p10;\n";
+            env.compileDeploy(epl);
+
+            env.sendEventBean(new SupportBean("E1", 1));
+            env.sendEventBean(new SupportBean("E2", 2));
+            env.assertPropsPerRowIteratorAnyOrder("win", fields, new Object[][]{{"E1", 1}, {"E2", 2}});
+
+            env.milestone(0);
+
+            env.sendEventBean(new SupportBean_S1(20, "E2"));
+            env.sendEventBean(new SupportBean_S0(0, "E1"));
+            env.assertPropsPerRowIteratorAnyOrder("win", fields, new Object[][]{{"E2", 20}});
+
+            env.sendEventBean(new SupportBean("E3", 3));
+            env.sendEventBean(new SupportBean("E4", 4));
+            env.sendEventBean(new SupportBean("E5", 5));
+            env.assertPropsPerRowIteratorAnyOrder("win", fields, new Object[][]{{"E3", 3}, {"E4", 4}, {"E5", 5}});
+
+            env.undeployAll();
+        }
+    }
+
     private static class InfraNamedWindowTimeToLiveDelete implements RegressionExecution {
         public void run(RegressionEnvironment env) {
             String epl = "@name('win') create window MyWindow#timetolive(current_timestamp() + longPrimitive) as SupportBean;\n" +
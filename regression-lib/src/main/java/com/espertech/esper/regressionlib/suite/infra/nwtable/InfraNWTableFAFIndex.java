@@ -12,6 +12,7 @@ package com.espertech.esper.regressionlib.suite.infra.nwtable;
 
 import com.espertech.esper.common.client.fireandforget.EPFireAndForgetQueryResult;
 import com.espertech.esper.common.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.common.internal.epl.fafquery.processor.FireAndForgetAdaptiveIndex;
 import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
 import com.espertech.esper.regressionlib.framework.RegressionExecution;
 import com.espertech.esper.regressionlib.framework.RegressionFlag;
@@ -49,9 +50,41 @@ public class InfraNWTableFAFIndex implements IndexBackingTableInfo {
         execs.add(new InfraSelectIndexMultikeyWArrayCompositeArray(false));
         execs.add(new InfraSelectIndexMultikeyWArrayCompositeTwoArray(true));
         execs.add(new InfraSelectIndexMultikeyWArrayCompositeTwoArray(false));
+        execs.add(new InfraSelectIndexAdaptive());
         return execs;
     }
 
+    private static class InfraSelectIndexAdaptive implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            RegressionPath path = new RegressionPath();
+            String epl = "@public @Hint('adaptive_index') create window MyInfra#keepall as SupportSimpleBeanOne;\n" +
+                "insert into MyInfra select * from SupportSimpleBeanOne;\n";
+            env.compileDeploy(epl, path);
+            for (int i = 0; i < 100; i++) {
+                env.sendEventBean(new SupportSimpleBeanOne("E" + i, i, i, i));
+            }
+
+            String faf = INDEX_CALLBACK_HOOK + "select * from MyInfra where i1 = 42";
+            for (int i = 0; i < FireAndForgetAdaptiveIndex.SCAN_THRESHOLD; i++) {
+                EPFireAndForgetQueryResult result = env.compileExecuteFAF(faf, path);
+                SupportQueryPlanIndexHook.assertFAFAndReset(null, null);
+                assertEquals("E42", result.getArray()[0].get("s1"));
+            }
+
+            // the window now holds an index on i1 that also receives new rows
+            env.sendEventBean(new SupportSimpleBeanOne("X", 42, 0, 0));
+            EPFireAndForgetQueryResult result = env.compileExecuteFAF(faf, path);
+            SupportQueryPlanIndexHook.assertFAFAndReset(null, BACKING_SINGLE_DUPS);
+            EPAssertionUtil.assertPropsPerRowAnyOrder(result.getArray(), "s1".split(","), new Object[][]{{"E42"}, {"X"}});
+
+            env.undeployAll();
+        }
+
+        public EnumSet<RegressionFlag> flags() {
+            return EnumSet.of(RegressionFlag.FIREANDFORGET);
+        }
+    }
+
     private static class InfraSelectIndexMultikeyWArrayCompositeTwoArray implements RegressionExecution {
         private final boolean namedWindow;
 
@@ -12,9 +12,12 @@ package com.espertech.esper.regressionlib.suite.pattern;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.support.SupportBean_S0;
+import com.espertech.esper.common.internal.support.SupportBean_S1;
 import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
 import com.espertech.esper.regressionlib.framework.RegressionExecution;
 import com.espertech.esper.regressionlib.support.bean.*;
+import com.espertech.esper.regressionlib.support.filter.SupportFilterServiceHelper;
 import com.espertech.esper.regressionlib.support.patternassert.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,9 +43,109 @@ public class PatternOperatorFollowedBy {
         execs.add(new PatternFollowedEveryMultiple());
         execs.add(new PatternFilterGreaterThen());
         execs.add(new PatternFollowedOrPermFalse());
+        execs.add(new PatternFollowedByCorrelationIndex());
+        execs.add(new PatternFollowedByCorrelationIndexSelf());
+        execs.add(new PatternFollowedByCorrelationIndexCoerced());
         return execs;
     }
 
+    private static class PatternFollowedByCorrelationIndexSelf implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl = "@Hint('pattern_correlation_index') @name('s0') select a.id as aid, b.id as bid from pattern[every a=SupportBean_S0 -> b=SupportBean_S0(p00=a.p00)]";
+            env.compileDeploy(epl).addListener("s0");
+            String[] fields = "aid,bid".split(",");
+
+            // the state started by an event does not receive the same event
+            env.sendEventBean(new SupportBean_S0(1, "A"));
+            env.assertListenerNotInvoked("s0");
+
+            env.sendEventBean(new SupportBean_S0(2, "A"));
+            env.assertPropsNew("s0", fields, new Object[]{1, 2});
+
+            env.milestone(0);
+
+            env.sendEventBean(new SupportBean_S0(3, "B"));
+            env.assertListenerNotInvoked("s0");
+
+            env.sendEventBean(new SupportBean_S0(4, "A"));
+            env.assertPropsNew("s0", fields, new Object[]{2, 4});
+
+            env.sendEventBean(new SupportBean_S0(5, "B"));
+            env.assertPropsNew("s0", fields, new Object[]{3, 5});
+
+            env.undeployAll();
+        }
+    }
+
+    private static class PatternFollowedByCorrelationIndexCoerced implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl = "@Hint('pattern_correlation_index') @name('s0') select a.id as aid, b.theString as bstr from pattern[every a=SupportBean_S0 -> b=SupportBean(longPrimitive=a.id)]";
+            env.compileDeploy(epl).addListener("s0");
+            String[] fields = "aid,bstr".split(",");
+
+            env.sendEventBean(new SupportBean_S0(10));
+            env.sendEventBean(new SupportBean_S0(20));
+
+            env.milestone(0);
+
+            // int correlation value and long property value are keyed alike
+            env.sendEventBean(makeBean("E1", 20L));
+            env.assertPropsNew("s0", fields, new Object[]{20, "E1"});
+
+            env.sendEventBean(makeBean("E2", 30L));
+            env.assertListenerNotInvoked("s0");
+
+            env.sendEventBean(makeBean("E3", 10L));
+            env.assertPropsNew("s0", fields, new Object[]{10, "E3"});
+
+            env.undeployAll();
+        }
+
+        private static SupportBean makeBean(String theString, long longPrimitive) {
+            SupportBean bean = new SupportBean(theString, 0);
+            bean.setLongPrimitive(longPrimitive);
+            return bean;
+        }
+    }
+
+    private static class PatternFollowedByCorrelationIndex implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl = "@Hint('pattern_correlation_index') @name('s0') select a.id as aid, b.id as bid from pattern[every a=SupportBean_S0 -> b=SupportBean_S1(p10=a.p00, p11='x')]";
+            env.compileDeploy(epl).addListener("s0");
+            String[] fields = "aid,bid".split(",");
+
+            env.sendEventBean(new SupportBean_S0(1, "A"));
+            env.sendEventBean(new SupportBean_S0(2, "B"));
+            env.sendEventBean(new SupportBean_S0(3, "A"));
+            assertFilterCount(env, 1);
+
+            env.sendEventBean(new SupportBean_S1(10, "C", "x"));
+            env.sendEventBean(new SupportBean_S1(11, "A", "y"));
+            env.assertListenerNotInvoked("s0");
+
+            env.milestone(0);
+
+            env.sendEventBean(new SupportBean_S1(12, "A", "x"));
+            env.assertPropsPerRowLastNew("s0", fields, new Object[][]{{1, 12}, {3, 12}});
+            assertFilterCount(env, 1);
+
+            env.sendEventBean(new SupportBean_S1(13, "B", "x"));
+            env.assertPropsNew("s0", fields, new Object[]{2, 13});
+            assertFilterCount(env, 0);
+
+            // a null correlation value never matches
+            env.sendEventBean(new SupportBean_S0(4, null));
+            env.sendEventBean(new SupportBean_S1(14, null, "x"));
+            env.assertListenerNotInvoked("s0");
+
+            env.undeployAll();
+        }
+
+        private static void assertFilterCount(RegressionEnvironment env, int expected) {
+            env.assertStatement("s0", statement -> assertEquals(expected, SupportFilterServiceHelper.getFilterSvcCount(statement, "SupportBean_S1")));
+        }
+    }
+
     private static class PatternOpWHarness implements RegressionExecution {
         public void run(RegressionEnvironment env) {
             EventCollection events = EventCollectionFactory.getEventSetOne(0, 1000);
@@ -52,9 +52,40 @@ public class ResultSetQueryTypeRowPerGroup {
         execs.add(new ResultSetQueryTypeRowPerGrpMultikeyWArray(true, false));
         execs.add(new ResultSetQueryTypeRowPerGrpMultikeyWReclaim());
         execs.add(new ResultSetQueryTypeRowPerGrpNullGroupKey());
+        execs.add(new ResultSetQueryTypeRowPerGrpCompactGroupState());
         return execs;
     }
 
+    public static class ResultSetQueryTypeRowPerGrpCompactGroupState implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String[] fields = "theString,thesum,thecnt,themin,themax".split(",");
+            String epl = "@Hint('COMPACT_GROUP_STATE') @name('s0') select theString, sum(intPrimitive) as thesum, count(*) as thecnt, min(intPrimitive) as themin, max(intPrimitive) as themax " +
+                "from SupportBean#length(3) group by theString";
+            env.compileDeploy(epl).addListener("s0");
+
+            env.sendEventBean(new SupportBean("A", 10));
+            env.assertPropsNew("s0", fields, new Object[]{"A", 10, 1L, 10, 10});
+
+            env.sendEventBean(new SupportBean(null, 5));
+            env.assertPropsNew("s0", fields, new Object[]{null, 5, 1L, 5, 5});
+
+            env.milestone(0);
+
+            env.sendEventBean(new SupportBean("A", 20));
+            env.assertPropsNew("s0", fields, new Object[]{"A", 30, 2L, 10, 20});
+
+            env.sendEventBean(new SupportBean("B", 1));
+            env.assertPropsPerRowLastNewAnyOrder("s0", fields, new Object[][]{{"A", 20, 1L, 20, 20}, {"B", 1, 1L, 1, 1}});
+
+            env.sendEventBean(new SupportBean("B", 2));
+            env.assertPropsPerRowLastNewAnyOrder("s0", fields, new Object[][]{{null, null, 0L, null, null}, {"B", 3, 2L, 1, 2}});
+
+            env.assertPropsPerRowIteratorAnyOrder("s0", fields, new Object[][]{{"A", 20, 1L, 20, 20}, {"B", 3, 2L, 1, 2}});
+
+            env.undeployAll();
+        }
+    }
+
     public static class ResultSetQueryTypeRowPerGrpNullGroupKey implements RegressionExecution {
         public void run(RegressionEnvironment env) {
             String epl = "@public @buseventtype create schema MyEventWNullType(id string, value int, groupkey null);\n" +
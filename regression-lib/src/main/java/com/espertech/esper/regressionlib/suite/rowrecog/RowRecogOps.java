@@ -10,17 +10,21 @@
  */
 package com.espertech.esper.regressionlib.suite.rowrecog;
 
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.scopetest.EPAssertionUtil;
 import com.espertech.esper.common.internal.epl.rowrecog.state.RowRecogPartitionStateRepoGroup;
 import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
 import com.espertech.esper.regressionlib.framework.RegressionExecution;
+import com.espertech.esper.regressionlib.framework.RegressionFlag;
 import com.espertech.esper.regressionlib.support.bean.SupportBean_A;
+import com.espertech.esper.regressionlib.support.epl.SupportStaticMethodLib;
 import com.espertech.esper.regressionlib.support.rowrecog.SupportRecogBean;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 public class RowRecogOps {
 
@@ -36,6 +40,8 @@ public class RowRecogOps {
         execs.add(new RowRecogAlterWithinConcat());
         execs.add(new RowRecogVariableMoreThenOnce());
         execs.add(new RowRecogRegex());
+        execs.add(new RowRecogDefineIndependent());
+        execs.add(new RowRecogDefineCrossVariable());
         return execs;
     }
 
@@ -568,4 +574,81 @@ public class RowRecogOps {
             assertFalse("a".matches("(a(b?)c)?"));
         }
     }
+
+    private static class RowRecogDefineIndependent implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            // statement "s0" conditions only refer to their own variable and evaluate once per event,
+            // statement "s1" has the same conditions but refers to another variable and evaluates per partial match
+            String[] fields = "a_string,b_string".split(",");
+            String epl = "@name('s0') select * from SupportRecogBean#keepall " +
+                "match_recognize (" +
+                "  measures A.theString as a_string, B.theString as b_string " +
+                "  all matches " +
+                "  pattern (A C* B) " +
+                "  define A as A.value < 5, B as SupportStaticMethodLib.libSplit(B.theString) > 5" +
+                ") " +
+                "order by a_string, b_string;\n" +
+                "@name('s1') select * from SupportRecogBean#keepall " +
+                "match_recognize (" +
+                "  measures A.theString as a_string, B.theString as b_string " +
+                "  all matches " +
+                "  pattern (A C* B) " +
+                "  define A as A.value < 5, B as B.value > 5 and A.value = A.value" +
+                ") " +
+                "order by a_string, b_string;\n";
+            env.compileDeploy(epl).addListener("s0").addListener("s1");
+
+            SupportStaticMethodLib.resetCountInvoked();
+            int[] values = new int[]{1, 2, 3, 7, 4, 9};
+            int numMatched = 0;
+            for (int value : values) {
+                env.sendEventBean(new SupportRecogBean("E_" + value, value));
+                EventBean[] independent = env.listener("s0").getAndResetLastNewData();
+                EventBean[] nfa = env.listener("s1").getAndResetLastNewData();
+                if (nfa == null) {
+                    assertNull(independent);
+                    continue;
+                }
+                EPAssertionUtil.assertPropsPerRow(independent, fields, EPAssertionUtil.eventsToObjectArr(nfa, fields));
+                numMatched += nfa.length;
+            }
+            assertTrue(numMatched >= 3);
+
+            // at most one evaluation of the condition per event, regardless of the number of partial matches
+            assertTrue(SupportStaticMethodLib.getCountInvoked() <= values.length);
+
+            env.undeployAll();
+        }
+
+        public EnumSet<RegressionFlag> flags() {
+            return EnumSet.of(RegressionFlag.STATICHOOK);
+        }
+    }
+
+    private static class RowRecogDefineCrossVariable implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            // the condition for B refers to A and thus has a different result for each partial match
+            String[] fields = "a_string,b_string".split(",");
+            String text = "@name('s0') select * from SupportRecogBean#keepall " +
+                "match_recognize (" +
+                "  measures A.theString as a_string, B.theString as b_string " +
+                "  all matches " +
+                "  pattern (A C* B) " +
+                "  define B as B.value > A.value" +
+                ") " +
+                "order by a_string, b_string";
+
+            env.compileDeploy(text).addListener("s0");
+
+            env.sendEventBean(new SupportRecogBean("E1", 10));
+            env.sendEventBean(new SupportRecogBean("E2", 1));
+            env.assertListenerNotInvoked("s0");
+
+            env.sendEventBean(new SupportRecogBean("E3", 5));
+            env.assertPropsPerRowLastNew("s0", fields,
+                new Object[][]{{"E2", "E3"}});
+
+            env.undeployAll();
+        }
+    }
 }
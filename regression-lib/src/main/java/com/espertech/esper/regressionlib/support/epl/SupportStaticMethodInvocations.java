@@ -13,10 +13,11 @@ package com.espertech.esper.regressionlib.support.epl;
 import com.espertech.esper.common.internal.support.SupportBean_S0;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class SupportStaticMethodInvocations {
-    private static List<String> invocations = new ArrayList<String>();
+    private static List<String> invocations = Collections.synchronizedList(new ArrayList<String>());
 
     public static int getInvocationSizeReset() {
         int size = invocations.size();
@@ -95,6 +95,10 @@ public class TestSuiteClientCompile extends TestCase {
         RegressionRunner.run(session, ClientCompilePathCache.executions());
     }
 
+    public void testClientCompileCompiledCache() {
+        RegressionRunner.run(session, ClientCompileCompiledCache.executions());
+    }
+
     public void testClientCompileToolCompiler() {
         RegressionRunner.run(session, ClientCompileToolCompiler.executions());
     }
@@ -107,6 +107,14 @@ public class TestSuiteClientInstrument extends TestCase {
         session.destroy();
     }
 
+    public void testClientInstrumentMetricsReportingLatency() {
+        RegressionSession session = RegressionRunner.session();
+        applyMetricsConfig(session.getConfiguration(), 10000, -1);
+        session.getConfiguration().getRuntime().getMetricsReporting().setEnableLatencyHistograms(true);
+        RegressionRunner.run(session, new ClientInstrumentMetricsReportingLatency());
+        session.destroy();
+    }
+
     public void testClientInstrumentMetricsReportingDisableStatement() {
         RegressionSession session = RegressionRunner.session();
         applyMetricsConfig(session.getConfiguration(), -1, 10000);
@@ -90,6 +90,10 @@ public class TestSuiteClientRuntime extends TestCase {
         RegressionRunner.run(session, ClientRuntimeUnmatchedListener.executions());
     }
 
+    public void testClientRuntimeSendEventBatch() {
+        RegressionRunner.run(session, ClientRuntimeSendEventBatch.executions());
+    }
+
     public void testClientRuntimeTimeControl() {
         RegressionRunner.run(session, ClientRuntimeTimeControl.executions());
     }
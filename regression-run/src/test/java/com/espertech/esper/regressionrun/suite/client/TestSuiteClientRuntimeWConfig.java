@@ -65,6 +65,22 @@ public class TestSuiteClientRuntimeWConfig extends TestCase {
         RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigInbound());
     }
 
+    public void testClientRuntimeThreadedConfigInboundAffinity() {
+        RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigInboundAffinity());
+    }
+
+    public void testClientRuntimeThreadedConfigInboundAffinityBatch() {
+        RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigInboundAffinityBatch());
+    }
+
+    public void testClientRuntimeThreadedConfigInboundAffinityHash() {
+        RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigInboundAffinityHash());
+    }
+
+    public void testClientRuntimeThreadedConfigInboundRingBuffer() {
+        RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigInboundRingBuffer());
+    }
+
     public void testClientRuntimeThreadedConfigInboundFastShutdown() {
         RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigInboundFastShutdown());
     }
@@ -0,0 +1,32 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.client;
+
+
+/**
+ * Controls how results are delivered to listeners and subscribers when sending a batch of events
+ * via one of the batch send-event methods of {@link EPEventServiceSendEvent}.
+ */
+public enum EPEventServiceBatchDelivery {
+    /**
+     * Results are delivered after each event of the batch, same as sending each event individually.
+     */
+    PER_EVENT,
+
+    /**
+     * Results are delivered once after all events of the batch have been processed, i.e. a listener receives a single
+     * update that contains the output of all events of the batch.
+     * <p>
+     * Events that statements route or insert-into are processed after all events of the batch have been processed.
+     * </p>
+     */
+    COALESCED;
+}
@@ -13,6 +13,8 @@ package com.espertech.esper.runtime.client;
 import com.espertech.esper.common.client.EPException;
 import org.w3c.dom.Node;
 
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -102,4 +104,77 @@ public interface EPEventServiceSendEvent {
      * @throws EPException is thrown when the processing of the event lead to an error, including for Json parsing problems
      */
     void sendEventJson(String json, String jsonEventTypeName);
+
+    /**
+     * Send an event represented by UTF-8 encoded JSON held by the remaining bytes of a buffer to the runtime.
+     * <p>
+     * The bytes are parsed directly without first decoding them into a String. The buffer is parsed before this method
+     * returns, also when inbound threading is configured, so the caller may reuse the buffer afterwards.
+     * The position of the buffer is not changed.
+     * </p>
+     *
+     * @param json              buffer holding the UTF-8 encoded event
+     * @param jsonEventTypeName event type name
+     * @throws EPException is thrown when the processing of the event lead to an error, including for Json parsing problems
+     */
+    void sendEventJson(ByteBuffer json, String jsonEventTypeName);
+
+    /**
+     * Send an event represented by a map of property names and values to the runtime, for a Json event type.
+     * <p>
+     * The map is converted into the underlying Json object of the event type before this method returns,
+     * with nested maps becoming nested Json objects and numeric values coerced to the declared property type.
+     * Map keys that are not properties of the event type are ignored unless the event type allows dynamic properties.
+     * </p>
+     *
+     * @param map               property names and values
+     * @param jsonEventTypeName event type name
+     * @throws EPException is thrown when the processing of the event lead to an error, including for conversion problems
+     */
+    void sendEventJson(Map<String, Object> map, String jsonEventTypeName);
+
+    /**
+     * Send a batch of object arrays containing event property values to the runtime, all of the same event type.
+     * <p>
+     * The runtime resolves the event type once per batch and processes all events of the batch under a single
+     * thread-local setup. Use the delivery parameter to select whether listeners and subscribers receive results
+     * after each event or once per batch.
+     * </p>
+     *
+     * @param events        - array of event property value arrays, see {@link #sendEventObjectArray(Object[], String)}
+     * @param eventTypeName - event type name
+     * @param delivery      - result delivery for the batch
+     * @throws EPException - when the processing of the events leads to an error
+     */
+    void sendEventObjectArrayBatch(Object[][] events, String eventTypeName, EPEventServiceBatchDelivery delivery);
+
+    /**
+     * Send a batch of events represented by objects to the runtime, all of the same event type.
+     * <p>
+     * The runtime resolves the event type once per batch and processes all events of the batch under a single
+     * thread-local setup. Use the delivery parameter to select whether listeners and subscribers receive results
+     * after each event or once per batch.
+     * </p>
+     *
+     * @param events        - the events to send to the runtime
+     * @param eventTypeName - event type name
+     * @param delivery      - result delivery for the batch
+     * @throws EPException - when the processing of the events leads to an error
+     */
+    void sendEventBeanBatch(Collection<?> events, String eventTypeName, EPEventServiceBatchDelivery delivery);
+
+    /**
+     * Send a batch of maps containing event property values to the runtime, all of the same event type.
+     * <p>
+     * The runtime resolves the event type once per batch and processes all events of the batch under a single
+     * thread-local setup. Use the delivery parameter to select whether listeners and subscribers receive results
+     * after each event or once per batch.
+     * </p>
+     *
+     * @param events        - the maps that contain event property values, see {@link #sendEventMap(Map, String)}
+     * @param eventTypeName - event type name
+     * @param delivery      - result delivery for the batch
+     * @throws EPException - when the processing of the events leads to an error
+     */
+    void sendEventMapBatch(Collection<Map<String, Object>> events, String eventTypeName, EPEventServiceBatchDelivery delivery);
 }
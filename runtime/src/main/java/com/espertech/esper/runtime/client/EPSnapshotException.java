@@ -0,0 +1,35 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.client;
+
+/**
+ * Exception during a snapshot write or restore by {@link EPSnapshotService}
+ */
+public class EPSnapshotException extends Exception {
+    /**
+     * Ctor
+     *
+     * @param message message
+     */
+    public EPSnapshotException(String message) {
+        super(message);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param message message
+     * @param cause   cause
+     */
+    public EPSnapshotException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
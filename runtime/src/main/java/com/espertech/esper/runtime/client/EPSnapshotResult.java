@@ -0,0 +1,74 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.client;
+
+import java.util.List;
+
+/**
+ * Result of a snapshot write or restore.
+ */
+public class EPSnapshotResult {
+    private final int numNamedWindows;
+    private final int numTables;
+    private final long numRows;
+    private final List<String> skipped;
+
+    /**
+     * Ctor.
+     *
+     * @param numNamedWindows number of named windows written or restored
+     * @param numTables       number of tables written or restored
+     * @param numRows         number of rows written or restored
+     * @param skipped         named windows and tables not written or restored, with reason
+     */
+    public EPSnapshotResult(int numNamedWindows, int numTables, long numRows, List<String> skipped) {
+        this.numNamedWindows = numNamedWindows;
+        this.numTables = numTables;
+        this.numRows = numRows;
+        this.skipped = skipped;
+    }
+
+    /**
+     * Returns the number of named windows written or restored
+     *
+     * @return count
+     */
+    public int getNumNamedWindows() {
+        return numNamedWindows;
+    }
+
+    /**
+     * Returns the number of tables written or restored
+     *
+     * @return count
+     */
+    public int getNumTables() {
+        return numTables;
+    }
+
+    /**
+     * Returns the number of rows written or restored
+     *
+     * @return count
+     */
+    public long getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Returns a description, including the reason, for each named window and table that was not written or restored
+     *
+     * @return descriptions
+     */
+    public List<String> getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.client;
+
+import java.io.File;
+
+/**
+ * Writes the rows held by named windows and tables to snapshot files, and restores them
+ * after the same modules have been deployed again, so that a restarted runtime does not need to replay input.
+ * <p>
+ * The snapshot covers named windows and tables that do not declare a context. Tables with aggregation columns
+ * are not covered as their aggregation state is not serializable. Items that are not covered are reported
+ * by the result.
+ * </p>
+ */
+public interface EPSnapshotService {
+    /**
+     * Write a snapshot, replacing any existing snapshot in the directory.
+     * Event processing is blocked while rows are collected, so the snapshot is consistent across named windows and tables.
+     * Files are written to a new generation directory that atomically replaces the existing snapshot once complete,
+     * so a failed write leaves the existing snapshot intact.
+     *
+     * @param directory snapshot directory, created if it does not exist
+     * @return result
+     * @throws EPSnapshotException if the snapshot could not be written
+     */
+    EPSnapshotResult write(File directory) throws EPSnapshotException;
+
+    /**
+     * Restore a snapshot into the named windows and tables of the same deployment id and name.
+     * Snapshot files are read in parallel. Event processing is blocked while rows are inserted.
+     * Named window consumers receive the restored rows as an insert stream.
+     * The named windows and tables must be empty, so that restoring the same snapshot twice does not duplicate rows.
+     *
+     * @param directory snapshot directory
+     * @return result
+     * @throws EPSnapshotException if the snapshot could not be read or a named window or table is not empty
+     */
+    EPSnapshotResult restore(File directory) throws EPSnapshotException;
+}
@@ -0,0 +1,147 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.internal.filterspec.DoubleRange;
+
+import java.util.Arrays;
+
+/**
+ * Double ranges and their evaluators held in parallel arrays sorted by min asc, max asc
+ * (the order of {@link DoubleRangeComparator}).
+ * <p>
+ * Endpoints are kept as primitive doubles so that matching a value only performs a binary search and array reads.
+ * Adding and removing a range shifts array elements.
+ * </p>
+ */
+public final class DoubleRangeSortedArray {
+    private final static int INITIAL_CAPACITY = 8;
+
+    private double[] mins = new double[INITIAL_CAPACITY];
+    private double[] maxs = new double[INITIAL_CAPACITY];
+    private DoubleRange[] ranges = new DoubleRange[INITIAL_CAPACITY];
+    private EventEvaluator[] evaluators = new EventEvaluator[INITIAL_CAPACITY];
+    private int size;
+
+    public EventEvaluator get(DoubleRange range) {
+        int index = find(range.getMin(), range.getMax());
+        return index < 0 ? null : evaluators[index];
+    }
+
+    public void put(DoubleRange range, EventEvaluator evaluator) {
+        double min = range.getMin();
+        double max = range.getMax();
+        int index = find(min, max);
+        if (index >= 0) {
+            ranges[index] = range;
+            evaluators[index] = evaluator;
+            return;
+        }
+
+        int insert = -(index + 1);
+        if (size == mins.length) {
+            int capacity = mins.length * 2;
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+            ranges = Arrays.copyOf(ranges, capacity);
+            evaluators = Arrays.copyOf(evaluators, capacity);
+        }
+        int moved = size - insert;
+        System.arraycopy(mins, insert, mins, insert + 1, moved);
+        System.arraycopy(maxs, insert, maxs, insert + 1, moved);
+        System.arraycopy(ranges, insert, ranges, insert + 1, moved);
+        System.arraycopy(evaluators, insert, evaluators, insert + 1, moved);
+        mins[insert] = min;
+        maxs[insert] = max;
+        ranges[insert] = range;
+        evaluators[insert] = evaluator;
+        size++;
+    }
+
+    public void remove(DoubleRange range) {
+        int index = find(range.getMin(), range.getMax());
+        if (index < 0) {
+            return;
+        }
+        int moved = size - index - 1;
+        System.arraycopy(mins, index + 1, mins, index, moved);
+        System.arraycopy(maxs, index + 1, maxs, index, moved);
+        System.arraycopy(ranges, index + 1, ranges, index, moved);
+        System.arraycopy(evaluators, index + 1, evaluators, index, moved);
+        size--;
+        ranges[size] = null;
+        evaluators[size] = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the first position whose range min is greater or equal to the value provided.
+     *
+     * @param min value
+     * @return position, or the size if there is none
+     */
+    public int firstIndexMinAtLeast(double min) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(mins[mid], min) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    public double getMin(int index) {
+        return mins[index];
+    }
+
+    public double getMax(int index) {
+        return maxs[index];
+    }
+
+    public DoubleRange getRange(int index) {
+        return ranges[index];
+    }
+
+    public EventEvaluator getEvaluator(int index) {
+        return evaluators[index];
+    }
+
+    private int find(double min, double max) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compared = Double.compare(mins[mid], min);
+            if (compared == 0) {
+                compared = Double.compare(maxs[mid], max);
+            }
+            if (compared < 0) {
+                low = mid + 1;
+            } else if (compared > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -26,6 +26,12 @@ import static com.espertech.esper.common.internal.compile.stage2.FilterSpecCompi
  * Index that simply maintains a list of boolean expressions.
  */
 public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase {
+    /**
+     * Results of shareable boolean expressions for the event currently evaluated by the thread,
+     * so that statements with structurally-identical expressions evaluate the expression once per event.
+     */
+    private final static ThreadLocal<SharedExprResults> SHARED_RESULTS = ThreadLocal.withInitial(SharedExprResults::new);
+
     private final Map<ExprNodeAdapterBase, EventEvaluator> evaluatorsMap;
     private final ReadWriteLock constantsMapRWLock;
 
@@ -79,7 +85,7 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase {
                 for (Map.Entry<ExprNodeAdapterBase, EventEvaluator> evals : evaluatorsMap.entrySet()) {
                     i++;
                     InstrumentationHelper.get().qFilterBooleanExpr(i, evals);
-                    boolean result = evals.getKey().evaluate(theEvent);
+                    boolean result = evaluate(evals.getKey(), theEvent);
                     InstrumentationHelper.get().aFilterBooleanExpr(result);
                     if (result) {
                         evals.getValue().matchEvent(theEvent, matches, ctx);
@@ -87,7 +93,7 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase {
                 }
             } else {
                 for (Map.Entry<ExprNodeAdapterBase, EventEvaluator> evals : evaluatorsMap.entrySet()) {
-                    if (evals.getKey().evaluate(theEvent)) {
+                    if (evaluate(evals.getKey(), theEvent)) {
                         evals.getValue().matchEvent(theEvent, matches, ctx);
                     }
                 }
@@ -101,6 +107,36 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase {
         }
     }
 
+    private static boolean evaluate(ExprNodeAdapterBase adapter, EventBean theEvent) {
+        String sharedExprKey = adapter.getSharedExprKey();
+        if (sharedExprKey == null) {
+            return adapter.evaluate(theEvent);
+        }
+
+        SharedExprResults shared = SHARED_RESULTS.get();
+        if (shared.event != theEvent) {
+            shared.event = theEvent;
+            shared.results.clear();
+        }
+        Boolean result = shared.results.get(sharedExprKey);
+        if (result == null) {
+            result = adapter.evaluate(theEvent);
+            shared.results.put(sharedExprKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * Discards the results of the event last evaluated by the thread, releasing the event.
+     */
+    public static void clearSharedResults() {
+        SharedExprResults shared = SHARED_RESULTS.get();
+        if (shared.event != null) {
+            shared.event = null;
+            shared.results.clear();
+        }
+    }
+
     public void getTraverseStatement(EventTypeIndexTraverse traverse, Set<Integer> statementIds, ArrayDeque<FilterItem> evaluatorStack) {
         for (Map.Entry<ExprNodeAdapterBase, EventEvaluator> entry : evaluatorsMap.entrySet()) {
             evaluatorStack.add(new FilterItem(PROPERTY_NAME_BOOLEAN_EXPRESSION, getFilterOperator(), entry, this));
@@ -108,4 +144,9 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase {
             evaluatorStack.removeLast();
         }
     }
+
+    private static class SharedExprResults {
+        private final Map<String, Boolean> results = new HashMap<>();
+        private EventBean event;
+    }
 }
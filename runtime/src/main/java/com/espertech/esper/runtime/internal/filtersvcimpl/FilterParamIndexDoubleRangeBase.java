@@ -15,18 +15,16 @@ import com.espertech.esper.common.internal.filterspec.DoubleRange;
 import com.espertech.esper.common.internal.filterspec.FilterOperator;
 
 import java.util.ArrayDeque;
-import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Index for filter parameter constants for the range operators (range open/closed/half).
- * The implementation is based on the SortedMap implementation of TreeMap and stores only expression
+ * The implementation is based on ranges sorted by primitive endpoints and stores only expression
  * parameter values of type DoubleRange.
  */
 public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLookupableBase {
-    protected final TreeMap<DoubleRange, EventEvaluator> ranges;
+    protected final DoubleRangeSortedArray ranges;
     protected EventEvaluator rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
 
@@ -35,7 +33,7 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
     protected FilterParamIndexDoubleRangeBase(ExprFilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
         super(filterOperator, lookupable);
 
-        ranges = new TreeMap<>(DoubleRangeComparator.INSTANCE);
+        ranges = new DoubleRangeSortedArray();
         rangesRWLock = readWriteLock;
     }
 
@@ -93,9 +91,9 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
     }
 
     public void getTraverseStatement(EventTypeIndexTraverse traverse, Set<Integer> statementIds, ArrayDeque<FilterItem> evaluatorStack) {
-        for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
-            evaluatorStack.add(new FilterItem(lookupable.getExpression(), getFilterOperator(), entry.getKey(), this));
-            entry.getValue().getTraverseStatement(traverse, statementIds, evaluatorStack);
+        for (int i = 0; i < ranges.size(); i++) {
+            evaluatorStack.add(new FilterItem(lookupable.getExpression(), getFilterOperator(), ranges.getRange(i), this));
+            ranges.getEvaluator(i).getTraverseStatement(traverse, statementIds, evaluatorStack);
             evaluatorStack.removeLast();
         }
     }
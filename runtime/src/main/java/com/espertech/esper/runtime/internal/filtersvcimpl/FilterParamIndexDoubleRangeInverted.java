@@ -13,18 +13,16 @@ package com.espertech.esper.runtime.internal.filtersvcimpl;
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.common.internal.epl.expression.core.ExprFilterSpecLookupable;
-import com.espertech.esper.common.internal.filterspec.DoubleRange;
 import com.espertech.esper.common.internal.filterspec.FilterOperator;
 import com.espertech.esper.common.internal.filtersvc.FilterHandle;
 import com.espertech.esper.runtime.internal.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
-import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Index for filter parameter constants for the not range operators (range open/closed/half).
- * The implementation is based on the SortedMap implementation of TreeMap and stores only expression
+ * The implementation is based on ranges sorted by primitive endpoints and stores only expression
  * parameter values of type DoubleRange.
  */
 public final class FilterParamIndexDoubleRangeInverted extends FilterParamIndexDoubleRangeBase {
@@ -49,33 +47,34 @@ public final class FilterParamIndexDoubleRangeInverted extends FilterParamIndexD
         }
 
         double attributeValue = ((Number) objAttributeValue).doubleValue();
+        int size = ranges.size();
 
         if (this.getFilterOperator() == FilterOperator.NOT_RANGE_CLOSED) {   // include all endpoints
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
-                if ((attributeValue < entry.getKey().getMin()) ||
-                        (attributeValue > entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches, ctx);
+            for (int i = 0; i < size; i++) {
+                if ((attributeValue < ranges.getMin(i)) ||
+                        (attributeValue > ranges.getMax(i))) {
+                    ranges.getEvaluator(i).matchEvent(theEvent, matches, ctx);
                 }
             }
         } else if (this.getFilterOperator() == FilterOperator.NOT_RANGE_OPEN) { // include neither endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
-                if ((attributeValue <= entry.getKey().getMin()) ||
-                        (attributeValue >= entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches, ctx);
+            for (int i = 0; i < size; i++) {
+                if ((attributeValue <= ranges.getMin(i)) ||
+                        (attributeValue >= ranges.getMax(i))) {
+                    ranges.getEvaluator(i).matchEvent(theEvent, matches, ctx);
                 }
             }
         } else if (this.getFilterOperator() == FilterOperator.NOT_RANGE_HALF_CLOSED) { // include high endpoint not low endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
-                if ((attributeValue <= entry.getKey().getMin()) ||
-                        (attributeValue > entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches, ctx);
+            for (int i = 0; i < size; i++) {
+                if ((attributeValue <= ranges.getMin(i)) ||
+                        (attributeValue > ranges.getMax(i))) {
+                    ranges.getEvaluator(i).matchEvent(theEvent, matches, ctx);
                 }
             }
         } else if (this.getFilterOperator() == FilterOperator.NOT_RANGE_HALF_OPEN) { // include low endpoint not high endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
-                if ((attributeValue < entry.getKey().getMin()) ||
-                        (attributeValue >= entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches, ctx);
+            for (int i = 0; i < size; i++) {
+                if ((attributeValue < ranges.getMin(i)) ||
+                        (attributeValue >= ranges.getMax(i))) {
+                    ranges.getEvaluator(i).matchEvent(theEvent, matches, ctx);
                 }
             }
         } else {
@@ -22,11 +22,11 @@ import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Index for filter parameter constants to match using the equals (=) operator.
- * The implementation is based on a regular HashMap.
+ * The implementation is based on a regular HashMap, or a primitive-keyed map for numeric values.
  */
 public final class FilterParamIndexEquals extends FilterParamIndexEqualsBase {
     public FilterParamIndexEquals(ExprFilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.EQUAL);
+        super(lookupable, readWriteLock, FilterOperator.EQUAL, FilterParamIndexEqualsNumericMap.make(lookupable.getReturnType()));
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches, ExprEvaluatorContext ctx) {
@@ -28,9 +28,13 @@ public abstract class FilterParamIndexEqualsBase extends FilterParamIndexLookupa
     protected final ReadWriteLock constantsMapRWLock;
 
     protected FilterParamIndexEqualsBase(ExprFilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        this(lookupable, readWriteLock, filterOperator, new HashMap<Object, EventEvaluator>());
+    }
+
+    protected FilterParamIndexEqualsBase(ExprFilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, Map<Object, EventEvaluator> constantsMap) {
         super(filterOperator, lookupable);
 
-        constantsMap = new HashMap<Object, EventEvaluator>();
+        this.constantsMap = constantsMap;
         constantsMapRWLock = readWriteLock;
     }
 
@@ -0,0 +1,271 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.type.EPTypeClass;
+import com.espertech.esper.common.internal.util.JavaClassHelper;
+
+import java.util.*;
+
+/**
+ * Map of numeric filter constants to evaluators for use by the equals (=) index.
+ * <p>
+ * Constants of the index value type are kept in an open-addressing table of primitive long keys, so that a lookup
+ * neither hashes through {@link Object#hashCode()} nor allocates. Floating-point constants are keyed by their
+ * bit pattern, which matches the semantics of {@link Double#equals(Object)} and {@link Float#equals(Object)}.
+ * Constants of any other type are kept in a regular HashMap.
+ * </p>
+ */
+public final class FilterParamIndexEqualsNumericMap extends AbstractMap<Object, EventEvaluator> {
+    private final static int INITIAL_CAPACITY = 16;
+
+    private final Class<?> keyType;
+    private long[] keys;
+    private EventEvaluator[] values;
+    private int size;
+    private Map<Object, EventEvaluator> otherKeys;
+
+    private FilterParamIndexEqualsNumericMap(Class<?> keyType) {
+        this.keyType = keyType;
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new EventEvaluator[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns a map suitable for the index value type, a numeric map for primitive integral and floating-point types
+     * and a HashMap for all other types.
+     *
+     * @param type index value type
+     * @return map
+     */
+    public static Map<Object, EventEvaluator> make(EPTypeClass type) {
+        Class<?> boxed = type == null ? null : JavaClassHelper.getBoxedType(type.getType());
+        if (boxed == Integer.class || boxed == Long.class || boxed == Short.class || boxed == Byte.class ||
+                boxed == Double.class || boxed == Float.class) {
+            return new FilterParamIndexEqualsNumericMap(boxed);
+        }
+        return new HashMap<>();
+    }
+
+    public EventEvaluator get(Object key) {
+        if (key != null && key.getClass() == keyType) {
+            return getPrimitive(toBits(key));
+        }
+        return otherKeys == null ? null : otherKeys.get(key);
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    public EventEvaluator put(Object key, EventEvaluator value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null evaluator not supported");
+        }
+        if (key == null || key.getClass() != keyType) {
+            if (otherKeys == null) {
+                otherKeys = new HashMap<>();
+            }
+            return otherKeys.put(key, value);
+        }
+
+        long bits = toBits(key);
+        int mask = keys.length - 1;
+        int index = hash(bits) & mask;
+        while (values[index] != null) {
+            if (keys[index] == bits) {
+                EventEvaluator previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = bits;
+        values[index] = value;
+        size++;
+        if (size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    public EventEvaluator remove(Object key) {
+        if (key == null || key.getClass() != keyType) {
+            return otherKeys == null ? null : otherKeys.remove(key);
+        }
+
+        long bits = toBits(key);
+        int mask = keys.length - 1;
+        int index = hash(bits) & mask;
+        while (values[index] != null) {
+            if (keys[index] == bits) {
+                EventEvaluator previous = values[index];
+                removeAt(index);
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size + (otherKeys == null ? 0 : otherKeys.size());
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        otherKeys = null;
+    }
+
+    public Set<Entry<Object, EventEvaluator>> entrySet() {
+        return new AbstractSet<Entry<Object, EventEvaluator>>() {
+            public Iterator<Entry<Object, EventEvaluator>> iterator() {
+                return new EntryIterator();
+            }
+
+            public int size() {
+                return FilterParamIndexEqualsNumericMap.this.size();
+            }
+        };
+    }
+
+    private EventEvaluator getPrimitive(long bits) {
+        // read both arrays once, a resize replaces them
+        long[] k = keys;
+        EventEvaluator[] v = values;
+        if (k.length != v.length) {
+            return null;
+        }
+        int mask = k.length - 1;
+        int index = hash(bits) & mask;
+        for (int probes = 0; probes < k.length; probes++) {
+            EventEvaluator value = v[index];
+            if (value == null) {
+                return null;
+            }
+            if (k[index] == bits) {
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    private void removeAt(int index) {
+        // backward-shift deletion keeps probe sequences free of tombstones
+        int mask = keys.length - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (values[next] != null) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[hole] = null;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        EventEvaluator[] oldValues = values;
+        long[] newKeys = new long[capacity];
+        EventEvaluator[] newValues = new EventEvaluator[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == null) {
+                continue;
+            }
+            int index = hash(oldKeys[i]) & mask;
+            while (newValues[index] != null) {
+                index = (index + 1) & mask;
+            }
+            newKeys[index] = oldKeys[i];
+            newValues[index] = oldValues[i];
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private long toBits(Object key) {
+        if (keyType == Double.class) {
+            return Double.doubleToLongBits((Double) key);
+        }
+        if (keyType == Float.class) {
+            return Float.floatToIntBits((Float) key);
+        }
+        return ((Number) key).longValue();
+    }
+
+    private Object fromBits(long bits) {
+        if (keyType == Integer.class) {
+            return (int) bits;
+        }
+        if (keyType == Long.class) {
+            return bits;
+        }
+        if (keyType == Double.class) {
+            return Double.longBitsToDouble(bits);
+        }
+        if (keyType == Float.class) {
+            return Float.intBitsToFloat((int) bits);
+        }
+        if (keyType == Short.class) {
+            return (short) bits;
+        }
+        return (byte) bits;
+    }
+
+    private static int hash(long bits) {
+        long h = bits * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private class EntryIterator implements Iterator<Entry<Object, EventEvaluator>> {
+        private int index;
+        private final Iterator<Entry<Object, EventEvaluator>> otherIterator = otherKeys == null ? null : otherKeys.entrySet().iterator();
+
+        EntryIterator() {
+            advance();
+        }
+
+        public boolean hasNext() {
+            return index < values.length || (otherIterator != null && otherIterator.hasNext());
+        }
+
+        public Entry<Object, EventEvaluator> next() {
+            if (index < values.length) {
+                Entry<Object, EventEvaluator> entry = new SimpleImmutableEntry<>(fromBits(keys[index]), values[index]);
+                index++;
+                advance();
+                return entry;
+            }
+            if (otherIterator != null) {
+                return otherIterator.next();
+            }
+            throw new NoSuchElementException();
+        }
+
+        private void advance() {
+            while (index < values.length && values[index] == null) {
+                index++;
+            }
+        }
+    }
+}
@@ -66,8 +66,7 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
             InstrumentationHelper.get().qFilterAdd(eventType, valueSet, filterCallback);
         }
 
-        indexBuilder.add(eventType, valueSet, filterCallback, lockFactory);
-        filtersVersion++;
+        applyAdd(eventType, valueSet, filterCallback);
 
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().aFilterAdd();
@@ -79,14 +78,23 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
             InstrumentationHelper.get().qFilterRemove(filterCallback, eventType, valueSet);
         }
 
-        indexBuilder.remove(filterCallback, eventType, valueSet);
-        filtersVersion++;
+        applyRemove(filterCallback, eventType, valueSet);
 
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().aFilterRemove();
         }
     }
 
+    protected void applyAdd(EventType eventType, FilterValueSetParam[][] valueSet, FilterHandle filterCallback) {
+        indexBuilder.add(eventType, valueSet, filterCallback, lockFactory);
+        filtersVersion++;
+    }
+
+    protected void applyRemove(FilterHandle filterCallback, EventType eventType, FilterValueSetParam[][] valueSet) {
+        indexBuilder.remove(filterCallback, eventType, valueSet);
+        filtersVersion++;
+    }
+
     protected long evaluateInternal(EventBean theEvent, Collection<FilterHandle> matches, ExprEvaluatorContext ctx) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qFilter(theEvent);
@@ -177,6 +185,14 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
     }
 
     private void retryableMatchEvent(EventBean theEvent, Collection<FilterHandle> matches, ExprEvaluatorContext ctx) {
+        try {
+            retryableMatchEventInternal(theEvent, matches, ctx);
+        } finally {
+            FilterParamIndexBooleanExpr.clearSharedResults();
+        }
+    }
+
+    private void retryableMatchEventInternal(EventBean theEvent, Collection<FilterHandle> matches, ExprEvaluatorContext ctx) {
         // Install lock backoff exception handler that retries the evaluation.
         try {
             eventTypeIndex.matchEvent(theEvent, matches, ctx);
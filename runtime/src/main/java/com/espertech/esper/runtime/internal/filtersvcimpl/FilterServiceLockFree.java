@@ -0,0 +1,276 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.meta.EventTypeIdPair;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
+import com.espertech.esper.common.internal.filtersvc.FilterHandle;
+import com.espertech.esper.runtime.internal.metrics.jmx.JmxGetter;
+import com.espertech.esper.runtime.internal.metrics.jmx.JmxOperation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Filter service for filters that are mostly static and events sent by many threads.
+ * <p>
+ * The service keeps two replicas of the filter index. Filter evaluation reads the published replica without
+ * taking any lock: it only counts itself in a per-thread stripe of the replica's reader indicator and never waits.
+ * A writer applies changes to the standby replica, publishes it through a volatile reference, waits for the readers
+ * still counted on the previously published replica to leave and then replays the same changes there.
+ * Changes are serialized by a reentrant writer lock so that {@link #acquireWriteLock()} may enclose
+ * any number of adds and removes, which are swapped in together when the outermost write lock is released.
+ * </p>
+ * <p>
+ * Filters are held twice, so memory use for filters is doubled. As with the coarse-lock service, evaluation must not
+ * itself change filters, since the writer waits for all readers of the replica it replays into.
+ * </p>
+ */
+public final class FilterServiceLockFree implements FilterServiceSPI {
+    private static final int STRIPE_PADDING = 16;
+
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final int stripeMask;
+    private volatile Replica published;
+    private Replica standby;
+    private List<Consumer<Replica>> changes = new ArrayList<>();
+
+    public FilterServiceLockFree(int stageId) {
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) << 1;
+        stripeMask = stripes - 1;
+        published = new Replica(stageId, stripes);
+        standby = new Replica(stageId, stripes);
+    }
+
+    public void acquireWriteLock() {
+        writerLock.lock();
+    }
+
+    public void releaseWriteLock() {
+        endWrite();
+    }
+
+    public Map<EventTypeIdPair, Map<Integer, List<FilterItem[]>>> get(Set<Integer> statementId) {
+        writerLock.lock();
+        try {
+            return standby.getInternal(statementId);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, ExprEvaluatorContext ctx) {
+        if (writerLock.isHeldByCurrentThread()) {
+            return standby.evaluateInternal(theEvent, matches, ctx);
+        }
+        int stripe = stripe();
+        Replica replica = enter(stripe);
+        try {
+            return replica.evaluateInternal(theEvent, matches, ctx);
+        } finally {
+            replica.leave(stripe);
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId, ExprEvaluatorContext ctx) {
+        if (writerLock.isHeldByCurrentThread()) {
+            return standby.evaluateInternal(theEvent, matches, statementId, ctx);
+        }
+        int stripe = stripe();
+        Replica replica = enter(stripe);
+        try {
+            return replica.evaluateInternal(theEvent, matches, statementId, ctx);
+        } finally {
+            replica.leave(stripe);
+        }
+    }
+
+    public void add(EventType eventType, FilterValueSetParam[][] valueSet, FilterHandle callback) {
+        writerLock.lock();
+        try {
+            standby.addInternal(eventType, valueSet, callback);
+            changes.add(replica -> replica.applyAdd(eventType, valueSet, callback));
+        } finally {
+            endWrite();
+        }
+    }
+
+    public void remove(FilterHandle callback, EventType eventType, FilterValueSetParam[][] valueSet) {
+        writerLock.lock();
+        try {
+            standby.removeInternal(callback, eventType, valueSet);
+            changes.add(replica -> replica.applyRemove(callback, eventType, valueSet));
+        } finally {
+            endWrite();
+        }
+    }
+
+    public void removeType(EventType type) {
+        writerLock.lock();
+        try {
+            standby.removeTypeInternal(type);
+            changes.add(replica -> replica.removeTypeInternal(type));
+        } finally {
+            endWrite();
+        }
+    }
+
+    public long getFiltersVersion() {
+        return writerLock.isHeldByCurrentThread() ? standby.getFiltersVersion() : published.getFiltersVersion();
+    }
+
+    @JmxGetter(name = "NumEventsEvaluated", description = "Number of events evaluated (main)")
+    public long getNumEventsEvaluated() {
+        return published.getNumEventsEvaluated() + standby.getNumEventsEvaluated();
+    }
+
+    @JmxOperation(description = "Reset number of events evaluated")
+    public void resetStats() {
+        published.resetStats();
+        standby.resetStats();
+    }
+
+    @JmxGetter(name = "NumFiltersApprox", description = "Number of filters managed (approximately)")
+    public int getFilterCountApprox() {
+        return published.getFilterCountApprox();
+    }
+
+    @JmxGetter(name = "NumEventTypes", description = "Number of event types considered")
+    public int getCountTypes() {
+        return published.getCountTypes();
+    }
+
+    public void addFilterServiceListener(FilterServiceListener filterServiceListener) {
+        published.addFilterServiceListener(filterServiceListener);
+        standby.addFilterServiceListener(filterServiceListener);
+    }
+
+    public void removeFilterServiceListener(FilterServiceListener filterServiceListener) {
+        published.removeFilterServiceListener(filterServiceListener);
+        standby.removeFilterServiceListener(filterServiceListener);
+    }
+
+    public void init(Supplier<Collection<EventType>> availableTypes) {
+        // no initialization required
+    }
+
+    public void destroy() {
+        published.destroy();
+        standby.destroy();
+    }
+
+    private int stripe() {
+        return (int) Thread.currentThread().getId() & stripeMask;
+    }
+
+    private Replica enter(int stripe) {
+        while (true) {
+            Replica replica = published;
+            replica.arrive(stripe);
+            // a replica that is still published after arriving cannot have been taken over by a writer
+            if (replica == published) {
+                return replica;
+            }
+            replica.leave(stripe);
+        }
+    }
+
+    private void endWrite() {
+        try {
+            if (writerLock.getHoldCount() == 1 && !changes.isEmpty()) {
+                Replica previous = published;
+                published = standby;
+                previous.awaitReaders();
+                for (Consumer<Replica> change : changes) {
+                    change.accept(previous);
+                }
+                changes = new ArrayList<>();
+                standby = previous;
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    private static final class Replica extends FilterServiceBase {
+        private final AtomicLongArray readers;
+
+        Replica(int stageId, int stripes) {
+            super(FilterServiceGranularLockFactoryNone.INSTANCE, stageId);
+            readers = new AtomicLongArray(stripes * STRIPE_PADDING);
+        }
+
+        void arrive(int stripe) {
+            readers.incrementAndGet(stripe * STRIPE_PADDING);
+        }
+
+        void leave(int stripe) {
+            readers.decrementAndGet(stripe * STRIPE_PADDING);
+        }
+
+        void awaitReaders() {
+            // a reader arrives and leaves on its own stripe, so a zero stripe means no reader of that stripe is inside
+            for (int i = 0; i < readers.length(); i += STRIPE_PADDING) {
+                int spins = 0;
+                while (readers.get(i) != 0) {
+                    if (++spins < 100) {
+                        Thread.yield();
+                    } else {
+                        LockSupport.parkNanos(10000);
+                    }
+                }
+            }
+        }
+
+        public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, ExprEvaluatorContext ctx) {
+            return evaluateInternal(theEvent, matches, ctx);
+        }
+
+        public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId, ExprEvaluatorContext ctx) {
+            return evaluateInternal(theEvent, matches, statementId, ctx);
+        }
+
+        public void add(EventType eventType, FilterValueSetParam[][] valueSet, FilterHandle callback) {
+            addInternal(eventType, valueSet, callback);
+        }
+
+        public void remove(FilterHandle callback, EventType eventType, FilterValueSetParam[][] valueSet) {
+            removeInternal(callback, eventType, valueSet);
+        }
+
+        public void removeType(EventType type) {
+            removeTypeInternal(type);
+        }
+
+        public Map<EventTypeIdPair, Map<Integer, List<FilterItem[]>>> get(Set<Integer> statementId) {
+            return getInternal(statementId);
+        }
+
+        public void acquireWriteLock() {
+            // writes are serialized by the enclosing service
+        }
+
+        public void releaseWriteLock() {
+            // writes are serialized by the enclosing service
+        }
+    }
+}
@@ -166,7 +166,10 @@ public class DeployerHelperInitStatement {
             insertIntoBackLatchFactory = latchFactoryBack;
         }
 
-        EPStatementHandle statementHandle = new EPStatementHandle(statementName, deploymentId, statementId, optionalEPL, informationals.getPriority(), informationals.isPreemptive(), informationals.isCanSelfJoin(), multiMatchHandler, informationals.isHasVariables(), informationals.isHasTableAccess(), stmtMetric, insertIntoFrontLatchFactory, insertIntoBackLatchFactory);
+        // stateless filter-and-select statements that neither share state nor produce into other streams can process batches as one array
+        boolean batchable = informationals.isStateless() && informationals.getOptionalContextName() == null && informationals.getInsertIntoLatchName() == null &&
+            !informationals.isHasVariables() && !informationals.isHasTableAccess() && !informationals.isCanSelfJoin();
+        EPStatementHandle statementHandle = new EPStatementHandle(statementName, deploymentId, statementId, optionalEPL, informationals.getPriority(), informationals.isPreemptive(), informationals.isCanSelfJoin(), multiMatchHandler, informationals.isHasVariables(), informationals.isHasTableAccess(), stmtMetric, insertIntoFrontLatchFactory, insertIntoBackLatchFactory, batchable);
 
         // determine context
         StatementAIResourceRegistry statementAgentInstanceRegistry = null;
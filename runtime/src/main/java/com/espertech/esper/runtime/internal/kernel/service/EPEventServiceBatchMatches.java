@@ -0,0 +1,95 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.service;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.context.util.EPStatementHandleCallbackFilter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Matches of a coalesced batch per batchable statement, retaining the filter version that each event was matched under
+ * so that delivery can detect filter faults the same way per-event delivery does.
+ */
+public class EPEventServiceBatchMatches {
+    private final Map<EPStatementHandleCallbackFilter, Matches> matches = new LinkedHashMap<>();
+
+    /**
+     * Add a match.
+     *
+     * @param handleCallback callback
+     * @param event          matching event
+     * @param version        filter version of the evaluation that matched the event
+     */
+    public void add(EPStatementHandleCallbackFilter handleCallback, EventBean event, long version) {
+        Matches entry = matches.get(handleCallback);
+        if (entry == null) {
+            entry = new Matches(handleCallback);
+            matches.put(handleCallback, entry);
+        }
+        entry.add(event, version);
+    }
+
+    public boolean isEmpty() {
+        return matches.isEmpty();
+    }
+
+    public Collection<Matches> getMatches() {
+        return matches.values();
+    }
+
+    public void clear() {
+        matches.clear();
+    }
+
+    /**
+     * Matching events of one statement in the order received, with their filter versions.
+     */
+    public static class Matches {
+        private final EPStatementHandleCallbackFilter handleCallback;
+        private EventBean[] events = new EventBean[8];
+        private long[] versions = new long[8];
+        private int count;
+
+        Matches(EPStatementHandleCallbackFilter handleCallback) {
+            this.handleCallback = handleCallback;
+        }
+
+        void add(EventBean event, long version) {
+            if (count == events.length) {
+                events = Arrays.copyOf(events, count * 2);
+                versions = Arrays.copyOf(versions, count * 2);
+            }
+            events[count] = event;
+            versions[count] = version;
+            count++;
+        }
+
+        public EPStatementHandleCallbackFilter getHandleCallback() {
+            return handleCallback;
+        }
+
+        public EventBean[] getEvents() {
+            return events;
+        }
+
+        public long[] getVersions() {
+            return versions;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.service;
+
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.common.internal.event.util.EPRuntimeEventProcessWrapped;
+import com.espertech.esper.runtime.client.EPEventServiceBatchDelivery;
+
+/**
+ * For use by batch send-event methods and inbound threading for processing a batch of known events.
+ */
+public interface EPEventServiceBatchProcessor extends EPRuntimeEventProcessWrapped {
+    /**
+     * Process a batch of events that are wrapped by event beans.
+     *
+     * @param eventBeans events to process
+     * @param delivery   result delivery for the batch
+     */
+    void processWrappedEventBatch(EventBean[] eventBeans, EPEventServiceBatchDelivery delivery);
+
+    /**
+     * Re-evaluate the filters of a statement for an event that was matched under a filter version that is no longer current.
+     *
+     * @param faultingHandle   statement
+     * @param theEvent         event
+     * @param filterFaultCount filter fault count
+     */
+    void handleFilterFault(EPStatementAgentInstanceHandle faultingHandle, EventBean theEvent, int filterFaultCount);
+}
@@ -10,6 +10,8 @@
  */
 package com.espertech.esper.runtime.internal.kernel.service;
 
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
 import com.espertech.esper.common.client.configuration.Configuration;
 import com.espertech.esper.common.client.hook.exception.ExceptionHandlerExceptionType;
 import com.espertech.esper.common.client.hook.expr.EventBeanService;
@@ -21,11 +23,16 @@ import com.espertech.esper.common.internal.epl.enummethod.cache.ExpressionResult
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.common.internal.epl.expression.time.abacus.TimeAbacus;
 import com.espertech.esper.common.internal.epl.variable.core.VariableManagementService;
+import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactory;
+import com.espertech.esper.common.internal.event.core.EventTypeUtility;
+import com.espertech.esper.common.internal.event.eventtyperepo.EventTypeRepository;
 import com.espertech.esper.common.internal.filtersvc.FilterHandle;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallbackBatch;
 import com.espertech.esper.common.internal.schedule.ScheduleHandle;
 import com.espertech.esper.common.internal.schedule.ScheduleHandleCallback;
 import com.espertech.esper.common.internal.schedule.SchedulingService;
 import com.espertech.esper.common.internal.settings.ExceptionHandlingService;
+import com.espertech.esper.common.internal.util.MetricUtil;
 import com.espertech.esper.runtime.internal.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
@@ -113,6 +120,137 @@ public class EPEventServiceHelper {
         }
     }
 
+    /**
+     * Process the matches of a coalesced batch for each batchable statement, accounting statement metrics per batch.
+     *
+     * @param batchMatches matches, cleared upon return
+     * @param processor    event service for handling filter faults
+     * @param services     runtime services
+     */
+    public static void processBatchMatches(EPEventServiceBatchMatches batchMatches, EPEventServiceBatchProcessor processor, EPServicesEvaluation services) {
+        for (EPEventServiceBatchMatches.Matches matches : batchMatches.getMatches()) {
+            EPStatementAgentInstanceHandle handle = matches.getHandleCallback().getAgentInstanceHandle();
+            if (handle.getStatementHandle().getMetricsHandle().isEnabled()) {
+                long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
+                long wallTimeBefore = MetricUtil.getWall();
+
+                processStatementFilterBatch(handle, matches, processor, services);
+
+                long wallTimeAfter = MetricUtil.getWall();
+                long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
+                services.getMetricReportingService().accountTime(handle.getStatementHandle().getMetricsHandle(), cpuTimeAfter - cpuTimeBefore, wallTimeAfter - wallTimeBefore, matches.getCount());
+            } else {
+                processStatementFilterBatch(handle, matches, processor, services);
+            }
+        }
+        batchMatches.clear();
+    }
+
+    /**
+     * Process the matches of a coalesced batch for a batchable statement, in the order the events were received.
+     * Events matched under a filter version that is no longer current for the statement are handled as filter faults,
+     * same as for a single match, and the events before and after a faulting event are delivered as separate batches.
+     *
+     * @param handle    statement
+     * @param matches   matching events and their filter versions
+     * @param processor event service for handling filter faults
+     * @param services  runtime services
+     */
+    public static void processStatementFilterBatch(EPStatementAgentInstanceHandle handle, EPEventServiceBatchMatches.Matches matches, EPEventServiceBatchProcessor processor, EPServicesEvaluation services) {
+        EventBean[] events = matches.getEvents();
+        long[] versions = matches.getVersions();
+        int count = matches.getCount();
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qEventCP(events[0], handle, services.getSchedulingService().getTime());
+        }
+        handle.getStatementAgentInstanceLock().acquireWriteLock();
+        try {
+            if (!handle.isDestroyed()) {
+                if (handle.isHasVariables()) {
+                    services.getVariableManagementService().setLocalVersion();
+                }
+                FilterHandleCallbackBatch callback = (FilterHandleCallbackBatch) matches.getHandleCallback().getFilterCallback();
+                int start = 0;
+                for (int i = 0; i < count; i++) {
+                    if (handle.isCurrentFilter(versions[i])) {
+                        continue;
+                    }
+                    matchFoundBatch(callback, events, start, i);
+                    boolean handled = false;
+                    if (handle.getFilterFaultHandler() != null) {
+                        handled = handle.getFilterFaultHandler().handleFilterFault(events[i], versions[i]);
+                    }
+                    if (!handled) {
+                        processor.handleFilterFault(handle, events[i], 0);
+                    }
+                    start = i + 1;
+                }
+                matchFoundBatch(callback, events, start, count);
+
+                // internal join processing, if applicable
+                handle.internalDispatch();
+            }
+        } catch (RuntimeException ex) {
+            services.getExceptionHandlingService().handleException(ex, handle, ExceptionHandlerExceptionType.PROCESS, null);
+        } finally {
+            if (handle.isHasTableAccess()) {
+                services.getTableExprEvaluatorContext().releaseAcquiredLocks();
+            }
+            handle.getStatementAgentInstanceLock().releaseWriteLock();
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aEventCP();
+            }
+        }
+    }
+
+    private static void matchFoundBatch(FilterHandleCallbackBatch callback, EventBean[] events, int start, int end) {
+        if (start == end) {
+            return;
+        }
+        callback.matchFoundBatch(start == 0 && end == events.length ? events : Arrays.copyOfRange(events, start, end));
+    }
+
+    public static EventBean[] wrapEventObjectArrayBatch(Object[][] events, String eventTypeName, EventTypeRepository eventTypeRepository, EventBeanTypedEventFactory eventBeanTypedEventFactory) {
+        EventType type = eventTypeRepository.getTypeByName(eventTypeName);
+        EventTypeUtility.validateTypeObjectArray(eventTypeName, type);
+        EventBean[] eventBeans = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            if (events[i] == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+            eventBeans[i] = eventBeanTypedEventFactory.adapterForTypedObjectArray(events[i], type);
+        }
+        return eventBeans;
+    }
+
+    public static EventBean[] wrapEventBeanBatch(Collection<?> events, String eventTypeName, EventTypeRepository eventTypeRepository, EventBeanTypedEventFactory eventBeanTypedEventFactory) {
+        EventType type = eventTypeRepository.getTypeByName(eventTypeName);
+        EventTypeUtility.validateTypeBean(eventTypeName, type);
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object event : events) {
+            if (event == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+            eventBeans[count++] = eventBeanTypedEventFactory.adapterForTypedBean(event, type);
+        }
+        return eventBeans;
+    }
+
+    public static EventBean[] wrapEventMapBatch(Collection<Map<String, Object>> events, String eventTypeName, EventTypeRepository eventTypeRepository, EventBeanTypedEventFactory eventBeanTypedEventFactory) {
+        EventType type = eventTypeRepository.getTypeByName(eventTypeName);
+        EventTypeUtility.validateTypeMap(eventTypeName, type);
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Map<String, Object> event : events) {
+            if (event == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+            eventBeans[count++] = eventBeanTypedEventFactory.adapterForTypedMap(event, type);
+        }
+        return eventBeans;
+    }
+
     public static ThreadLocal<EPEventServiceThreadLocalEntry> allocateThreadLocals(boolean isPrioritized, String runtimeURI, Configuration configuration, EventBeanService eventBeanService, ExceptionHandlingService exceptionHandlingService, SchedulingService schedulingService, TimeZone timeZone, TimeAbacus timeAbacus, VariableManagementService variableManagementService) {
         ExpressionResultCacheService expressionResultCacheService = new ExpressionResultCacheService(configuration.getRuntime().getExecution().getDeclaredExprValueCacheSize());
         return ThreadLocal.withInitial(() -> {
@@ -149,7 +287,7 @@ public class EPEventServiceHelper {
                 }
             }
 
-            return new EPEventServiceThreadLocalEntry(workQueue, filterHandles, scheduleHandles, matchesPerStmt, schedulesPerStmt, runtimeFilterAndDispatchTimeContext);
+            return new EPEventServiceThreadLocalEntry(workQueue, filterHandles, scheduleHandles, matchesPerStmt, schedulesPerStmt, runtimeFilterAndDispatchTimeContext, new EPEventServiceBatchMatches());
         });
     }
 }
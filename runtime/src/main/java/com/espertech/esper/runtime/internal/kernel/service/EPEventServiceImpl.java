@@ -32,6 +32,7 @@ import com.espertech.esper.common.internal.event.xml.BaseXMLEventType;
 import com.espertech.esper.common.internal.event.xml.EventSenderXMLDOM;
 import com.espertech.esper.common.internal.filtersvc.FilterHandle;
 import com.espertech.esper.common.internal.filtersvc.FilterHandleCallback;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallbackBatch;
 import com.espertech.esper.common.internal.schedule.ScheduleHandle;
 import com.espertech.esper.common.internal.schedule.ScheduleHandleCallback;
 import com.espertech.esper.common.internal.statement.insertintolatch.InsertIntoLatchSpin;
@@ -40,6 +41,7 @@ import com.espertech.esper.common.internal.util.DeploymentIdNamePair;
 import com.espertech.esper.common.internal.util.ExecutionPathDebugLog;
 import com.espertech.esper.common.internal.util.MetricUtil;
 import com.espertech.esper.common.internal.util.ThreadLogUtil;
+import com.espertech.esper.runtime.client.EPEventServiceBatchDelivery;
 import com.espertech.esper.runtime.client.UnmatchedListener;
 import com.espertech.esper.runtime.internal.kernel.statement.EPStatementSPI;
 import com.espertech.esper.runtime.internal.kernel.thread.*;
@@ -54,6 +56,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Node;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -64,7 +67,7 @@ import static com.espertech.esper.runtime.internal.kernel.service.EPEventService
  * Implements runtime interface. Also accepts timer callbacks for synchronizing time events with regular events
  * sent in.
  */
-public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRouteDest, TimerCallback, EPRuntimeEventProcessWrapped, EPEventServiceQueueProcessor {
+public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRouteDest, TimerCallback, EPRuntimeEventProcessWrapped, EPEventServiceQueueProcessor, EPEventServiceBatchProcessor {
     protected static final Logger log = LoggerFactory.getLogger(EPEventServiceImpl.class);
     public static final int MAX_FILTER_FAULT_COUNT = 10;
 
@@ -145,7 +148,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
 
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendAvro(avroGenericDataDotRecord, avroEventTypeName, this, services));
+            services.getThreadingService().submitInbound(InboundUnitType.AVRO, avroGenericDataDotRecord, avroEventTypeName, this, services);
         } else {
             EventBean eventBean = wrapEventAvro(avroGenericDataDotRecord, avroEventTypeName);
             processWrappedEvent(eventBean);
@@ -162,13 +165,40 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
 
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendJson(json, jsonEventTypeName, this, services));
+            services.getThreadingService().submitInbound(InboundUnitType.JSON, json, jsonEventTypeName, this, services);
         } else {
             EventBean eventBean = wrapEventJson(json, jsonEventTypeName);
             processWrappedEvent(eventBean);
         }
     }
 
+    public void sendEventJson(ByteBuffer json, String jsonEventTypeName) {
+        if (json == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+
+        // parse before handing off to inbound threading, the caller may reuse the buffer upon return
+        EventBean eventBean = services.getEventTypeResolvingBeanFactory().adapterForJson(json, jsonEventTypeName);
+        if (inboundThreading) {
+            services.getThreadingService().submitInbound(eventBean, this);
+        } else {
+            processWrappedEvent(eventBean);
+        }
+    }
+
+    public void sendEventJson(Map<String, Object> map, String jsonEventTypeName) {
+        if (map == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+
+        EventBean eventBean = services.getEventTypeResolvingBeanFactory().adapterForJson(map, jsonEventTypeName);
+        if (inboundThreading) {
+            services.getThreadingService().submitInbound(eventBean, this);
+        } else {
+            processWrappedEvent(eventBean);
+        }
+    }
+
     public void sendEventBean(Object theEvent, String eventTypeName) {
         if (theEvent == null) {
             log.error(".sendEvent Null object supplied");
@@ -180,7 +210,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
 
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, eventTypeName, this, services));
+            services.getThreadingService().submitInbound(InboundUnitType.BEAN, theEvent, eventTypeName, this, services);
         } else {
             EventBean eventBean = services.getEventTypeResolvingBeanFactory().adapterForBean(theEvent, eventTypeName);
             processWrappedEvent(eventBean);
@@ -272,7 +302,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
 
         // Process event
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendDOM(node, eventTypeName, this, services));
+            services.getThreadingService().submitInbound(InboundUnitType.XMLDOM, node, eventTypeName, this, services);
         } else {
             EventBean eventBean = wrapEventBeanXMLDOM(node, eventTypeName);
             processWrappedEvent(eventBean);
@@ -289,7 +319,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
 
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, eventTypeName, this, services));
+            services.getThreadingService().submitInbound(InboundUnitType.OBJECTARRAY, propertyValues, eventTypeName, this, services);
         } else {
             EventBean eventBean = wrapEventObjectArray(propertyValues, eventTypeName);
             processWrappedEvent(eventBean);
@@ -306,13 +336,56 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
 
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, this, services));
+            services.getThreadingService().submitInbound(InboundUnitType.MAP, map, mapEventTypeName, this, services);
         } else {
             EventBean eventBean = wrapEventMap(map, mapEventTypeName);
             processWrappedEvent(eventBean);
         }
     }
 
+    public void sendEventObjectArrayBatch(Object[][] events, String eventTypeName, EPEventServiceBatchDelivery delivery) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+        EventBean[] eventBeans = wrapEventObjectArrayBatch(events, eventTypeName, services.getEventTypeRepositoryBus(), services.getEventBeanTypedEventFactory());
+        sendWrappedEventBatch(eventBeans, delivery);
+    }
+
+    public void sendEventBeanBatch(Collection<?> events, String eventTypeName, EPEventServiceBatchDelivery delivery) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+        EventBean[] eventBeans = wrapEventBeanBatch(events, eventTypeName, services.getEventTypeRepositoryBus(), services.getEventBeanTypedEventFactory());
+        sendWrappedEventBatch(eventBeans, delivery);
+    }
+
+    public void sendEventMapBatch(Collection<Map<String, Object>> events, String eventTypeName, EPEventServiceBatchDelivery delivery) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+        EventBean[] eventBeans = wrapEventMapBatch(events, eventTypeName, services.getEventTypeRepositoryBus(), services.getEventBeanTypedEventFactory());
+        sendWrappedEventBatch(eventBeans, delivery);
+    }
+
+    private void sendWrappedEventBatch(EventBean[] eventBeans, EPEventServiceBatchDelivery delivery) {
+        if (delivery == null) {
+            throw new IllegalArgumentException("Invalid null batch delivery");
+        }
+        if (eventBeans.length == 0) {
+            return;
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendWrappedEventBatch Processing batch of " + eventBeans.length + " events");
+        }
+
+        if (inboundThreading) {
+            services.getThreadingService().submitInboundBatch(eventBeans, delivery, this, services);
+        } else {
+            processWrappedEventBatch(eventBeans, delivery);
+        }
+    }
+
     public void routeEventBean(EventBean theEvent) {
         threadLocals.get().getWorkQueue().add(theEvent);
     }
@@ -337,11 +410,81 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
     }
 
     public void processWrappedEvent(EventBean eventBean) {
+        processWrappedEventInternal(eventBean, threadLocals.get());
+    }
+
+    public void processWrappedEventBatch(EventBean[] eventBeans, EPEventServiceBatchDelivery delivery) {
+        EPEventServiceThreadLocalEntry tlEntry = threadLocals.get();
+        if (delivery == EPEventServiceBatchDelivery.PER_EVENT) {
+            for (EventBean eventBean : eventBeans) {
+                processWrappedEventInternal(eventBean, tlEntry);
+            }
+            return;
+        }
+
+        // Stateless statements receive their matches of the batch as a single array, unless ordering or threading requires per-event processing
+        EPEventServiceBatchMatches batchMatches = null;
+        if (!isPrioritized && !routeThreading && unmatchedListener == null) {
+            batchMatches = tlEntry.getBatchMatchesThreadLocal();
+        }
+
+        // Acquire main processing lock once for the batch, results accumulate in the dispatch buffers until the batch completes
+        services.getEventProcessingRWLock().acquireReadLock();
+        try {
+            for (EventBean eventBean : eventBeans) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qStimulantEvent(eventBean, services.getRuntimeURI());
+                }
+
+                if (internalEventRouter.isHasPreprocessing()) {
+                    eventBean = internalEventRouter.preprocess(eventBean, tlEntry.getExprEvaluatorContext(), InstrumentationHelper.get());
+                    if (eventBean == null) {
+                        if (InstrumentationHelper.ENABLED) {
+                            InstrumentationHelper.get().aStimulantEvent();
+                        }
+                        continue;
+                    }
+                }
+
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qEvent(eventBean, services.getRuntimeURI(), true);
+                }
+                try {
+                    processMatches(eventBean, tlEntry, batchMatches);
+                } finally {
+                    if (InstrumentationHelper.ENABLED) {
+                        InstrumentationHelper.get().aEvent();
+                        InstrumentationHelper.get().aStimulantEvent();
+                    }
+                }
+            }
+
+            if (batchMatches != null && !batchMatches.isEmpty()) {
+                processBatchMatches(batchMatches, this, services);
+            }
+        } catch (RuntimeException ex) {
+            tlEntry.getMatchesArrayThreadLocal().clear();
+            if (batchMatches != null) {
+                batchMatches.clear();
+            }
+            throw new EPException(ex);
+        } finally {
+            services.getEventProcessingRWLock().releaseReadLock();
+        }
+
+        // Dispatch results of the whole batch to listeners
+        // Done outside of the read-lock to prevent lockups when listeners create statements
+        dispatch();
+
+        // Work off the event queue if any events accumulated in there via a route() or insert-into
+        processThreadWorkQueue();
+    }
+
+    private void processWrappedEventInternal(EventBean eventBean, EPEventServiceThreadLocalEntry tlEntry) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qStimulantEvent(eventBean, services.getRuntimeURI());
         }
 
-        EPEventServiceThreadLocalEntry tlEntry = threadLocals.get();
         if (internalEventRouter.isHasPreprocessing()) {
             eventBean = internalEventRouter.preprocess(eventBean, tlEntry.getExprEvaluatorContext(), InstrumentationHelper.get());
             if (eventBean == null) {
@@ -355,7 +498,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
         services.getEventProcessingRWLock().acquireReadLock();
         try {
-            processMatches(eventBean);
+            processMatches(eventBean, tlEntry);
         } catch (RuntimeException ex) {
             tlEntry.getMatchesArrayThreadLocal().clear();
             throw new EPException(ex);
@@ -495,11 +638,25 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
     }
 
     protected void processMatches(EventBean theEvent) {
+        processMatches(theEvent, threadLocals.get());
+    }
+
+    protected void processMatches(EventBean theEvent, EPEventServiceThreadLocalEntry tlEntry) {
+        processMatches(theEvent, tlEntry, null);
+    }
+
+    private void processMatches(EventBean theEvent, EPEventServiceThreadLocalEntry tlEntry, EPEventServiceBatchMatches batchMatches) {
         // get matching filters
-        EPEventServiceThreadLocalEntry tlEntry = threadLocals.get();
         ArrayBackedCollection<FilterHandle> matches = tlEntry.getMatchesArrayThreadLocal();
         ExprEvaluatorContext ctx = tlEntry.getExprEvaluatorContext();
-        long version = services.getFilterService().evaluate(theEvent, matches, ctx);
+        long version;
+        if (services.getMetricReportingService().isLatencyHistograms()) {
+            long wallTimeBefore = MetricUtil.getWall();
+            version = services.getFilterService().evaluate(theEvent, matches, ctx);
+            services.getMetricReportingService().accountFilterTime(MetricUtil.getWall() - wallTimeBefore);
+        } else {
+            version = services.getFilterService().evaluate(theEvent, matches, ctx);
+        }
 
         if (ThreadLogUtil.ENABLED_TRACE) {
             ThreadLogUtil.trace("Found matches for underlying ", matches.size(), theEvent.getUnderlying());
@@ -546,6 +703,12 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
                 continue;
             }
 
+            // Batchable statements process all their matches when the batch completes
+            if (batchMatches != null && handle.getStatementHandle().isBatchable() && handleCallback.getFilterCallback() instanceof FilterHandleCallbackBatch) {
+                batchMatches.add(handleCallback, theEvent, version);
+                continue;
+            }
+
             if (handle.getStatementHandle().getMetricsHandle().isEnabled()) {
                 long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
                 long wallTimeBefore = MetricUtil.getWall();
@@ -700,7 +863,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
     }
 
-    protected void handleFilterFault(EPStatementAgentInstanceHandle faultingHandle, EventBean theEvent, int filterFaultCount) {
+    public void handleFilterFault(EPStatementAgentInstanceHandle faultingHandle, EventBean theEvent, int filterFaultCount) {
         ArrayDeque<FilterHandle> callbacksForStatement = new ArrayDeque<>();
         long version = services.getFilterService().evaluate(theEvent, callbacksForStatement, faultingHandle.getStatementId(), threadLocals.get().getExprEvaluatorContext());
 
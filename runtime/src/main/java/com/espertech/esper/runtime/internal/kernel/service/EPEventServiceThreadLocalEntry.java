@@ -25,14 +25,16 @@ public class EPEventServiceThreadLocalEntry {
     private final Map<EPStatementAgentInstanceHandle, Object> matchesPerStmtThreadLocal;
     private final Map<EPStatementAgentInstanceHandle, Object> schedulePerStmtThreadLocal;
     private final ExprEvaluatorContext exprEvaluatorContext;
+    private final EPEventServiceBatchMatches batchMatchesThreadLocal;
 
-    public EPEventServiceThreadLocalEntry(WorkQueue workQueue, ArrayBackedCollection<FilterHandle> matchesArrayThreadLocal, ArrayBackedCollection<ScheduleHandle> scheduleArrayThreadLocal, Map<EPStatementAgentInstanceHandle, Object> matchesPerStmtThreadLocal, Map<EPStatementAgentInstanceHandle, Object> schedulePerStmtThreadLocal, ExprEvaluatorContext exprEvaluatorContext) {
+    public EPEventServiceThreadLocalEntry(WorkQueue workQueue, ArrayBackedCollection<FilterHandle> matchesArrayThreadLocal, ArrayBackedCollection<ScheduleHandle> scheduleArrayThreadLocal, Map<EPStatementAgentInstanceHandle, Object> matchesPerStmtThreadLocal, Map<EPStatementAgentInstanceHandle, Object> schedulePerStmtThreadLocal, ExprEvaluatorContext exprEvaluatorContext, EPEventServiceBatchMatches batchMatchesThreadLocal) {
         this.workQueue = workQueue;
         this.matchesArrayThreadLocal = matchesArrayThreadLocal;
         this.scheduleArrayThreadLocal = scheduleArrayThreadLocal;
         this.matchesPerStmtThreadLocal = matchesPerStmtThreadLocal;
         this.schedulePerStmtThreadLocal = schedulePerStmtThreadLocal;
         this.exprEvaluatorContext = exprEvaluatorContext;
+        this.batchMatchesThreadLocal = batchMatchesThreadLocal;
     }
 
     public WorkQueue getWorkQueue() {
@@ -58,4 +60,8 @@ public class EPEventServiceThreadLocalEntry {
     public ExprEvaluatorContext getExprEvaluatorContext() {
         return exprEvaluatorContext;
     }
+
+    public EPEventServiceBatchMatches getBatchMatchesThreadLocal() {
+        return batchMatchesThreadLocal;
+    }
 }
@@ -14,6 +14,7 @@ import com.espertech.esper.common.client.configuration.ConfigurationException;
 import com.espertech.esper.common.client.metric.EPMetricsStatementGroup;
 import com.espertech.esper.common.client.metric.EPMetricsService;
 import com.espertech.esper.common.client.metric.RuntimeMetric;
+import com.espertech.esper.runtime.internal.kernel.thread.ThreadingService;
 
 import java.util.function.Consumer;
 
@@ -71,6 +72,8 @@ public class EPMetricsServiceImpl implements EPMetricsService {
     public RuntimeMetric getRuntimeMetric() {
         long inputCount = services.getFilterService().getNumEventsEvaluated();
         long schedDepth = services.getSchedulingService().getScheduleHandleCount();
-        return new RuntimeMetric(services.getRuntimeURI(), services.getSchedulingService().getTime(), inputCount, 0, schedDepth);
+        ThreadingService threading = services.getThreadingService();
+        return new RuntimeMetric(services.getRuntimeURI(), services.getSchedulingService().getTime(), inputCount, 0, schedDepth,
+            threading.getInboundQueueDepth(), threading.getOutboundQueueDepth(), threading.getRouteQueueDepth(), threading.getTimerQueueDepth(), threading.getInboundQueueWaitNanos());
     }
 }
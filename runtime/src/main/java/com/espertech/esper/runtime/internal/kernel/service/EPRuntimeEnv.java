@@ -15,6 +15,7 @@ import com.espertech.esper.common.client.metric.EPMetricsService;
 import com.espertech.esper.common.client.variable.EPVariableService;
 import com.espertech.esper.runtime.client.EPEventTypeService;
 import com.espertech.esper.runtime.client.EPFireAndForgetService;
+import com.espertech.esper.runtime.client.EPSnapshotService;
 import com.espertech.esper.runtime.internal.kernel.stage.EPStageServiceSPI;
 
 class EPRuntimeEnv {
@@ -27,8 +28,9 @@ class EPRuntimeEnv {
     private final EPMetricsService metricsService;
     private final EPFireAndForgetService fireAndForgetService;
     private final EPStageServiceSPI stageService;
+    private final EPSnapshotService snapshotService;
 
-    public EPRuntimeEnv(EPServicesContext services, EPEventServiceSPI eventService, EPDeploymentServiceSPI deploymentService, EPEventTypeService eventTypeService, EPContextPartitionService contextPartitionService, EPVariableService variableService, EPMetricsService metricsService, EPFireAndForgetService fireAndForgetService, EPStageServiceSPI stageService) {
+    public EPRuntimeEnv(EPServicesContext services, EPEventServiceSPI eventService, EPDeploymentServiceSPI deploymentService, EPEventTypeService eventTypeService, EPContextPartitionService contextPartitionService, EPVariableService variableService, EPMetricsService metricsService, EPFireAndForgetService fireAndForgetService, EPStageServiceSPI stageService, EPSnapshotService snapshotService) {
         this.services = services;
         this.eventService = eventService;
         this.deploymentService = deploymentService;
@@ -38,6 +40,7 @@ class EPRuntimeEnv {
         this.metricsService = metricsService;
         this.fireAndForgetService = fireAndForgetService;
         this.stageService = stageService;
+        this.snapshotService = snapshotService;
     }
 
     public EPServicesContext getServices() {
@@ -79,4 +82,8 @@ class EPRuntimeEnv {
     public EPStageServiceSPI getStageService() {
         return stageService;
     }
+
+    public EPSnapshotService getSnapshotService() {
+        return snapshotService;
+    }
 }
@@ -357,9 +357,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI {
         EPMetricsService metricsService = new EPMetricsServiceImpl(services);
         EPFireAndForgetService fireAndForgetService = new EPFireAndForgetServiceImpl(services, serviceStatusProvider);
         EPStageServiceSPI stageService = new EPStageServiceImpl(services, serviceStatusProvider);
+        EPSnapshotService snapshotService = new EPSnapshotServiceImpl(services);
 
         // Build runtime environment
-        runtimeEnvironment = new EPRuntimeEnv(services, eventService, deploymentService, eventTypeService, contextPartitionService, variableService, metricsService, fireAndForgetService, stageService);
+        runtimeEnvironment = new EPRuntimeEnv(services, eventService, deploymentService, eventTypeService, contextPartitionService, variableService, metricsService, fireAndForgetService, stageService, snapshotService);
 
         // Stage Recovery
         Iterator<Map.Entry<String, Integer>> stageIterator = services.getStageRecoveryService().stagesIterate();
@@ -469,7 +470,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI {
 
         // Start metrics reporting, if any
         if (configLastProvided.getRuntime().getMetricsReporting().isEnableMetricsReporting()) {
-            services.getMetricReportingService().setContext(services.getFilterService(), services.getSchedulingService(), eventService);
+            services.getMetricReportingService().setContext(services.getFilterService(), services.getSchedulingService(), eventService, services.getThreadingService());
         }
 
         // Start runtimes metrics report
@@ -508,12 +509,19 @@ public class EPRuntimeImpl implements EPRuntimeSPI {
         CommonJMXUtil.registerMbean(services.getSchedulingService(), scheduleName);
         MetricName runtimeName = MetricNameFactory.name(services.getRuntimeURI(), "runtime");
         CommonJMXUtil.registerMbean(runtime, runtimeName);
+        if (services.getMetricReportingService().isLatencyHistograms()) {
+            MetricName latencyName = MetricNameFactory.name(services.getRuntimeURI(), "latency");
+            CommonJMXUtil.registerMbean(services.getMetricReportingService(), latencyName);
+        }
     }
 
     private synchronized void destroyEngineMetrics(String runtimeURI) {
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(runtimeURI, "filter"));
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(runtimeURI, "schedule"));
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(runtimeURI, "runtime"));
+        if (configLastProvided.getRuntime().getMetricsReporting().isEnableMetricsReporting() && configLastProvided.getRuntime().getMetricsReporting().isEnableLatencyHistograms()) {
+            CommonJMXUtil.unregisterMbean(MetricNameFactory.name(runtimeURI, "latency"));
+        }
     }
 
     /**
@@ -698,6 +706,13 @@ public class EPRuntimeImpl implements EPRuntimeSPI {
         return runtimeEnvironment.getFireAndForgetService();
     }
 
+    public EPSnapshotService getSnapshotService() {
+        if (runtimeEnvironment == null) {
+            throw new EPRuntimeDestroyedException(runtimeURI);
+        }
+        return runtimeEnvironment.getSnapshotService();
+    }
+
     public ThreadingService getThreadingService() {
         if (runtimeEnvironment == null) {
             throw new EPRuntimeDestroyedException(runtimeURI);
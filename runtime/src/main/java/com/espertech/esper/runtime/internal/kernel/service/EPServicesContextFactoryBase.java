@@ -185,7 +185,7 @@ public abstract class EPServicesContextFactoryBase implements EPServicesContextF
 
     protected abstract DataFlowFilterServiceAdapter makeDataFlowFilterServiceAdapter();
 
-    protected abstract ThreadingService makeThreadingService(Configuration configs);
+    protected abstract ThreadingService makeThreadingService(Configuration configs, ContextManagementService contextManagementService);
 
     protected abstract EventTypeSerdeRepository makeEventTypeSerdeRepository(EventTypeRepository preconfigureds, PathRegistry<String, EventType> eventTypePathRegistry);
 
@@ -332,7 +332,7 @@ public abstract class EPServicesContextFactoryBase implements EPServicesContextF
         EPDataFlowServiceImpl dataflowService = new EPDataFlowServiceImpl();
         DataFlowFilterServiceAdapter dataFlowFilterServiceAdapter = makeDataFlowFilterServiceAdapter();
 
-        ThreadingService threadingService = makeThreadingService(configs);
+        ThreadingService threadingService = makeThreadingService(configs, contextManagementService);
         EPRenderEventServiceImpl eventRenderer = new EPRenderEventServiceImpl();
         EventSerdeFactory eventSerdeFactory = makeEventSerdeFactory(epServicesHA.getRuntimeExtensionServices());
         EventTypeSerdeRepository eventTypeSerdeRepository = makeEventTypeSerdeRepository(eventTypeRepositoryPreconfigured, eventTypePathRegistry);
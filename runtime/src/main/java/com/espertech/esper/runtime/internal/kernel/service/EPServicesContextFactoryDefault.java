@@ -13,9 +13,12 @@ package com.espertech.esper.runtime.internal.kernel.service;
 import com.espertech.esper.common.client.EventType;
 import com.espertech.esper.common.client.configuration.Configuration;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonEventTypeMeta;
+import com.espertech.esper.common.client.util.FilterServiceProfile;
+import com.espertech.esper.common.client.util.SchedulingServiceProfile;
 import com.espertech.esper.common.internal.collection.PathRegistry;
 import com.espertech.esper.common.internal.context.activator.ViewableActivatorFactory;
 import com.espertech.esper.common.internal.context.activator.ViewableActivatorFactoryImpl;
+import com.espertech.esper.common.internal.context.mgr.ContextManagementService;
 import com.espertech.esper.common.internal.context.mgr.ContextServiceFactory;
 import com.espertech.esper.common.internal.context.mgr.ContextServiceFactoryDefault;
 import com.espertech.esper.common.internal.context.module.RuntimeExtensionServices;
@@ -73,6 +76,7 @@ import com.espertech.esper.runtime.internal.deploymentlifesvc.DeploymentRecovery
 import com.espertech.esper.runtime.internal.deploymentlifesvc.ListenerRecoveryServiceImpl;
 import com.espertech.esper.runtime.internal.deploymentlifesvc.StatementIdRecoveryServiceImpl;
 import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceLockCoarse;
+import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceLockFree;
 import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceSPI;
 import com.espertech.esper.runtime.internal.kernel.stage.StageRecoveryService;
 import com.espertech.esper.runtime.internal.kernel.stage.StageRecoveryServiceImpl;
@@ -83,6 +87,7 @@ import com.espertech.esper.runtime.internal.kernel.thread.ThreadingServiceImpl;
 import com.espertech.esper.runtime.internal.namedwindow.NamedWindowDispatchServiceImpl;
 import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceImpl;
 import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceSPI;
+import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceTimingWheel;
 import com.espertech.esper.runtime.internal.statementlifesvc.StatementLifecycleServiceImpl;
 
 import java.time.ZoneId;
@@ -103,6 +108,9 @@ public class EPServicesContextFactoryDefault extends EPServicesContextFactoryBas
     }
 
     protected FilterServiceSPI makeFilterService(RuntimeExtensionServices runtimeExt, EventTypeRepository eventTypeRepository, StatementLifecycleServiceImpl statementLifecycleService, RuntimeSettingsService runtimeSettingsService, EventTypeIdResolver eventTypeIdResolver, FilterSharedLookupableRepository filterSharedLookupableRepository) {
+        if (runtimeSettingsService.getConfigurationRuntime().getExecution().getFilterServiceProfile() == FilterServiceProfile.LOCKFREE) {
+            return new FilterServiceLockFree(-1);
+        }
         return new FilterServiceLockCoarse(-1);
     }
 
@@ -139,6 +147,9 @@ public class EPServicesContextFactoryDefault extends EPServicesContextFactoryBas
     }
 
     protected SchedulingServiceSPI makeSchedulingService(EPServicesHA epServicesHA, TimeSourceService timeSourceService, RuntimeExtensionServices runtimeExt, RuntimeSettingsService runtimeSettingsService, StatementContextResolver statementContextResolver, ZoneId zoneId) {
+        if (runtimeSettingsService.getConfigurationRuntime().getExecution().getSchedulingServiceProfile() == SchedulingServiceProfile.TIMINGWHEEL) {
+            return new SchedulingServiceTimingWheel(-1, timeSourceService, zoneId);
+        }
         return new SchedulingServiceImpl(-1, timeSourceService, zoneId);
     }
 
@@ -219,8 +230,8 @@ public class EPServicesContextFactoryDefault extends EPServicesContextFactoryBas
         return DataFlowFilterServiceAdapterNonHA.INSTANCE;
     }
 
-    protected ThreadingService makeThreadingService(Configuration configs) {
-        return new ThreadingServiceImpl(configs.getRuntime().getThreading());
+    protected ThreadingService makeThreadingService(Configuration configs, ContextManagementService contextManagementService) {
+        return new ThreadingServiceImpl(configs.getRuntime().getThreading(), contextManagementService);
     }
 
     protected EventSerdeFactory makeEventSerdeFactory(RuntimeExtensionServices ext) {
@@ -0,0 +1,505 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.service;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.context.util.StatementAgentInstanceLock;
+import com.espertech.esper.common.internal.epl.namedwindow.core.NamedWindow;
+import com.espertech.esper.common.internal.epl.namedwindow.core.NamedWindowInstance;
+import com.espertech.esper.common.internal.epl.table.compiletime.TableMetadataColumn;
+import com.espertech.esper.common.internal.epl.table.compiletime.TableMetadataColumnAggregation;
+import com.espertech.esper.common.internal.epl.table.core.Table;
+import com.espertech.esper.common.internal.epl.table.core.TableInstance;
+import com.espertech.esper.common.internal.event.offheap.OffHeapRowSerde;
+import com.espertech.esper.runtime.client.EPSnapshotException;
+import com.espertech.esper.runtime.client.EPSnapshotResult;
+import com.espertech.esper.runtime.client.EPSnapshotService;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class EPSnapshotServiceImpl implements EPSnapshotService {
+    private final static int MAGIC = 0x45534e50;
+    private final static int VERSION = 1;
+    private final static byte KIND_NAMEDWINDOW = 0;
+    private final static byte KIND_TABLE = 1;
+    private final static String FILE_PREFIX = "snapshot-";
+    private final static String FILE_SUFFIX = ".dat";
+    private final static String GENERATION_PREFIX = "snapshot.gen";
+    private final static String CURRENT_FILE = "snapshot.current";
+    private final static int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final EPServicesContext services;
+
+    public EPSnapshotServiceImpl(EPServicesContext services) {
+        this.services = services;
+    }
+
+    public synchronized EPSnapshotResult write(File directory) throws EPSnapshotException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new EPSnapshotException("Failed to create snapshot directory '" + directory + "'");
+        }
+
+        // collect rows while event processing is blocked, serialize after
+        List<SnapshotItem> items = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try {
+            services.getNamedWindowManagementService().traverseNamedWindows((deploymentId, namedWindow) -> collectNamedWindow(deploymentId, namedWindow, items, skipped));
+            services.getTableManagementService().traverseTables((deploymentId, table) -> collectTable(deploymentId, table, items, skipped));
+        } finally {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+
+        // write into a new generation directory, the existing snapshot stays intact until the swap
+        File generation;
+        try {
+            generation = Files.createTempDirectory(directory.toPath(), GENERATION_PREFIX).toFile();
+        } catch (IOException ex) {
+            throw new EPSnapshotException("Failed to create snapshot generation directory in '" + directory + "': " + ex.getMessage(), ex);
+        }
+        List<Callable<Object>> writers = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            SnapshotItem item = items.get(i);
+            File file = new File(generation, FILE_PREFIX + i + FILE_SUFFIX);
+            writers.add(() -> {
+                writeItem(item, file);
+                return null;
+            });
+        }
+        try {
+            runAll(writers);
+            swapCurrent(directory, generation);
+        } catch (EPSnapshotException ex) {
+            deleteRecursive(generation);
+            throw ex;
+        }
+
+        // the previous generation and files written by earlier versions are no longer referenced
+        File[] obsolete = directory.listFiles((dir, name) -> !name.equals(generation.getName()) &&
+            (name.startsWith(GENERATION_PREFIX) || name.startsWith(CURRENT_FILE + ".") || (name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX))));
+        if (obsolete != null) {
+            for (File file : obsolete) {
+                deleteRecursive(file);
+            }
+        }
+        return toResult(items, skipped);
+    }
+
+    public synchronized EPSnapshotResult restore(File directory) throws EPSnapshotException {
+        if (!directory.isDirectory()) {
+            throw new EPSnapshotException("Snapshot directory '" + directory + "' does not exist");
+        }
+
+        // read and deserialize files in parallel
+        List<File> files = listSnapshotFiles(currentGeneration(directory));
+        List<Callable<SnapshotItem>> readers = new ArrayList<>(files.size());
+        for (File file : files) {
+            readers.add(() -> readItem(file));
+        }
+        List<SnapshotItem> read = runAll(readers);
+
+        // insert rows while event processing is blocked, only into empty named windows and tables
+        List<SnapshotItem> restored = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try {
+            List<String> nonEmpty = new ArrayList<>();
+            for (SnapshotItem item : read) {
+                if (countRows(item) > 0) {
+                    nonEmpty.add(describe(item.deploymentId, item.name));
+                }
+            }
+            if (!nonEmpty.isEmpty()) {
+                throw new EPSnapshotException("Failed to restore snapshot as named windows or tables are not empty: " + String.join(", ", nonEmpty));
+            }
+            for (SnapshotItem item : read) {
+                String reason = item.kind == KIND_NAMEDWINDOW ? restoreNamedWindow(item) : restoreTable(item);
+                if (reason == null) {
+                    restored.add(item);
+                } else {
+                    skipped.add(describe(item.deploymentId, item.name) + ": " + reason);
+                }
+            }
+            services.getInternalEventRouteDest().processThreadWorkQueue();
+        } finally {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+        return toResult(restored, skipped);
+    }
+
+    private long countRows(SnapshotItem item) {
+        if (item.kind == KIND_NAMEDWINDOW) {
+            NamedWindow namedWindow = services.getNamedWindowManagementService().getNamedWindow(item.deploymentId, item.name);
+            NamedWindowInstance instance = namedWindow == null ? null : namedWindow.getNamedWindowInstanceNoContext();
+            return instance == null ? 0 : instance.getCountDataWindow();
+        }
+        Table table = services.getTableManagementService().getTable(item.deploymentId, item.name);
+        TableInstance instance = table == null ? null : table.getTableInstanceNoContext();
+        return instance == null ? 0 : instance.size();
+    }
+
+    private void collectNamedWindow(String deploymentId, NamedWindow namedWindow, List<SnapshotItem> items, List<String> skipped) {
+        if (namedWindow.getRootView().getContextName() != null) {
+            skipped.add(describe(deploymentId, namedWindow.getName()) + ": named window declares a context");
+            return;
+        }
+        if (namedWindow.getRootView().isVirtualDataWindow()) {
+            skipped.add(describe(deploymentId, namedWindow.getName()) + ": named window is a virtual data window");
+            return;
+        }
+        EventType eventType = namedWindow.getRootView().getEventType();
+        OffHeapRowSerde serde = OffHeapRowSerde.make(eventType);
+        NamedWindowInstance instance = namedWindow.getNamedWindowInstanceNoContext();
+        if (serde == null) {
+            skipped.add(describe(deploymentId, namedWindow.getName()) + ": event type '" + eventType.getName() + "' is not serializable");
+            return;
+        }
+        if (instance == null) {
+            return;
+        }
+        List<Object> rows = new ArrayList<>();
+        Iterator<EventBean> it = instance.getTailViewInstance().iterator();
+        while (it.hasNext()) {
+            rows.add(it.next().getUnderlying());
+        }
+        items.add(new SnapshotItem(KIND_NAMEDWINDOW, deploymentId, namedWindow.getName(), eventType, serde, rows));
+    }
+
+    private void collectTable(String deploymentId, Table table, List<SnapshotItem> items, List<String> skipped) {
+        if (table.getMetaData().getOptionalContextName() != null) {
+            skipped.add(describe(deploymentId, table.getName()) + ": table declares a context");
+            return;
+        }
+        for (TableMetadataColumn column : table.getMetaData().getColumns().values()) {
+            if (column instanceof TableMetadataColumnAggregation) {
+                skipped.add(describe(deploymentId, table.getName()) + ": table has aggregation columns");
+                return;
+            }
+        }
+        EventType eventType = table.getMetaData().getInternalEventType();
+        OffHeapRowSerde serde = OffHeapRowSerde.make(eventType);
+        TableInstance instance = table.getTableInstanceNoContext();
+        if (serde == null) {
+            skipped.add(describe(deploymentId, table.getName()) + ": table columns are not serializable");
+            return;
+        }
+        if (instance == null) {
+            return;
+        }
+        List<Object> rows = new ArrayList<>();
+        for (EventBean event : instance.getEventCollection()) {
+            // the first element holds the aggregation row, which is reallocated upon restore
+            Object[] values = ((Object[]) event.getUnderlying()).clone();
+            values[0] = null;
+            rows.add(values);
+        }
+        items.add(new SnapshotItem(KIND_TABLE, deploymentId, table.getName(), eventType, serde, rows));
+    }
+
+    private String restoreNamedWindow(SnapshotItem item) {
+        NamedWindow namedWindow = services.getNamedWindowManagementService().getNamedWindow(item.deploymentId, item.name);
+        if (namedWindow == null) {
+            return "named window not found";
+        }
+        NamedWindowInstance instance = namedWindow.getNamedWindowInstanceNoContext();
+        if (instance == null || namedWindow.getRootView().getContextName() != null) {
+            return "named window declares a context";
+        }
+        String reason = checkType(item, namedWindow.getRootView().getEventType());
+        if (reason != null || item.rows.isEmpty()) {
+            return reason;
+        }
+        AgentInstanceContext ctx = instance.getTailViewInstance().getAgentInstanceContext();
+        EventBean[] events = new EventBean[item.rows.size()];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = adapt(item.rows.get(i), item.eventType, ctx);
+        }
+        StatementAgentInstanceLock ailock = ctx.getAgentInstanceLock();
+        ailock.acquireWriteLock();
+        try {
+            instance.getRootViewInstance().update(events, null);
+        } finally {
+            ailock.releaseWriteLock();
+        }
+        return null;
+    }
+
+    private String restoreTable(SnapshotItem item) {
+        Table table = services.getTableManagementService().getTable(item.deploymentId, item.name);
+        if (table == null) {
+            return "table not found";
+        }
+        TableInstance instance = table.getTableInstanceNoContext();
+        if (instance == null || table.getMetaData().getOptionalContextName() != null) {
+            return "table declares a context";
+        }
+        String reason = checkType(item, table.getMetaData().getInternalEventType());
+        if (reason != null) {
+            return reason;
+        }
+        instance.getTableLevelRWLock().writeLock().lock();
+        try {
+            for (Object row : item.rows) {
+                Object[] values = (Object[]) row;
+                values[0] = table.getAggregationRowFactory().make();
+                instance.addEvent(adapt(values, item.eventType, instance.getAgentInstanceContext()));
+            }
+        } finally {
+            instance.getTableLevelRWLock().writeLock().unlock();
+        }
+        return null;
+    }
+
+    private static String checkType(SnapshotItem item, EventType current) {
+        if (!Arrays.equals(item.propertyNames, current.getPropertyNames())) {
+            return "event type properties changed, snapshot has " + Arrays.toString(item.propertyNames) + " and current type has " + Arrays.toString(current.getPropertyNames());
+        }
+        if (item.serde == null) {
+            return "event type '" + current.getName() + "' is not serializable";
+        }
+        if (item.eventType != current) {
+            return "named window or table was redeployed during restore";
+        }
+        return null;
+    }
+
+    private static EventBean adapt(Object underlying, EventType eventType, AgentInstanceContext ctx) {
+        if (underlying instanceof Object[]) {
+            return ctx.getEventBeanTypedEventFactory().adapterForTypedObjectArray((Object[]) underlying, eventType);
+        }
+        return ctx.getEventBeanTypedEventFactory().adapterForTypedMap((Map<String, Object>) underlying, eventType);
+    }
+
+    private static void writeItem(SnapshotItem item, File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeByte(item.kind);
+            output.writeUTF(item.deploymentId);
+            output.writeUTF(item.name);
+            output.writeInt(item.propertyNames.length);
+            for (String propertyName : item.propertyNames) {
+                output.writeUTF(propertyName);
+            }
+            output.writeInt(item.rows.size());
+            for (Object row : item.rows) {
+                item.serde.write(row, output);
+            }
+            output.flush();
+            channel.force(true);
+        }
+    }
+
+    private SnapshotItem readItem(File file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        DataInputStream input = new DataInputStream(new ByteBufferInputStream(buffer));
+        if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException("File '" + file + "' is not a snapshot file of this version");
+        }
+        byte kind = input.readByte();
+        String deploymentId = input.readUTF();
+        String name = input.readUTF();
+        String[] propertyNames = new String[input.readInt()];
+        for (int i = 0; i < propertyNames.length; i++) {
+            propertyNames[i] = input.readUTF();
+        }
+
+        // rows are deserialized using the type of the currently-deployed named window or table
+        EventType eventType = kind == KIND_NAMEDWINDOW ? namedWindowType(deploymentId, name) : tableType(deploymentId, name);
+        OffHeapRowSerde serde = eventType == null || !Arrays.equals(propertyNames, eventType.getPropertyNames()) ? null : OffHeapRowSerde.make(eventType);
+        List<Object> rows = new ArrayList<>();
+        if (serde != null) {
+            int numRows = input.readInt();
+            for (int i = 0; i < numRows; i++) {
+                rows.add(serde.read(input));
+            }
+        }
+        SnapshotItem item = new SnapshotItem(kind, deploymentId, name, eventType, serde, rows);
+        item.propertyNames = propertyNames;
+        return item;
+    }
+
+    private EventType namedWindowType(String deploymentId, String name) {
+        NamedWindow namedWindow = services.getNamedWindowManagementService().getNamedWindow(deploymentId, name);
+        return namedWindow == null ? null : namedWindow.getRootView().getEventType();
+    }
+
+    private EventType tableType(String deploymentId, String name) {
+        Table table = services.getTableManagementService().getTable(deploymentId, name);
+        return table == null ? null : table.getMetaData().getInternalEventType();
+    }
+
+    private static <T> List<T> runAll(List<Callable<T>> tasks) throws EPSnapshotException {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int numThreads = Math.min(tasks.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads, runnable -> {
+            Thread thread = new Thread(runnable, "esper-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<T>> futures = executor.invokeAll(tasks);
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new EPSnapshotException("Interrupted during snapshot", ex);
+        } catch (ExecutionException ex) {
+            throw new EPSnapshotException("Failed to process snapshot: " + ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Make the generation directory the current snapshot by atomically replacing the pointer file.
+     */
+    private static void swapCurrent(File directory, File generation) throws EPSnapshotException {
+        Path current = new File(directory, CURRENT_FILE).toPath();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory.toPath(), CURRENT_FILE + ".", ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(generation.getName().getBytes(StandardCharsets.UTF_8)));
+                channel.force(true);
+            }
+            Files.move(temp, current, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            if (temp != null) {
+                new File(temp.toString()).delete();
+            }
+            throw new EPSnapshotException("Failed to replace snapshot pointer file '" + current + "': " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Returns the directory holding the current snapshot files, which is the directory itself for snapshots
+     * written without a pointer file.
+     */
+    private static File currentGeneration(File directory) throws EPSnapshotException {
+        File current = new File(directory, CURRENT_FILE);
+        if (!current.isFile()) {
+            return directory;
+        }
+        try {
+            String name = new String(Files.readAllBytes(current.toPath()), StandardCharsets.UTF_8).trim();
+            File generation = new File(directory, name);
+            if (!name.startsWith(GENERATION_PREFIX) || !generation.isDirectory()) {
+                throw new EPSnapshotException("Snapshot pointer file '" + current + "' refers to missing generation '" + name + "'");
+            }
+            return generation;
+        } catch (IOException ex) {
+            throw new EPSnapshotException("Failed to read snapshot pointer file '" + current + "': " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void deleteRecursive(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursive(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static List<File> listSnapshotFiles(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        List<File> list = Arrays.asList(files);
+        Collections.sort(list);
+        return list;
+    }
+
+    private static EPSnapshotResult toResult(List<SnapshotItem> items, List<String> skipped) {
+        int numNamedWindows = 0;
+        int numTables = 0;
+        long numRows = 0;
+        for (SnapshotItem item : items) {
+            if (item.kind == KIND_NAMEDWINDOW) {
+                numNamedWindows++;
+            } else {
+                numTables++;
+            }
+            numRows += item.rows.size();
+        }
+        return new EPSnapshotResult(numNamedWindows, numTables, numRows, skipped);
+    }
+
+    private static String describe(String deploymentId, String name) {
+        return "deployment '" + deploymentId + "' name '" + name + "'";
+    }
+
+    private static class SnapshotItem {
+        private final byte kind;
+        private final String deploymentId;
+        private final String name;
+        private final OffHeapRowSerde serde;
+        private final List<Object> rows;
+        private final EventType eventType;
+        private String[] propertyNames;
+
+        SnapshotItem(byte kind, String deploymentId, String name, EventType eventType, OffHeapRowSerde serde, List<Object> rows) {
+            this.kind = kind;
+            this.deploymentId = deploymentId;
+            this.name = name;
+            this.eventType = eventType;
+            this.serde = serde;
+            this.rows = rows;
+            this.propertyNames = eventType == null ? new String[0] : eventType.getPropertyNames();
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        public int read(byte[] bytes, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, count);
+            return count;
+        }
+    }
+}
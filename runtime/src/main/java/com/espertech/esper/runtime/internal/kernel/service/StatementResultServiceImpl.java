@@ -20,6 +20,7 @@ import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.common.internal.event.core.EventBeanUtility;
 import com.espertech.esper.common.internal.event.core.NaturalEventBean;
 import com.espertech.esper.common.internal.metrics.stmtmetrics.StatementMetricHandle;
+import com.espertech.esper.common.internal.util.MetricUtil;
 import com.espertech.esper.runtime.client.EPSubscriberException;
 import com.espertech.esper.runtime.client.UpdateListener;
 import com.espertech.esper.runtime.internal.kernel.statement.EPStatementListenerSet;
@@ -191,6 +192,16 @@ public class StatementResultServiceImpl implements StatementResultService {
      * @param events to indicate
      */
     public void processDispatch(UniformPair<EventBean[]> events) {
+        if (statementMetricHandle.isEnabled() && epServicesContext.getMetricReportingService().isLatencyHistograms()) {
+            long wallTimeBefore = MetricUtil.getWall();
+            processDispatchInternal(events);
+            epServicesContext.getMetricReportingService().accountDispatch(statementMetricHandle, MetricUtil.getWall() - wallTimeBefore);
+        } else {
+            processDispatchInternal(events);
+        }
+    }
+
+    private void processDispatchInternal(UniformPair<EventBean[]> events) {
         // Plain all-events delivery
         if (!forClauseDelivery) {
             dispatchInternal(events);
@@ -30,6 +30,7 @@ import com.espertech.esper.common.internal.event.xml.BaseXMLEventType;
 import com.espertech.esper.common.internal.event.xml.EventSenderXMLDOM;
 import com.espertech.esper.common.internal.filtersvc.FilterHandle;
 import com.espertech.esper.common.internal.filtersvc.FilterHandleCallback;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallbackBatch;
 import com.espertech.esper.common.internal.schedule.ScheduleHandle;
 import com.espertech.esper.common.internal.schedule.ScheduleHandleCallback;
 import com.espertech.esper.common.internal.statement.insertintolatch.InsertIntoLatchSpin;
@@ -38,7 +39,10 @@ import com.espertech.esper.common.internal.util.DeploymentIdNamePair;
 import com.espertech.esper.common.internal.util.ExecutionPathDebugLog;
 import com.espertech.esper.common.internal.util.MetricUtil;
 import com.espertech.esper.common.internal.util.ThreadLogUtil;
+import com.espertech.esper.runtime.client.EPEventServiceBatchDelivery;
 import com.espertech.esper.runtime.client.UnmatchedListener;
+import com.espertech.esper.runtime.internal.kernel.service.EPEventServiceBatchMatches;
+import com.espertech.esper.runtime.internal.kernel.service.EPEventServiceBatchProcessor;
 import com.espertech.esper.runtime.internal.kernel.service.EPEventServiceQueueProcessor;
 import com.espertech.esper.runtime.internal.kernel.service.EPEventServiceThreadLocalEntry;
 import com.espertech.esper.runtime.internal.kernel.service.EPStatementAgentInstanceHandleComparator;
@@ -55,13 +59,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Node;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.espertech.esper.runtime.internal.kernel.service.EPEventServiceHelper.*;
 import static com.espertech.esper.runtime.internal.kernel.service.EPEventServiceImpl.MAX_FILTER_FAULT_COUNT;
 
-public class EPStageEventServiceImpl implements EPStageEventServiceSPI, InternalEventRouteDest, EPRuntimeEventProcessWrapped, EPEventServiceQueueProcessor {
+public class EPStageEventServiceImpl implements EPStageEventServiceSPI, InternalEventRouteDest, EPRuntimeEventProcessWrapped, EPEventServiceQueueProcessor, EPEventServiceBatchProcessor {
     protected static final Logger log = LoggerFactory.getLogger(EPStageEventServiceImpl.class);
 
     protected StageSpecificServices specificServices;
@@ -129,7 +134,7 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
         }
 
         if (inboundThreading) {
-            specificServices.getThreadingService().submitInbound(new InboundUnitSendAvro(avroGenericDataDotRecord, avroEventTypeName, this, specificServices));
+            specificServices.getThreadingService().submitInbound(InboundUnitType.AVRO, avroGenericDataDotRecord, avroEventTypeName, this, specificServices);
         } else {
             EventBean eventBean = wrapEventAvro(avroGenericDataDotRecord, avroEventTypeName);
             processWrappedEvent(eventBean);
@@ -146,13 +151,40 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
         }
 
         if (inboundThreading) {
-            specificServices.getThreadingService().submitInbound(new InboundUnitSendJson(json, jsonEventTypeName, this, specificServices));
+            specificServices.getThreadingService().submitInbound(InboundUnitType.JSON, json, jsonEventTypeName, this, specificServices);
         } else {
             EventBean eventBean = wrapEventJson(json, jsonEventTypeName);
             processWrappedEvent(eventBean);
         }
     }
 
+    public void sendEventJson(ByteBuffer json, String jsonEventTypeName) {
+        if (json == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+
+        // parse before handing off to inbound threading, the caller may reuse the buffer upon return
+        EventBean eventBean = runtimeServices.getEventTypeResolvingBeanFactory().adapterForJson(json, jsonEventTypeName);
+        if (inboundThreading) {
+            specificServices.getThreadingService().submitInbound(eventBean, this);
+        } else {
+            processWrappedEvent(eventBean);
+        }
+    }
+
+    public void sendEventJson(Map<String, Object> map, String jsonEventTypeName) {
+        if (map == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+
+        EventBean eventBean = runtimeServices.getEventTypeResolvingBeanFactory().adapterForJson(map, jsonEventTypeName);
+        if (inboundThreading) {
+            specificServices.getThreadingService().submitInbound(eventBean, this);
+        } else {
+            processWrappedEvent(eventBean);
+        }
+    }
+
     public void sendEventBean(Object theEvent, String eventTypeName) {
         if (theEvent == null) {
             log.error(".sendEvent Null object supplied");
@@ -164,7 +196,7 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
         }
 
         if (inboundThreading) {
-            specificServices.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, eventTypeName, this, specificServices));
+            specificServices.getThreadingService().submitInbound(InboundUnitType.BEAN, theEvent, eventTypeName, this, specificServices);
         } else {
             EventBean eventBean = runtimeServices.getEventTypeResolvingBeanFactory().adapterForBean(theEvent, eventTypeName);
             processWrappedEvent(eventBean);
@@ -256,7 +288,7 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
 
         // Process event
         if (inboundThreading) {
-            specificServices.getThreadingService().submitInbound(new InboundUnitSendDOM(node, eventTypeName, this, specificServices));
+            specificServices.getThreadingService().submitInbound(InboundUnitType.XMLDOM, node, eventTypeName, this, specificServices);
         } else {
             EventBean eventBean = wrapEventBeanXMLDOM(node, eventTypeName);
             processWrappedEvent(eventBean);
@@ -273,7 +305,7 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
         }
 
         if (inboundThreading) {
-            specificServices.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, eventTypeName, this, specificServices));
+            specificServices.getThreadingService().submitInbound(InboundUnitType.OBJECTARRAY, propertyValues, eventTypeName, this, specificServices);
         } else {
             EventBean eventBean = wrapEventObjectArray(propertyValues, eventTypeName);
             processWrappedEvent(eventBean);
@@ -290,13 +322,56 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
         }
 
         if (inboundThreading) {
-            specificServices.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, this, specificServices));
+            specificServices.getThreadingService().submitInbound(InboundUnitType.MAP, map, mapEventTypeName, this, specificServices);
         } else {
             EventBean eventBean = wrapEventMap(map, mapEventTypeName);
             processWrappedEvent(eventBean);
         }
     }
 
+    public void sendEventObjectArrayBatch(Object[][] events, String eventTypeName, EPEventServiceBatchDelivery delivery) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+        EventBean[] eventBeans = wrapEventObjectArrayBatch(events, eventTypeName, runtimeServices.getEventTypeRepositoryBus(), runtimeServices.getEventBeanTypedEventFactory());
+        sendWrappedEventBatch(eventBeans, delivery);
+    }
+
+    public void sendEventBeanBatch(Collection<?> events, String eventTypeName, EPEventServiceBatchDelivery delivery) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+        EventBean[] eventBeans = wrapEventBeanBatch(events, eventTypeName, runtimeServices.getEventTypeRepositoryBus(), runtimeServices.getEventBeanTypedEventFactory());
+        sendWrappedEventBatch(eventBeans, delivery);
+    }
+
+    public void sendEventMapBatch(Collection<Map<String, Object>> events, String eventTypeName, EPEventServiceBatchDelivery delivery) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+        EventBean[] eventBeans = wrapEventMapBatch(events, eventTypeName, runtimeServices.getEventTypeRepositoryBus(), runtimeServices.getEventBeanTypedEventFactory());
+        sendWrappedEventBatch(eventBeans, delivery);
+    }
+
+    private void sendWrappedEventBatch(EventBean[] eventBeans, EPEventServiceBatchDelivery delivery) {
+        if (delivery == null) {
+            throw new IllegalArgumentException("Invalid null batch delivery");
+        }
+        if (eventBeans.length == 0) {
+            return;
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendWrappedEventBatch Processing batch of " + eventBeans.length + " events");
+        }
+
+        if (inboundThreading) {
+            specificServices.getThreadingService().submitInboundBatch(eventBeans, delivery, this, specificServices);
+        } else {
+            processWrappedEventBatch(eventBeans, delivery);
+        }
+    }
+
     public void routeEventBean(EventBean theEvent) {
         threadLocals.get().getWorkQueue().add(theEvent);
     }
@@ -320,11 +395,81 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
     }
 
     public void processWrappedEvent(EventBean eventBean) {
+        processWrappedEventInternal(eventBean, threadLocals.get());
+    }
+
+    public void processWrappedEventBatch(EventBean[] eventBeans, EPEventServiceBatchDelivery delivery) {
+        EPEventServiceThreadLocalEntry tlEntry = threadLocals.get();
+        if (delivery == EPEventServiceBatchDelivery.PER_EVENT) {
+            for (EventBean eventBean : eventBeans) {
+                processWrappedEventInternal(eventBean, tlEntry);
+            }
+            return;
+        }
+
+        // Stateless statements receive their matches of the batch as a single array, unless ordering or threading requires per-event processing
+        EPEventServiceBatchMatches batchMatches = null;
+        if (!isPrioritized && !routeThreading && unmatchedListener == null) {
+            batchMatches = tlEntry.getBatchMatchesThreadLocal();
+        }
+
+        // Acquire main processing lock once for the batch, results accumulate in the dispatch buffers until the batch completes
+        specificServices.getEventProcessingRWLock().acquireReadLock();
+        try {
+            for (EventBean eventBean : eventBeans) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qStimulantEvent(eventBean, stageUri);
+                }
+
+                if (internalEventRouter.isHasPreprocessing()) {
+                    eventBean = internalEventRouter.preprocess(eventBean, tlEntry.getExprEvaluatorContext(), InstrumentationHelper.get());
+                    if (eventBean == null) {
+                        if (InstrumentationHelper.ENABLED) {
+                            InstrumentationHelper.get().aStimulantEvent();
+                        }
+                        continue;
+                    }
+                }
+
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qEvent(eventBean, stageUri, true);
+                }
+                try {
+                    processMatches(eventBean, tlEntry, batchMatches);
+                } finally {
+                    if (InstrumentationHelper.ENABLED) {
+                        InstrumentationHelper.get().aEvent();
+                        InstrumentationHelper.get().aStimulantEvent();
+                    }
+                }
+            }
+
+            if (batchMatches != null && !batchMatches.isEmpty()) {
+                processBatchMatches(batchMatches, this, specificServices);
+            }
+        } catch (RuntimeException ex) {
+            tlEntry.getMatchesArrayThreadLocal().clear();
+            if (batchMatches != null) {
+                batchMatches.clear();
+            }
+            throw new EPException(ex);
+        } finally {
+            specificServices.getEventProcessingRWLock().releaseReadLock();
+        }
+
+        // Dispatch results of the whole batch to listeners
+        // Done outside of the read-lock to prevent lockups when listeners create statements
+        dispatch();
+
+        // Work off the event queue if any events accumulated in there via a route() or insert-into
+        processThreadWorkQueue();
+    }
+
+    private void processWrappedEventInternal(EventBean eventBean, EPEventServiceThreadLocalEntry tlEntry) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qStimulantEvent(eventBean, stageUri);
         }
 
-        EPEventServiceThreadLocalEntry tlEntry = threadLocals.get();
         if (internalEventRouter.isHasPreprocessing()) {
             eventBean = internalEventRouter.preprocess(eventBean, tlEntry.getExprEvaluatorContext(), InstrumentationHelper.get());
             if (eventBean == null) {
@@ -338,7 +483,7 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
         }
         specificServices.getEventProcessingRWLock().acquireReadLock();
         try {
-            processMatches(eventBean);
+            processMatches(eventBean, tlEntry);
         } catch (RuntimeException ex) {
             tlEntry.getMatchesArrayThreadLocal().clear();
             throw new EPException(ex);
@@ -478,10 +623,24 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
     }
 
     protected void processMatches(EventBean theEvent) {
+        processMatches(theEvent, threadLocals.get());
+    }
+
+    protected void processMatches(EventBean theEvent, EPEventServiceThreadLocalEntry tlEntry) {
+        processMatches(theEvent, tlEntry, null);
+    }
+
+    private void processMatches(EventBean theEvent, EPEventServiceThreadLocalEntry tlEntry, EPEventServiceBatchMatches batchMatches) {
         // get matching filters
-        EPEventServiceThreadLocalEntry tlEntry = threadLocals.get();
         ArrayBackedCollection<FilterHandle> matches = tlEntry.getMatchesArrayThreadLocal();
-        long version = specificServices.getFilterService().evaluate(theEvent, matches, tlEntry.getExprEvaluatorContext());
+        long version;
+        if (specificServices.getMetricReportingService().isLatencyHistograms()) {
+            long wallTimeBefore = MetricUtil.getWall();
+            version = specificServices.getFilterService().evaluate(theEvent, matches, tlEntry.getExprEvaluatorContext());
+            specificServices.getMetricReportingService().accountFilterTime(MetricUtil.getWall() - wallTimeBefore);
+        } else {
+            version = specificServices.getFilterService().evaluate(theEvent, matches, tlEntry.getExprEvaluatorContext());
+        }
 
         if (ThreadLogUtil.ENABLED_TRACE) {
             ThreadLogUtil.trace("Found matches for underlying ", matches.size(), theEvent.getUnderlying());
@@ -528,6 +687,12 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
                 continue;
             }
 
+            // Batchable statements process all their matches when the batch completes
+            if (batchMatches != null && handle.getStatementHandle().isBatchable() && handleCallback.getFilterCallback() instanceof FilterHandleCallbackBatch) {
+                batchMatches.add(handleCallback, theEvent, version);
+                continue;
+            }
+
             if (handle.getStatementHandle().getMetricsHandle().isEnabled()) {
                 long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
                 long wallTimeBefore = MetricUtil.getWall();
@@ -682,7 +847,7 @@ public class EPStageEventServiceImpl implements EPStageEventServiceSPI, Internal
         }
     }
 
-    protected void handleFilterFault(EPStatementAgentInstanceHandle faultingHandle, EventBean theEvent, int filterFaultCount) {
+    public void handleFilterFault(EPStatementAgentInstanceHandle faultingHandle, EventBean theEvent, int filterFaultCount) {
         ArrayDeque<FilterHandle> callbacksForStatement = new ArrayDeque<FilterHandle>();
         long version = specificServices.getFilterService().evaluate(theEvent, callbacksForStatement, faultingHandle.getStatementId(), threadLocals.get().getExprEvaluatorContext());
 
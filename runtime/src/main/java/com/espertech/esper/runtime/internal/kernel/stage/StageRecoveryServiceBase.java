@@ -31,7 +31,7 @@ public abstract class StageRecoveryServiceBase implements StageRecoveryService {
         FilterServiceSPI filterService = makeFilterService(stageId, servicesContext);
         SchedulingServiceSPI schedulingService = makeSchedulingService(stageId, servicesContext);
         DeploymentLifecycleService deploymentLifecycleService = new DeploymentLifecycleServiceImpl(stageId);
-        ThreadingService threadingService = new ThreadingServiceImpl(servicesContext.getConfigSnapshot().getRuntime().getThreading());
+        ThreadingService threadingService = new ThreadingServiceImpl(servicesContext.getConfigSnapshot().getRuntime().getThreading(), servicesContext.getContextManagementService());
         MetricReportingServiceImpl metricsReporting = new MetricReportingServiceImpl(servicesContext.getConfigSnapshot().getRuntime().getMetricsReporting(), stageUri);
         InternalEventRouter internalEventRouter = new InternalEventRouterImpl(servicesContext.getEventBeanTypedEventFactory());
         return new StageSpecificServices(deploymentLifecycleService, eventProcessingRWLock, filterService, internalEventRouter, metricsReporting, schedulingService, servicesContext.getStageRuntimeServices(), threadingService);
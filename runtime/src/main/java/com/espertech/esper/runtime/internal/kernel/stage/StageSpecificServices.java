@@ -69,7 +69,7 @@ public class StageSpecificServices implements EPServicesEvaluation, EPServicesPa
 
     public void initialize(EPStageEventServiceSPI eventService) {
         this.internalEventRouteDest = eventService;
-        this.metricReportingService.setContext(filterService, schedulingService, eventService);
+        this.metricReportingService.setContext(filterService, schedulingService, eventService, threadingService);
     }
 
     public ManagedReadWriteLock getEventProcessingRWLock() {
@@ -0,0 +1,115 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventPropertyGetter;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.configuration.ConfigurationException;
+import com.espertech.esper.common.internal.context.mgr.ContextHashSegmentFunction;
+import com.espertech.esper.common.internal.context.mgr.ContextManagementService;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selects the inbound thread for an event by hashing the values of the affinity key properties configured for its event type,
+ * so that all events with the same key are processed by the same thread.
+ * <p>
+ * Event types without configured key that an outermost hash-segmented context applies to are dispatched by hash segment instead,
+ * so that each segment is owned by one thread.
+ * </p>
+ */
+public class InboundAffinityKeyResolver {
+    private final Map<String, String[]> keys;
+    private final ContextManagementService contextManagementService;
+    private final int numThreads;
+    private final Map<EventType, EventPropertyGetter[]> getters = new ConcurrentHashMap<>();
+
+    /**
+     * Ctor.
+     *
+     * @param keys                     affinity key property names per event type name
+     * @param contextManagementService context management for hash segment functions, or null if not dispatching by segment
+     * @param numThreads               number of inbound threads
+     */
+    public InboundAffinityKeyResolver(Map<String, String[]> keys, ContextManagementService contextManagementService, int numThreads) {
+        this.keys = keys;
+        this.contextManagementService = contextManagementService;
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Returns indicator whether events of the event type may have an affinity key, requiring the event to be wrapped for dispatch.
+     *
+     * @param eventTypeName event type name
+     * @return indicator
+     */
+    public boolean hasKey(String eventTypeName) {
+        if (eventTypeName != null && keys.containsKey(eventTypeName)) {
+            return true;
+        }
+        return contextManagementService != null && contextManagementService.hasHashSegmentFunction(eventTypeName);
+    }
+
+    /**
+     * Returns the thread index for an event, by affinity key or hash segment or otherwise by current thread.
+     *
+     * @param event event
+     * @return index between zero and the number of threads
+     */
+    public int getThreadIndex(EventBean event) {
+        if (!keys.containsKey(event.getEventType().getName())) {
+            ContextHashSegmentFunction function = contextManagementService == null ? null : contextManagementService.getHashSegmentFunction(event.getEventType());
+            if (function == null) {
+                return getThreadIndexCurrentThread();
+            }
+            return (function.getSegment(event) & Integer.MAX_VALUE) % numThreads;
+        }
+
+        EventPropertyGetter[] eventGetters = getters.get(event.getEventType());
+        if (eventGetters == null) {
+            eventGetters = getters.computeIfAbsent(event.getEventType(), this::resolveGetters);
+        }
+        int hash = 0;
+        for (EventPropertyGetter getter : eventGetters) {
+            hash = 31 * hash + Objects.hashCode(getter.get(event));
+        }
+        return indexFor(hash);
+    }
+
+    /**
+     * Returns the thread index for the current thread, for events that have no affinity key.
+     *
+     * @return index between zero and the number of threads
+     */
+    public int getThreadIndexCurrentThread() {
+        return (int) (Thread.currentThread().getId() % numThreads);
+    }
+
+    private int indexFor(int hash) {
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % numThreads;
+    }
+
+    private EventPropertyGetter[] resolveGetters(EventType eventType) {
+        String[] propertyNames = keys.get(eventType.getName());
+        EventPropertyGetter[] result = new EventPropertyGetter[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            result[i] = eventType.getGetter(propertyNames[i]);
+            if (result[i] == null) {
+                throw new ConfigurationException("Inbound affinity key property '" + propertyNames[i] + "' not found for event type '" + eventType.getName() + "'");
+            }
+        }
+        return result;
+    }
+}
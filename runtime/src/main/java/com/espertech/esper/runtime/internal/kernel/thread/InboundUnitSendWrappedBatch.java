@@ -0,0 +1,46 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.runtime.client.EPEventServiceBatchDelivery;
+import com.espertech.esper.runtime.internal.kernel.service.EPEventServiceBatchProcessor;
+import com.espertech.esper.runtime.internal.kernel.service.EPServicesEvaluation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inbound unit for a batch of wrapped events.
+ */
+public class InboundUnitSendWrappedBatch implements InboundUnitRunnable {
+    private static final Logger log = LoggerFactory.getLogger(InboundUnitSendWrappedBatch.class);
+    private final EventBean[] eventBeans;
+    private final EPEventServiceBatchDelivery delivery;
+    private final EPEventServiceBatchProcessor runtime;
+    private final EPServicesEvaluation services;
+
+    public InboundUnitSendWrappedBatch(EventBean[] eventBeans, EPEventServiceBatchDelivery delivery, EPEventServiceBatchProcessor runtime, EPServicesEvaluation services) {
+        this.eventBeans = eventBeans;
+        this.delivery = delivery;
+        this.runtime = runtime;
+        this.services = services;
+    }
+
+    public void run() {
+        try {
+            runtime.processWrappedEventBatch(eventBeans, delivery);
+        } catch (RuntimeException e) {
+            services.getExceptionHandlingService().handleInboundPoolException(runtime.getURI(), e, eventBeans);
+            log.error("Unexpected error processing batch of wrapped events: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.event.core.EventTypeResolvingBeanFactory;
+import org.w3c.dom.Node;
+
+import java.util.Map;
+
+/**
+ * Kind of inbound event carried by a pre-allocated ring buffer slot or dispatched by affinity key.
+ */
+public enum InboundUnitType {
+    BEAN,
+    MAP,
+    OBJECTARRAY,
+    JSON,
+    XMLDOM,
+    AVRO,
+    WRAPPED;
+
+    /**
+     * Wrap the event underlying into an event bean.
+     *
+     * @param event         event underlying, or the event bean for wrapped events
+     * @param eventTypeName event type name
+     * @param factory       bean factory
+     * @return event bean
+     */
+    public EventBean wrap(Object event, String eventTypeName, EventTypeResolvingBeanFactory factory) {
+        switch (this) {
+            case BEAN:
+                return factory.adapterForBean(event, eventTypeName);
+            case MAP:
+                return factory.adapterForMap((Map<String, Object>) event, eventTypeName);
+            case OBJECTARRAY:
+                return factory.adapterForObjectArray((Object[]) event, eventTypeName);
+            case JSON:
+                return factory.adapterForJson((String) event, eventTypeName);
+            case XMLDOM:
+                return factory.adapterForXMLDOM((Node) event, eventTypeName);
+            case AVRO:
+                return factory.adapterForAvro(event, eventTypeName);
+            default:
+                return (EventBean) event;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.util.ThreadPoolWaitStrategy;
+import com.espertech.esper.common.internal.event.util.EPRuntimeEventProcessWrapped;
+import com.espertech.esper.runtime.internal.kernel.service.EPServicesEvaluation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring buffer of pre-allocated slots serviced by a fixed set of worker threads,
+ * used in place of a thread pool executor and its bounded blocking queue.
+ * <p>
+ * Each slot carries a sequence number: a producer claims a position, fills the slot and publishes by
+ * advancing the slot sequence, a worker claims the published position, copies and clears the slot and releases it
+ * for the next lap before executing the unit. Inbound events are stored in the slot fields directly so that no
+ * work unit object is allocated per event.
+ * </p>
+ * <p>
+ * The single-producer variant replaces the compare-and-set on the producer cursor by an ordered write and
+ * must only be used when a single thread submits into the ring buffer.
+ * </p>
+ * <p>
+ * A worker thread that submits into its own full ring buffer executes the unit itself instead of waiting,
+ * since the slot it waits for could only be released by itself or by other workers waiting the same way.
+ * When destroyed, the workers execute the units already submitted before they exit.
+ * </p>
+ */
+public class ThreadPoolRingBuffer {
+    private static final Logger log = LoggerFactory.getLogger(ThreadPoolRingBuffer.class);
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS_MAX = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long CLAIM_NONE = -1;
+    private static final long CLAIM_INLINE = -2;
+
+    private final String name;
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final boolean singleProducer;
+    private final ThreadPoolWaitStrategy waitStrategy;
+    private final AtomicLong producerCursor = new AtomicLong();
+    private final AtomicLong consumerCursor = new AtomicLong();
+    private final LongAdder waitNanos = new LongAdder();
+    private final Thread[] workers;
+    private volatile boolean running = true;
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI     runtime URI
+     * @param name           pool name
+     * @param capacity       requested capacity, rounded up to a power of two
+     * @param numThreads     number of worker threads
+     * @param singleProducer indicator whether a single thread submits
+     * @param waitStrategy   strategy for waiting on an empty or full ring buffer
+     * @throws IllegalArgumentException if the capacity is not bounded
+     */
+    public ThreadPoolRingBuffer(String runtimeURI, String name, Integer capacity, int numThreads, boolean singleProducer, ThreadPoolWaitStrategy waitStrategy) {
+        this.name = name;
+        int size = sizeFor(capacity);
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.singleProducer = singleProducer;
+        this.waitStrategy = waitStrategy == null ? ThreadPoolWaitStrategy.PARK : waitStrategy;
+
+        if (log.isInfoEnabled()) {
+            log.info("Starting ring buffer " + name + " with " + numThreads + " threads and " + size + " slots");
+        }
+        if (runtimeURI == null) {
+            runtimeURI = "default";
+        }
+        ThreadGroup threadGroup = new ThreadGroup("com.espertech.esper." + runtimeURI + "-" + name);
+        EngineThreadFactory threadFactory = new EngineThreadFactory(runtimeURI, name, threadGroup, Thread.NORM_PRIORITY);
+        this.workers = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            workers[i] = threadFactory.newThread(this::work);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Submit a work unit.
+     *
+     * @param unit to execute
+     */
+    public void submit(Runnable unit) {
+        long position = claim();
+        if (position == CLAIM_NONE) {
+            return;
+        }
+        if (position == CLAIM_INLINE) {
+            execute(unit);
+            return;
+        }
+        Slot slot = slots[(int) position & mask];
+        slot.runnable = unit;
+        publish(position, slot);
+    }
+
+    /**
+     * Submit an inbound event into a pre-allocated slot.
+     *
+     * @param type          kind of event
+     * @param event         event underlying or event bean
+     * @param eventTypeName event type name or null for wrapped events
+     * @param runtime       to process
+     * @param services      services
+     */
+    public void submitInbound(InboundUnitType type, Object event, String eventTypeName, EPRuntimeEventProcessWrapped runtime, EPServicesEvaluation services) {
+        long position = claim();
+        if (position == CLAIM_NONE) {
+            return;
+        }
+        if (position == CLAIM_INLINE) {
+            processInbound(type, event, eventTypeName, runtime, services);
+            return;
+        }
+        Slot slot = slots[(int) position & mask];
+        slot.type = type;
+        slot.event = event;
+        slot.eventTypeName = eventTypeName;
+        slot.runtime = runtime;
+        slot.services = services;
+        publish(position, slot);
+    }
+
+    /**
+     * Returns the number of submitted units not yet taken by a worker.
+     *
+     * @return depth
+     */
+    public long size() {
+        long consumed = consumerCursor.get();
+        long produced = producerCursor.get();
+        return Math.max(0, produced - consumed);
+    }
+
+    /**
+     * Returns the cumulative nanoseconds units spent in the ring buffer before a worker took them.
+     *
+     * @return wait nanoseconds
+     */
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Stop worker threads after they executed the units already submitted. Units submitted afterwards are discarded.
+     */
+    public void destroy() {
+        if (log.isInfoEnabled()) {
+            log.info("Shutting down ring buffer " + name);
+        }
+        running = false;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Thread worker : workers) {
+            long remainingMSec = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMSec <= 0) {
+                break;
+            }
+            try {
+                worker.join(remainingMSec);
+            } catch (InterruptedException e) {
+                log.error("Interruped awaiting termination", e);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private long claim() {
+        int tries = 0;
+        while (running) {
+            long position = producerCursor.get();
+            long difference = sequences.get((int) position & mask) - position;
+            if (difference == 0) {
+                if (singleProducer) {
+                    producerCursor.lazySet(position + 1);
+                    return position;
+                }
+                if (producerCursor.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (difference < 0) {
+                if (isWorker(Thread.currentThread())) {
+                    return CLAIM_INLINE;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    log.info("Submit interrupted");
+                    return CLAIM_NONE;
+                }
+                tries = await(tries);
+            }
+        }
+        return CLAIM_NONE;
+    }
+
+    private boolean isWorker(Thread thread) {
+        for (Thread worker : workers) {
+            if (worker == thread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void publish(long position, Slot slot) {
+        slot.enqueueNanos = System.nanoTime();
+        sequences.set((int) position & mask, position + 1);
+    }
+
+    private void work() {
+        int tries = 0;
+        while (true) {
+            long position = consumerCursor.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (!consumerCursor.compareAndSet(position, position + 1)) {
+                    continue;
+                }
+                tries = 0;
+                Slot slot = slots[index];
+                Runnable runnable = slot.runnable;
+                InboundUnitType type = slot.type;
+                Object event = slot.event;
+                String eventTypeName = slot.eventTypeName;
+                EPRuntimeEventProcessWrapped runtime = slot.runtime;
+                EPServicesEvaluation services = slot.services;
+                waitNanos.add(System.nanoTime() - slot.enqueueNanos);
+                slot.clear();
+                sequences.set(index, position + mask + 1);
+
+                if (runnable != null) {
+                    execute(runnable);
+                } else {
+                    processInbound(type, event, eventTypeName, runtime, services);
+                }
+            } else if (difference < 0) {
+                // after destroy, exit once all claimed positions are taken
+                if (!running && position >= producerCursor.get()) {
+                    return;
+                }
+                tries = await(tries);
+            }
+        }
+    }
+
+    private void execute(Runnable runnable) {
+        // a unit failing with any throwable must not terminate the worker, as the ring has no replacement thread
+        try {
+            runnable.run();
+        } catch (Throwable t) {
+            log.error("Unexpected error executing unit in " + name + ": " + t.getMessage(), t);
+        }
+    }
+
+    private int await(int tries) {
+        switch (waitStrategy) {
+            case BUSYSPIN:
+                return tries;
+            case YIELD:
+                Thread.yield();
+                return tries;
+            default:
+                if (tries < SPIN_TRIES) {
+                    return tries + 1;
+                }
+                if (tries < SPIN_TRIES + YIELD_TRIES) {
+                    Thread.yield();
+                    return tries + 1;
+                }
+                long parkNanos = Math.min(PARK_NANOS_MAX, 1L << Math.min(20, tries - SPIN_TRIES - YIELD_TRIES + 10));
+                LockSupport.parkNanos(this, parkNanos);
+                return tries + 1;
+        }
+    }
+
+    private static void processInbound(InboundUnitType type, Object event, String eventTypeName, EPRuntimeEventProcessWrapped runtime, EPServicesEvaluation services) {
+        try {
+            EventBean eventBean = type.wrap(event, eventTypeName, services.getEventTypeResolvingBeanFactory());
+            runtime.processWrappedEvent(eventBean);
+        } catch (Throwable t) {
+            services.getExceptionHandlingService().handleInboundPoolException(runtime.getURI(), t, event);
+            log.error("Unexpected error processing " + type + " event: " + t.getMessage(), t);
+        }
+    }
+
+    /**
+     * Returns indicator whether a configured pool capacity is bounded and can be served by a ring buffer.
+     *
+     * @param capacity configured capacity or null
+     * @return bounded indicator
+     */
+    public static boolean isBounded(Integer capacity) {
+        return capacity != null && capacity > 0 && capacity != Integer.MAX_VALUE;
+    }
+
+    private static int sizeFor(Integer capacity) {
+        if (!isBounded(capacity)) {
+            throw new IllegalArgumentException("Ring buffer requires a bounded capacity but received " + capacity);
+        }
+        int size = 1;
+        while (size < capacity && size < (1 << 30)) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static final class Slot {
+        private Runnable runnable;
+        private InboundUnitType type;
+        private Object event;
+        private String eventTypeName;
+        private EPRuntimeEventProcessWrapped runtime;
+        private EPServicesEvaluation services;
+        private long enqueueNanos;
+
+        private void clear() {
+            runnable = null;
+            type = null;
+            event = null;
+            eventTypeName = null;
+            runtime = null;
+            services = null;
+        }
+    }
+}
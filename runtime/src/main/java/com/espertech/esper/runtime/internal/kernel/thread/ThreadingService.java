@@ -10,7 +10,11 @@
  */
 package com.espertech.esper.runtime.internal.kernel.thread;
 
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.event.util.EPRuntimeEventProcessWrapped;
 import com.espertech.esper.common.internal.statement.thread.ThreadingCommon;
+import com.espertech.esper.runtime.client.EPEventServiceBatchDelivery;
+import com.espertech.esper.runtime.internal.kernel.service.EPEventServiceBatchProcessor;
 import com.espertech.esper.runtime.internal.kernel.service.EPServicesEvaluation;
 
 import java.util.concurrent.BlockingQueue;
@@ -61,6 +65,28 @@ public interface ThreadingService extends ThreadingCommon {
      */
     public void submitInbound(InboundUnitRunnable unit);
 
+    /**
+     * Submit an inbound event, using a pre-allocated slot when the ring buffer is enabled.
+     *
+     * @param type          kind of event
+     * @param event         event underlying or event bean
+     * @param eventTypeName event type name or null for wrapped events
+     * @param runtime       to process
+     * @param services      services
+     */
+    public void submitInbound(InboundUnitType type, Object event, String eventTypeName, EPRuntimeEventProcessWrapped runtime, EPServicesEvaluation services);
+
+    /**
+     * Submit a batch of inbound events. With inbound affinity the batch is split into one sub-batch per inbound thread,
+     * keeping the order of events within each sub-batch, and coalesced delivery applies per sub-batch.
+     *
+     * @param eventBeans events
+     * @param delivery   result delivery
+     * @param runtime    to process
+     * @param services   services
+     */
+    public void submitInboundBatch(EventBean[] eventBeans, EPEventServiceBatchDelivery delivery, EPEventServiceBatchProcessor runtime, EPServicesEvaluation services);
+
     /**
      * Returns true for route execution threading enabled.
      *
@@ -90,7 +116,7 @@ public interface ThreadingService extends ThreadingCommon {
     public void submitOutbound(OutboundUnitRunnable unit);
 
     /**
-     * Returns the outbound queue.
+     * Returns the outbound queue, or null when the ring buffer is enabled.
      *
      * @return queue
      */
@@ -104,7 +130,7 @@ public interface ThreadingService extends ThreadingCommon {
     public ThreadPoolExecutor getOutboundThreadPool();
 
     /**
-     * Returns the route queue.
+     * Returns the route queue, or null when the ring buffer is enabled.
      *
      * @return queue
      */
@@ -118,7 +144,7 @@ public interface ThreadingService extends ThreadingCommon {
     public ThreadPoolExecutor getRouteThreadPool();
 
     /**
-     * Returns the timer queue.
+     * Returns the timer queue, or null when the ring buffer is enabled.
      *
      * @return queue
      */
@@ -132,7 +158,7 @@ public interface ThreadingService extends ThreadingCommon {
     public ThreadPoolExecutor getTimerThreadPool();
 
     /**
-     * Returns the inbound queue.
+     * Returns the inbound queue, or null when the ring buffer or inbound affinity is enabled.
      *
      * @return queue
      */
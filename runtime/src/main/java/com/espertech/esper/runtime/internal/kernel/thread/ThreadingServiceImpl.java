@@ -12,11 +12,16 @@ package com.espertech.esper.runtime.internal.kernel.thread;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.configuration.runtime.ConfigurationRuntimeThreading;
+import com.espertech.esper.common.internal.context.mgr.ContextManagementService;
 import com.espertech.esper.common.internal.event.util.EPRuntimeEventProcessWrapped;
+import com.espertech.esper.runtime.client.EPEventServiceBatchDelivery;
+import com.espertech.esper.runtime.internal.kernel.service.EPEventServiceBatchProcessor;
 import com.espertech.esper.runtime.internal.kernel.service.EPServicesEvaluation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Node;
 
+import java.util.Map;
 import java.util.concurrent.*;
 
 /**
@@ -26,10 +31,12 @@ public class ThreadingServiceImpl implements ThreadingService {
     private static final Logger log = LoggerFactory.getLogger(ThreadingServiceImpl.class);
 
     private final ConfigurationRuntimeThreading config;
+    private final ContextManagementService contextManagementService;
     private final boolean isTimerThreading;
     private final boolean isInboundThreading;
     private final boolean isRouteThreading;
     private final boolean isOutboundThreading;
+    private final boolean isRingBuffer;
 
     private BlockingQueue<Runnable> timerQueue;
     private BlockingQueue<Runnable> inboundQueue;
@@ -41,19 +48,32 @@ public class ThreadingServiceImpl implements ThreadingService {
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
 
+    private ThreadPoolRingBuffer timerRing;
+    private ThreadPoolRingBuffer inboundRing;
+    private ThreadPoolRingBuffer routeRing;
+    private ThreadPoolRingBuffer outboundRing;
+
+    private InboundAffinityKeyResolver inboundAffinity;
+    private BlockingQueue<Runnable>[] inboundAffinityQueues;
+    private ThreadPoolExecutor[] inboundAffinityThreadPools;
+    private ThreadPoolRingBuffer[] inboundAffinityRings;
+
     private EPServicesEvaluation services;
 
     /**
      * Ctor.
      *
-     * @param threadingConfig configuration
+     * @param threadingConfig          configuration
+     * @param contextManagementService context management for dispatching by hash segment
      */
-    public ThreadingServiceImpl(ConfigurationRuntimeThreading threadingConfig) {
+    public ThreadingServiceImpl(ConfigurationRuntimeThreading threadingConfig, ContextManagementService contextManagementService) {
         this.config = threadingConfig;
+        this.contextManagementService = contextManagementService;
         isTimerThreading = threadingConfig.isThreadPoolTimerExec();
         isInboundThreading = threadingConfig.isThreadPoolInbound();
         isRouteThreading = threadingConfig.isThreadPoolRouteExec();
         isOutboundThreading = threadingConfig.isThreadPoolOutbound();
+        isRingBuffer = threadingConfig.isThreadPoolRingBuffer();
     }
 
     public boolean isRouteThreading() {
@@ -74,27 +94,70 @@ public class ThreadingServiceImpl implements ThreadingService {
 
     public void initThreading(String uri, EPServicesEvaluation services) {
         this.services = services;
-        if (isInboundThreading) {
-            inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
-            inboundThreadPool = getThreadPool(uri, "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
+        if (isInboundThreading && config.isThreadPoolInboundAffinity()) {
+            initInboundAffinity(uri);
+        }
+
+        if (isInboundThreading && inboundAffinity == null) {
+            if (isRing(config.getThreadPoolInboundCapacity())) {
+                inboundRing = new ThreadPoolRingBuffer(uri, "Inbound", config.getThreadPoolInboundCapacity(), config.getThreadPoolInboundNumThreads(), config.isThreadPoolRingBufferInboundSingleProducer(), config.getThreadPoolRingBufferWaitStrategy());
+            } else {
+                inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
+                inboundThreadPool = getThreadPool(uri, "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
+            }
         }
 
         if (isTimerThreading) {
-            timerQueue = makeQueue(config.getThreadPoolTimerExecCapacity());
-            timerThreadPool = getThreadPool(uri, "TimerExec", timerQueue, config.getThreadPoolTimerExecNumThreads());
+            if (isRing(config.getThreadPoolTimerExecCapacity())) {
+                timerRing = new ThreadPoolRingBuffer(uri, "TimerExec", config.getThreadPoolTimerExecCapacity(), config.getThreadPoolTimerExecNumThreads(), false, config.getThreadPoolRingBufferWaitStrategy());
+            } else {
+                timerQueue = makeQueue(config.getThreadPoolTimerExecCapacity());
+                timerThreadPool = getThreadPool(uri, "TimerExec", timerQueue, config.getThreadPoolTimerExecNumThreads());
+            }
         }
 
         if (isRouteThreading) {
-            routeQueue = makeQueue(config.getThreadPoolRouteExecCapacity());
-            routeThreadPool = getThreadPool(uri, "RouteExec", routeQueue, config.getThreadPoolRouteExecNumThreads());
+            if (isRing(config.getThreadPoolRouteExecCapacity())) {
+                routeRing = new ThreadPoolRingBuffer(uri, "RouteExec", config.getThreadPoolRouteExecCapacity(), config.getThreadPoolRouteExecNumThreads(), false, config.getThreadPoolRingBufferWaitStrategy());
+            } else {
+                routeQueue = makeQueue(config.getThreadPoolRouteExecCapacity());
+                routeThreadPool = getThreadPool(uri, "RouteExec", routeQueue, config.getThreadPoolRouteExecNumThreads());
+            }
         }
 
         if (isOutboundThreading) {
-            outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
-            outboundThreadPool = getThreadPool(uri, "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
+            if (isRing(config.getThreadPoolOutboundCapacity())) {
+                outboundRing = new ThreadPoolRingBuffer(uri, "Outbound", config.getThreadPoolOutboundCapacity(), config.getThreadPoolOutboundNumThreads(), false, config.getThreadPoolRingBufferWaitStrategy());
+            } else {
+                outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
+                outboundThreadPool = getThreadPool(uri, "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
+            }
+        }
+    }
+
+    private void initInboundAffinity(String uri) {
+        int numThreads = config.getThreadPoolInboundNumThreads();
+        inboundAffinity = new InboundAffinityKeyResolver(config.getThreadPoolInboundAffinityKeys(), contextManagementService, numThreads);
+        if (isRing(config.getThreadPoolInboundCapacity())) {
+            inboundAffinityRings = new ThreadPoolRingBuffer[numThreads];
+            for (int i = 0; i < numThreads; i++) {
+                inboundAffinityRings[i] = new ThreadPoolRingBuffer(uri, "Inbound-" + i, config.getThreadPoolInboundCapacity(), 1, false, config.getThreadPoolRingBufferWaitStrategy());
+            }
+            return;
+        }
+        inboundAffinityQueues = new BlockingQueue[numThreads];
+        inboundAffinityThreadPools = new ThreadPoolExecutor[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            inboundAffinityQueues[i] = makeQueue(config.getThreadPoolInboundCapacity());
+            inboundAffinityThreadPools[i] = getThreadPool(uri, "Inbound-" + i, inboundAffinityQueues[i], 1);
         }
     }
 
+    // an unbounded pool keeps its executor and linked queue so that submitting never blocks, as before
+    private boolean isRing(Integer capacity) {
+        return isRingBuffer && ThreadPoolRingBuffer.isBounded(capacity);
+    }
+
     private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity) {
         if ((threadPoolTimerExecCapacity == null) ||
                 (threadPoolTimerExecCapacity <= 0) ||
@@ -106,6 +169,10 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public void submitRoute(RouteUnitRunnable unit) {
+        if (routeRing != null) {
+            routeRing.submit(unit);
+            return;
+        }
         try {
             routeQueue.put(unit);
         } catch (InterruptedException e) {
@@ -114,6 +181,14 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public void submitInbound(InboundUnitRunnable unit) {
+        if (inboundAffinity != null) {
+            submitInboundAffinity(inboundAffinity.getThreadIndexCurrentThread(), unit);
+            return;
+        }
+        if (inboundRing != null) {
+            inboundRing.submit(unit);
+            return;
+        }
         try {
             inboundQueue.put(unit);
         } catch (InterruptedException e) {
@@ -122,6 +197,10 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public void submitOutbound(OutboundUnitRunnable unit) {
+        if (outboundRing != null) {
+            outboundRing.submit(unit);
+            return;
+        }
         try {
             outboundQueue.put(unit);
         } catch (InterruptedException e) {
@@ -130,6 +209,10 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public void submitTimerWork(TimerUnit unit) {
+        if (timerRing != null) {
+            timerRing.submit(unit);
+            return;
+        }
         try {
             timerQueue.put(unit);
         } catch (InterruptedException e) {
@@ -187,6 +270,34 @@ public class ThreadingServiceImpl implements ThreadingService {
         routeThreadPool = null;
         outboundThreadPool = null;
         inboundThreadPool = null;
+
+        if (timerRing != null) {
+            timerRing.destroy();
+        }
+        if (routeRing != null) {
+            routeRing.destroy();
+        }
+        if (outboundRing != null) {
+            outboundRing.destroy();
+        }
+        if (inboundRing != null) {
+            inboundRing.destroy();
+        }
+        timerRing = null;
+        routeRing = null;
+        outboundRing = null;
+        inboundRing = null;
+
+        if (inboundAffinityThreadPools != null) {
+            for (int i = 0; i < inboundAffinityThreadPools.length; i++) {
+                stopPool(inboundAffinityThreadPools[i], inboundAffinityQueues[i], "Inbound-" + i);
+            }
+        }
+        if (inboundAffinityRings != null) {
+            for (ThreadPoolRingBuffer ring : inboundAffinityRings) {
+                ring.destroy();
+            }
+        }
     }
 
     public Thread makeEventSourceThread(String runtimeURI, String sourceName, Runnable runnable) {
@@ -200,7 +311,189 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public void submitInbound(EventBean event, EPRuntimeEventProcessWrapped runtimeEventSender) {
-        submitInbound(new InboundUnitSendWrapped(event, runtimeEventSender, services));
+        submitInbound(InboundUnitType.WRAPPED, event, null, runtimeEventSender, services);
+    }
+
+    public void submitInbound(InboundUnitType type, Object event, String eventTypeName, EPRuntimeEventProcessWrapped runtime, EPServicesEvaluation services) {
+        if (inboundRing != null) {
+            inboundRing.submitInbound(type, event, eventTypeName, runtime, services);
+            return;
+        }
+        if (inboundAffinity != null) {
+            submitInboundAffinity(type, event, eventTypeName, runtime, services);
+            return;
+        }
+        submitInbound(makeInboundUnit(type, event, eventTypeName, runtime, services));
+    }
+
+    public void submitInboundBatch(EventBean[] eventBeans, EPEventServiceBatchDelivery delivery, EPEventServiceBatchProcessor runtime, EPServicesEvaluation services) {
+        if (inboundAffinity == null || eventBeans.length == 0) {
+            submitInbound(new InboundUnitSendWrappedBatch(eventBeans, delivery, runtime, services));
+            return;
+        }
+
+        // determine the thread of each event, most batches go to a single thread
+        int[] indexes = new int[eventBeans.length];
+        int[] counts = null;
+        for (int i = 0; i < eventBeans.length; i++) {
+            indexes[i] = inboundAffinity.getThreadIndex(eventBeans[i]);
+            if (counts == null && indexes[i] != indexes[0]) {
+                counts = new int[numInboundAffinityThreads()];
+            }
+        }
+        if (counts == null) {
+            submitInboundAffinity(indexes[0], new InboundUnitSendWrappedBatch(eventBeans, delivery, runtime, services));
+            return;
+        }
+
+        for (int index : indexes) {
+            counts[index]++;
+        }
+        EventBean[][] subBatches = new EventBean[counts.length][];
+        for (int i = 0; i < counts.length; i++) {
+            subBatches[i] = counts[i] == 0 ? null : new EventBean[counts[i]];
+            counts[i] = 0;
+        }
+        for (int i = 0; i < eventBeans.length; i++) {
+            int index = indexes[i];
+            subBatches[index][counts[index]++] = eventBeans[i];
+        }
+        for (int i = 0; i < subBatches.length; i++) {
+            if (subBatches[i] != null) {
+                submitInboundAffinity(i, new InboundUnitSendWrappedBatch(subBatches[i], delivery, runtime, services));
+            }
+        }
+    }
+
+    private int numInboundAffinityThreads() {
+        return inboundAffinityRings != null ? inboundAffinityRings.length : inboundAffinityQueues.length;
+    }
+
+    private void submitInboundAffinity(InboundUnitType type, Object event, String eventTypeName, EPRuntimeEventProcessWrapped runtime, EPServicesEvaluation services) {
+        String typeName = type == InboundUnitType.WRAPPED ? ((EventBean) event).getEventType().getName() : eventTypeName;
+        if (!inboundAffinity.hasKey(typeName)) {
+            submitInboundAffinity(inboundAffinity.getThreadIndexCurrentThread(), type, event, eventTypeName, runtime, services);
+            return;
+        }
+
+        // wrap on the sending thread to obtain the key, leaving invalid events for the inbound thread to report
+        EventBean eventBean;
+        try {
+            eventBean = type.wrap(event, eventTypeName, services.getEventTypeResolvingBeanFactory());
+        } catch (RuntimeException ex) {
+            submitInboundAffinity(inboundAffinity.getThreadIndexCurrentThread(), type, event, eventTypeName, runtime, services);
+            return;
+        }
+        submitInboundAffinity(inboundAffinity.getThreadIndex(eventBean), InboundUnitType.WRAPPED, eventBean, null, runtime, services);
+    }
+
+    private void submitInboundAffinity(int index, InboundUnitType type, Object event, String eventTypeName, EPRuntimeEventProcessWrapped runtime, EPServicesEvaluation services) {
+        if (inboundAffinityRings != null) {
+            inboundAffinityRings[index].submitInbound(type, event, eventTypeName, runtime, services);
+            return;
+        }
+        submitInboundAffinity(index, makeInboundUnit(type, event, eventTypeName, runtime, services));
+    }
+
+    private void submitInboundAffinity(int index, InboundUnitRunnable unit) {
+        if (inboundAffinityRings != null) {
+            inboundAffinityRings[index].submit(unit);
+            return;
+        }
+        try {
+            inboundAffinityQueues[index].put(unit);
+        } catch (InterruptedException e) {
+            log.info("Submit interrupted:" + e);
+        }
+    }
+
+    public long getInboundQueueDepth() {
+        if (inboundAffinity != null) {
+            long depth = 0;
+            int numThreads = numInboundAffinityThreads();
+            for (int i = 0; i < numThreads; i++) {
+                depth += depth(inboundAffinityRings == null ? null : inboundAffinityRings[i], inboundAffinityQueues == null ? null : inboundAffinityQueues[i]);
+            }
+            return depth;
+        }
+        return depth(inboundRing, inboundQueue);
+    }
+
+    public long getInboundQueueCapacity() {
+        if (inboundAffinity != null) {
+            long capacity = 0;
+            int numThreads = numInboundAffinityThreads();
+            for (int i = 0; i < numThreads; i++) {
+                long one = capacity(inboundAffinityRings == null ? null : inboundAffinityRings[i], inboundAffinityQueues == null ? null : inboundAffinityQueues[i]);
+                if (one == 0) {
+                    return 0;
+                }
+                capacity += one;
+            }
+            return capacity;
+        }
+        return capacity(inboundRing, inboundQueue);
+    }
+
+    public long getOutboundQueueDepth() {
+        return depth(outboundRing, outboundQueue);
+    }
+
+    public long getRouteQueueDepth() {
+        return depth(routeRing, routeQueue);
+    }
+
+    public long getTimerQueueDepth() {
+        return depth(timerRing, timerQueue);
+    }
+
+    public long getInboundQueueWaitNanos() {
+        ThreadPoolRingBuffer[] rings = inboundAffinityRings;
+        if (rings != null) {
+            long waitNanos = 0;
+            for (ThreadPoolRingBuffer affinityRing : rings) {
+                waitNanos += affinityRing.getWaitNanos();
+            }
+            return waitNanos;
+        }
+        ThreadPoolRingBuffer ring = inboundRing;
+        return ring == null ? 0 : ring.getWaitNanos();
+    }
+
+    private static long depth(ThreadPoolRingBuffer ring, BlockingQueue<Runnable> queue) {
+        if (ring != null) {
+            return ring.size();
+        }
+        return queue == null ? 0 : queue.size();
+    }
+
+    private static long capacity(ThreadPoolRingBuffer ring, BlockingQueue<Runnable> queue) {
+        if (ring != null) {
+            return ring.getCapacity();
+        }
+        if (queue == null || queue.remainingCapacity() == Integer.MAX_VALUE) {
+            return 0;
+        }
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    private static InboundUnitRunnable makeInboundUnit(InboundUnitType type, Object event, String eventTypeName, EPRuntimeEventProcessWrapped runtime, EPServicesEvaluation services) {
+        switch (type) {
+            case BEAN:
+                return new InboundUnitSendEvent(event, eventTypeName, runtime, services);
+            case MAP:
+                return new InboundUnitSendMap((Map) event, eventTypeName, runtime, services);
+            case OBJECTARRAY:
+                return new InboundUnitSendObjectArray((Object[]) event, eventTypeName, runtime, services);
+            case JSON:
+                return new InboundUnitSendJson((String) event, eventTypeName, runtime, services);
+            case XMLDOM:
+                return new InboundUnitSendDOM((Node) event, eventTypeName, runtime, services);
+            case AVRO:
+                return new InboundUnitSendAvro(event, eventTypeName, runtime, services);
+            default:
+                return new InboundUnitSendWrapped((EventBean) event, runtime, services);
+        }
     }
 
     private void stopPool(ThreadPoolExecutor threadPool, BlockingQueue<Runnable> queue, String name) {
@@ -13,18 +13,27 @@ package com.espertech.esper.runtime.internal.metrics.stmtmetrics;
 import com.espertech.esper.common.client.configuration.ConfigurationException;
 import com.espertech.esper.common.client.configuration.runtime.ConfigurationRuntimeMetricsReporting;
 import com.espertech.esper.common.client.metric.EPMetricsStatementGroup;
+import com.espertech.esper.common.client.metric.LatencyHistogram;
 import com.espertech.esper.common.client.metric.MetricEvent;
+import com.espertech.esper.common.client.metric.RuntimeMetric;
+import com.espertech.esper.common.client.metric.StatementMetric;
 import com.espertech.esper.common.internal.event.core.EventServiceSendEventCommon;
 import com.espertech.esper.common.internal.filtersvc.FilterService;
 import com.espertech.esper.common.internal.metrics.stmtmetrics.*;
 import com.espertech.esper.common.internal.schedule.SchedulingService;
+import com.espertech.esper.common.internal.statement.thread.ThreadingCommon;
 import com.espertech.esper.common.internal.util.DeploymentIdNamePair;
 import com.espertech.esper.common.internal.util.MetricUtil;
 import com.espertech.esper.runtime.client.*;
+import com.espertech.esper.runtime.internal.metrics.jmx.JmxGetter;
+import com.espertech.esper.runtime.internal.metrics.jmx.JmxManaged;
+import com.espertech.esper.runtime.internal.metrics.jmx.JmxOperation;
+import com.espertech.esper.runtime.internal.metrics.jmx.JmxParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Consumer;
 
@@ -33,11 +42,13 @@ import java.util.function.Consumer;
  * <p>
  * Reports for all statements even if not in a statement group, i.e. statement in default group.
  */
+@JmxManaged(description = "Latency histograms of the last reporting interval")
 public class MetricReportingServiceImpl implements MetricReportingServiceSPI, MetricEventRouter, DeploymentStateListener {
     private static final Logger log = LoggerFactory.getLogger(MetricReportingServiceImpl.class);
 
     private final ConfigurationRuntimeMetricsReporting specification;
     private final String runtimeURI;
+    private final boolean latencyHistograms;
 
     private volatile MetricExecutionContext executionContext;
 
@@ -54,6 +65,9 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
 
     private final CopyOnWriteArraySet<MetricsStatementResultListener> statementOutputHooks = new CopyOnWriteArraySet<>();
 
+    private volatile RuntimeMetric lastRuntimeMetric;
+    private final Map<DeploymentIdNamePair, StatementMetric> lastStatementMetrics = new ConcurrentHashMap<>();
+
     /**
      * Ctor.
      *
@@ -63,6 +77,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
     public MetricReportingServiceImpl(ConfigurationRuntimeMetricsReporting specification, String runtimeURI) {
         this.specification = specification;
         this.runtimeURI = runtimeURI;
+        this.latencyHistograms = specification.isEnableMetricsReporting() && specification.isEnableLatencyHistograms();
         if (!specification.isEnableMetricsReporting()) {
             schedule = null;
             stmtMetricRepository = null;
@@ -103,11 +118,11 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         return statementOutputHooks;
     }
 
-    public void setContext(FilterService filterService, SchedulingService schedulingService, EventServiceSendEventCommon eventServiceSendEventInternal) {
-        MetricExecutionContext metricsExecutionContext = new MetricExecutionContext(filterService, schedulingService, eventServiceSendEventInternal, stmtMetricRepository);
+    public void setContext(FilterService filterService, SchedulingService schedulingService, EventServiceSendEventCommon eventServiceSendEventInternal, ThreadingCommon threadingService) {
+        MetricExecutionContext metricsExecutionContext = new MetricExecutionContext(filterService, schedulingService, eventServiceSendEventInternal, stmtMetricRepository, threadingService);
 
         // create all runtime and statement executions
-        metricExecEngine = new MetricExecEngine(this, runtimeURI, schedule, specification.getRuntimeInterval());
+        metricExecEngine = new MetricExecEngine(this, runtimeURI, schedule, specification.getRuntimeInterval(), latencyHistograms);
         metricExecStmtGroupDefault = new MetricExecStatement(this, schedule, specification.getStatementInterval(), 0);
 
         int countGroups = 1;
@@ -178,6 +193,14 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
     }
 
     public void route(MetricEvent metricEvent) {
+        if (latencyHistograms) {
+            if (metricEvent instanceof RuntimeMetric) {
+                lastRuntimeMetric = (RuntimeMetric) metricEvent;
+            } else if (metricEvent instanceof StatementMetric) {
+                StatementMetric metric = (StatementMetric) metricEvent;
+                lastStatementMetrics.put(new DeploymentIdNamePair(metric.getDeploymentId(), metric.getStatementName()), metric);
+            }
+        }
         executionContext.getEPRuntimeSendEvent().sendEventBean(metricEvent, metricEvent.getClass().getName());
     }
 
@@ -185,6 +208,43 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         stmtMetricRepository.accountTimes(metricsHandle, deltaCPU, deltaWall, numInputEvents);
     }
 
+    public void accountDispatch(StatementMetricHandle metricsHandle, long deltaWall) {
+        stmtMetricRepository.accountDispatch(metricsHandle, deltaWall);
+    }
+
+    public void accountFilterTime(long deltaWall) {
+        MetricExecEngine engine = metricExecEngine;
+        if (engine != null) {
+            engine.recordFilterLatency(deltaWall);
+        }
+    }
+
+    public boolean isLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    @JmxGetter(name = "FilterLatency", description = "Filter matching latency in nanoseconds per input event, for the last reporting interval")
+    public String getFilterLatencySummary() {
+        RuntimeMetric metric = lastRuntimeMetric;
+        return metric == null || metric.getFilterLatency() == null ? "" : metric.getFilterLatency().toString();
+    }
+
+    @JmxGetter(name = "FilterLatencyP99", description = "Filter matching 99th percentile latency in nanoseconds, for the last reporting interval")
+    public long getFilterLatencyP99() {
+        RuntimeMetric metric = lastRuntimeMetric;
+        return metric == null || metric.getFilterLatency() == null ? 0 : metric.getFilterLatency().getPercentile99();
+    }
+
+    @JmxOperation(description = "Statement processing and dispatch latency in nanoseconds, for the last reporting interval of the statement")
+    public String getStatementLatency(@JmxParam(name = "deploymentId", description = "deployment id") String deploymentId,
+                                      @JmxParam(name = "statementName", description = "statement name") String statementName) {
+        StatementMetric metric = lastStatementMetrics.get(new DeploymentIdNamePair(deploymentId, statementName));
+        if (metric == null) {
+            return "";
+        }
+        return "processing: " + summary(metric.getProcessingLatency()) + "; dispatch: " + summary(metric.getDispatchLatency());
+    }
+
     public void accountOutput(StatementMetricHandle handle, int numIStream, int numRStream, Object epStatement, Object runtime) {
         stmtMetricRepository.accountOutput(handle, numIStream, numRStream);
         if (!statementOutputHooks.isEmpty()) {
@@ -218,6 +278,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
             DeploymentIdNamePair pair = new DeploymentIdNamePair(stmt.getDeploymentId(), stmt.getName());
             stmtMetricRepository.removeStatement(pair);
             statementMetricHandles.remove(pair);
+            lastStatementMetrics.remove(pair);
         }
     }
 
@@ -234,6 +295,10 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         exec.setInterval(newInterval);
     }
 
+    private static String summary(LatencyHistogram histogram) {
+        return histogram == null ? "" : histogram.toString();
+    }
+
     private boolean isConsiderSchedule(long value) {
         if ((value > 0) && (value < Long.MAX_VALUE)) {
             return true;
@@ -0,0 +1,416 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.schedulesvcimpl;
+
+import com.espertech.esper.common.client.util.DateTime;
+import com.espertech.esper.common.internal.schedule.ScheduleHandle;
+import com.espertech.esper.common.internal.schedule.ScheduleServiceException;
+import com.espertech.esper.common.internal.schedule.TimeSourceService;
+import com.espertech.esper.runtime.internal.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.runtime.internal.metrics.jmx.JmxGetter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel.
+ * <p>
+ * The wheel has 11 levels of 64 buckets each (the top level uses the remaining 4 bits), covering the full range of long time values.
+ * A schedule entry is placed on the level of the highest 6-bit group in which its trigger time differs from the wheel time,
+ * so that adding and removing a schedule is constant time. When the wheel time advances, only the buckets that the advance
+ * crosses are drained and their entries cascade down to lower levels or become due.
+ * <p>
+ * Entries that become due are ordered by trigger time and then by slot, preserving {@link com.espertech.esper.common.internal.schedule.ScheduleBucket}
+ * precedence same as {@link SchedulingServiceImpl}. Times and slots are kept as primitive longs.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceTimingWheel implements SchedulingServiceSPI {
+    private static final int BITS_PER_LEVEL = 6;
+    private static final int NUM_BUCKETS = 1 << BITS_PER_LEVEL;
+    private static final int BUCKET_MASK = NUM_BUCKETS - 1;
+    private static final int NUM_LEVELS = (Long.SIZE + BITS_PER_LEVEL - 1) / BITS_PER_LEVEL;
+    private static final Comparator<Entry> DUE_ORDER = (o1, o2) -> {
+        int compared = Long.compare(o1.time, o2.time);
+        return compared != 0 ? compared : Long.compare(o1.slot, o2.slot);
+    };
+
+    private final int stageId;
+    private final DateTimeFormatter defaultDateTimeFormatter;
+
+    // Buckets are the heads of doubly-linked entry lists, with one occupancy bit per bucket
+    private final Entry[][] wheel;
+    private final long[] occupied;
+
+    // Entries with a trigger time on or before the wheel time
+    private Entry due;
+
+    // Map of handle and entry for faster removal
+    private final Map<ScheduleHandle, Entry> handleEntryMap;
+
+    // Reusable buffers for draining buckets and ordering due entries
+    private Entry[] drainBuffer = new Entry[16];
+    private Entry[] dueBuffer = new Entry[16];
+
+    // Time that the wheel position reflects, in unsigned-comparable form (sign bit flipped)
+    private long wheelKey;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     *
+     * @param timeSourceService        time source provider
+     * @param stageId                  stage id or -1 when not applicable
+     * @param defaultFormatterTimeZone time zone for audit formatter
+     */
+    public SchedulingServiceTimingWheel(int stageId, TimeSourceService timeSourceService, ZoneId defaultFormatterTimeZone) {
+        this.stageId = stageId;
+        this.defaultDateTimeFormatter = DateTimeFormatter.ofPattern(DateTime.DEFAULT_XMLLIKE_DATE_FORMAT).withZone(defaultFormatterTimeZone);
+        this.wheel = new Entry[NUM_LEVELS][NUM_BUCKETS];
+        this.occupied = new long[NUM_LEVELS];
+        this.handleEntryMap = new HashMap<>();
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.wheelKey = toKey(currentTime);
+    }
+
+    public synchronized void destroy() {
+        log.debug("Destroying scheduling service");
+        handleEntryMap.clear();
+        for (Entry[] level : wheel) {
+            Arrays.fill(level, null);
+        }
+        Arrays.fill(occupied, 0);
+        due = null;
+    }
+
+    public long getTime() {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime) {
+        this.currentTime = currentTime;
+    }
+
+    public synchronized final void add(long afterTime, ScheduleHandle handle, long slot)
+        throws ScheduleServiceException {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleAdd(currentTime, afterTime, handle, slot);
+        }
+
+        Entry existing = handleEntryMap.get(handle);
+        if (existing != null) {
+            unlink(existing);
+        }
+
+        Entry entry = new Entry(currentTime + afterTime, slot, handle);
+        handleEntryMap.put(handle, entry);
+        place(entry);
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleAdd();
+        }
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, long slot) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleRemove(handle, slot);
+        }
+
+        Entry entry = handleEntryMap.remove(handle);
+        if (entry == null) {
+            // If it already has been removed then that's fine;
+            // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+            return;
+        }
+        unlink(entry);
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleRemove();
+        }
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleEval(currentTime);
+        }
+
+        long targetKey = toKey(currentTime);
+        if (Long.compareUnsigned(targetKey, wheelKey) > 0) {
+            advance(targetKey);
+        }
+
+        // Determine due entries on or before the current time
+        int count = 0;
+        for (Entry entry = due; entry != null; entry = entry.next) {
+            if (entry.time <= currentTime) {
+                if (count == dueBuffer.length) {
+                    dueBuffer = Arrays.copyOf(dueBuffer, count * 2);
+                }
+                dueBuffer[count++] = entry;
+            }
+        }
+
+        if (count > 0) {
+            if (count > 1) {
+                Arrays.sort(dueBuffer, 0, count, DUE_ORDER);
+            }
+            for (int i = 0; i < count; i++) {
+                Entry entry = dueBuffer[i];
+                dueBuffer[i] = null;
+                unlink(entry);
+                handleEntryMap.remove(entry.handle);
+                handles.add(entry.handle);
+            }
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleEval(handles);
+        }
+    }
+
+    public synchronized void transfer(Set<Integer> statementIds, SchedulingServiceSPI schedulingService) {
+        long currentTime = getTime();
+        long targetTime = schedulingService.getTime();
+        List<Entry> transferred = new ArrayList<>();
+        for (Entry entry : handleEntryMap.values()) {
+            if (statementIds.contains(entry.handle.getStatementId())) {
+                transferred.add(entry);
+            }
+        }
+        for (Entry entry : transferred) {
+            long relative = ScheduleTransferHelper.computeTransferTime(currentTime, targetTime, entry.time);
+            remove(entry.handle, entry.slot);
+            schedulingService.add(relative, entry.handle, entry.slot);
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public synchronized int getTimeHandleCount() {
+        return handleEntryMap.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate() {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate() {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle() {
+        // entries on higher levels and buckets are always later than entries on lower levels and buckets
+        for (int level = NUM_LEVELS - 1; level >= 0; level--) {
+            if (occupied[level] != 0) {
+                int bucket = Long.SIZE - 1 - Long.numberOfLeadingZeros(occupied[level]);
+                return maxTime(wheel[level][bucket]);
+            }
+        }
+        if (due != null) {
+            return maxTime(due);
+        }
+        return null;
+    }
+
+    public synchronized int getScheduleHandleCount() {
+        return handleEntryMap.size();
+    }
+
+    public synchronized boolean isScheduled(ScheduleHandle handle) {
+        return handleEntryMap.containsKey(handle);
+    }
+
+    public synchronized Long getNearestTimeHandle() {
+        if (due != null) {
+            return minTime(due);
+        }
+        // entries on lower levels and buckets are always earlier than entries on higher levels and buckets
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            if (occupied[level] != 0) {
+                int bucket = Long.numberOfTrailingZeros(occupied[level]);
+                return minTime(wheel[level][bucket]);
+            }
+        }
+        return null;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        ScheduleVisit visit = new ScheduleVisit();
+        for (Entry entry : handleEntryMap.values()) {
+            visit.setTimestamp(entry.time);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    public DateTimeFormatter getDefaultFormatter() {
+        return defaultDateTimeFormatter;
+    }
+
+    private void advance(long targetKey) {
+        // Collect the entries of all buckets that the advance crosses, before repositioning the wheel
+        int count = 0;
+        for (int level = NUM_LEVELS - 1; level >= 0; level--) {
+            if (occupied[level] == 0) {
+                continue;
+            }
+            long drainMask;
+            if (sameAboveLevel(wheelKey, targetKey, level)) {
+                int fromBucket = bucketOf(wheelKey, level);
+                int toBucket = bucketOf(targetKey, level);
+                if (fromBucket == toBucket) {
+                    continue;
+                }
+                // buckets after the current wheel bucket up to and including the target bucket
+                drainMask = (-1L << (fromBucket + 1)) & (-1L >>> (Long.SIZE - 1 - toBucket));
+            } else {
+                // the target time is past all entries of this level
+                drainMask = -1L;
+            }
+
+            long drain = occupied[level] & drainMask;
+            while (drain != 0) {
+                int bucket = Long.numberOfTrailingZeros(drain);
+                drain &= drain - 1;
+                for (Entry entry = wheel[level][bucket]; entry != null; entry = entry.next) {
+                    if (count == drainBuffer.length) {
+                        drainBuffer = Arrays.copyOf(drainBuffer, count * 2);
+                    }
+                    drainBuffer[count++] = entry;
+                }
+                wheel[level][bucket] = null;
+                occupied[level] &= ~(1L << bucket);
+            }
+        }
+
+        wheelKey = targetKey;
+        for (int i = 0; i < count; i++) {
+            Entry entry = drainBuffer[i];
+            drainBuffer[i] = null;
+            entry.prev = null;
+            entry.next = null;
+            place(entry);
+        }
+    }
+
+    private void place(Entry entry) {
+        long key = toKey(entry.time);
+        if (Long.compareUnsigned(key, wheelKey) <= 0) {
+            entry.level = -1;
+            entry.next = due;
+            if (due != null) {
+                due.prev = entry;
+            }
+            due = entry;
+            return;
+        }
+
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(key ^ wheelKey)) / BITS_PER_LEVEL;
+        int bucket = bucketOf(key, level);
+        entry.level = level;
+        entry.bucket = bucket;
+        Entry head = wheel[level][bucket];
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        wheel[level][bucket] = entry;
+        occupied[level] |= 1L << bucket;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (entry.level == -1) {
+            due = entry.next;
+        } else {
+            wheel[entry.level][entry.bucket] = entry.next;
+            if (entry.next == null) {
+                occupied[entry.level] &= ~(1L << entry.bucket);
+            }
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static long minTime(Entry head) {
+        long min = head.time;
+        for (Entry entry = head.next; entry != null; entry = entry.next) {
+            min = Math.min(min, entry.time);
+        }
+        return min;
+    }
+
+    private static long maxTime(Entry head) {
+        long max = head.time;
+        for (Entry entry = head.next; entry != null; entry = entry.next) {
+            max = Math.max(max, entry.time);
+        }
+        return max;
+    }
+
+    private static long toKey(long time) {
+        // flip the sign bit so that unsigned ordering of keys is the signed ordering of times
+        return time ^ Long.MIN_VALUE;
+    }
+
+    private static int bucketOf(long key, int level) {
+        return (int) (key >>> (level * BITS_PER_LEVEL)) & BUCKET_MASK;
+    }
+
+    private static boolean sameAboveLevel(long keyOne, long keyTwo, int level) {
+        int shift = (level + 1) * BITS_PER_LEVEL;
+        return shift >= Long.SIZE || (keyOne >>> shift) == (keyTwo >>> shift);
+    }
+
+    private static class Entry {
+        private final long time;
+        private final long slot;
+        private final ScheduleHandle handle;
+        private int level;
+        private int bucket;
+        private Entry prev;
+        private Entry next;
+
+        Entry(long time, long slot, ScheduleHandle handle) {
+            this.time = time;
+            this.slot = slot;
+            this.handle = handle;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceTimingWheel.class);
+}
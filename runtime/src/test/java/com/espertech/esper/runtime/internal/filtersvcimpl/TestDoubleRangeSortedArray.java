@@ -0,0 +1,51 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.internal.filterspec.DoubleRange;
+import junit.framework.TestCase;
+
+public class TestDoubleRangeSortedArray extends TestCase {
+
+    public void testPutRemove() {
+        DoubleRangeSortedArray array = new DoubleRangeSortedArray();
+        SupportEventEvaluator[] evaluators = new SupportEventEvaluator[20];
+        for (int i = 0; i < evaluators.length; i++) {
+            evaluators[i] = new SupportEventEvaluator();
+            array.put(new DoubleRange((double) (evaluators.length - i), 100d - i), evaluators[i]);
+        }
+        array.put(new DoubleRange(5d, 5d), evaluators[0]);
+        assertEquals(21, array.size());
+
+        for (int i = 1; i < array.size(); i++) {
+            assertTrue(DoubleRangeComparator.INSTANCE.compare(array.getRange(i - 1), array.getRange(i)) < 0);
+        }
+        assertEquals(evaluators[3], array.get(new DoubleRange(17d, 97d)));
+        assertNull(array.get(new DoubleRange(17d, 98d)));
+
+        array.put(new DoubleRange(17d, 97d), evaluators[4]);
+        assertEquals(evaluators[4], array.get(new DoubleRange(17d, 97d)));
+        assertEquals(21, array.size());
+
+        assertEquals(0, array.firstIndexMinAtLeast(-1));
+        assertEquals(4, array.firstIndexMinAtLeast(5));
+        assertEquals(6, array.firstIndexMinAtLeast(5.5));
+        assertEquals(21, array.firstIndexMinAtLeast(21));
+
+        array.remove(new DoubleRange(5d, 5d));
+        array.remove(new DoubleRange(5d, 5d));
+        assertEquals(20, array.size());
+        for (int i = 0; i < evaluators.length; i++) {
+            array.remove(new DoubleRange((double) (evaluators.length - i), 100d - i));
+        }
+        assertTrue(array.isEmpty());
+    }
+}
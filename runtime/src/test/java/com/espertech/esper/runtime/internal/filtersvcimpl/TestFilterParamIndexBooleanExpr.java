@@ -0,0 +1,104 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.context.util.StatementContextFilterEvalEnv;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.common.internal.filterspec.*;
+import com.espertech.esper.common.internal.filtersvc.FilterHandle;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.runtime.internal.support.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TestFilterParamIndexBooleanExpr extends TestCase {
+
+    public void testSharedEvaluation() {
+        FilterParamIndexBooleanExpr index = new FilterParamIndexBooleanExpr(new ReentrantReadWriteLock());
+        SupportAdapter sharedOne = new SupportAdapter("SupportBean:fn(intPrimitive)>1", true);
+        SupportAdapter sharedTwo = new SupportAdapter("SupportBean:fn(intPrimitive)>1", false);
+        SupportAdapter otherKey = new SupportAdapter("SupportBean:fn(intPrimitive)>2", false);
+        SupportAdapter notShared = new SupportAdapter(null, true);
+        SupportEventEvaluator[] evaluators = new SupportEventEvaluator[4];
+        SupportAdapter[] adapters = new SupportAdapter[]{sharedOne, sharedTwo, otherKey, notShared};
+        for (int i = 0; i < adapters.length; i++) {
+            evaluators[i] = new SupportEventEvaluator();
+            index.put(adapters[i], evaluators[i]);
+        }
+
+        List<FilterHandle> matches = new ArrayList<>();
+        EventBean first = SupportEventBeanFactory.createObject(new SupportBean("E1", 1));
+        index.matchEvent(first, matches, null);
+        assertCounts(adapters, 1, 0, 1, 1);
+        // the second shared expression receives the result of the first
+        assertEquals(1, evaluators[0].getAndResetCountInvoked());
+        assertEquals(1, evaluators[1].getAndResetCountInvoked());
+        assertEquals(0, evaluators[2].getAndResetCountInvoked());
+        assertEquals(1, evaluators[3].getAndResetCountInvoked());
+
+        // same event evaluated again reuses results
+        index.matchEvent(first, matches, null);
+        assertCounts(adapters, 1, 0, 1, 2);
+
+        // a new event evaluates again
+        index.matchEvent(SupportEventBeanFactory.createObject(new SupportBean("E2", 2)), matches, null);
+        assertCounts(adapters, 2, 0, 2, 3);
+
+        // clearing releases the event, the same event evaluates again
+        FilterParamIndexBooleanExpr.clearSharedResults();
+        index.matchEvent(first, matches, null);
+        assertCounts(adapters, 3, 0, 3, 4);
+        FilterParamIndexBooleanExpr.clearSharedResults();
+    }
+
+    private static void assertCounts(SupportAdapter[] adapters, int... counts) {
+        for (int i = 0; i < adapters.length; i++) {
+            assertEquals("adapter " + i, counts[i], adapters[i].countEvaluated);
+        }
+    }
+
+    private static class SupportAdapter extends ExprNodeAdapterBase {
+        private final boolean result;
+        private int countEvaluated;
+
+        SupportAdapter(String sharedExprKey, boolean result) {
+            super(makeNode(sharedExprKey), null);
+            this.result = result;
+        }
+
+        public boolean evaluate(EventBean theEvent) {
+            countEvaluated++;
+            return result;
+        }
+
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+
+        private static FilterSpecParamExprNode makeNode(String sharedExprKey) {
+            FilterSpecParamExprNode node = new FilterSpecParamExprNode(null, FilterOperator.BOOLEAN_EXPRESSION) {
+                public FilterValueSetParam getFilterValue(MatchedEventMap matchedEvents, ExprEvaluatorContext exprEvaluatorContext, StatementContextFilterEvalEnv filterEvalEnv) {
+                    return null;
+                }
+            };
+            node.setSharedExprKey(sharedExprKey);
+            return node;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.type.EPTypePremade;
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestFilterParamIndexEqualsNumericMap extends TestCase {
+
+    public void testMake() {
+        assertTrue(FilterParamIndexEqualsNumericMap.make(EPTypePremade.INTEGERPRIMITIVE.getEPType()) instanceof FilterParamIndexEqualsNumericMap);
+        assertTrue(FilterParamIndexEqualsNumericMap.make(EPTypePremade.DOUBLEBOXED.getEPType()) instanceof FilterParamIndexEqualsNumericMap);
+        assertTrue(FilterParamIndexEqualsNumericMap.make(EPTypePremade.STRING.getEPType()) instanceof HashMap);
+        assertTrue(FilterParamIndexEqualsNumericMap.make(null) instanceof HashMap);
+    }
+
+    public void testDouble() {
+        Map<Object, EventEvaluator> map = FilterParamIndexEqualsNumericMap.make(EPTypePremade.DOUBLEPRIMITIVE.getEPType());
+        SupportEventEvaluator one = new SupportEventEvaluator();
+        SupportEventEvaluator two = new SupportEventEvaluator();
+
+        map.put(1.5d, one);
+        map.put(-0.0d, two);
+        map.put(Double.NaN, two);
+        assertEquals(one, map.get(1.5d));
+        assertEquals(two, map.get(-0.0d));
+        assertNull(map.get(0.0d));
+        assertEquals(two, map.get(Double.NaN));
+        assertNull(map.get(1.5f));
+        assertNull(map.get(null));
+
+        // values of a different type are kept apart, as by HashMap
+        map.put(2, one);
+        assertEquals(one, map.get(2));
+        assertNull(map.get(2d));
+        assertEquals(4, map.size());
+        assertEquals(one, map.remove(2));
+        assertEquals(3, map.size());
+    }
+
+    public void testCompareHashMap() {
+        Random random = new Random(1);
+        Map<Object, EventEvaluator> map = FilterParamIndexEqualsNumericMap.make(EPTypePremade.LONGBOXED.getEPType());
+        Map<Object, EventEvaluator> expected = new HashMap<>();
+        EventEvaluator[] evaluators = new EventEvaluator[]{new SupportEventEvaluator(), new SupportEventEvaluator()};
+
+        for (int i = 0; i < 100000; i++) {
+            Long key = (long) random.nextInt(500) * (random.nextBoolean() ? 1 : 1L << 40);
+            int op = random.nextInt(3);
+            if (op == 0) {
+                EventEvaluator evaluator = evaluators[random.nextInt(2)];
+                assertEquals(expected.put(key, evaluator), map.put(key, evaluator));
+            } else if (op == 1) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        Map<Object, EventEvaluator> copy = new HashMap<>();
+        for (Map.Entry<Object, EventEvaluator> entry : map.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue());
+        }
+        assertEquals(expected, copy);
+    }
+}
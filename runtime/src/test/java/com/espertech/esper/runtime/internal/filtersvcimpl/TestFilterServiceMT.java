@@ -10,16 +10,21 @@
  */
 package com.espertech.esper.runtime.internal.filtersvcimpl;
 
+import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventType;
 import com.espertech.esper.common.client.scopetest.EPAssertionUtil;
 import com.espertech.esper.common.internal.filterspec.FilterOperator;
 import com.espertech.esper.common.internal.filterspec.FilterSpecActivatable;
 import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
+import com.espertech.esper.common.internal.filtersvc.FilterHandle;
 import com.espertech.esper.common.internal.filtersvc.FilterService;
 import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.runtime.internal.support.SupportEventBeanFactory;
 import com.espertech.esper.runtime.internal.support.SupportEventTypeFactory;
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
@@ -29,6 +34,95 @@ public class TestFilterServiceMT extends TestCase {
     public void testFilterService() throws Exception {
         runAssertionAddRemoveFilter(new FilterServiceLockCoarse(-1));
         runAssertionAddRemoveFilter(new FilterServiceLockFine(-1));
+        runAssertionAddRemoveFilter(new FilterServiceLockFree(-1));
+    }
+
+    public void testEvaluateDuringChange() throws Exception {
+        runAssertionEvaluateDuringChange(new FilterServiceLockCoarse(-1));
+        runAssertionEvaluateDuringChange(new FilterServiceLockFree(-1));
+    }
+
+    public void testEvaluateNotBlockedByWriter() throws Exception {
+        final FilterServiceLockFree service = new FilterServiceLockFree(-1);
+        EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        FilterValueSetParam[][] helloValues = SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "HELLO"}).getValueSet(null, null, null, null);
+        SupportFilterHandle permanent = new SupportFilterHandle();
+        SupportFilterHandle pending = new SupportFilterHandle();
+        service.add(eventType, helloValues, permanent);
+        final EventBean theEvent = SupportEventBeanFactory.createObject(new SupportBean("HELLO", 1));
+
+        service.acquireWriteLock();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            service.add(eventType, helloValues, pending);
+            Future<List<FilterHandle>> future = reader.submit(() -> {
+                List<FilterHandle> matches = new ArrayList<>();
+                service.evaluate(theEvent, matches, null);
+                return matches;
+            });
+            // the reader completes while this thread holds the write lock and sees only committed filters
+            List<FilterHandle> matches = future.get(10, TimeUnit.SECONDS);
+            assertEquals(1, matches.size());
+            assertSame(permanent, matches.get(0));
+        } finally {
+            service.releaseWriteLock();
+            reader.shutdown();
+        }
+
+        List<FilterHandle> matches = new ArrayList<>();
+        service.evaluate(theEvent, matches, null);
+        assertEquals(2, matches.size());
+        assertTrue(matches.contains(pending));
+
+        service.remove(pending, eventType, helloValues);
+        service.remove(permanent, eventType, helloValues);
+        assertEquals(0, service.getFilterCountApprox());
+    }
+
+    private void runAssertionEvaluateDuringChange(final FilterServiceSPI service) throws Exception {
+        EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        final FilterValueSetParam[][] helloValues = SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "HELLO"}).getValueSet(null, null, null, null);
+        final FilterValueSetParam[][] rangeValues = SupportFilterSpecBuilder.build(eventType, new Object[]{"intPrimitive", FilterOperator.GREATER, 0}).getValueSet(null, null, null, null);
+        final SupportFilterHandle permanent = new SupportFilterHandle();
+        service.add(eventType, helloValues, permanent);
+        final EventBean theEvent = SupportEventBeanFactory.createObject(new SupportBean("HELLO", 1));
+
+        Callable callables[] = new Callable[4];
+        for (int i = 0; i < callables.length; i++) {
+            final boolean writer = i == 0;
+            callables[i] = new Callable() {
+                public Object call() throws Exception {
+                    if (writer) {
+                        SupportFilterHandle[] handles = new SupportFilterHandle[10];
+                        for (int j = 0; j < handles.length; j++) {
+                            handles[j] = new SupportFilterHandle();
+                        }
+                        for (int loop = 0; loop < 2000; loop++) {
+                            for (SupportFilterHandle handle : handles) {
+                                service.add(eventType, (loop % 2) == 0 ? helloValues : rangeValues, handle);
+                            }
+                            for (SupportFilterHandle handle : handles) {
+                                service.remove(handle, eventType, (loop % 2) == 0 ? helloValues : rangeValues);
+                            }
+                        }
+                        return true;
+                    }
+                    for (int loop = 0; loop < 20000; loop++) {
+                        List<FilterHandle> matches = new ArrayList<>();
+                        service.evaluate(theEvent, matches, null);
+                        if (!matches.contains(permanent)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            };
+        }
+
+        Object[] result = tryMT(callables);
+        EPAssertionUtil.assertAllBooleanTrue(result);
+        service.remove(permanent, eventType, helloValues);
+        assertEquals(0, service.getFilterCountApprox());
     }
 
     private void runAssertionAddRemoveFilter(final FilterService service) throws Exception {
@@ -0,0 +1,85 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.configuration.ConfigurationException;
+import com.espertech.esper.common.internal.context.mgr.ContextHashSegmentFunction;
+import com.espertech.esper.common.internal.context.mgr.ContextManagementServiceImpl;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.runtime.internal.support.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestInboundAffinityKeyResolver extends TestCase {
+
+    public void testThreadIndex() {
+        String typeName = SupportEventBeanFactory.createObject(new SupportBean()).getEventType().getName();
+        InboundAffinityKeyResolver resolver = new InboundAffinityKeyResolver(Collections.singletonMap(typeName, new String[]{"theString", "intPrimitive"}), null, 4);
+        assertTrue(resolver.hasKey(typeName));
+        assertFalse(resolver.hasKey("Other"));
+        assertFalse(resolver.hasKey(null));
+
+        Map<String, Integer> assigned = new HashMap<>();
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "E" + (i % 50);
+            EventBean event = SupportEventBeanFactory.createObject(new SupportBean(key, 1));
+            int index = resolver.getThreadIndex(event);
+            assertTrue(index >= 0 && index < 4);
+            Integer existing = assigned.put(key, index);
+            if (existing != null) {
+                assertEquals((int) existing, index);
+            }
+            used.add(index);
+        }
+        assertEquals(4, used.size());
+
+        int indexCurrent = resolver.getThreadIndexCurrentThread();
+        assertTrue(indexCurrent >= 0 && indexCurrent < 4);
+        assertEquals(indexCurrent, resolver.getThreadIndexCurrentThread());
+    }
+
+    public void testHashSegment() {
+        EventType eventType = SupportEventBeanFactory.createObject(new SupportBean()).getEventType();
+        ContextManagementServiceImpl contextManagementService = new ContextManagementServiceImpl();
+        InboundAffinityKeyResolver resolver = new InboundAffinityKeyResolver(Collections.emptyMap(), contextManagementService, 4);
+        assertFalse(resolver.hasKey(eventType.getName()));
+
+        ContextHashSegmentFunction function = new ContextHashSegmentFunction(eventType, (event, ctx) -> ((SupportBean) event.getUnderlying()).getIntPrimitive() % 16, null);
+        contextManagementService.addHashSegmentFunction(function);
+        assertTrue(resolver.hasKey(eventType.getName()));
+        assertFalse(resolver.hasKey("Other"));
+        assertFalse(resolver.hasKey(null));
+        for (int i = 0; i < 100; i++) {
+            EventBean event = SupportEventBeanFactory.createObject(new SupportBean("E", i));
+            assertEquals((i % 16) % 4, resolver.getThreadIndex(event));
+        }
+
+        contextManagementService.removeHashSegmentFunction(function);
+        assertFalse(resolver.hasKey(eventType.getName()));
+        EventBean event = SupportEventBeanFactory.createObject(new SupportBean("E", 1));
+        assertEquals(resolver.getThreadIndexCurrentThread(), resolver.getThreadIndex(event));
+    }
+
+    public void testInvalidProperty() {
+        EventBean event = SupportEventBeanFactory.createObject(new SupportBean());
+        InboundAffinityKeyResolver resolver = new InboundAffinityKeyResolver(Collections.singletonMap(event.getEventType().getName(), new String[]{"dummy"}), null, 2);
+        try {
+            resolver.getThreadIndex(event);
+            fail();
+        } catch (ConfigurationException ex) {
+            assertTrue(ex.getMessage().contains("'dummy'"));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.util.ThreadPoolWaitStrategy;
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestThreadPoolRingBuffer extends TestCase {
+
+    public void testCapacity() {
+        assertFalse(ThreadPoolRingBuffer.isBounded(null));
+        assertFalse(ThreadPoolRingBuffer.isBounded(0));
+        assertFalse(ThreadPoolRingBuffer.isBounded(Integer.MAX_VALUE));
+        try {
+            new ThreadPoolRingBuffer("default", "Test", null, 1, false, ThreadPoolWaitStrategy.PARK);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        assertCapacity(1, 1);
+        assertCapacity(2, 2);
+        assertCapacity(1000, 1024);
+        assertCapacity(1024, 1024);
+        assertCapacity(1025, 2048);
+    }
+
+    public void testMultiProducer() throws Exception {
+        for (ThreadPoolWaitStrategy strategy : ThreadPoolWaitStrategy.values()) {
+            runAssertionSubmit(strategy, false, 4, 3);
+        }
+    }
+
+    public void testSingleProducer() throws Exception {
+        runAssertionSubmit(ThreadPoolWaitStrategy.PARK, true, 1, 2);
+    }
+
+    public void testWorkerSurvivesError() throws Exception {
+        ThreadPoolRingBuffer ring = new ThreadPoolRingBuffer("default", "Test", 8, 1, false, ThreadPoolWaitStrategy.PARK);
+        CountDownLatch done = new CountDownLatch(1);
+        ring.submit(() -> {
+            throw new AssertionError("unit failure");
+        });
+        ring.submit(done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        ring.destroy();
+    }
+
+    public void testWorkerSubmitsIntoFullRing() throws Exception {
+        ThreadPoolRingBuffer ring = new ThreadPoolRingBuffer("default", "Test", 2, 1, false, ThreadPoolWaitStrategy.PARK);
+        AtomicLong count = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(1);
+        // the single worker fills its own ring and must run the overflow itself rather than wait for a free slot
+        ring.submit(() -> {
+            for (int i = 0; i < 10; i++) {
+                ring.submit(count::incrementAndGet);
+            }
+            ring.submit(done::countDown);
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        ring.destroy();
+        assertEquals(10, count.get());
+    }
+
+    public void testDestroyDrains() throws Exception {
+        ThreadPoolRingBuffer ring = new ThreadPoolRingBuffer("default", "Test", 16, 1, false, ThreadPoolWaitStrategy.PARK);
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicLong count = new AtomicLong();
+        ring.submit(() -> {
+            try {
+                blocked.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (int i = 0; i < 10; i++) {
+            ring.submit(count::incrementAndGet);
+        }
+        Thread destroyer = new Thread(ring::destroy);
+        destroyer.start();
+        // release the worker once destroy has stopped the ring and awaits the worker
+        while (destroyer.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+        blocked.countDown();
+        destroyer.join(20000);
+        assertEquals(10, count.get());
+        assertEquals(0, ring.size());
+    }
+
+    private void runAssertionSubmit(ThreadPoolWaitStrategy strategy, boolean singleProducer, int numProducers, int numWorkers) throws Exception {
+        int numPerProducer = 2000;
+        ThreadPoolRingBuffer ring = new ThreadPoolRingBuffer("default", "Test", 64, numWorkers, singleProducer, strategy);
+        AtomicLong sum = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(numProducers * numPerProducer);
+
+        Thread[] producers = new Thread[numProducers];
+        for (int p = 0; p < numProducers; p++) {
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < numPerProducer; i++) {
+                    final int value = i;
+                    ring.submit(() -> {
+                        sum.addAndGet(value);
+                        done.countDown();
+                    });
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        long expected = (long) numProducers * ((long) numPerProducer * (numPerProducer - 1) / 2);
+        assertEquals(expected, sum.get());
+        assertEquals(0, ring.size());
+        assertTrue(ring.getWaitNanos() > 0);
+        ring.destroy();
+    }
+
+    private static void assertCapacity(Integer capacity, int expected) {
+        ThreadPoolRingBuffer ring = new ThreadPoolRingBuffer("default", "Test", capacity, 1, false, ThreadPoolWaitStrategy.PARK);
+        assertEquals(expected, ring.getCapacity());
+        ring.destroy();
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.schedulesvcimpl;
+
+import com.espertech.esper.common.internal.schedule.ScheduleBucket;
+import com.espertech.esper.common.internal.schedule.ScheduleHandle;
+import com.espertech.esper.common.internal.schedule.ScheduleHandleCallback;
+import com.espertech.esper.runtime.internal.schedulesvcimpl.TestSchedulingServiceImpl.SupportScheduleCallback;
+import com.espertech.esper.runtime.internal.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+import java.time.ZoneId;
+import java.util.*;
+
+public class TestSchedulingServiceTimingWheel extends TestCase {
+    private SchedulingServiceTimingWheel service;
+
+    private long slots[][];
+    private SupportScheduleCallback callbacks[];
+
+    public void setUp() {
+        service = new SchedulingServiceTimingWheel(-1, new TimeSourceServiceImpl(), ZoneId.systemDefault());
+
+        ScheduleBucket[] buckets = new ScheduleBucket[3];
+        slots = new long[buckets.length][2];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ScheduleBucket(i);
+            slots[i] = new long[2];
+            for (int j = 0; j < slots[i].length; j++) {
+                slots[i][j] = buckets[i].allocateSlot();
+            }
+        }
+
+        callbacks = new SupportScheduleCallback[5];
+        for (int i = 0; i < callbacks.length; i++) {
+            callbacks[i] = new SupportScheduleCallback();
+        }
+    }
+
+    public void tearDown() {
+        SupportScheduleCallback.setCallbackOrderNum(0);
+    }
+
+    public void testTrigger() {
+        long startTime = 0;
+
+        service.setTime(0);
+        SupportScheduleCallback.setCallbackOrderNum(0);
+
+        service.add(20, callbacks[3], slots[1][1]);
+        service.add(20, callbacks[2], slots[1][0]);
+        service.add(20, callbacks[1], slots[0][1]);
+        service.add(21, callbacks[0], slots[0][0]);
+        assertTrue(service.isScheduled(callbacks[3]));
+        assertEquals(20L, (long) service.getNearestTimeHandle());
+        assertEquals(21L, (long) service.getFurthestTimeHandle());
+
+        startTime += 19;
+        service.setTime(startTime);
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{0, 0, 0, 0, 0});
+
+        startTime += 1;
+        service.setTime(startTime);
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{0, 1, 2, 3, 0});
+        assertFalse(service.isScheduled(callbacks[3]));
+        assertEquals(21L, (long) service.getNearestTimeHandle());
+
+        startTime += 1;
+        service.setTime(startTime);
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{4, 0, 0, 0, 0});
+        assertNull(service.getNearestTimeHandle());
+
+        // re-adding replaces the prior schedule of the same handle
+        service.add(20, callbacks[0], slots[0][0]);
+        service.add(28, callbacks[0], slots[0][0]);
+        assertEquals(1, service.getScheduleHandleCount());
+        service.remove(callbacks[0], slots[0][0]);
+        assertFalse(service.isScheduled(callbacks[0]));
+        service.remove(callbacks[0], slots[0][0]);
+
+        service.add(20, callbacks[2], slots[1][0]);
+        service.add(21, callbacks[0], slots[0][0]);
+        service.add(21, callbacks[3], slots[1][1]);
+        service.add(20, callbacks[1], slots[0][1]);
+        SupportScheduleCallback.setCallbackOrderNum(0);
+
+        startTime += 20;
+        service.setTime(startTime);
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{0, 1, 2, 0, 0});
+
+        startTime += 1;
+        service.setTime(startTime);
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{3, 0, 0, 4, 0});
+
+        service.setTime(startTime + Integer.MAX_VALUE);
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{0, 0, 0, 0, 0});
+    }
+
+    public void testLargeAdvanceAndZeroDelta() {
+        service.setTime(1000);
+        service.add(0, callbacks[0], slots[0][0]);
+        service.add(1L << 40, callbacks[1], slots[0][1]);
+        service.add(70, callbacks[2], slots[1][0]);
+        assertEquals(1000L, (long) service.getNearestTimeHandle());
+        SupportScheduleCallback.setCallbackOrderNum(0);
+
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{1, 0, 0, 0, 0});
+        assertEquals(1070L, (long) service.getNearestTimeHandle());
+
+        service.setTime(1069);
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{0, 0, 0, 0, 0});
+
+        service.setTime(1000 + (1L << 41));
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{0, 3, 2, 0, 0});
+        assertEquals(0, service.getScheduleHandleCount());
+    }
+
+    public void testNegativeTime() {
+        service.setTime(-100);
+        service.add(50, callbacks[0], slots[0][0]);
+        service.add(150, callbacks[1], slots[0][1]);
+        SupportScheduleCallback.setCallbackOrderNum(0);
+
+        service.setTime(-50);
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{1, 0, 0, 0, 0});
+        assertEquals(50L, (long) service.getNearestTimeHandle());
+
+        service.setTime(50);
+        evaluateSchedule();
+        checkCallbacks(callbacks, new Integer[]{0, 2, 0, 0, 0});
+    }
+
+    public void testVisitAndTransfer() {
+        service.setTime(0);
+        service.add(10, callbacks[0], slots[0][0]);
+        service.add(2000, callbacks[1], slots[0][1]);
+
+        List<Long> visited = new ArrayList<>();
+        service.visitSchedules(visit -> visited.add(visit.getTimestamp()));
+        Collections.sort(visited);
+        assertEquals(Arrays.asList(10L, 2000L), visited);
+
+        SchedulingServiceTimingWheel target = new SchedulingServiceTimingWheel(-1, new TimeSourceServiceImpl(), ZoneId.systemDefault());
+        target.setTime(0);
+        service.transfer(Collections.singleton(1), target);
+        assertEquals(0, service.getScheduleHandleCount());
+        assertEquals(2, target.getScheduleHandleCount());
+        assertEquals(10L, (long) target.getNearestTimeHandle());
+    }
+
+    public void testCompareSortedImpl() {
+        Random random = new Random(1234);
+        SchedulingServiceImpl sorted = new SchedulingServiceImpl(-1, new TimeSourceServiceImpl(), ZoneId.systemDefault());
+        ScheduleBucket bucket = new ScheduleBucket(0);
+        ScheduleHandle[] handles = new ScheduleHandle[200];
+        long[] handleSlots = new long[handles.length];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new SupportScheduleCallback();
+            handleSlots[i] = bucket.allocateSlot();
+        }
+
+        long time = 5000;
+        sorted.setTime(time);
+        service.setTime(time);
+        for (int i = 0; i < 20000; i++) {
+            int op = random.nextInt(10);
+            int index = random.nextInt(handles.length);
+            if (op < 5) {
+                long after = random.nextInt(4) == 0 ? random.nextInt(1 << 20) : random.nextInt(200);
+                sorted.add(after, handles[index], handleSlots[index]);
+                service.add(after, handles[index], handleSlots[index]);
+            } else if (op < 7) {
+                sorted.remove(handles[index], handleSlots[index]);
+                service.remove(handles[index], handleSlots[index]);
+            } else {
+                time += random.nextInt(10) == 0 ? random.nextInt(1 << 21) : random.nextInt(100);
+                sorted.setTime(time);
+                service.setTime(time);
+                List<ScheduleHandle> expected = new ArrayList<>();
+                List<ScheduleHandle> actual = new ArrayList<>();
+                sorted.evaluate(expected);
+                service.evaluate(actual);
+                assertEquals(expected, actual);
+            }
+            assertEquals(sorted.getNearestTimeHandle(), service.getNearestTimeHandle());
+            assertEquals(sorted.getScheduleHandleCount(), service.getScheduleHandleCount());
+        }
+    }
+
+    private void checkCallbacks(SupportScheduleCallback callbacks[], Integer[] results) {
+        assertTrue(callbacks.length == results.length);
+
+        for (int i = 0; i < callbacks.length; i++) {
+            assertEquals((int) results[i], (int) callbacks[i].clearAndGetOrderTriggered());
+        }
+    }
+
+    private void evaluateSchedule() {
+        Collection<ScheduleHandle> handles = new LinkedList<ScheduleHandle>();
+        service.evaluate(handles);
+
+        for (ScheduleHandle handle : handles) {
+            ScheduleHandleCallback cb = (ScheduleHandleCallback) handle;
+            cb.scheduledTrigger();
+        }
+    }
+}